@@ -76,35 +76,56 @@ public class CFSecJpaCluster
 	protected Set<CFSecJpaSecGroup> optionalComponentsSecGroup;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="requiredContainerCluster")
 	protected Set<CFSecJpaSysCluster> optionalComponentsSysCluster;
+	@Version
 	protected int requiredRevision;
 
 
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecCluster.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecCluster.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecCluster.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecCluster.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="FullDomName", nullable=false, length=192 )
 	protected String requiredFullDomName;
 	@Column( name="Description", nullable=false, length=128 )
 	protected String requiredDescription;
 
 	public CFSecJpaCluster() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFSecCluster.ID_INIT_VALUE.toString() );
+		requiredId = ICFSecCluster.ID_INIT_VALUE;
 		requiredFullDomName = ICFSecCluster.FULLDOMNAME_INIT_VALUE;
 		requiredDescription = ICFSecCluster.DESCRIPTION_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecCluster.CLASS_CODE );
@@ -291,13 +312,13 @@ public class CFSecJpaCluster
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredId() != null ) {
@@ -352,13 +373,13 @@ public class CFSecJpaCluster
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredId() != null ) {
@@ -474,9 +495,9 @@ public class CFSecJpaCluster
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredId().hashCode();
 		if( getRequiredFullDomName() != null ) {
 			hashCode = hashCode + getRequiredFullDomName().hashCode();
@@ -515,7 +536,7 @@ public class CFSecJpaCluster
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -523,7 +544,7 @@ public class CFSecJpaCluster
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -595,7 +616,7 @@ public class CFSecJpaCluster
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -603,7 +624,7 @@ public class CFSecJpaCluster
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -692,9 +713,9 @@ public class CFSecJpaCluster
 		setRequiredId(src.getRequiredId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredFullDomName(src.getRequiredFullDomName());
 		setRequiredDescription(src.getRequiredDescription());
 	}
@@ -80,11 +80,11 @@ public class CFSecJpaClusterHPKey
 
 	public CFSecJpaClusterHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredId = CFLibDbKeyHash256.fromHex( ICFSecCluster.ID_INIT_VALUE.toString() );
+		requiredId = ICFSecCluster.ID_INIT_VALUE;
 	}
 
 	@Override
@@ -223,4 +223,27 @@ public interface CFSecJpaClusterRepository extends JpaRepository<CFSecJpaCluster
 		deleteByUDescrIdx(key.getRequiredDescription());
 	}
 
+	// CFSecJpaCluster optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredFullDomName
+	 *		@param requiredDescription
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaCluster r set r.requiredFullDomName = :fullDomName, r.requiredDescription = :description, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredId = :id and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("id") CFLibDbKeyHash256 requiredId,
+		@Param("revision") int requiredRevision,
+		@Param("fullDomName") String requiredFullDomName,
+		@Param("description") String requiredDescription,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -67,19 +67,54 @@ public class CFSecJpaClusterService {
 	@Autowired
 	private CFSecJpaClusterRepository cfsec31ClusterRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaCluster, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaCluster create(CFSecJpaCluster data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaCluster, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaCluster createOrGetExisting(CFSecJpaCluster data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaCluster, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaCluster create(CFSecJpaCluster data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredId = data.getRequiredId();
 		boolean generatedRequiredId = false;
 		if(data.getRequiredFullDomName() == null) {
@@ -96,18 +131,26 @@ public class CFSecJpaClusterService {
 		}
 		try {
 			if (data.getRequiredId() == null || data.getRequiredId().isNull()) {
-				data.setRequiredId(new CFLibDbKeyHash256(0));
+				data.setRequiredId(cfsec31IdGenService.generateClusterIdGen());
 				generatedRequiredId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31ClusterRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaCluster)(cfsec31ClusterRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaCluster> existing = cfsec31ClusterRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31ClusterRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredId) {
 					data.setRequiredId(originalRequiredId);
 				}
@@ -148,20 +191,28 @@ public class CFSecJpaClusterService {
 				0,
 				"data.requiredDescription");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaCluster existing = cfsec31ClusterRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31ClusterRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredFullDomName(),
+			data.getRequiredDescription(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecCluster to existing object
-		// Apply data columns of CFSecCluster to existing object
-		existing.setRequiredFullDomName(data.getRequiredFullDomName());
-		existing.setRequiredDescription(data.getRequiredDescription());
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31ClusterRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaCluster stored = cfsec31EntityManager.find(CFSecJpaCluster.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
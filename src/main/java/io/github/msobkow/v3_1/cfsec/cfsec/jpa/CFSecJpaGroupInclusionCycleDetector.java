@@ -0,0 +1,528 @@
+// Description: Java 25 JPA inclusion cycle detection for CFSec SecGrpInc and TSecGrpInc
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.*;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ *	Rejects TSecGrpInc rows that would close an inclusion cycle, before they are written.
+ *	Group A may include group B only if B does not already include A, directly or transitively, so the check
+ *	is a reachability walk from B along cached inclusion adjacency lists looking for A. Adjacency is held per
+ *	tenant, loaded in the background on first use and kept current from the inclusions
+ *	CFSecJpaTSecGrpIncService creates and deletes.
+ *	<p>
+ *	Each check holds a transaction-scoped advisory lock on its tenant, so two transactions cannot each add half
+ *	of a cycle. Inclusions added or removed earlier in the same transaction are overlaid on the cached lists.
+ *	Added inclusions are published just before commit, while the lock is still held, so the next transaction
+ *	to take the lock sees them; removed inclusions are published after commit, and a rolled back transaction
+ *	drops the lists it touched. Either way the cache may briefly hold an extra inclusion, which can only make
+ *	the check stricter.
+ *	<p>
+ *	While a tenant is not cached, or when a walk visits more than cfsec31.groupinclusion.cycle.maxvisits
+ *	groups, the check is answered by a recursive query on the caller's own connection instead. It has no depth
+ *	limit, terminates on cycles already stored, and sees the inclusions written earlier in the transaction.
+ *	The cache is loaded on a background thread in a transaction of its own that takes the tenant lock first,
+ *	so no second connection is taken while the caller holds the lock.
+ *	<p>
+ *	SecGrpInc cycles are rejected by CFSecJpaSecGrpIncClosureService.verifyInclusion under the same cluster
+ *	lock; verifySecGrpInc is only needed while that closure is disabled, and answers by the recursive query
+ *	alone, so no second copy of the SecInc graph is kept.
+ */
+@Service("cfsec31JpaGroupInclusionCycleDetector")
+public class CFSecJpaGroupInclusionCycleDetector {
+
+	public final static int DEFAULT_MAX_VISITS = 100000;
+
+	/**
+	 *	Namespace of the per-tenant advisory locks; clusters share CFSecJpaSecGrpIncClosureService.LOCK_NAMESPACE.
+	 */
+	public final static int TENANT_LOCK_NAMESPACE = 0x54534743;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaGroupInclusionCycleDetector.class);
+
+	protected final static String S_ClusterReachesSql =
+		"with recursive reach( grp_id ) as ( "
+		+		"select cast( :fromGrpId as bytea ) "
+		+	"union "
+		+		"select i.IncGrpId "
+		+		"from reach r "
+		+		"join cfsec31.SecInc i on i.ClusId = :scopeId and i.SecGrpId = r.grp_id and i.SecGrpIncId <> :replacedId "
+		+	") "
+		+	"select 1 from reach where grp_id = :toGrpId limit 1";
+
+	protected final static String S_TenantReachesSql =
+		"with recursive reach( grp_id ) as ( "
+		+		"select cast( :fromGrpId as bytea ) "
+		+	"union "
+		+		"select i.IncGrpId "
+		+		"from reach r "
+		+		"join cfsec31.TSecInc i on i.TenantId = :scopeId and i.TSecGrpId = r.grp_id and i.TSecGrpIncId <> :replacedId "
+		+	") "
+		+	"select 1 from reach where grp_id = :toGrpId limit 1";
+
+	/**
+	 *	The tenant inclusions pending in the current transaction, registered with it as a synchronization.
+	 */
+	protected final class Pending implements TransactionSynchronization {
+		protected final Map<CFLibDbKeyHash256, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>>> added = new HashMap<>();
+		protected final Map<CFLibDbKeyHash256, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>>> removed = new HashMap<>();
+
+		protected Set<CFLibDbKeyHash256> edges(Map<CFLibDbKeyHash256, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>>> edges, CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 groupId) {
+			Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> graph = edges.get(tenantId);
+			if (graph == null) {
+				return( Collections.emptySet() );
+			}
+			return( graph.getOrDefault(groupId, Collections.emptySet()) );
+		}
+
+		protected void record(Map<CFLibDbKeyHash256, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>>> edges, CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 groupId, CFLibDbKeyHash256 includeGroupId) {
+			edges.computeIfAbsent(tenantId, k -> new HashMap<>())
+				.computeIfAbsent(groupId, k -> new HashSet<>())
+				.add(includeGroupId);
+		}
+
+		protected void add(CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 groupId, CFLibDbKeyHash256 includeGroupId) {
+			Set<CFLibDbKeyHash256> undone = edges(removed, tenantId, groupId);
+			if (!undone.remove(includeGroupId)) {
+				record(added, tenantId, groupId, includeGroupId);
+			}
+		}
+
+		protected void remove(CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 groupId, CFLibDbKeyHash256 includeGroupId) {
+			Set<CFLibDbKeyHash256> undone = edges(added, tenantId, groupId);
+			if (!undone.remove(includeGroupId)) {
+				record(removed, tenantId, groupId, includeGroupId);
+			}
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			added.forEach((tenantId, edges) -> publish(tenantId, edges, true));
+		}
+
+		@Override
+		public void afterCommit() {
+			removed.forEach((tenantId, edges) -> publish(tenantId, edges, false));
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			if (status != STATUS_COMMITTED) {
+				for (CFLibDbKeyHash256 tenantId : added.keySet()) {
+					invalidate(tenantId);
+				}
+			}
+		}
+	}
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	@Qualifier("cfsec31TransactionManager")
+	private PlatformTransactionManager cfsec31TransactionManager;
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaTSecGrpIncRepository cfsec31TSecGrpIncRepository;
+
+	/**
+	 *	Cached adjacency by tenant: each group maps to the groups it directly includes. Published maps are never modified.
+	 */
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>>> graphs = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Long> generations = new ConcurrentHashMap<>();
+	private final Set<CFLibDbKeyHash256> backgroundLoads = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder checkCount = new LongAdder();
+	private final LongAdder rejectCount = new LongAdder();
+	private final LongAdder fallbackCount = new LongAdder();
+	private final LongAdder loadCount = new LongAdder();
+
+	private volatile int maxVisits = DEFAULT_MAX_VISITS;
+	private volatile ExecutorService loader = null;
+
+	/**
+	 *	Read the walk budget from cfsec31.groupinclusion.cycle.maxvisits and start the background loader.
+	 */
+	@PostConstruct
+	public void initDetector() {
+		final String S_ProcName = "initDetector";
+		if (appMergedProperties != null) {
+			maxVisits = Integer.parseInt(appMergedProperties.getProperty("cfsec31.groupinclusion.cycle.maxvisits", Integer.toString(DEFAULT_MAX_VISITS)).trim());
+		}
+		if (maxVisits < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.groupinclusion.cycle.maxvisits", maxVisits, 1);
+		}
+		loader = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cfsec31-groupinclusion-cycle");
+			thread.setDaemon(true);
+			return( thread );
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		ExecutorService stopped = loader;
+		loader = null;
+		if (stopped != null) {
+			stopped.shutdownNow();
+		}
+	}
+
+	public int getMaxVisits() {
+		return( maxVisits );
+	}
+
+	public long getCheckCount() {
+		return( checkCount.sum() );
+	}
+
+	public long getRejectCount() {
+		return( rejectCount.sum() );
+	}
+
+	/**
+	 *	@return The number of checks answered by the recursive query, because the tenant was not cached,
+	 *		the walk exceeded its budget, or the inclusion was a SecGrpInc.
+	 */
+	public long getFallbackCount() {
+		return( fallbackCount.sum() );
+	}
+
+	public long getLoadCount() {
+		return( loadCount.sum() );
+	}
+
+	/**
+	 *	Lock the cluster and reject a SecGrpInc that would close a cycle, before its SecInc row is written.
+	 *	Only needed while CFSecJpaSecGrpIncClosureService is disabled, which otherwise makes the same check.
+	 *
+	 *		@param requiredClusterId The cluster of the inclusion.
+	 *		@param requiredSecGroupId The including group.
+	 *		@param requiredIncludeGroupId The included group.
+	 *		@param replacedSecGrpIncId The stored inclusion an update is replacing, which the check ignores, or null.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void verifySecGrpInc(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId, CFLibDbKeyHash256 requiredIncludeGroupId, CFLibDbKeyHash256 replacedSecGrpIncId) {
+		checkCount.increment();
+		lock(CFSecJpaSecGrpIncClosureService.LOCK_NAMESPACE, requiredClusterId);
+		boolean cycle = requiredSecGroupId.equals(requiredIncludeGroupId);
+		if (!cycle) {
+			fallbackCount.increment();
+			cycle = reachesInDb(S_ClusterReachesSql, requiredClusterId, requiredIncludeGroupId, requiredSecGroupId, replacedSecGrpIncId);
+		}
+		if (cycle) {
+			reject("SecGroup ", requiredSecGroupId, requiredIncludeGroupId);
+		}
+	}
+
+	/**
+	 *	Lock the tenant and reject a TSecGrpInc that would close a cycle, before its TSecInc row is written.
+	 *
+	 *		@param requiredTenantId The tenant of the inclusion.
+	 *		@param requiredTSecGroupId The including group.
+	 *		@param requiredIncludeGroupId The included group.
+	 *		@param replacedTSecGrpIncId The stored inclusion an update is replacing, which the check ignores, or null.
+	 *			Its edge must also have been passed to tSecGrpIncsRemoved.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void verifyTSecGrpInc(CFLibDbKeyHash256 requiredTenantId, CFLibDbKeyHash256 requiredTSecGroupId, CFLibDbKeyHash256 requiredIncludeGroupId, CFLibDbKeyHash256 replacedTSecGrpIncId) {
+		checkCount.increment();
+		lock(TENANT_LOCK_NAMESPACE, requiredTenantId);
+		Pending pending = pending();
+		boolean cycle = requiredTSecGroupId.equals(requiredIncludeGroupId);
+		if (!cycle) {
+			Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> graph = graphs.get(requiredTenantId);
+			Boolean reached = null;
+			if (graph != null) {
+				reached = reaches(graph, pending, requiredTenantId, requiredIncludeGroupId, requiredTSecGroupId);
+			}
+			else {
+				loadInBackground(requiredTenantId);
+			}
+			if (reached == null) {
+				fallbackCount.increment();
+				cycle = reachesInDb(S_TenantReachesSql, requiredTenantId, requiredIncludeGroupId, requiredTSecGroupId, replacedTSecGrpIncId);
+			}
+			else {
+				cycle = reached;
+			}
+		}
+		if (cycle) {
+			reject("TSecGroup ", requiredTSecGroupId, requiredIncludeGroupId);
+		}
+		pending.add(requiredTenantId, requiredTSecGroupId, requiredIncludeGroupId);
+	}
+
+	/**
+	 *	Record TSecGrpInc rows about to be deleted in the current transaction.
+	 */
+	public void tSecGrpIncsRemoved(Collection<CFSecJpaTSecGrpInc> incs) {
+		for (CFSecJpaTSecGrpInc inc : incs) {
+			pending().remove(inc.getRequiredTenantId(), inc.getRequiredTSecGroupId(), inc.getRequiredIncludeGroupId());
+		}
+	}
+
+	/**
+	 *	Record a TSecGrpInc row, given only its key columns, about to be changed in the current transaction.
+	 */
+	public void tSecGrpIncRemoved(CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 tSecGroupId, CFLibDbKeyHash256 includeGroupId) {
+		pending().remove(tenantId, tSecGroupId, includeGroupId);
+	}
+
+	/**
+	 *	Drop the cached TSecInc adjacency of a tenant once the current transaction completes; it reloads on next use.
+	 */
+	public void invalidateTenant(CFLibDbKeyHash256 tenantId) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidate(tenantId);
+				}
+			});
+		}
+		else {
+			invalidate(tenantId);
+		}
+	}
+
+	protected void reject(String kind, CFLibDbKeyHash256 groupId, CFLibDbKeyHash256 includeGroupId) {
+		final String S_ProcName = "verify";
+		rejectCount.increment();
+		String msg = kind + groupId.toString() + " cannot include " + includeGroupId.toString() + " because that would create an inclusion cycle";
+		throw new CFLibInvalidArgumentException(getClass(),
+			S_ProcName,
+			msg,
+			msg);
+	}
+
+	/**
+	 *	Walk the inclusions from one group looking for another, with this transaction's pending inclusions overlaid.
+	 *
+	 *		@return Whether target was reached, or null if the walk exceeded its budget.
+	 */
+	protected Boolean reaches(Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> graph, Pending pending, CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 from, CFLibDbKeyHash256 target) {
+		HashSet<CFLibDbKeyHash256> seen = new HashSet<>();
+		ArrayDeque<CFLibDbKeyHash256> queue = new ArrayDeque<>();
+		seen.add(from);
+		queue.add(from);
+		while (!queue.isEmpty()) {
+			if (seen.size() > maxVisits) {
+				return( null );
+			}
+			CFLibDbKeyHash256 cur = queue.poll();
+			Set<CFLibDbKeyHash256> removed = pending.edges(pending.removed, tenantId, cur);
+			for (CFLibDbKeyHash256 next : graph.getOrDefault(cur, Collections.emptySet())) {
+				if (removed.contains(next)) {
+					continue;
+				}
+				if (next.equals(target)) {
+					return( true );
+				}
+				if (seen.add(next)) {
+					queue.add(next);
+				}
+			}
+			for (CFLibDbKeyHash256 next : pending.edges(pending.added, tenantId, cur)) {
+				if (next.equals(target)) {
+					return( true );
+				}
+				if (seen.add(next)) {
+					queue.add(next);
+				}
+			}
+		}
+		return( false );
+	}
+
+	/**
+	 *	Test reachability with a recursive query on the caller's connection, after flushing so it sees the
+	 *	inclusions written earlier in this transaction. The UNION stops at groups already reached, so the walk
+	 *	needs no depth limit even if the stored data holds a cycle. The row an update replaces is still stored,
+	 *	so it is skipped by id.
+	 */
+	protected boolean reachesInDb(String sql, CFLibDbKeyHash256 scopeId, CFLibDbKeyHash256 from, CFLibDbKeyHash256 target, CFLibDbKeyHash256 replacedId) {
+		cfsec31EntityManager.flush();
+		List<?> rows = cfsec31EntityManager.createNativeQuery(sql)
+			.setParameter("scopeId", CFSecJpaSecGroupClosureService.toBytes(scopeId))
+			.setParameter("fromGrpId", CFSecJpaSecGroupClosureService.toBytes(from))
+			.setParameter("toGrpId", CFSecJpaSecGroupClosureService.toBytes(target))
+			// No stored id is empty, so an empty value excludes nothing
+			.setParameter("replacedId", (replacedId != null) ? CFSecJpaSecGroupClosureService.toBytes(replacedId) : new byte[0])
+			.getResultList();
+		return( !rows.isEmpty() );
+	}
+
+	protected void lock(int namespace, CFLibDbKeyHash256 scopeId) {
+		cfsec31EntityManager.createNativeQuery(CFSecJpaSecGrpIncClosureService.S_LockSql)
+			.setParameter("ns", namespace)
+			.setParameter("lockKey", scopeId.hashCode())
+			.getSingleResult();
+	}
+
+	/**
+	 *	Get the pending inclusions of the current transaction, registering them on first use. They are found
+	 *	among the transaction's synchronizations, which Spring suspends along with a suspended transaction.
+	 */
+	protected Pending pending() {
+		final String S_ProcName = "pending";
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new CFLibDbException(getClass(), S_ProcName, new IllegalStateException("No transaction synchronization is active"));
+		}
+		for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+			if (sync instanceof Pending pending) {
+				return( pending );
+			}
+		}
+		Pending pending = new Pending();
+		TransactionSynchronizationManager.registerSynchronization(pending);
+		return( pending );
+	}
+
+	/**
+	 *	Load a tenant's adjacency on the background thread, at most once at a time per tenant.
+	 */
+	protected void loadInBackground(CFLibDbKeyHash256 tenantId) {
+		ExecutorService running = loader;
+		if (running == null || !backgroundLoads.add(tenantId)) {
+			return;
+		}
+		try {
+			running.execute(() -> {
+				try {
+					if (!graphs.containsKey(tenantId)) {
+						load(tenantId);
+					}
+				}
+				catch (RuntimeException e) {
+					log.error("CFSecJpaGroupInclusionCycleDetector could not load tenant {}", tenantId, e);
+				}
+				finally {
+					backgroundLoads.remove(tenantId);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			backgroundLoads.remove(tenantId);
+		}
+	}
+
+	/**
+	 *	Read a tenant's committed inclusions under its lock, in a transaction of this thread's own, and publish
+	 *	them unless a change was published while they were read.
+	 */
+	protected void load(CFLibDbKeyHash256 tenantId) {
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		tx.setReadOnly(true);
+		tx.executeWithoutResult(status -> {
+			// Holding the lock, no writer can be between publishing its additions and committing them
+			lock(TENANT_LOCK_NAMESPACE, tenantId);
+			Long before = generations.get(tenantId);
+			Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> loaded = new HashMap<>();
+			for (CFSecJpaTSecGrpInc inc : cfsec31TSecGrpIncRepository.findByTenantIdx(tenantId)) {
+				loaded.computeIfAbsent(inc.getRequiredTSecGroupId(), k -> new HashSet<>()).add(inc.getRequiredIncludeGroupId());
+			}
+			loadCount.increment();
+			graphs.compute(tenantId, (key, current) -> {
+				if (current != null) {
+					return( current );
+				}
+				// Changes bump the generation inside compute on the same key, so this test cannot interleave with one
+				if (!Objects.equals(before, generations.get(tenantId))) {
+					return( null );
+				}
+				return( loaded );
+			});
+		});
+	}
+
+	/**
+	 *	Apply committed inclusions to a cached graph by copying the outer map and each list it changes.
+	 */
+	protected void publish(CFLibDbKeyHash256 tenantId, Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> edges, boolean add) {
+		graphs.compute(tenantId, (k, graph) -> {
+			generations.merge(tenantId, 1L, Long::sum);
+			if (graph == null) {
+				return( null );
+			}
+			Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> next = new HashMap<>(graph);
+			edges.forEach((groupId, includeGroupIds) -> {
+				Set<CFLibDbKeyHash256> includes = new HashSet<>(next.getOrDefault(groupId, Collections.emptySet()));
+				if (add) {
+					includes.addAll(includeGroupIds);
+				}
+				else {
+					includes.removeAll(includeGroupIds);
+				}
+				if (includes.isEmpty()) {
+					next.remove(groupId);
+				}
+				else {
+					next.put(groupId, includes);
+				}
+			});
+			return( next );
+		});
+	}
+
+	protected void invalidate(CFLibDbKeyHash256 tenantId) {
+		graphs.compute(tenantId, (k, graph) -> {
+			generations.merge(tenantId, 1L, Long::sum);
+			return( null );
+		});
+	}
+}
@@ -71,38 +71,63 @@ public class CFSecJpaHostNode
 	protected CFLibDbKeyHash256 requiredHostNodeId;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="optionalContainerHost")
 	protected Set<CFSecJpaService> optionalComponentsService;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="ClusterId" )
 	protected CFSecJpaCluster requiredContainerCluster;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="ClusterId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredClusterId;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="Description", nullable=false, length=255 )
 	protected String requiredDescription;
 	@Column( name="HostName", nullable=false, length=192 )
 	protected String requiredHostName;
 
 	public CFSecJpaHostNode() {
-		requiredHostNodeId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.HOSTNODEID_INIT_VALUE.toString() );
+		requiredHostNodeId = ICFSecHostNode.HOSTNODEID_INIT_VALUE;
 		requiredDescription = ICFSecHostNode.DESCRIPTION_INIT_VALUE;
 		requiredHostName = ICFSecHostNode.HOSTNAME_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecHostNode.CLASS_CODE );
@@ -127,6 +152,7 @@ public class CFSecJpaHostNode
 		}
 		else if (argObj instanceof CFSecJpaCluster) {
 			requiredContainerCluster = (CFSecJpaCluster)argObj;
+			requiredClusterId = argObj.getRequiredId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerCluster", "argObj", argObj, "CFSecJpaCluster");
@@ -135,6 +161,11 @@ public class CFSecJpaHostNode
 
 	@Override
 	public void setRequiredContainerCluster(CFLibDbKeyHash256 argClusterId) {
+		CFSecJpaCluster targetRef = CFSecJpaReferenceService.getReference(CFSecJpaCluster.class, argClusterId);
+		if (targetRef != null) {
+			setRequiredContainerCluster(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerCluster", 0, "ICFSecSchema.getBackingCFSec()");
@@ -240,6 +271,9 @@ public class CFSecJpaHostNode
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredClusterId() {
+		if (requiredClusterId != null) {
+			return( requiredClusterId );
+		}
 		ICFSecCluster result = getRequiredContainerCluster();
 		if (result != null) {
 			return result.getRequiredId();
@@ -307,13 +341,13 @@ public class CFSecJpaHostNode
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredHostNodeId() != null ) {
@@ -383,13 +417,13 @@ public class CFSecJpaHostNode
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredHostNodeId() != null ) {
@@ -569,9 +603,9 @@ public class CFSecJpaHostNode
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredHostNodeId().hashCode();
 		hashCode = hashCode + getRequiredClusterId().hashCode();
 		if( getRequiredDescription() != null ) {
@@ -611,7 +645,7 @@ public class CFSecJpaHostNode
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -619,7 +653,7 @@ public class CFSecJpaHostNode
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -705,7 +739,7 @@ public class CFSecJpaHostNode
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -713,7 +747,7 @@ public class CFSecJpaHostNode
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -862,9 +896,9 @@ public class CFSecJpaHostNode
 		setRequiredHostNodeId(src.getRequiredHostNodeId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredContainerCluster(src.getRequiredContainerCluster());
 		setRequiredDescription(src.getRequiredDescription());
 		setRequiredHostName(src.getRequiredHostName());
@@ -52,7 +52,7 @@ public class CFSecJpaHostNodeByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaHostNodeByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecHostNode.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
@@ -53,7 +53,7 @@ public class CFSecJpaHostNodeByHostNameIdxKey
 	protected CFLibDbKeyHash256 requiredClusterId;
 	protected String requiredHostName;
 	public CFSecJpaHostNodeByHostNameIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecHostNode.CLUSTERID_INIT_VALUE;
 		requiredHostName = ICFSecHostNode.HOSTNAME_INIT_VALUE;
 	}
 
@@ -53,7 +53,7 @@ public class CFSecJpaHostNodeByUDescrIdxKey
 	protected CFLibDbKeyHash256 requiredClusterId;
 	protected String requiredDescription;
 	public CFSecJpaHostNodeByUDescrIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecHostNode.CLUSTERID_INIT_VALUE;
 		requiredDescription = ICFSecHostNode.DESCRIPTION_INIT_VALUE;
 	}
 
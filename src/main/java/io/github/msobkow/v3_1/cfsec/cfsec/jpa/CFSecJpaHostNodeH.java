@@ -75,21 +75,24 @@ public class CFSecJpaHostNodeH
 	})
     @EmbeddedId
     protected CFSecJpaHostNodeHPKey pkey;
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecHostNode.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@AttributeOverrides({
 		@AttributeOverride(name="bytes", column = @Column( name="ClusterId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
@@ -102,11 +105,39 @@ public class CFSecJpaHostNodeH
     public CFSecJpaHostNodeH() {
             // The primary key member attributes are initialized on construction
             pkey = new CFSecJpaHostNodeHPKey();
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecHostNode.CLUSTERID_INIT_VALUE;
 		requiredDescription = ICFSecHostNode.DESCRIPTION_INIT_VALUE;
 		requiredHostName = ICFSecHostNode.HOSTNAME_INIT_VALUE;
     }
 
+    /**
+     *	Stamp the key's auditStamp, along with createdAt and updatedAt, when the history
+     *	record is persisted; the key's getters and hashCode never read the clock.
+     */
+    @PrePersist
+    protected void applyInitStamps() {
+        applyInitTimestamps();
+        if( ( pkey != null ) && ( pkey.auditStamp == null ) ) {
+            pkey.auditStamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+     *	construction or in the getters, so hydrated instances never read the clock.
+     */
+    protected void applyInitTimestamps() {
+        if( ( createdAt == null ) || ( updatedAt == null ) ) {
+            LocalDateTime now = LocalDateTime.now();
+            if( createdAt == null ) {
+                createdAt = now;
+            }
+            if( updatedAt == null ) {
+                updatedAt = now;
+            }
+        }
+    }
+
     @Override
     public int getClassCode() {
             return( ICFSecHostNode.CLASS_CODE );
@@ -80,11 +80,11 @@ public class CFSecJpaHostNodeHPKey
 
 	public CFSecJpaHostNodeHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredHostNodeId = CFLibDbKeyHash256.fromHex( ICFSecHostNode.HOSTNODEID_INIT_VALUE.toString() );
+		requiredHostNodeId = ICFSecHostNode.HOSTNODEID_INIT_VALUE;
 	}
 
 	@Override
@@ -298,4 +298,29 @@ public interface CFSecJpaHostNodeRepository extends JpaRepository<CFSecJpaHostNo
 		deleteByHostNameIdx(key.getRequiredClusterId(), key.getRequiredHostName());
 	}
 
+	// CFSecJpaHostNode optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredHostNodeId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredContainerCluster
+	 *		@param requiredDescription
+	 *		@param requiredHostName
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaHostNode r set r.requiredContainerCluster = :cluster, r.requiredDescription = :description, r.requiredHostName = :hostName, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredHostNodeId = :hostNodeId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("hostNodeId") CFLibDbKeyHash256 requiredHostNodeId,
+		@Param("revision") int requiredRevision,
+		@Param("cluster") CFSecJpaCluster requiredContainerCluster,
+		@Param("description") String requiredDescription,
+		@Param("hostName") String requiredHostName,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
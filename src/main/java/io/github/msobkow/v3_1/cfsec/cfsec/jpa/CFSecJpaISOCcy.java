@@ -70,24 +70,28 @@ public class CFSecJpaISOCcy
 	protected short requiredISOCcyId;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="pkey.requiredParentCcy")
 	protected Set<CFSecJpaISOCtryCcy> optionalChildrenCtry;
+	@Version
 	protected int requiredRevision;
 
 
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCcy.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCcy.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCcy.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCcy.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="iso_code", nullable=false, length=3 )
 	protected String requiredISOCode;
 	@Column( name="ccy_name", nullable=false, length=64 )
@@ -105,6 +109,23 @@ public class CFSecJpaISOCcy
 		requiredPrecis = ICFSecISOCcy.PRECIS_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecISOCcy.CLASS_CODE );
@@ -313,13 +334,13 @@ public class CFSecJpaISOCcy
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCcyId() != rhs.getRequiredISOCcyId() ) {
@@ -380,13 +401,13 @@ public class CFSecJpaISOCcy
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCcyId() != rhs.getRequiredISOCcyId() ) {
@@ -496,9 +517,9 @@ public class CFSecJpaISOCcy
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = ( hashCode * 0x10000 ) + getRequiredISOCcyId();
 		if( getRequiredISOCode() != null ) {
 			hashCode = hashCode + getRequiredISOCode().hashCode();
@@ -541,7 +562,7 @@ public class CFSecJpaISOCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -549,7 +570,7 @@ public class CFSecJpaISOCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -627,7 +648,7 @@ public class CFSecJpaISOCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -635,7 +656,7 @@ public class CFSecJpaISOCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -746,9 +767,9 @@ public class CFSecJpaISOCcy
 		setRequiredISOCcyId(src.getRequiredISOCcyId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredISOCode(src.getRequiredISOCode());
 		setRequiredName(src.getRequiredName());
 		setOptionalUnitSymbol(src.getOptionalUnitSymbol());
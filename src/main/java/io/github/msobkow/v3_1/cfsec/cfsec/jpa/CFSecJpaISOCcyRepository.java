@@ -223,4 +223,31 @@ public interface CFSecJpaISOCcyRepository extends JpaRepository<CFSecJpaISOCcy,
 		deleteByCcyNmIdx(key.getRequiredName());
 	}
 
+	// CFSecJpaISOCcy optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredISOCcyId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredISOCode
+	 *		@param requiredName
+	 *		@param optionalUnitSymbol
+	 *		@param requiredPrecis
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaISOCcy r set r.requiredISOCode = :iSOCode, r.requiredName = :name, r.optionalUnitSymbol = :unitSymbol, r.requiredPrecis = :precis, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredISOCcyId = :iSOCcyId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("iSOCcyId") short requiredISOCcyId,
+		@Param("revision") int requiredRevision,
+		@Param("iSOCode") String requiredISOCode,
+		@Param("name") String requiredName,
+		@Param("unitSymbol") String optionalUnitSymbol,
+		@Param("precis") short requiredPrecis,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -72,24 +72,28 @@ public class CFSecJpaISOCtry
 	protected Set<CFSecJpaISOCtryCcy> optionalComponentsCcy;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="pkey.requiredContainerCtry")
 	protected Set<CFSecJpaISOCtryLang> optionalComponentsLang;
+	@Version
 	protected int requiredRevision;
 
 
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="iso_code", nullable=false, length=2 )
 	protected String requiredISOCode;
 	@Column( name="country_name", nullable=false, length=64 )
@@ -101,6 +105,23 @@ public class CFSecJpaISOCtry
 		requiredName = ICFSecISOCtry.NAME_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecISOCtry.CLASS_CODE );
@@ -273,13 +294,13 @@ public class CFSecJpaISOCtry
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCtryId() != rhs.getRequiredISOCtryId() ) {
@@ -322,13 +343,13 @@ public class CFSecJpaISOCtry
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCtryId() != rhs.getRequiredISOCtryId() ) {
@@ -420,9 +441,9 @@ public class CFSecJpaISOCtry
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = ( hashCode * 0x10000 ) + getRequiredISOCtryId();
 		if( getRequiredISOCode() != null ) {
 			hashCode = hashCode + getRequiredISOCode().hashCode();
@@ -461,7 +482,7 @@ public class CFSecJpaISOCtry
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -469,7 +490,7 @@ public class CFSecJpaISOCtry
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -525,7 +546,7 @@ public class CFSecJpaISOCtry
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -533,7 +554,7 @@ public class CFSecJpaISOCtry
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -622,9 +643,9 @@ public class CFSecJpaISOCtry
 		setRequiredISOCtryId(src.getRequiredISOCtryId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredISOCode(src.getRequiredISOCode());
 		setRequiredName(src.getRequiredName());
 	}
@@ -70,29 +70,50 @@ public class CFSecJpaISOCtryCcy
 	})
 	@EmbeddedId
 	CFSecJpaISOCtryCcyPKey pkey = new CFSecJpaISOCtryCcyPKey();
+	@Version
 	protected int requiredRevision;
 
 
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtryCcy.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtryCcy.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtryCcy.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtryCcy.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 
 	public CFSecJpaISOCtryCcy() {
 		pkey = new CFSecJpaISOCtryCcyPKey();
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecISOCtryCcy.CLASS_CODE );
@@ -222,13 +243,13 @@ public class CFSecJpaISOCtryCcy
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCtryId() != rhs.getRequiredISOCtryId() ) {
@@ -244,13 +265,13 @@ public class CFSecJpaISOCtryCcy
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredISOCtryId() != rhs.getRequiredISOCtryId() ) {
@@ -294,9 +315,9 @@ public class CFSecJpaISOCtryCcy
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = ( hashCode * 0x10000 ) + getRequiredISOCtryId();
 		hashCode = ( hashCode * 0x10000 ) + getRequiredISOCcyId();
 		return( hashCode & 0x7fffffff );
@@ -330,7 +351,7 @@ public class CFSecJpaISOCtryCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -338,7 +359,7 @@ public class CFSecJpaISOCtryCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -378,7 +399,7 @@ public class CFSecJpaISOCtryCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -386,7 +407,7 @@ public class CFSecJpaISOCtryCcy
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -432,9 +453,9 @@ public class CFSecJpaISOCtryCcy
 		setRequiredParentCcy(src.getRequiredParentCcy());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 	}
 
 	@Override
@@ -88,6 +88,11 @@ public class CFSecJpaISOCtryCcyPKey
 
 	@Override
 	public void setRequiredContainerCtry(short argISOCtryId) {
+		CFSecJpaISOCtry targetRef = CFSecJpaReferenceService.getReference(CFSecJpaISOCtry.class, argISOCtryId);
+		if (targetRef != null) {
+			setRequiredContainerCtry(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerCtry", 0, "ICFSecSchema.getBackingCFSec()");
@@ -119,6 +124,11 @@ public class CFSecJpaISOCtryCcyPKey
 
 	@Override
 	public void setRequiredParentCcy(short argISOCcyId) {
+		CFSecJpaISOCcy targetRef = CFSecJpaReferenceService.getReference(CFSecJpaISOCcy.class, argISOCcyId);
+		if (targetRef != null) {
+			setRequiredParentCcy(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredParentCcy", 0, "ICFSecSchema.getBackingCFSec()");
@@ -67,19 +67,51 @@ public class CFSecJpaISOCtryCcyService {
 	@Autowired
 	private CFSecJpaISOCtryCcyRepository cfsec31ISOCtryCcyRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtryCcy, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaISOCtryCcy create(CFSecJpaISOCtryCcy data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtryCcy, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOCtryCcy createOrGetExisting(CFSecJpaISOCtryCcy data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtryCcy, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOCtryCcy create(CFSecJpaISOCtryCcy data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		if (data.getPKey() == null) {
 			throw new CFLibNullArgumentException(getClass(),
 				S_ProcName,
@@ -90,12 +122,20 @@ public class CFSecJpaISOCtryCcyService {
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31ISOCtryCcyRepository.existsById((CFSecJpaISOCtryCcyPKey)data.getPKey())) {
-				return( (CFSecJpaISOCtryCcy)(cfsec31ISOCtryCcyRepository.findById((CFSecJpaISOCtryCcyPKey)(data.getPKey())).get()));
+			if(returnExisting && data.getPKey() != null) {
+				Optional<CFSecJpaISOCtryCcy> existing = cfsec31ISOCtryCcyRepository.findById((CFSecJpaISOCtryCcyPKey)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31ISOCtryCcyRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 			throw new CFLibDbException(getClass(),
 				S_ProcName,
 				ex);
@@ -121,18 +161,26 @@ public class CFSecJpaISOCtryCcyService {
 				0,
 				"data.getPKey()");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaISOCtryCcy existing = cfsec31ISOCtryCcyRepository.findById((CFSecJpaISOCtryCcyPKey)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31ISOCtryCcyRepository.updateByIdIdxRevision((CFSecJpaISOCtryCcyPKey)(data.getPKey()),
+			data.getRequiredRevision(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecISOCtryCcy to existing object
-		// Apply data columns of CFSecISOCtryCcy to existing object
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31ISOCtryCcyRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaISOCtryCcy stored = cfsec31EntityManager.find(CFSecJpaISOCtryCcy.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
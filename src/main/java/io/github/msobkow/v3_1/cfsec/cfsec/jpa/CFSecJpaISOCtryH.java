@@ -74,21 +74,24 @@ public class CFSecJpaISOCtryH
 	})
     @EmbeddedId
     protected CFSecJpaISOCtryHPKey pkey;
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_UPDATED_BY);
+
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecISOCtry.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="iso_code", nullable=false, length=2 )
 	protected String requiredISOCode;
 	@Column( name="country_name", nullable=false, length=64 )
@@ -101,6 +104,34 @@ public class CFSecJpaISOCtryH
 		requiredName = ICFSecISOCtry.NAME_INIT_VALUE;
     }
 
+    /**
+     *	Stamp the key's auditStamp, along with createdAt and updatedAt, when the history
+     *	record is persisted; the key's getters and hashCode never read the clock.
+     */
+    @PrePersist
+    protected void applyInitStamps() {
+        applyInitTimestamps();
+        if( ( pkey != null ) && ( pkey.auditStamp == null ) ) {
+            pkey.auditStamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+     *	construction or in the getters, so hydrated instances never read the clock.
+     */
+    protected void applyInitTimestamps() {
+        if( ( createdAt == null ) || ( updatedAt == null ) ) {
+            LocalDateTime now = LocalDateTime.now();
+            if( createdAt == null ) {
+                createdAt = now;
+            }
+            if( updatedAt == null ) {
+                updatedAt = now;
+            }
+        }
+    }
+
     @Override
     public int getClassCode() {
             return( ICFSecISOCtry.CLASS_CODE );
@@ -81,7 +81,7 @@ public class CFSecJpaISOCtryLangHPKey
 
 	public CFSecJpaISOCtryLangHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
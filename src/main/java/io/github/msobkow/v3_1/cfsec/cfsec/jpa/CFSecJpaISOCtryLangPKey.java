@@ -88,6 +88,11 @@ public class CFSecJpaISOCtryLangPKey
 
 	@Override
 	public void setRequiredContainerCtry(short argISOCtryId) {
+		CFSecJpaISOCtry targetRef = CFSecJpaReferenceService.getReference(CFSecJpaISOCtry.class, argISOCtryId);
+		if (targetRef != null) {
+			setRequiredContainerCtry(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerCtry", 0, "ICFSecSchema.getBackingCFSec()");
@@ -119,6 +124,11 @@ public class CFSecJpaISOCtryLangPKey
 
 	@Override
 	public void setRequiredParentLang(short argISOLangId) {
+		CFSecJpaISOLang targetRef = CFSecJpaReferenceService.getReference(CFSecJpaISOLang.class, argISOLangId);
+		if (targetRef != null) {
+			setRequiredParentLang(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredParentLang", 0, "ICFSecSchema.getBackingCFSec()");
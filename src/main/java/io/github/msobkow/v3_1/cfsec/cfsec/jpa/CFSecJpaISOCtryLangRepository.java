@@ -260,4 +260,23 @@ public interface CFSecJpaISOCtryLangRepository extends JpaRepository<CFSecJpaISO
 		deleteByLangIdx(key.getRequiredISOLangId());
 	}
 
+	// CFSecJpaISOCtryLang optimistic update methods
+
+	/**
+	 *	Touch a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param pkey
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaISOCtryLang r set r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.pkey = :pkey and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("pkey") CFSecJpaISOCtryLangPKey pkey,
+		@Param("revision") int requiredRevision,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
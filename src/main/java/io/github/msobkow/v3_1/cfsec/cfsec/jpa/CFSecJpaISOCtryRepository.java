@@ -223,4 +223,27 @@ public interface CFSecJpaISOCtryRepository extends JpaRepository<CFSecJpaISOCtry
 		deleteByNameIdx(key.getRequiredName());
 	}
 
+	// CFSecJpaISOCtry optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredISOCtryId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredISOCode
+	 *		@param requiredName
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaISOCtry r set r.requiredISOCode = :iSOCode, r.requiredName = :name, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredISOCtryId = :iSOCtryId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("iSOCtryId") short requiredISOCtryId,
+		@Param("revision") int requiredRevision,
+		@Param("iSOCode") String requiredISOCode,
+		@Param("name") String requiredName,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
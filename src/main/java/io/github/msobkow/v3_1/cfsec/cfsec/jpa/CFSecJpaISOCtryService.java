@@ -67,19 +67,51 @@ public class CFSecJpaISOCtryService {
 	@Autowired
 	private CFSecJpaISOCtryRepository cfsec31ISOCtryRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtry, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaISOCtry create(CFSecJpaISOCtry data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtry, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOCtry createOrGetExisting(CFSecJpaISOCtry data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOCtry, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOCtry create(CFSecJpaISOCtry data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		short originalRequiredISOCtryId = data.getRequiredISOCtryId();
 		boolean generatedRequiredISOCtryId = false;
 		if(data.getRequiredISOCode() == null) {
@@ -98,12 +130,20 @@ public class CFSecJpaISOCtryService {
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31ISOCtryRepository.existsById((Short)data.getPKey())) {
-				return( (CFSecJpaISOCtry)(cfsec31ISOCtryRepository.findById((Short)(data.getPKey())).get()));
+			if(returnExisting && data.getPKey() != null) {
+				Optional<CFSecJpaISOCtry> existing = cfsec31ISOCtryRepository.findById((Short)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31ISOCtryRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredISOCtryId) {
 					data.setRequiredISOCtryId(originalRequiredISOCtryId);
 				}
@@ -144,20 +184,28 @@ public class CFSecJpaISOCtryService {
 				0,
 				"data.requiredName");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaISOCtry existing = cfsec31ISOCtryRepository.findById((Short)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31ISOCtryRepository.updateByIdIdxRevision((Short)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredISOCode(),
+			data.getRequiredName(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecISOCtry to existing object
-		// Apply data columns of CFSecISOCtry to existing object
-		existing.setRequiredISOCode(data.getRequiredISOCode());
-		existing.setRequiredName(data.getRequiredName());
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31ISOCtryRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaISOCtry stored = cfsec31EntityManager.find(CFSecJpaISOCtry.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -223,4 +223,29 @@ public interface CFSecJpaISOLangRepository extends JpaRepository<CFSecJpaISOLang
 		deleteByCode2Idx(key.getOptionalISO6391Code());
 	}
 
+	// CFSecJpaISOLang optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredISOLangId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredISO6392Code
+	 *		@param optionalISO6391Code
+	 *		@param requiredEnglishName
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaISOLang r set r.requiredISO6392Code = :iSO6392Code, r.optionalISO6391Code = :iSO6391Code, r.requiredEnglishName = :englishName, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredISOLangId = :iSOLangId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("iSOLangId") short requiredISOLangId,
+		@Param("revision") int requiredRevision,
+		@Param("iSO6392Code") String requiredISO6392Code,
+		@Param("iSO6391Code") String optionalISO6391Code,
+		@Param("englishName") String requiredEnglishName,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -78,7 +78,7 @@ public class CFSecJpaISOTZoneHPKey
 
 	public CFSecJpaISOTZoneHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
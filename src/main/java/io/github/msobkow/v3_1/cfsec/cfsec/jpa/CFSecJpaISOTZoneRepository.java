@@ -292,4 +292,35 @@ public interface CFSecJpaISOTZoneRepository extends JpaRepository<CFSecJpaISOTZo
 		deleteByIso8601Idx(key.getRequiredIso8601());
 	}
 
+	// CFSecJpaISOTZone optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredISOTZoneId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredIso8601
+	 *		@param requiredTZName
+	 *		@param requiredTZHourOffset
+	 *		@param requiredTZMinOffset
+	 *		@param requiredDescription
+	 *		@param requiredVisible
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaISOTZone r set r.requiredIso8601 = :iso8601, r.requiredTZName = :tZName, r.requiredTZHourOffset = :tZHourOffset, r.requiredTZMinOffset = :tZMinOffset, r.requiredDescription = :description, r.requiredVisible = :visible, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredISOTZoneId = :iSOTZoneId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("iSOTZoneId") short requiredISOTZoneId,
+		@Param("revision") int requiredRevision,
+		@Param("iso8601") String requiredIso8601,
+		@Param("tZName") String requiredTZName,
+		@Param("tZHourOffset") short requiredTZHourOffset,
+		@Param("tZMinOffset") short requiredTZMinOffset,
+		@Param("description") String requiredDescription,
+		@Param("visible") boolean requiredVisible,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -67,19 +67,51 @@ public class CFSecJpaISOTZoneService {
 	@Autowired
 	private CFSecJpaISOTZoneRepository cfsec31ISOTZoneRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOTZone, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaISOTZone create(CFSecJpaISOTZone data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOTZone, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOTZone createOrGetExisting(CFSecJpaISOTZone data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaISOTZone, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaISOTZone create(CFSecJpaISOTZone data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		short originalRequiredISOTZoneId = data.getRequiredISOTZoneId();
 		boolean generatedRequiredISOTZoneId = false;
 		if(data.getRequiredIso8601() == null) {
@@ -136,12 +168,20 @@ public class CFSecJpaISOTZoneService {
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31ISOTZoneRepository.existsById((Short)data.getPKey())) {
-				return( (CFSecJpaISOTZone)(cfsec31ISOTZoneRepository.findById((Short)(data.getPKey())).get()));
+			if(returnExisting && data.getPKey() != null) {
+				Optional<CFSecJpaISOTZone> existing = cfsec31ISOTZoneRepository.findById((Short)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31ISOTZoneRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredISOTZoneId) {
 					data.setRequiredISOTZoneId(originalRequiredISOTZoneId);
 				}
@@ -220,24 +260,32 @@ public class CFSecJpaISOTZoneService {
 				0,
 				"data.requiredDescription");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaISOTZone existing = cfsec31ISOTZoneRepository.findById((Short)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31ISOTZoneRepository.updateByIdIdxRevision((Short)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredIso8601(),
+			data.getRequiredTZName(),
+			data.getRequiredTZHourOffset(),
+			data.getRequiredTZMinOffset(),
+			data.getRequiredDescription(),
+			data.getRequiredVisible(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecISOTZone to existing object
-		// Apply data columns of CFSecISOTZone to existing object
-		existing.setRequiredIso8601(data.getRequiredIso8601());
-		existing.setRequiredTZName(data.getRequiredTZName());
-		existing.setRequiredTZHourOffset(data.getRequiredTZHourOffset());
-		existing.setRequiredTZMinOffset(data.getRequiredTZMinOffset());
-		existing.setRequiredDescription(data.getRequiredDescription());
-		existing.setRequiredVisible(data.getRequiredVisible());
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31ISOTZoneRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaISOTZone stored = cfsec31EntityManager.find(CFSecJpaISOTZone.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
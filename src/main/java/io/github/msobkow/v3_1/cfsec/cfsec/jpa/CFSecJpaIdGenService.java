@@ -38,6 +38,7 @@ import java.io.Serializable;
 import java.math.*;
 import java.time.*;
 import java.util.*;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.*;
 import io.github.msobkow.v3_1.cflib.*;
 import io.github.msobkow.v3_1.cflib.dbutil.*;
@@ -51,6 +52,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import io.github.msobkow.v3_1.cfsec.cfsec.*;
 
 /**
@@ -63,66 +69,229 @@ public class CFSecJpaIdGenService {
     @Qualifier("cfsec31EntityManagerFactory")
     private LocalContainerEntityManagerFactoryBean cfsecEntityManagerFactory;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager entityManager;
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	@Qualifier("cfsec31TransactionManager")
+	private PlatformTransactionManager cfsec31TransactionManager;
+
+	public final static String SEQUENCE_SCHEMA = "cfsec31";
+	public final static int DEFAULT_ISO_BLOCK_SIZE = 32;
+	public final static String SECSESSION_ID_MODE_RANDOM = "random";
+	public final static String SECSESSION_ID_MODE_TIME_ORDERED = "timeordered";
+	public final static int SEQUENCE_LOCK_NAMESPACE = 0x49534f53;
+
+	private final CFSecJpaKeyHash256Generator keyGenerator = CFSecJpaKeyHash256Generator.getDefault();
+
+	private CFSecJpaShortIdBlockAllocator isoCcyIdAllocator;
+	private CFSecJpaShortIdBlockAllocator isoCtryIdAllocator;
+	private CFSecJpaShortIdBlockAllocator isoLangIdAllocator;
+	private CFSecJpaShortIdBlockAllocator isoTZoneIdAllocator;
+
+	/**
+	 *	Size the hi/lo blocks for the short ISO id generators from cfsec31.idgen.iso.blocksize,
+	 *	select the SecSession id layout from cfsec31.idgen.secsession.mode, and partition the
+	 *	hash key space by the HostNode slot configured as cfsec31.idgen.node.slot.
+	 */
+	@PostConstruct
+	public void initAllocators() {
+		int blockSize = DEFAULT_ISO_BLOCK_SIZE;
+		String secSessionIdMode = SECSESSION_ID_MODE_RANDOM;
+		int nodeSlot = CFSecJpaKeyHash256Generator.NO_NODE_SLOT;
+		if (appMergedProperties != null) {
+			String nodeSlotProp = appMergedProperties.getProperty("cfsec31.idgen.node.slot", null);
+			if (nodeSlotProp != null && !nodeSlotProp.trim().isEmpty()) {
+				nodeSlot = Integer.parseInt(nodeSlotProp.trim());
+			}
+			blockSize = Integer.parseInt(appMergedProperties.getProperty("cfsec31.idgen.iso.blocksize", Integer.toString(DEFAULT_ISO_BLOCK_SIZE)));
+			secSessionIdMode = appMergedProperties.getProperty("cfsec31.idgen.secsession.mode", SECSESSION_ID_MODE_RANDOM).trim();
+		}
+		if (SECSESSION_ID_MODE_TIME_ORDERED.equalsIgnoreCase(secSessionIdMode)) {
+			keyGenerator.setSecSessionTimeOrdered(true);
+		}
+		else if (SECSESSION_ID_MODE_RANDOM.equalsIgnoreCase(secSessionIdMode)) {
+			keyGenerator.setSecSessionTimeOrdered(false);
+		}
+		else {
+			throw new CFLibInvalidArgumentException(getClass(), "initAllocators", "cfsec31.idgen.secsession.mode must be \"random\" or \"timeordered\"", "cfsec31.idgen.secsession.mode must be \"random\" or \"timeordered\"");
+		}
+		keyGenerator.setNodeSlot(nodeSlot);
+		isoCcyIdAllocator = new CFSecJpaShortIdBlockAllocator("isoccyidgenseq", blockSize);
+		isoCtryIdAllocator = new CFSecJpaShortIdBlockAllocator("isoctryidgenseq", blockSize);
+		isoLangIdAllocator = new CFSecJpaShortIdBlockAllocator("isolangidgenseq", blockSize);
+		isoTZoneIdAllocator = new CFSecJpaShortIdBlockAllocator("isotzoneidgenseq", blockSize);
+	}
+
+	/**
+	 *	Create the ISO sequences once the context is up, each seeded past the ids already in its table.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureSequences() {
+		ensureSequence(isoCcyIdAllocator, "iso_ccy", "ISOCcyId");
+		ensureSequence(isoCtryIdAllocator, "iso_cntry", "ISOCtryId");
+		ensureSequence(isoLangIdAllocator, "iso_lang", "ISOLangId");
+		ensureSequence(isoTZoneIdAllocator, "ISOTz", "ISOTZoneId");
+	}
+
+	/**
+	 *	Create an allocator's sequence if it does not exist and advance it so that the next block
+	 *	starts above max(id) of the table it feeds.  This runs in its own transaction so a rollback
+	 *	of some caller can never take the sequence with it, and under an advisory lock so that
+	 *	nodes starting together do not seed the same sequence twice.  The sequence is only ever
+	 *	moved forward, which keeps it correct when the block size has changed between restarts.
+	 *
+	 *		@param	allocator	The allocator whose sequence is to be ensured.
+	 *
+	 *		@param	tableName	The unqualified table holding the ids drawn from the sequence.
+	 *
+	 *		@param	columnName	The id column of that table.
+	 */
+	protected void ensureSequence(CFSecJpaShortIdBlockAllocator allocator, String tableName, String columnName) {
+		if (allocator.isSequenceEnsured()) {
+			return;
+		}
+		synchronized (allocator) {
+			if (allocator.isSequenceEnsured()) {
+				return;
+			}
+			String qualifiedName = SEQUENCE_SCHEMA + "." + allocator.getSequenceName();
+			TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+			tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			try {
+				tx.executeWithoutResult(status -> {
+					entityManager.createNativeQuery("select 1 from ( select pg_advisory_xact_lock( :ns, :lockKey ) ) l")
+						.setParameter("ns", SEQUENCE_LOCK_NAMESPACE)
+						.setParameter("lockKey", allocator.getSequenceName().hashCode())
+						.getSingleResult();
+					entityManager.createNativeQuery("create sequence if not exists " + qualifiedName + " minvalue 0 start with 0 increment by 1")
+						.executeUpdate();
+					Number maxId = (Number)(entityManager.createNativeQuery("select coalesce( max( " + columnName + " ), -1 ) from " + SEQUENCE_SCHEMA + "." + tableName)
+						.getSingleResult());
+					long firstFreeHi = ( maxId.longValue() < 0 ) ? 0L : ( maxId.longValue() / allocator.getBlockSize() ) + 1L;
+					entityManager.createNativeQuery("select setval( '" + qualifiedName + "', :hi, false ) from " + qualifiedName
+							+ " where ( case when is_called then last_value + 1 else last_value end ) < :hi")
+						.setParameter("hi", firstFreeHi)
+						.getResultList();
+				});
+			}
+			catch (RuntimeException ex) {
+				throw new CFLibDbException(getClass(),
+					"ensureSequence",
+					ex);
+			}
+			allocator.setSequenceEnsured(true);
+		}
+	}
+
+	/**
+	 *	Reserve the next hi/lo block for an allocator in one round trip.
+	 *	The sequence is normally ensured at startup; a generator called before the application is
+	 *	ready ensures it first, still outside the caller's transaction.
+	 *
+	 *		@param	allocator	The allocator whose sequence is to be advanced.
+	 *
+	 *		@param	tableName	The unqualified table holding the ids drawn from the sequence.
+	 *
+	 *		@param	columnName	The id column of that table.
+	 *
+	 *		@return The next "hi" value of the sequence.
+	 */
+	protected long nextSequenceHi(CFSecJpaShortIdBlockAllocator allocator, String tableName, String columnName) {
+		ensureSequence(allocator, tableName, columnName);
+		String qualifiedName = SEQUENCE_SCHEMA + "." + allocator.getSequenceName();
+		Number hi = (Number)(entityManager.createNativeQuery("select nextval('" + qualifiedName + "')").getSingleResult());
+		return( hi.longValue() );
+	}
+
 	/**
 	 *	Generate a ClusterIdGen CFLibDbKeyHash256 id.
 	 *
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateClusterIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
 	*	Generate a ISOCcyIdGen short id.
 	*
+	*	Values are handed out from an in-memory block reserved through the ISO sequence in a single round trip.
+	*
 	*		@return The next short value for the ISOCcyIdGen type.
 	*/
-	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsecTransactionManager")
-	@SequenceGenerator(name = "ISOCcyIdGenSeq", allocationSize = 1, initialValue = 0, schema = "CFSec31")
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public short generateISOCcyIdGen() {
-		throw new CFLibNotImplementedYetException( getClass(), "generateISOCcyIdGen" );
+		return( isoCcyIdAllocator.next(() -> nextSequenceHi(isoCcyIdAllocator, "iso_ccy", "ISOCcyId")) );
 	}
 
 	/**
 	*	Generate a ISOCtryIdGen short id.
 	*
+	*	Values are handed out from an in-memory block reserved through the ISO sequence in a single round trip.
+	*
 	*		@return The next short value for the ISOCtryIdGen type.
 	*/
-	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsecTransactionManager")
-	@SequenceGenerator(name = "ISOCtryIdGenSeq", allocationSize = 1, initialValue = 0, schema = "CFSec31")
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public short generateISOCtryIdGen() {
-		throw new CFLibNotImplementedYetException( getClass(), "generateISOCtryIdGen" );
+		return( isoCtryIdAllocator.next(() -> nextSequenceHi(isoCtryIdAllocator, "iso_cntry", "ISOCtryId")) );
 	}
 
 	/**
 	*	Generate a ISOLangIdGen short id.
 	*
+	*	Values are handed out from an in-memory block reserved through the ISO sequence in a single round trip.
+	*
 	*		@return The next short value for the ISOLangIdGen type.
 	*/
-	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsecTransactionManager")
-	@SequenceGenerator(name = "ISOLangIdGenSeq", allocationSize = 1, initialValue = 0, schema = "CFSec31")
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public short generateISOLangIdGen() {
-		throw new CFLibNotImplementedYetException( getClass(), "generateISOLangIdGen" );
+		return( isoLangIdAllocator.next(() -> nextSequenceHi(isoLangIdAllocator, "iso_lang", "ISOLangId")) );
 	}
 
 	/**
 	*	Generate a ISOTZoneIdGen short id.
 	*
+	*	Values are handed out from an in-memory block reserved through the ISO sequence in a single round trip.
+	*
 	*		@return The next short value for the ISOTZoneIdGen type.
 	*/
-	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsecTransactionManager")
-	@SequenceGenerator(name = "ISOTZoneIdGenSeq", allocationSize = 1, initialValue = 0, schema = "CFSec31")
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public short generateISOTZoneIdGen() {
-		throw new CFLibNotImplementedYetException( getClass(), "generateISOTZoneIdGen" );
+		return( isoTZoneIdAllocator.next(() -> nextSequenceHi(isoTZoneIdAllocator, "ISOTz", "ISOTZoneId")) );
+	}
+
+	/**
+	 *	Report whether generated hash keys are guaranteed unique without consulting the database,
+	 *	which holds when a node slot partitions the key space.
+	 *
+	 *		@return true if the create paths may skip their existence pre-check for generated keys.
+	 */
+	public boolean isGeneratedKeyUnique() {
+		return( keyGenerator.isNodePartitioned() );
+	}
+
+	public boolean isSecSessionIdTimeOrdered() {
+		return( keyGenerator.isSecSessionTimeOrdered() );
+	}
+
+	public void setSecSessionIdTimeOrdered(boolean value) {
+		keyGenerator.setSecSessionTimeOrdered(value);
 	}
 
 	/**
 	 *	Generate a SecSessionIdGen CFLibDbKeyHash256 id.
+	 *	In time-ordered mode the id carries a millisecond timestamp and counter prefix so that
+	 *	new SecSess rows land at the right-hand edge of SecSessionIdIdx.
 	 *
-	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
+	 *		@return A pseudo-randomly generated or time-prefixed CFLibDBKeyHash256 value
 	 */
 	public CFLibDbKeyHash256 generateSecSessionIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextSecSessionKey() );
 	}
 
 	/**
@@ -131,7 +300,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateSecUserIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -140,7 +309,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateServiceTypeIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -149,7 +318,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateTenantIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -158,7 +327,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateHostNodeIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -167,7 +336,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateSecGroupIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -176,7 +345,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateSecGrpIncIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -185,7 +354,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateSecGrpMembIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -194,7 +363,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateServiceIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -203,7 +372,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateTSecGroupIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -212,7 +381,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateTSecGrpIncIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 	/**
@@ -221,7 +390,7 @@ public class CFSecJpaIdGenService {
 	 *		@return A pseudo-randomly generated CFLibDBKeyHash128 value
 	 */
 	public CFLibDbKeyHash256 generateTSecGrpMembIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( keyGenerator.nextKey() );
 	}
 
 }
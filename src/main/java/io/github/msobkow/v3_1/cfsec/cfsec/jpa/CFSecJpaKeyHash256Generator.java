@@ -0,0 +1,320 @@
+// Description: Java 25 JPA thread-local pooled CFLibDbKeyHash256 key generator for CFSec
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFSecJpaKeyHash256Generator produces the pseudo-random CFLibDbKeyHash256 values used as generated keys.
+ *	Every thread owns a pool of random bytes that is refilled in bulk from a thread-private DRBG,
+ *	and each DRBG is seeded exactly once from a single shared SecureRandom, so the steady-state
+ *	generation path takes no locks and never contends on a shared CSPRNG.
+ */
+public class CFSecJpaKeyHash256Generator {
+
+	public final static int DEFAULT_POOL_KEYS = 128;
+	public final static int SEED_LENGTH = 32;
+	public final static int TIMESTAMP_LENGTH = 6;
+	public final static int COUNTER_LENGTH = 4;
+	public final static int NODE_SLOT_LENGTH = 2;
+	public final static int NODE_SLOT_MAX = 0xffff;
+	public final static int NO_NODE_SLOT = -1;
+
+	private static final CFSecJpaKeyHash256Generator defaultGenerator = new CFSecJpaKeyHash256Generator( DEFAULT_POOL_KEYS );
+
+	protected final SecureRandom seedRandom;
+	protected final int poolKeys;
+	protected final ThreadLocal<KeyPool> threadPools;
+	protected final AtomicInteger sequenceCounter;
+	protected volatile int nodeSlot;
+	protected volatile boolean secSessionTimeOrdered;
+
+	/**
+	 *	A thread-confined pool of random bytes, consumed front to back and refilled in one call when exhausted.
+	 */
+	protected static class KeyPool {
+		protected final SecureRandom random;
+		protected final byte[] pool;
+		protected int offset;
+
+		protected KeyPool( SecureRandom random, int poolBytes ) {
+			this.random = random;
+			this.pool = new byte[ poolBytes ];
+			this.offset = poolBytes;
+		}
+
+		protected void nextBytes( byte[] dest, int destOffset, int length ) {
+			while( length > 0 ) {
+				if( offset >= pool.length ) {
+					random.nextBytes( pool );
+					offset = 0;
+				}
+				int chunk = Math.min( length, pool.length - offset );
+				System.arraycopy( pool, offset, dest, destOffset, chunk );
+				Arrays.fill( pool, offset, offset + chunk, (byte)0 );
+				offset += chunk;
+				destOffset += chunk;
+				length -= chunk;
+			}
+		}
+	}
+
+	/**
+	 *	Get the process-wide generator shared by the id generation service and the schema.
+	 *
+	 *	@return The default generator instance.
+	 */
+	public static CFSecJpaKeyHash256Generator getDefault() {
+		return( defaultGenerator );
+	}
+
+	/**
+	 *	Construct a generator whose per-thread pools hold poolKeys keys' worth of random bytes.
+	 *
+	 *	@param	poolKeys	The number of keys to draw per bulk refill; must be at least 1.
+	 */
+	public CFSecJpaKeyHash256Generator( int poolKeys ) {
+		if( poolKeys < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"constructor",
+				1,
+				"poolKeys",
+				poolKeys,
+				1 );
+		}
+		this.poolKeys = poolKeys;
+		this.seedRandom = new SecureRandom();
+		this.sequenceCounter = new AtomicInteger( seedRandom.nextInt() );
+		this.nodeSlot = NO_NODE_SLOT;
+		this.threadPools = ThreadLocal.withInitial( () -> new KeyPool( newThreadRandom(), this.poolKeys * CFLibDbKeyHash256.HASH_LENGTH ) );
+	}
+
+	public int getPoolKeys() {
+		return( poolKeys );
+	}
+
+	public int getNodeSlot() {
+		return( nodeSlot );
+	}
+
+	/**
+	 *	Partition the key space by node.  When a slot is set, every key carries the slot plus a
+	 *	node-local timestamp and counter, so keys produced by nodes with distinct slots can never
+	 *	collide and no database coordination is needed to keep them unique.
+	 *
+	 *	@param	value	The slot assigned to this HostNode, 0 through NODE_SLOT_MAX, or NO_NODE_SLOT for purely random keys.
+	 */
+	public void setNodeSlot( int value ) {
+		if( value < NO_NODE_SLOT ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"setNodeSlot",
+				1,
+				"value",
+				value,
+				NO_NODE_SLOT );
+		}
+		if( value > NODE_SLOT_MAX ) {
+			throw new CFLibArgumentOverflowException( getClass(),
+				"setNodeSlot",
+				1,
+				"value",
+				value,
+				NODE_SLOT_MAX );
+		}
+		nodeSlot = value;
+	}
+
+	public boolean isNodePartitioned() {
+		return( nodeSlot != NO_NODE_SLOT );
+	}
+
+	public boolean isSecSessionTimeOrdered() {
+		return( secSessionTimeOrdered );
+	}
+
+	/**
+	 *	Select the SecSession id layout used by nextSecSessionKey, configured from cfsec31.idgen.secsession.mode
+	 *	on the default generator so that every SecSession id source shares it.
+	 *
+	 *	@param	value	true for time-ordered keys, false for the ordinary layout of nextKey.
+	 */
+	public void setSecSessionTimeOrdered( boolean value ) {
+		secSessionTimeOrdered = value;
+	}
+
+	protected static int putBigEndian( byte[] dest, int pos, long value, int length ) {
+		for( int shift = ( length - 1 ) * 8; shift >= 0; shift -= 8 ) {
+			dest[ pos++ ] = (byte)( value >>> shift );
+		}
+		return( pos );
+	}
+
+	/**
+	 *	Instantiate the private DRBG for the calling thread, personalized with bytes drawn from the shared seed source.
+	 *	This is the only point at which the shared SecureRandom is touched, once per thread.
+	 *
+	 *	@return A SecureRandom that is never shared with another thread.
+	 */
+	protected SecureRandom newThreadRandom() {
+		byte[] seed = new byte[ SEED_LENGTH ];
+		seedRandom.nextBytes( seed );
+		SecureRandom random;
+		try {
+			random = SecureRandom.getInstance( "DRBG",
+				DrbgParameters.instantiation( 256, DrbgParameters.Capability.RESEED_ONLY, seed ) );
+		}
+		catch( NoSuchAlgorithmException e ) {
+			random = new SecureRandom( seed );
+		}
+		return( random );
+	}
+
+	/**
+	 *	Fill a range of the destination array with random bytes from the calling thread's pool.
+	 *
+	 *	@param	dest	The array to fill.
+	 *
+	 *	@param	offset	The first index to fill.
+	 *
+	 *	@param	length	The number of bytes to fill.
+	 */
+	public void nextBytes( byte[] dest, int offset, int length ) {
+		if( dest == null ) {
+			throw new CFLibNullArgumentException( getClass(), "nextBytes", 1, "dest" );
+		}
+		threadPools.get().nextBytes( dest, offset, length );
+	}
+
+	/**
+	 *	Generate the raw bytes for one key.  Without a node slot the bytes are entirely random;
+	 *	with one they are the slot, a millisecond timestamp and the node counter, followed by random bits.
+	 *
+	 *	@return A new array of CFLibDbKeyHash256.HASH_LENGTH bytes.
+	 */
+	public byte[] nextKeyBytes() {
+		byte[] bytes = new byte[ CFLibDbKeyHash256.HASH_LENGTH ];
+		int slot = nodeSlot;
+		int pos = 0;
+		if( slot != NO_NODE_SLOT ) {
+			pos = putBigEndian( bytes, pos, slot, NODE_SLOT_LENGTH );
+			pos = putBigEndian( bytes, pos, System.currentTimeMillis(), TIMESTAMP_LENGTH );
+			pos = putBigEndian( bytes, pos, sequenceCounter.getAndIncrement(), COUNTER_LENGTH );
+		}
+		threadPools.get().nextBytes( bytes, pos, bytes.length - pos );
+		return( bytes );
+	}
+
+	/**
+	 *	Generate a new key.
+	 *
+	 *	@return A pseudo-randomly generated, non-null CFLibDbKeyHash256 value.
+	 */
+	public CFLibDbKeyHash256 nextKey() {
+		CFLibDbKeyHash256 key;
+		do {
+			key = toKey( nextKeyBytes() );
+		} while( key.isNull() );
+		return( key );
+	}
+
+	/**
+	 *	Generate a time-ordered key, laid out like a UUIDv7 stretched to 256 bits:
+	 *	a 48-bit big-endian millisecond timestamp, the node slot if one is set, a 32-bit node-wide counter,
+	 *	and random bits for the remainder.
+	 *	Keys generated close together in time sort close together, so inserts append to the right-hand
+	 *	edge of a B-tree index instead of splitting pages across the whole key space.
+	 *
+	 *	@return A time-prefixed, non-null CFLibDbKeyHash256 value.
+	 */
+	public CFLibDbKeyHash256 nextTimeOrderedKey() {
+		return( toKey( nextTimeOrderedKeyBytes( System.currentTimeMillis() ) ) );
+	}
+
+	/**
+	 *	Generate a SecSession key in the configured layout.
+	 *
+	 *	@return A time-ordered key if setSecSessionTimeOrdered( true ) was called, otherwise the same as nextKey.
+	 */
+	public CFLibDbKeyHash256 nextSecSessionKey() {
+		if( secSessionTimeOrdered ) {
+			return( nextTimeOrderedKey() );
+		}
+		return( nextKey() );
+	}
+
+	/**
+	 *	Generate the raw bytes of a time-ordered key for the specified instant.
+	 *
+	 *	@param	epochMillis	The timestamp prefix, in milliseconds since the epoch.
+	 *
+	 *	@return A new array of CFLibDbKeyHash256.HASH_LENGTH bytes.
+	 */
+	public byte[] nextTimeOrderedKeyBytes( long epochMillis ) {
+		byte[] bytes = new byte[ CFLibDbKeyHash256.HASH_LENGTH ];
+		int slot = nodeSlot;
+		int pos = putBigEndian( bytes, 0, epochMillis, TIMESTAMP_LENGTH );
+		if( slot != NO_NODE_SLOT ) {
+			pos = putBigEndian( bytes, pos, slot, NODE_SLOT_LENGTH );
+		}
+		pos = putBigEndian( bytes, pos, sequenceCounter.getAndIncrement(), COUNTER_LENGTH );
+		threadPools.get().nextBytes( bytes, pos, bytes.length - pos );
+		return( bytes );
+	}
+
+	/**
+	 *	Wrap raw key bytes as a CFLibDbKeyHash256 without a round trip through hex.
+	 *	The caller hands over the array and must not modify it afterwards.
+	 *
+	 *	@param	bytes	Exactly CFLibDbKeyHash256.HASH_LENGTH bytes.
+	 *
+	 *	@return The key value.
+	 */
+	public static CFLibDbKeyHash256 toKey( byte[] bytes ) {
+		if( bytes == null ) {
+			throw new CFLibNullArgumentException( CFSecJpaKeyHash256Generator.class, "toKey", 1, "bytes" );
+		}
+		if( bytes.length != CFLibDbKeyHash256.HASH_LENGTH ) {
+			throw new CFLibInvalidArgumentException( CFSecJpaKeyHash256Generator.class,
+				"toKey",
+				"bytes.length must be " + CFLibDbKeyHash256.HASH_LENGTH,
+				"bytes.length must be " + CFLibDbKeyHash256.HASH_LENGTH );
+		}
+		return( new CFLibDbKeyHash256( bytes ) );
+	}
+}
@@ -0,0 +1,133 @@
+// Description: Java 25 JPA lazy foreign key reference resolution for CFSec entities
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *	Resolves foreign keys set by id on the CFSecJpa entities to uninitialized EntityManager.getReference proxies,
+ *	so wiring a parent costs no SELECT. The entities are not Spring beans, so their set-by-id methods reach the
+ *	running instance through the static getReference, which answers null whenever a reference cannot safely be
+ *	handed out: no instance is running, the mode is disabled by cfsec31.jpa.fk.references.enabled, the key is
+ *	null, or no transaction is active to own the proxy. The setters then fall back to their readDerived lookup.
+ *	A reference to a missing row is not detected until the INSERT or UPDATE fails its foreign key constraint.
+ */
+@Service("cfsec31JpaReferenceService")
+public class CFSecJpaReferenceService {
+
+	public final static boolean DEFAULT_ENABLED = true;
+
+	private static volatile CFSecJpaReferenceService instance = null;
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	private volatile boolean enabled = DEFAULT_ENABLED;
+
+	/**
+	 *	Read cfsec31.jpa.fk.references.enabled and publish this instance to the entities.
+	 */
+	@PostConstruct
+	public void initReferences() {
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.jpa.fk.references.enabled", Boolean.toString(DEFAULT_ENABLED)).trim());
+		}
+		instance = this;
+	}
+
+	@PreDestroy
+	public void shutdownReferences() {
+		if (instance == this) {
+			instance = null;
+		}
+	}
+
+	public boolean isEnabled() {
+		return( enabled );
+	}
+
+	public void setEnabled(boolean value) {
+		enabled = value;
+	}
+
+	/**
+	 *	Get an uninitialized reference to the entity with the specified primary key.
+	 *
+	 *		@param entityClass The entity class to reference.
+	 *		@param primaryKey The primary key of the referenced row.
+	 *
+	 *		@return A lazy reference, or null if the caller should resolve the row itself.
+	 */
+	public <T> T reference(Class<T> entityClass, Object primaryKey) {
+		if (!enabled || primaryKey == null) {
+			return( null );
+		}
+		if ((primaryKey instanceof CFLibDbKeyHash256) && ((CFLibDbKeyHash256)primaryKey).isNull()) {
+			return( null );
+		}
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return( null );
+		}
+		return( cfsec31EntityManager.getReference(entityClass, primaryKey) );
+	}
+
+	/**
+	 *	Get an uninitialized reference through the running instance, for use by the entity set-by-id methods.
+	 *
+	 *		@param entityClass The entity class to reference.
+	 *		@param primaryKey The primary key of the referenced row.
+	 *
+	 *		@return A lazy reference, or null if the caller should resolve the row itself.
+	 */
+	public static <T> T getReference(Class<T> entityClass, Object primaryKey) {
+		CFSecJpaReferenceService service = instance;
+		if (service == null) {
+			return( null );
+		}
+		return( service.reference(entityClass, primaryKey) );
+	}
+}
@@ -553,79 +553,79 @@ public class CFSecJpaSchema
 
 	@Override
 	public CFLibDbKeyHash256 nextClusterIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextSecSessionIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextSecSessionKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextSecUserIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextServiceTypeIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextTenantIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextHostNodeIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextSecGroupIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextSecGrpIncIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextSecGrpMembIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextServiceIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextTSecGroupIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextTSecGrpIncIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
 	@Override
 	public CFLibDbKeyHash256 nextTSecGrpMembIdGen() {
-		CFLibDbKeyHash256 retval = new CFLibDbKeyHash256(0);
+		CFLibDbKeyHash256 retval = CFSecJpaKeyHash256Generator.getDefault().nextKey();
 		return( retval );
 	}
 
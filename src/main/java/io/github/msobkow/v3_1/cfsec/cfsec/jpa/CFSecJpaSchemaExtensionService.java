@@ -0,0 +1,102 @@
+// Description: Java 25 Spring JPA Service for CFSec schema extensions
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import jakarta.persistence.*;
+import io.github.msobkow.v3_1.cflib.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ *	Applies the PostgreSQL schema objects that JPA index metadata cannot express, and that
+ *	hibernate.hbm2ddl.auto therefore never creates, once the application is ready.
+ *	Every statement is idempotent, so it is safe to run on each start.
+ *	Set cfsec31.schema.extensions.enabled=false when the schema is managed externally.
+ */
+@Service("cfsec31JpaSchemaExtensionService")
+public class CFSecJpaSchemaExtensionService {
+
+	public final static String SCHEMA = "cfsec31";
+
+	/**
+	 *	Partial index over the open sessions only, so open-session lookups and counts by user or by
+	 *	user and device stay small index scans however many finished sessions accumulate.
+	 *	On an already large table create it by hand with CREATE INDEX CONCURRENTLY before upgrading.
+	 */
+	public final static String SESSION_OPEN_IDX_DDL = "create index if not exists SessionOpenIdx on " + SCHEMA + ".SecSess ( SecUserId, SecDevName ) where finish_ts is null";
+
+	/**
+	 *	Partial index over the finished sessions, so the expired-session reaper finds each chunk
+	 *	without scanning the open sessions or the rows it has not reached yet.
+	 */
+	public final static String SESSION_FINISHED_IDX_DDL = "create index if not exists SessionFinishedIdx on " + SCHEMA + ".SecSess ( finish_ts ) where finish_ts is not null";
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	/**
+	 *	Apply the schema extensions unless cfsec31.schema.extensions.enabled is false.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(propagation = Propagation.REQUIRED, transactionManager = "cfsec31TransactionManager")
+	public void applySchemaExtensions() {
+		boolean enabled = true;
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.schema.extensions.enabled", "true").trim());
+		}
+		if (!enabled) {
+			return;
+		}
+		try {
+			cfsec31EntityManager.createNativeQuery(SESSION_OPEN_IDX_DDL).executeUpdate();
+			cfsec31EntityManager.createNativeQuery(SESSION_FINISHED_IDX_DDL).executeUpdate();
+		}
+		catch (RuntimeException ex) {
+			throw new CFLibDbException(getClass(),
+				"applySchemaExtensions",
+				ex);
+		}
+	}
+}
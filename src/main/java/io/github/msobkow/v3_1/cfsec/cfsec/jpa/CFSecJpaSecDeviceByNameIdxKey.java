@@ -53,7 +53,7 @@ public class CFSecJpaSecDeviceByNameIdxKey
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	protected String requiredDevName;
 	public CFSecJpaSecDeviceByNameIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecDevice.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecDevice.SECUSERID_INIT_VALUE;
 		requiredDevName = ICFSecSecDevice.DEVNAME_INIT_VALUE;
 	}
 
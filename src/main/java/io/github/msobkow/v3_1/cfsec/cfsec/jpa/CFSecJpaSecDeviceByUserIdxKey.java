@@ -52,7 +52,7 @@ public class CFSecJpaSecDeviceByUserIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaSecDeviceByUserIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecDevice.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecDevice.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
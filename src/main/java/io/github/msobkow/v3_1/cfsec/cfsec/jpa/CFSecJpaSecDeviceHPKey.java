@@ -83,11 +83,11 @@ public class CFSecJpaSecDeviceHPKey
 
 	public CFSecJpaSecDeviceHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecDevice.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecDevice.SECUSERID_INIT_VALUE;
 		requiredDevName = ICFSecSecDevice.DEVNAME_INIT_VALUE;
 	}
 
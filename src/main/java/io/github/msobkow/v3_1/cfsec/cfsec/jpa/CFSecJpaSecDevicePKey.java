@@ -87,6 +87,11 @@ public class CFSecJpaSecDevicePKey
 
 	@Override
 	public void setRequiredContainerSecUser(CFLibDbKeyHash256 argSecUserId) {
+		CFSecJpaSecUser targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, argSecUserId);
+		if (targetRef != null) {
+			setRequiredContainerSecUser(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerSecUser", 0, "ICFSecSchema.getBackingCFSec()");
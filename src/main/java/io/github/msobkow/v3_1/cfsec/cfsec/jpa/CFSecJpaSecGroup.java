@@ -75,38 +75,63 @@ public class CFSecJpaSecGroup
 	protected Set<CFSecJpaSecGrpMemb> optionalComponentsMember;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="requiredParentSubGroup")
 	protected Set<CFSecJpaSecGrpInc> requiredChildrenIncByGroup;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="ClusterId" )
 	protected CFSecJpaCluster requiredContainerCluster;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="ClusterId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredClusterId;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGroup.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGroup.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGroup.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGroup.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="safe_name", nullable=false, length=64 )
 	protected String requiredName;
 	@Column( name="IsVisible", nullable=false )
 	protected boolean requiredIsVisible;
 
 	public CFSecJpaSecGroup() {
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGroup.SECGROUPID_INIT_VALUE.toString() );
+		requiredSecGroupId = ICFSecSecGroup.SECGROUPID_INIT_VALUE;
 		requiredName = ICFSecSecGroup.NAME_INIT_VALUE;
 		requiredIsVisible = ICFSecSecGroup.ISVISIBLE_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecSecGroup.CLASS_CODE );
@@ -147,6 +172,7 @@ public class CFSecJpaSecGroup
 		}
 		else if (argObj instanceof CFSecJpaCluster) {
 			requiredContainerCluster = (CFSecJpaCluster)argObj;
+			requiredClusterId = argObj.getRequiredId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerCluster", "argObj", argObj, "CFSecJpaCluster");
@@ -155,6 +181,11 @@ public class CFSecJpaSecGroup
 
 	@Override
 	public void setRequiredContainerCluster(CFLibDbKeyHash256 argClusterId) {
+		CFSecJpaCluster targetRef = CFSecJpaReferenceService.getReference(CFSecJpaCluster.class, argClusterId);
+		if (targetRef != null) {
+			setRequiredContainerCluster(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerCluster", 0, "ICFSecSchema.getBackingCFSec()");
@@ -260,6 +291,9 @@ public class CFSecJpaSecGroup
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredClusterId() {
+		if (requiredClusterId != null) {
+			return( requiredClusterId );
+		}
 		ICFSecCluster result = getRequiredContainerCluster();
 		if (result != null) {
 			return result.getRequiredId();
@@ -313,13 +347,13 @@ public class CFSecJpaSecGroup
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredClusterId() != null ) {
@@ -377,13 +411,13 @@ public class CFSecJpaSecGroup
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredClusterId() != null ) {
@@ -539,9 +573,9 @@ public class CFSecJpaSecGroup
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredClusterId().hashCode();
 		hashCode = hashCode + getRequiredSecGroupId().hashCode();
 		if( getRequiredName() != null ) {
@@ -584,7 +618,7 @@ public class CFSecJpaSecGroup
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -592,7 +626,7 @@ public class CFSecJpaSecGroup
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -674,7 +708,7 @@ public class CFSecJpaSecGroup
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -682,7 +716,7 @@ public class CFSecJpaSecGroup
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -823,9 +857,9 @@ public class CFSecJpaSecGroup
 		setRequiredSecGroupId(src.getRequiredSecGroupId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredContainerCluster(src.getRequiredContainerCluster());
 		setRequiredName(src.getRequiredName());
 		setRequiredIsVisible(src.getRequiredIsVisible());
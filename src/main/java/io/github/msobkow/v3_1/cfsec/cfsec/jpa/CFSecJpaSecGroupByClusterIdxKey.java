@@ -52,7 +52,7 @@ public class CFSecJpaSecGroupByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaSecGroupByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGroup.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGroup.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
@@ -53,7 +53,7 @@ public class CFSecJpaSecGroupByClusterVisIdxKey
 	protected CFLibDbKeyHash256 requiredClusterId;
 	protected boolean requiredIsVisible;
 	public CFSecJpaSecGroupByClusterVisIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGroup.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGroup.CLUSTERID_INIT_VALUE;
 		requiredIsVisible = ICFSecSecGroup.ISVISIBLE_INIT_VALUE;
 	}
 
@@ -53,7 +53,7 @@ public class CFSecJpaSecGroupByUNameIdxKey
 	protected CFLibDbKeyHash256 requiredClusterId;
 	protected String requiredName;
 	public CFSecJpaSecGroupByUNameIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGroup.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGroup.CLUSTERID_INIT_VALUE;
 		requiredName = ICFSecSecGroup.NAME_INIT_VALUE;
 	}
 
@@ -0,0 +1,273 @@
+// Description: Java 25 JPA recursive SecGroup closure resolution
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.*;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ *	Resolves the effective SecGroup set of a user within a cluster in a single WITH RECURSIVE query.
+ *	The seed is the user's direct SecMemb rows; each step follows SecInc from an included group (IncGrpId)
+ *	to the group including it (SecGrpId), so a member of an included group is a member of every group
+ *	that includes it, transitively.
+ *	<p>
+ *	The recursive term is a UNION over (group, depth) rather than UNION ALL over paths, so a group reached
+ *	along several paths is expanded at most once per depth, and an inclusion cycle stops growing as soon as
+ *	it is bounded by cfsec31.secgroup.closure.maxdepth.
+ *	<p>
+ *	Tenant groups are resolved the same way over TSecMemb and TSecInc.
+ */
+@Service("cfsec31JpaSecGroupClosureService")
+public class CFSecJpaSecGroupClosureService {
+
+	public final static int DEFAULT_MAX_DEPTH = 32;
+
+	protected final static String S_EffectiveGroupsSql =
+		"with recursive closure( grp_id, depth ) as ( "
+		+		"select m.SecGroupId, 0 "
+		+		"from cfsec31.SecMemb m "
+		+		"where m.ClusterId = :clusterId and m.SecUserId = :secUserId "
+		+	"union "
+		+		"select i.SecGrpId, c.depth + 1 "
+		+		"from closure c "
+		+		"join cfsec31.SecInc i on i.ClusId = :clusterId and i.IncGrpId = c.grp_id "
+		+		"where c.depth < :maxDepth "
+		+	") "
+		+	"select distinct grp_id from closure";
+
+	protected final static String S_IncludingGroupsSql =
+		"with recursive closure( grp_id, depth ) as ( "
+		+		"select cast( :secGroupId as bytea ), 0 "
+		+	"union "
+		+		"select i.SecGrpId, c.depth + 1 "
+		+		"from closure c "
+		+		"join cfsec31.SecInc i on i.ClusId = :clusterId and i.IncGrpId = c.grp_id "
+		+		"where c.depth < :maxDepth "
+		+	") "
+		+	"select distinct grp_id from closure";
+
+	protected final static String S_EffectiveTenantGroupsSql =
+		"with recursive closure( grp_id, depth ) as ( "
+		+		"select m.TSecGroupId, 0 "
+		+		"from cfsec31.TSecMemb m "
+		+		"where m.TenantId = :tenantId and m.SecUserId = :secUserId "
+		+	"union "
+		+		"select i.TSecGrpId, c.depth + 1 "
+		+		"from closure c "
+		+		"join cfsec31.TSecInc i on i.TenantId = :tenantId and i.IncGrpId = c.grp_id "
+		+		"where c.depth < :maxDepth "
+		+	") "
+		+	"select distinct grp_id from closure";
+
+	protected final static String S_IncludingTenantGroupsSql =
+		"with recursive closure( grp_id, depth ) as ( "
+		+		"select cast( :tSecGroupId as bytea ), 0 "
+		+	"union "
+		+		"select i.TSecGrpId, c.depth + 1 "
+		+		"from closure c "
+		+		"join cfsec31.TSecInc i on i.TenantId = :tenantId and i.IncGrpId = c.grp_id "
+		+		"where c.depth < :maxDepth "
+		+	") "
+		+	"select distinct grp_id from closure";
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	private volatile int maxDepth = DEFAULT_MAX_DEPTH;
+
+	/**
+	 *	Read the depth limit from cfsec31.secgroup.closure.maxdepth.
+	 */
+	@PostConstruct
+	public void initClosure() {
+		final String S_ProcName = "initClosure";
+		if (appMergedProperties != null) {
+			maxDepth = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secgroup.closure.maxdepth", Integer.toString(DEFAULT_MAX_DEPTH)).trim());
+		}
+		if (maxDepth < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secgroup.closure.maxdepth", maxDepth, 0);
+		}
+	}
+
+	public int getMaxDepth() {
+		return( maxDepth );
+	}
+
+	/**
+	 *	Resolve every SecGroup the user is a member of within the cluster, directly or through inclusion.
+	 *
+	 *		@param requiredClusterId The cluster to resolve within.
+	 *		@param requiredSecUserId The user to resolve.
+	 *
+	 *		@return The unmodifiable set of effective SecGroupIds, empty if the user belongs to no group.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public Set<CFLibDbKeyHash256> resolveEffectiveGroupIds(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecUserId) {
+		final String S_ProcName = "resolveEffectiveGroupIds";
+		if (requiredClusterId == null || requiredClusterId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredClusterId");
+		}
+		if (requiredSecUserId == null || requiredSecUserId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "requiredSecUserId");
+		}
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_EffectiveGroupsSql)
+			.setParameter("clusterId", toBytes(requiredClusterId))
+			.setParameter("secUserId", toBytes(requiredSecUserId))
+			.setParameter("maxDepth", maxDepth)
+			.getResultList();
+		return( toKeySet(rows) );
+	}
+
+	/**
+	 *	Resolve a SecGroup and every SecGroup that includes it, transitively, within the cluster.
+	 *
+	 *		@param requiredClusterId The cluster to resolve within.
+	 *		@param requiredSecGroupId The group to start from.
+	 *
+	 *		@return The unmodifiable set of SecGroupIds, always containing requiredSecGroupId itself.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public Set<CFLibDbKeyHash256> resolveIncludingGroupIds(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId) {
+		final String S_ProcName = "resolveIncludingGroupIds";
+		if (requiredClusterId == null || requiredClusterId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredClusterId");
+		}
+		if (requiredSecGroupId == null || requiredSecGroupId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "requiredSecGroupId");
+		}
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_IncludingGroupsSql)
+			.setParameter("clusterId", toBytes(requiredClusterId))
+			.setParameter("secGroupId", toBytes(requiredSecGroupId))
+			.setParameter("maxDepth", maxDepth)
+			.getResultList();
+		return( toKeySet(rows) );
+	}
+
+	/**
+	 *	Resolve every TSecGroup the user is a member of within the tenant, directly or through inclusion.
+	 *
+	 *		@param requiredTenantId The tenant to resolve within.
+	 *		@param requiredSecUserId The user to resolve.
+	 *
+	 *		@return The unmodifiable set of effective TSecGroupIds, empty if the user belongs to no group.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public Set<CFLibDbKeyHash256> resolveEffectiveTSecGroupIds(CFLibDbKeyHash256 requiredTenantId, CFLibDbKeyHash256 requiredSecUserId) {
+		final String S_ProcName = "resolveEffectiveTSecGroupIds";
+		if (requiredTenantId == null || requiredTenantId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredTenantId");
+		}
+		if (requiredSecUserId == null || requiredSecUserId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "requiredSecUserId");
+		}
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_EffectiveTenantGroupsSql)
+			.setParameter("tenantId", toBytes(requiredTenantId))
+			.setParameter("secUserId", toBytes(requiredSecUserId))
+			.setParameter("maxDepth", maxDepth)
+			.getResultList();
+		return( toKeySet(rows) );
+	}
+
+	/**
+	 *	Resolve a TSecGroup and every TSecGroup that includes it, transitively, within the tenant.
+	 *
+	 *		@param requiredTenantId The tenant to resolve within.
+	 *		@param requiredTSecGroupId The group to start from.
+	 *
+	 *		@return The unmodifiable set of TSecGroupIds, always containing requiredTSecGroupId itself.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public Set<CFLibDbKeyHash256> resolveIncludingTSecGroupIds(CFLibDbKeyHash256 requiredTenantId, CFLibDbKeyHash256 requiredTSecGroupId) {
+		final String S_ProcName = "resolveIncludingTSecGroupIds";
+		if (requiredTenantId == null || requiredTenantId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredTenantId");
+		}
+		if (requiredTSecGroupId == null || requiredTSecGroupId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "requiredTSecGroupId");
+		}
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_IncludingTenantGroupsSql)
+			.setParameter("tenantId", toBytes(requiredTenantId))
+			.setParameter("tSecGroupId", toBytes(requiredTSecGroupId))
+			.setParameter("maxDepth", maxDepth)
+			.getResultList();
+		return( toKeySet(rows) );
+	}
+
+	/**
+	 *	Convert a key to the bytes stored in its bytea column, for binding to native queries.
+	 */
+	protected static byte[] toBytes(CFLibDbKeyHash256 key) {
+		try {
+			return( Hex.decodeHex(key.toString()) );
+		}
+		catch (DecoderException ex) {
+			throw new CFLibDbException(CFSecJpaSecGroupClosureService.class,
+				"toBytes",
+				ex);
+		}
+	}
+
+	/**
+	 *	Convert a bytea column value read by a native query back to a key.
+	 */
+	protected static CFLibDbKeyHash256 fromBytes(byte[] bytes) {
+		return( CFLibDbKeyHash256.fromHex(Hex.encodeHexString(bytes)) );
+	}
+
+	protected Set<CFLibDbKeyHash256> toKeySet(List<?> rows) {
+		if (rows.isEmpty()) {
+			return( Collections.emptySet() );
+		}
+		ArrayList<CFLibDbKeyHash256> keys = new ArrayList<>(rows.size());
+		for (Object row : rows) {
+			keys.add(fromBytes((byte[])row));
+		}
+		return( Set.copyOf(keys) );
+	}
+}
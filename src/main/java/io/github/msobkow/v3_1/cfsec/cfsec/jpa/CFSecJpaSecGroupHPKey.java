@@ -80,11 +80,11 @@ public class CFSecJpaSecGroupHPKey
 
 	public CFSecJpaSecGroupHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGroup.SECGROUPID_INIT_VALUE.toString() );
+		requiredSecGroupId = ICFSecSecGroup.SECGROUPID_INIT_VALUE;
 	}
 
 	@Override
@@ -0,0 +1,745 @@
+// Description: Java 25 JPA dense bitset index of effective CFSec SecGroup membership
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ *	In-memory per-cluster index of effective SecGroup membership for authorization decisions.
+ *	Each cluster's SecGroupIds and SecUserIds are mapped to dense int ordinals, and each user's effective
+ *	group set (direct SecMemb groups plus every group including them through SecInc) is held as a BitSet,
+ *	so isMember is two hash probes and a bit test that allocates nothing. The members of a group are the
+ *	union of the direct-member bitsets of the group and every group it includes.
+ *	<p>
+ *	A cluster is loaded on first use from CFSecJpaSecGrpMembRepository.findByClusterIdx and
+ *	CFSecJpaSecGrpIncRepository.findByClusterIdx. Outside a transaction the load runs on the calling thread.
+ *	Inside one it is read on the caller's own connection, so no second connection is taken while the caller
+ *	holds one; that view includes the caller's uncommitted changes, so it answers the caller but is never
+ *	published, and a background load publishes the committed state instead.
+ *	<p>
+ *	CFSecJpaSecGrpMembService and CFSecJpaSecGrpIncService report each committed change, which is applied by
+ *	building a new Snapshot that shares every bitset the change does not touch, so readers never lock and never
+ *	see a partly applied change. An inclusion change re-derives only the ancestors of the including group, the
+ *	descendants of the included group and the users directly in one of those descendants. Deleting a whole
+ *	cluster's memberships or inclusions drops its snapshot instead. Changes and loads publish through
+ *	ConcurrentHashMap.compute on the cluster, and a load whose cluster changed while it was reading is not
+ *	kept, so a snapshot read from before a change can never replace one that includes it.
+ *	Set cfsec31.secgroup.membershipindex.enabled=false to turn the index off.
+ */
+@Service("cfsec31JpaSecGroupMembershipIndex")
+public class CFSecJpaSecGroupMembershipIndex {
+
+	public final static boolean DEFAULT_ENABLED = true;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecGroupMembershipIndex.class);
+
+	protected final static BitSet EMPTY_BITS = new BitSet(0);
+
+	/**
+	 *	An immutable view of one cluster. The arrays and bitsets are never modified once published;
+	 *	every change produces a new Snapshot that copies only what it alters.
+	 */
+	protected static final class Snapshot {
+		protected final Map<CFLibDbKeyHash256, Integer> groupOrdinals;
+		protected final CFLibDbKeyHash256[] groupIds;
+		protected final Map<CFLibDbKeyHash256, Integer> userOrdinals;
+		protected final CFLibDbKeyHash256[] userIds;
+		/** Direct memberships, by user ordinal. */
+		protected final BitSet[] directGroupsByUser;
+		/** Direct members, by group ordinal. */
+		protected final BitSet[] directUsersByGroup;
+		/** Groups directly included by each group, by group ordinal. */
+		protected final BitSet[] includesByGroup;
+		/** Groups directly including each group, by group ordinal. */
+		protected final BitSet[] includersByGroup;
+		/** The group itself and every group including it transitively, by group ordinal. */
+		protected final BitSet[] ancestorsByGroup;
+		/** The group itself and every group it includes transitively, by group ordinal. */
+		protected final BitSet[] descendantsByGroup;
+		/** Effective memberships, by user ordinal. */
+		protected final BitSet[] effectiveGroupsByUser;
+
+		protected Snapshot(Map<CFLibDbKeyHash256, Integer> groupOrdinals,
+			CFLibDbKeyHash256[] groupIds,
+			Map<CFLibDbKeyHash256, Integer> userOrdinals,
+			CFLibDbKeyHash256[] userIds,
+			BitSet[] directGroupsByUser,
+			BitSet[] directUsersByGroup,
+			BitSet[] includesByGroup,
+			BitSet[] includersByGroup,
+			BitSet[] ancestorsByGroup,
+			BitSet[] descendantsByGroup,
+			BitSet[] effectiveGroupsByUser)
+		{
+			this.groupOrdinals = groupOrdinals;
+			this.groupIds = groupIds;
+			this.userOrdinals = userOrdinals;
+			this.userIds = userIds;
+			this.directGroupsByUser = directGroupsByUser;
+			this.directUsersByGroup = directUsersByGroup;
+			this.includesByGroup = includesByGroup;
+			this.includersByGroup = includersByGroup;
+			this.ancestorsByGroup = ancestorsByGroup;
+			this.descendantsByGroup = descendantsByGroup;
+			this.effectiveGroupsByUser = effectiveGroupsByUser;
+		}
+
+		protected boolean isMember(CFLibDbKeyHash256 secUserId, CFLibDbKeyHash256 secGroupId) {
+			Integer user = userOrdinals.get(secUserId);
+			if (user == null) {
+				return( false );
+			}
+			Integer group = groupOrdinals.get(secGroupId);
+			if (group == null) {
+				return( false );
+			}
+			return( effectiveGroupsByUser[user].get(group) );
+		}
+	}
+
+	/**
+	 *	A private working copy used to derive the next Snapshot. Arrays are copied up front; bitsets and
+	 *	ordinal maps are copied only when first written, so untouched ones stay shared with the old snapshot.
+	 */
+	protected static final class Draft {
+		protected Map<CFLibDbKeyHash256, Integer> groupOrdinals;
+		protected boolean groupOrdinalsCopied = false;
+		protected CFLibDbKeyHash256[] groupIds;
+		protected Map<CFLibDbKeyHash256, Integer> userOrdinals;
+		protected boolean userOrdinalsCopied = false;
+		protected CFLibDbKeyHash256[] userIds;
+		protected BitSet[] directGroupsByUser;
+		protected BitSet[] directUsersByGroup;
+		protected BitSet[] includesByGroup;
+		protected BitSet[] includersByGroup;
+		protected BitSet[] ancestorsByGroup;
+		protected BitSet[] descendantsByGroup;
+		protected BitSet[] effectiveGroupsByUser;
+		protected final Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		protected Draft(Snapshot from) {
+			groupOrdinals = from.groupOrdinals;
+			groupIds = from.groupIds.clone();
+			userOrdinals = from.userOrdinals;
+			userIds = from.userIds.clone();
+			directGroupsByUser = from.directGroupsByUser.clone();
+			directUsersByGroup = from.directUsersByGroup.clone();
+			includesByGroup = from.includesByGroup.clone();
+			includersByGroup = from.includersByGroup.clone();
+			ancestorsByGroup = from.ancestorsByGroup.clone();
+			descendantsByGroup = from.descendantsByGroup.clone();
+			effectiveGroupsByUser = from.effectiveGroupsByUser.clone();
+		}
+
+		protected BitSet writable(BitSet[] array, int idx) {
+			BitSet bits = array[idx];
+			if (!owned.contains(bits)) {
+				bits = (BitSet)bits.clone();
+				array[idx] = bits;
+				owned.add(bits);
+			}
+			return( bits );
+		}
+
+		protected int groupOrdinal(CFLibDbKeyHash256 secGroupId) {
+			Integer existing = groupOrdinals.get(secGroupId);
+			if (existing != null) {
+				return( existing );
+			}
+			if (!groupOrdinalsCopied) {
+				groupOrdinals = new HashMap<>(groupOrdinals);
+				groupOrdinalsCopied = true;
+			}
+			int ordinal = groupIds.length;
+			groupOrdinals.put(secGroupId, ordinal);
+			groupIds = Arrays.copyOf(groupIds, ordinal + 1);
+			groupIds[ordinal] = secGroupId;
+			directUsersByGroup = grow(directUsersByGroup, EMPTY_BITS);
+			includesByGroup = grow(includesByGroup, EMPTY_BITS);
+			includersByGroup = grow(includersByGroup, EMPTY_BITS);
+			BitSet self = new BitSet(ordinal + 1);
+			self.set(ordinal);
+			ancestorsByGroup = grow(ancestorsByGroup, self);
+			descendantsByGroup = grow(descendantsByGroup, self);
+			return( ordinal );
+		}
+
+		protected int userOrdinal(CFLibDbKeyHash256 secUserId) {
+			Integer existing = userOrdinals.get(secUserId);
+			if (existing != null) {
+				return( existing );
+			}
+			if (!userOrdinalsCopied) {
+				userOrdinals = new HashMap<>(userOrdinals);
+				userOrdinalsCopied = true;
+			}
+			int ordinal = userIds.length;
+			userOrdinals.put(secUserId, ordinal);
+			userIds = Arrays.copyOf(userIds, ordinal + 1);
+			userIds[ordinal] = secUserId;
+			directGroupsByUser = grow(directGroupsByUser, EMPTY_BITS);
+			effectiveGroupsByUser = grow(effectiveGroupsByUser, EMPTY_BITS);
+			return( ordinal );
+		}
+
+		protected static BitSet[] grow(BitSet[] array, BitSet fill) {
+			BitSet[] grown = Arrays.copyOf(array, array.length + 1);
+			grown[array.length] = fill;
+			return( grown );
+		}
+
+		protected void setMembership(int user, int group, boolean member) {
+			writable(directGroupsByUser, user).set(group, member);
+			writable(directUsersByGroup, group).set(user, member);
+		}
+
+		protected void setInclusion(int group, int include, boolean included) {
+			writable(includesByGroup, group).set(include, included);
+			writable(includersByGroup, include).set(group, included);
+		}
+
+		/**
+		 *	Add or remove one inclusion and re-derive only what it can change: the descendants of every group
+		 *	that reaches the including group, and the ancestors of every group the included group reaches.
+		 *	Adding or removing the edge cannot change which groups reach its ends, so the sets taken before the
+		 *	change cover every bitset that moves, with or without cycles in the stored data.
+		 *
+		 *		@param group The including group.
+		 *		@param include The included group.
+		 *		@param included true to add the inclusion, false to remove it.
+		 *		@param affectedUsers Receives the users whose effective groups must be re-derived.
+		 */
+		protected void applyInclusion(int group, int include, boolean included, BitSet affectedUsers) {
+			if (includesByGroup[group].get(include) == included) {
+				return;
+			}
+			BitSet upstream = ancestorsByGroup[group];
+			BitSet downstream = descendantsByGroup[include];
+			setInclusion(group, include, included);
+			for (int cur = upstream.nextSetBit(0); cur >= 0; cur = upstream.nextSetBit(cur + 1)) {
+				descendantsByGroup[cur] = reach(cur, includesByGroup);
+				owned.add(descendantsByGroup[cur]);
+			}
+			for (int cur = downstream.nextSetBit(0); cur >= 0; cur = downstream.nextSetBit(cur + 1)) {
+				ancestorsByGroup[cur] = reach(cur, includersByGroup);
+				owned.add(ancestorsByGroup[cur]);
+				affectedUsers.or(directUsersByGroup[cur]);
+			}
+		}
+
+		/**
+		 *	Recompute one user's effective groups as the union of the ancestors of its direct groups.
+		 */
+		protected void deriveUser(int user) {
+			BitSet effective = new BitSet(groupIds.length);
+			BitSet direct = directGroupsByUser[user];
+			for (int group = direct.nextSetBit(0); group >= 0; group = direct.nextSetBit(group + 1)) {
+				effective.or(ancestorsByGroup[group]);
+			}
+			effectiveGroupsByUser[user] = effective;
+			owned.add(effective);
+		}
+
+		/**
+		 *	Recompute the transitive inclusion bitsets of every group, then every user's effective groups.
+		 *	The walk tracks visited groups, so an inclusion cycle in the stored data cannot loop.
+		 */
+		protected void deriveInclusions() {
+			int groupCount = groupIds.length;
+			for (int group = 0; group < groupCount; group++) {
+				ancestorsByGroup[group] = reach(group, includersByGroup);
+				descendantsByGroup[group] = reach(group, includesByGroup);
+				owned.add(ancestorsByGroup[group]);
+				owned.add(descendantsByGroup[group]);
+			}
+			for (int user = 0; user < userIds.length; user++) {
+				deriveUser(user);
+			}
+		}
+
+		protected BitSet reach(int start, BitSet[] edges) {
+			BitSet seen = new BitSet(edges.length);
+			ArrayDeque<Integer> pending = new ArrayDeque<>();
+			seen.set(start);
+			pending.add(start);
+			while (!pending.isEmpty()) {
+				BitSet next = edges[pending.poll()];
+				for (int group = next.nextSetBit(0); group >= 0; group = next.nextSetBit(group + 1)) {
+					if (!seen.get(group)) {
+						seen.set(group);
+						pending.add(group);
+					}
+				}
+			}
+			return( seen );
+		}
+
+		protected Snapshot publish() {
+			return( new Snapshot(groupOrdinals,
+				groupIds,
+				userOrdinals,
+				userIds,
+				directGroupsByUser,
+				directUsersByGroup,
+				includesByGroup,
+				includersByGroup,
+				ancestorsByGroup,
+				descendantsByGroup,
+				effectiveGroupsByUser) );
+		}
+	}
+
+	protected final static Snapshot EMPTY_SNAPSHOT = new Snapshot(Collections.emptyMap(),
+		new CFLibDbKeyHash256[0],
+		Collections.emptyMap(),
+		new CFLibDbKeyHash256[0],
+		new BitSet[0],
+		new BitSet[0],
+		new BitSet[0],
+		new BitSet[0],
+		new BitSet[0],
+		new BitSet[0],
+		new BitSet[0]);
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	@Qualifier("cfsec31TransactionManager")
+	private PlatformTransactionManager cfsec31TransactionManager;
+
+	@Autowired
+	private CFSecJpaSecGrpMembRepository cfsec31SecGrpMembRepository;
+
+	@Autowired
+	private CFSecJpaSecGrpIncRepository cfsec31SecGrpIncRepository;
+
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Snapshot> snapshots = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Long> generations = new ConcurrentHashMap<>();
+	private final AtomicLong epoch = new AtomicLong();
+	private final Set<CFLibDbKeyHash256> backgroundLoads = ConcurrentHashMap.newKeySet();
+	private volatile ExecutorService loader = null;
+
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder discardedLoadCount = new LongAdder();
+	private final LongAdder changeCount = new LongAdder();
+	private final LongAdder invalidationCount = new LongAdder();
+
+	private volatile boolean enabled = DEFAULT_ENABLED;
+
+	/**
+	 *	Read cfsec31.secgroup.membershipindex.enabled.
+	 */
+	@PostConstruct
+	public void initIndex() {
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secgroup.membershipindex.enabled", Boolean.toString(DEFAULT_ENABLED)).trim());
+		}
+		if (enabled) {
+			loader = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "cfsec31-secgroup-membershipindex");
+				thread.setDaemon(true);
+				return( thread );
+			});
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		ExecutorService stopped = loader;
+		loader = null;
+		if (stopped != null) {
+			stopped.shutdownNow();
+		}
+	}
+
+	public boolean isEnabled() {
+		return( enabled );
+	}
+
+	public int getClusterCount() {
+		return( snapshots.size() );
+	}
+
+	public long getLoadCount() {
+		return( loadCount.sum() );
+	}
+
+	public long getDiscardedLoadCount() {
+		return( discardedLoadCount.sum() );
+	}
+
+	public long getChangeCount() {
+		return( changeCount.sum() );
+	}
+
+	public long getInvalidationCount() {
+		return( invalidationCount.sum() );
+	}
+
+	/**
+	 *	Test whether a user is effectively a member of a group within a cluster.
+	 *
+	 *		@param requiredClusterId The cluster of the group.
+	 *		@param requiredSecUserId The user to test.
+	 *		@param requiredSecGroupId The group to test.
+	 *
+	 *		@return true if the user is a direct member of the group or of any group it includes.
+	 */
+	public boolean isMember(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecUserId, CFLibDbKeyHash256 requiredSecGroupId) {
+		return( snapshot(requiredClusterId).isMember(requiredSecUserId, requiredSecGroupId) );
+	}
+
+	/**
+	 *	Get the groups a user is effectively a member of within a cluster.
+	 *
+	 *		@param requiredClusterId The cluster to resolve within.
+	 *		@param requiredSecUserId The user to resolve.
+	 *
+	 *		@return The unmodifiable set of effective SecGroupIds, empty if the user belongs to no group.
+	 */
+	public Set<CFLibDbKeyHash256> getEffectiveGroupIds(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecUserId) {
+		Snapshot snap = snapshot(requiredClusterId);
+		Integer user = snap.userOrdinals.get(requiredSecUserId);
+		if (user == null) {
+			return( Collections.emptySet() );
+		}
+		return( toIdSet(snap.effectiveGroupsByUser[user], snap.groupIds) );
+	}
+
+	/**
+	 *	Get every user that is effectively a member of a group, as the union of the direct members
+	 *	of the group and of every group it includes.
+	 *
+	 *		@param requiredClusterId The cluster of the group.
+	 *		@param requiredSecGroupId The group to resolve.
+	 *
+	 *		@return The unmodifiable set of SecUserIds, empty if the group has no members.
+	 */
+	public Set<CFLibDbKeyHash256> getMemberUserIds(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId) {
+		Snapshot snap = snapshot(requiredClusterId);
+		Integer group = snap.groupOrdinals.get(requiredSecGroupId);
+		if (group == null) {
+			return( Collections.emptySet() );
+		}
+		BitSet users = new BitSet(snap.userIds.length);
+		BitSet groups = snap.descendantsByGroup[group];
+		for (int cur = groups.nextSetBit(0); cur >= 0; cur = groups.nextSetBit(cur + 1)) {
+			users.or(snap.directUsersByGroup[cur]);
+		}
+		return( toIdSet(users, snap.userIds) );
+	}
+
+	protected static Set<CFLibDbKeyHash256> toIdSet(BitSet bits, CFLibDbKeyHash256[] ids) {
+		if (bits.isEmpty()) {
+			return( Collections.emptySet() );
+		}
+		ArrayList<CFLibDbKeyHash256> keys = new ArrayList<>(bits.cardinality());
+		for (int cur = bits.nextSetBit(0); cur >= 0; cur = bits.nextSetBit(cur + 1)) {
+			keys.add(ids[cur]);
+		}
+		return( Set.copyOf(keys) );
+	}
+
+	/**
+	 *	Get the published snapshot of a cluster, loading it if it is not indexed yet.
+	 *	Within a transaction the cluster is read on the caller's connection and not published,
+	 *	and the committed state is loaded in the background.
+	 */
+	protected Snapshot snapshot(CFLibDbKeyHash256 clusterId) {
+		final String S_ProcName = "snapshot";
+		if (clusterId == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "clusterId");
+		}
+		Snapshot snap = snapshots.get(clusterId);
+		if (snap != null) {
+			return( snap );
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			loadInBackground(clusterId);
+			return( read(clusterId) );
+		}
+		return( load(clusterId) );
+	}
+
+	/**
+	 *	Read a cluster in the current transaction, or in a read-only one of its own when there is none.
+	 */
+	protected Snapshot read(CFLibDbKeyHash256 clusterId) {
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		tx.setReadOnly(true);
+		Snapshot snap = tx.execute(status -> {
+			Draft draft = new Draft(EMPTY_SNAPSHOT);
+			for (CFSecJpaSecGrpMemb memb : cfsec31SecGrpMembRepository.findByClusterIdx(clusterId)) {
+				draft.setMembership(draft.userOrdinal(memb.getRequiredSecUserId()), draft.groupOrdinal(memb.getRequiredSecGroupId()), true);
+			}
+			for (CFSecJpaSecGrpInc inc : cfsec31SecGrpIncRepository.findByClusterIdx(clusterId)) {
+				draft.setInclusion(draft.groupOrdinal(inc.getRequiredSecGroupId()), draft.groupOrdinal(inc.getRequiredIncludeGroupId()), true);
+			}
+			draft.deriveInclusions();
+			return( draft.publish() );
+		});
+		loadCount.increment();
+		return( snap );
+	}
+
+	/**
+	 *	Read a cluster outside any transaction and publish it, unless its cluster changed while it was being read.
+	 */
+	protected Snapshot load(CFLibDbKeyHash256 clusterId) {
+		long epochBefore = epoch.get();
+		Long before = generations.get(clusterId);
+		Snapshot snap = read(clusterId);
+		Snapshot published = snapshots.compute(clusterId, (key, current) -> {
+			if (current != null) {
+				return( current );
+			}
+			// Changes bump the generation inside compute on the same key, so this test cannot interleave with one
+			if (!enabled || epochBefore != epoch.get() || !Objects.equals(before, generations.get(clusterId))) {
+				discardedLoadCount.increment();
+				return( null );
+			}
+			return( snap );
+		});
+		// A discarded load still serves this read; the next one reloads
+		return( (published != null) ? published : snap );
+	}
+
+	/**
+	 *	Load a cluster on the background thread, at most once at a time per cluster.
+	 */
+	protected void loadInBackground(CFLibDbKeyHash256 clusterId) {
+		ExecutorService running = loader;
+		if (running == null || !backgroundLoads.add(clusterId)) {
+			return;
+		}
+		try {
+			running.execute(() -> {
+				try {
+					if (!snapshots.containsKey(clusterId)) {
+						load(clusterId);
+					}
+				}
+				catch (RuntimeException e) {
+					log.error("CFSecJpaSecGroupMembershipIndex could not load cluster {}", clusterId, e);
+				}
+				finally {
+					backgroundLoads.remove(clusterId);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			backgroundLoads.remove(clusterId);
+		}
+	}
+
+	/**
+	 *	Run a change once the current transaction commits, or now outside a transaction.
+	 */
+	protected void afterCommit(Runnable change) {
+		if (!enabled) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					change.run();
+				}
+			});
+		}
+		else {
+			change.run();
+		}
+	}
+
+	protected void bumpGeneration(CFLibDbKeyHash256 clusterId) {
+		generations.merge(clusterId, 1L, Long::sum);
+	}
+
+	protected void applyMemberships(CFLibDbKeyHash256 clusterId, List<CFLibDbKeyHash256[]> changes, boolean member) {
+		snapshots.compute(clusterId, (key, snap) -> {
+			bumpGeneration(clusterId);
+			if (snap == null) {
+				return( null );
+			}
+			Draft draft = new Draft(snap);
+			for (CFLibDbKeyHash256[] change : changes) {
+				int user = draft.userOrdinal(change[0]);
+				draft.setMembership(user, draft.groupOrdinal(change[1]), member);
+				draft.deriveUser(user);
+			}
+			return( draft.publish() );
+		});
+		changeCount.add(changes.size());
+	}
+
+	protected void applyInclusions(CFLibDbKeyHash256 clusterId, List<CFLibDbKeyHash256[]> changes, boolean included) {
+		snapshots.compute(clusterId, (key, snap) -> {
+			bumpGeneration(clusterId);
+			if (snap == null) {
+				return( null );
+			}
+			Draft draft = new Draft(snap);
+			BitSet affectedUsers = new BitSet(draft.userIds.length);
+			for (CFLibDbKeyHash256[] change : changes) {
+				draft.applyInclusion(draft.groupOrdinal(change[0]), draft.groupOrdinal(change[1]), included, affectedUsers);
+			}
+			for (int user = affectedUsers.nextSetBit(0); user >= 0; user = affectedUsers.nextSetBit(user + 1)) {
+				draft.deriveUser(user);
+			}
+			return( draft.publish() );
+		});
+		changeCount.add(changes.size());
+	}
+
+	/**
+	 *	Record created memberships once the current transaction commits.
+	 */
+	public void membershipsAdded(Collection<CFSecJpaSecGrpMemb> membs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = membershipsByCluster(membs);
+		afterCommit(() -> byCluster.forEach((clusterId, changes) -> applyMemberships(clusterId, changes, true)));
+	}
+
+	/**
+	 *	Record deleted memberships once the current transaction commits.
+	 */
+	public void membershipsRemoved(Collection<CFSecJpaSecGrpMemb> membs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = membershipsByCluster(membs);
+		afterCommit(() -> byCluster.forEach((clusterId, changes) -> applyMemberships(clusterId, changes, false)));
+	}
+
+	/**
+	 *	Record a deleted membership, given only its key columns, once the current transaction commits.
+	 */
+	public void membershipRemoved(CFLibDbKeyHash256 clusterId, CFLibDbKeyHash256 secGroupId, CFLibDbKeyHash256 secUserId) {
+		List<CFLibDbKeyHash256[]> changes = List.<CFLibDbKeyHash256[]>of(new CFLibDbKeyHash256[] { secUserId, secGroupId });
+		afterCommit(() -> applyMemberships(clusterId, changes, false));
+	}
+
+	/**
+	 *	Record created inclusions once the current transaction commits.
+	 */
+	public void inclusionsAdded(Collection<CFSecJpaSecGrpInc> incs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = inclusionsByCluster(incs);
+		afterCommit(() -> byCluster.forEach((clusterId, changes) -> applyInclusions(clusterId, changes, true)));
+	}
+
+	/**
+	 *	Record deleted inclusions once the current transaction commits.
+	 */
+	public void inclusionsRemoved(Collection<CFSecJpaSecGrpInc> incs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = inclusionsByCluster(incs);
+		afterCommit(() -> byCluster.forEach((clusterId, changes) -> applyInclusions(clusterId, changes, false)));
+	}
+
+	/**
+	 *	Record a deleted inclusion, given only its key columns, once the current transaction commits.
+	 */
+	public void inclusionRemoved(CFLibDbKeyHash256 clusterId, CFLibDbKeyHash256 secGroupId, CFLibDbKeyHash256 includeGroupId) {
+		List<CFLibDbKeyHash256[]> changes = List.<CFLibDbKeyHash256[]>of(new CFLibDbKeyHash256[] { secGroupId, includeGroupId });
+		afterCommit(() -> applyInclusions(clusterId, changes, false));
+	}
+
+	/**
+	 *	Capture the (SecUserId, SecGroupId) of each membership now, as the entities may be detached or
+	 *	changed by the time the transaction commits.
+	 */
+	protected static Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> membershipsByCluster(Collection<CFSecJpaSecGrpMemb> membs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = new HashMap<>();
+		for (CFSecJpaSecGrpMemb memb : membs) {
+			byCluster.computeIfAbsent(memb.getRequiredClusterId(), key -> new ArrayList<>())
+				.add(new CFLibDbKeyHash256[] { memb.getRequiredSecUserId(), memb.getRequiredSecGroupId() });
+		}
+		return( byCluster );
+	}
+
+	/**
+	 *	Capture the (SecGroupId, IncludeGroupId) of each inclusion now, as the entities may be detached or
+	 *	changed by the time the transaction commits.
+	 */
+	protected static Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> inclusionsByCluster(Collection<CFSecJpaSecGrpInc> incs) {
+		Map<CFLibDbKeyHash256, List<CFLibDbKeyHash256[]>> byCluster = new HashMap<>();
+		for (CFSecJpaSecGrpInc inc : incs) {
+			byCluster.computeIfAbsent(inc.getRequiredClusterId(), key -> new ArrayList<>())
+				.add(new CFLibDbKeyHash256[] { inc.getRequiredSecGroupId(), inc.getRequiredIncludeGroupId() });
+		}
+		return( byCluster );
+	}
+
+	/**
+	 *	Drop a cluster's snapshot once the current transaction commits, for bulk changes; it reloads on next use.
+	 */
+	public void invalidate(CFLibDbKeyHash256 clusterId) {
+		afterCommit(() -> {
+			snapshots.compute(clusterId, (key, snap) -> {
+				bumpGeneration(clusterId);
+				if (snap != null) {
+					invalidationCount.increment();
+				}
+				return( null );
+			});
+		});
+	}
+
+	/**
+	 *	Drop every snapshot once the current transaction commits, for bulk changes that span clusters.
+	 */
+	public void invalidateAll() {
+		afterCommit(() -> {
+			epoch.incrementAndGet();
+			int count = snapshots.size();
+			snapshots.clear();
+			invalidationCount.add(count);
+		});
+	}
+}
@@ -298,4 +298,29 @@ public interface CFSecJpaSecGroupRepository extends JpaRepository<CFSecJpaSecGro
 		deleteByUNameIdx(key.getRequiredClusterId(), key.getRequiredName());
 	}
 
+	// CFSecJpaSecGroup optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSecGroupId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredContainerCluster
+	 *		@param requiredName
+	 *		@param requiredIsVisible
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSecGroup r set r.requiredContainerCluster = :cluster, r.requiredName = :name, r.requiredIsVisible = :isVisible, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredSecGroupId = :secGroupId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId,
+		@Param("revision") int requiredRevision,
+		@Param("cluster") CFSecJpaCluster requiredContainerCluster,
+		@Param("name") String requiredName,
+		@Param("isVisible") boolean requiredIsVisible,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
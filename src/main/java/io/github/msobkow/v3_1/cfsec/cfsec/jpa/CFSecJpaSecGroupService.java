@@ -67,19 +67,54 @@ public class CFSecJpaSecGroupService {
 	@Autowired
 	private CFSecJpaSecGroupRepository cfsec31SecGroupRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGroup, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecGroup create(CFSecJpaSecGroup data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGroup, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGroup createOrGetExisting(CFSecJpaSecGroup data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGroup, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGroup create(CFSecJpaSecGroup data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredSecGroupId = data.getRequiredSecGroupId();
 		boolean generatedRequiredSecGroupId = false;
 		if(data.getRequiredClusterId() == null || data.getRequiredClusterId().isNull()) {
@@ -96,18 +131,26 @@ public class CFSecJpaSecGroupService {
 		}
 		try {
 			if (data.getRequiredSecGroupId() == null || data.getRequiredSecGroupId().isNull()) {
-				data.setRequiredSecGroupId(new CFLibDbKeyHash256(0));
+				data.setRequiredSecGroupId(cfsec31IdGenService.generateSecGroupIdGen());
 				generatedRequiredSecGroupId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31SecGroupRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaSecGroup)(cfsec31SecGroupRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredSecGroupId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaSecGroup> existing = cfsec31SecGroupRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SecGroupRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredSecGroupId) {
 					data.setRequiredSecGroupId(originalRequiredSecGroupId);
 				}
@@ -148,21 +191,29 @@ public class CFSecJpaSecGroupService {
 				0,
 				"data.requiredName");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSecGroup existing = cfsec31SecGroupRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31SecGroupRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			(CFSecJpaCluster)(data.getRequiredContainerCluster()),
+			data.getRequiredName(),
+			data.getRequiredIsVisible(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSecGroup to existing object
-		existing.setRequiredContainerCluster(data.getRequiredContainerCluster());
-		// Apply data columns of CFSecSecGroup to existing object
-		existing.setRequiredName(data.getRequiredName());
-		existing.setRequiredIsVisible(data.getRequiredIsVisible());
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31SecGroupRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaSecGroup stored = cfsec31EntityManager.find(CFSecJpaSecGroup.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
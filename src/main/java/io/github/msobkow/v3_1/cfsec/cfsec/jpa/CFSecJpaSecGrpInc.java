@@ -70,38 +70,67 @@ public class CFSecJpaSecGrpInc
 		@AttributeOverride(name="bytes", column = @Column( name="SecGrpIncId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredSecGrpIncId;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="SecGrpId" )
 	protected CFSecJpaSecGroup requiredContainerGroup;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="SecGrpId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredSecGroupId;
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="IncGrpId" )
 	protected CFSecJpaSecGroup requiredParentSubGroup;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="IncGrpId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredIncludeGroupId;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGrpInc.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGrpInc.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGrpInc.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGrpInc.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@AttributeOverrides({
 		@AttributeOverride(name="bytes", column = @Column( name="ClusId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredClusterId;
 
 	public CFSecJpaSecGrpInc() {
-		requiredSecGrpIncId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.SECGRPINCID_INIT_VALUE.toString() );
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.CLUSTERID_INIT_VALUE.toString() );
+		requiredSecGrpIncId = ICFSecSecGrpInc.SECGRPINCID_INIT_VALUE;
+		requiredClusterId = ICFSecSecGrpInc.CLUSTERID_INIT_VALUE;
+	}
+
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
 	}
 
 	@Override
@@ -148,6 +177,7 @@ public class CFSecJpaSecGrpInc
 		}
 		else if (argObj instanceof CFSecJpaSecGroup) {
 			requiredContainerGroup = (CFSecJpaSecGroup)argObj;
+			requiredSecGroupId = argObj.getRequiredSecGroupId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerGroup", "argObj", argObj, "CFSecJpaSecGroup");
@@ -156,6 +186,11 @@ public class CFSecJpaSecGrpInc
 
 	@Override
 	public void setRequiredContainerGroup(CFLibDbKeyHash256 argSecGroupId) {
+		CFSecJpaSecGroup targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecGroup.class, argSecGroupId);
+		if (targetRef != null) {
+			setRequiredContainerGroup(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerGroup", 0, "ICFSecSchema.getBackingCFSec()");
@@ -179,6 +214,7 @@ public class CFSecJpaSecGrpInc
 		}
 		else if (argObj instanceof CFSecJpaSecGroup) {
 			requiredParentSubGroup = (CFSecJpaSecGroup)argObj;
+			requiredIncludeGroupId = argObj.getRequiredSecGroupId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setParentSubGroup", "argObj", argObj, "CFSecJpaSecGroup");
@@ -187,6 +223,11 @@ public class CFSecJpaSecGrpInc
 
 	@Override
 	public void setRequiredParentSubGroup(CFLibDbKeyHash256 argIncludeGroupId) {
+		CFSecJpaSecGroup targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecGroup.class, argIncludeGroupId);
+		if (targetRef != null) {
+			setRequiredParentSubGroup(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredParentSubGroup", 0, "ICFSecSchema.getBackingCFSec()");
@@ -297,6 +338,9 @@ public class CFSecJpaSecGrpInc
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredSecGroupId() {
+		if (requiredSecGroupId != null) {
+			return( requiredSecGroupId );
+		}
 		ICFSecSecGroup result = getRequiredContainerGroup();
 		if (result != null) {
 			return result.getRequiredSecGroupId();
@@ -308,6 +352,9 @@ public class CFSecJpaSecGrpInc
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredIncludeGroupId() {
+		if (requiredIncludeGroupId != null) {
+			return( requiredIncludeGroupId );
+		}
 		ICFSecSecGroup result = getRequiredParentSubGroup();
 		if (result != null) {
 			return result.getRequiredSecGroupId();
@@ -327,13 +374,13 @@ public class CFSecJpaSecGrpInc
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecGrpIncId() != null ) {
@@ -403,13 +450,13 @@ public class CFSecJpaSecGrpInc
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecGrpIncId() != null ) {
@@ -608,9 +655,9 @@ public class CFSecJpaSecGrpInc
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredSecGrpIncId().hashCode();
 		hashCode = hashCode + getRequiredClusterId().hashCode();
 		hashCode = hashCode + getRequiredSecGroupId().hashCode();
@@ -646,7 +693,7 @@ public class CFSecJpaSecGrpInc
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -654,7 +701,7 @@ public class CFSecJpaSecGrpInc
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -740,7 +787,7 @@ public class CFSecJpaSecGrpInc
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -748,7 +795,7 @@ public class CFSecJpaSecGrpInc
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -915,9 +962,9 @@ public class CFSecJpaSecGrpInc
 		setRequiredSecGrpIncId(src.getRequiredSecGrpIncId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredOwnerCluster(src.getRequiredOwnerCluster());
 		setRequiredContainerGroup(src.getRequiredContainerGroup());
 		setRequiredParentSubGroup(src.getRequiredParentSubGroup());
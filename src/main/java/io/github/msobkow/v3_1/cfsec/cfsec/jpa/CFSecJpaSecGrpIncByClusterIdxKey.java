@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpIncByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaSecGrpIncByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGrpInc.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
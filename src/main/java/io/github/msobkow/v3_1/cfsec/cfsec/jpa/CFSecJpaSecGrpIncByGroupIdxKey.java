@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpIncByGroupIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecGroupId;
 	public CFSecJpaSecGrpIncByGroupIdxKey() {
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.SECGROUPID_INIT_VALUE.toString() );
+		requiredSecGroupId = ICFSecSecGrpInc.SECGROUPID_INIT_VALUE;
 	}
 
 	@Override
@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpIncByIncludeIdxKey
 {
 	protected CFLibDbKeyHash256 requiredIncludeGroupId;
 	public CFSecJpaSecGrpIncByIncludeIdxKey() {
-		requiredIncludeGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.INCLUDEGROUPID_INIT_VALUE.toString() );
+		requiredIncludeGroupId = ICFSecSecGrpInc.INCLUDEGROUPID_INIT_VALUE;
 	}
 
 	@Override
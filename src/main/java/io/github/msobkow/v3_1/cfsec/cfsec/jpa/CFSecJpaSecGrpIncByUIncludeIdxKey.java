@@ -54,9 +54,9 @@ public class CFSecJpaSecGrpIncByUIncludeIdxKey
 	protected CFLibDbKeyHash256 requiredSecGroupId;
 	protected CFLibDbKeyHash256 requiredIncludeGroupId;
 	public CFSecJpaSecGrpIncByUIncludeIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.CLUSTERID_INIT_VALUE.toString() );
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.SECGROUPID_INIT_VALUE.toString() );
-		requiredIncludeGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.INCLUDEGROUPID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGrpInc.CLUSTERID_INIT_VALUE;
+		requiredSecGroupId = ICFSecSecGrpInc.SECGROUPID_INIT_VALUE;
+		requiredIncludeGroupId = ICFSecSecGrpInc.INCLUDEGROUPID_INIT_VALUE;
 	}
 
 	@Override
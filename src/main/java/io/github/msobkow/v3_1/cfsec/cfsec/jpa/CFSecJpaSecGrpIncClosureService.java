@@ -0,0 +1,451 @@
+// Description: Java 25 JPA materialized SecGrpInc closure maintenance
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.*;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ *	Maintains cfsec31.SecGrpClos, the materialized transitive closure of SecInc, so that "is group A
+ *	transitively included in group B" is a single primary key probe and effective membership is a single
+ *	join against SecMemb. A row (ClusId, AncGrpId, DescGrpId, depth, pathCount) records that AncGrpId
+ *	includes DescGrpId through pathCount distinct inclusion paths of length depth; direct inclusions have
+ *	depth 1 and no reflexive rows are stored.
+ *	<p>
+ *	CFSecJpaSecGrpIncService applies every inclusion it creates, updates or deletes through addInclusion and
+ *	removeInclusion, inside its own transaction. Adding the edge A includes B adds, for every path X..A and
+ *	B..Y, the path X..Y of the combined length; removing it subtracts the same counts and drops rows that
+ *	reach zero. Counting paths keeps deletions exact when the inclusion graph is a DAG with shared
+ *	sub-groups, which a set-of-pairs closure cannot. An edge that would close a cycle is rejected, since no
+ *	closure can represent it. Changes are serialized per cluster with a transaction-scoped advisory lock so
+ *	concurrent edits cannot compute deltas from each other's stale rows.
+ *	<p>
+ *	rebuild and rebuildAll recompute the closure from SecInc for repair. The table is created, and filled
+ *	when it is found empty, once the application is ready. Set cfsec31.secgrpinc.closure.enabled=false to
+ *	stop maintaining it, after which the recursive CFSecJpaSecGroupClosureService must be used instead.
+ */
+@Service("cfsec31JpaSecGrpIncClosureService")
+public class CFSecJpaSecGrpIncClosureService {
+
+	public final static boolean DEFAULT_ENABLED = true;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecGrpIncClosureService.class);
+
+	/**
+	 *	Namespace of the per-cluster advisory locks, so they cannot collide with other single-key advisory locks.
+	 */
+	public final static int LOCK_NAMESPACE = 0x53474943;
+
+	public final static String CLOSURE_TABLE_DDL = "create table if not exists " + CFSecJpaSchemaExtensionService.SCHEMA + ".SecGrpClos ( "
+		+	"ClusId bytea not null, "
+		+	"AncGrpId bytea not null, "
+		+	"DescGrpId bytea not null, "
+		+	"depth integer not null, "
+		+	"pathCount bigint not null, "
+		+	"constraint SecGrpClosPKey primary key ( ClusId, AncGrpId, DescGrpId, depth ) )";
+
+	/**
+	 *	Index for walking from an included group up to every group including it, as effective membership does.
+	 */
+	public final static String CLOSURE_DESC_IDX_DDL = "create index if not exists SecGrpClosDescIdx on " + CFSecJpaSchemaExtensionService.SCHEMA + ".SecGrpClos ( ClusId, DescGrpId, AncGrpId )";
+
+	protected final static String S_LockSql = "select 1 from ( select pg_advisory_xact_lock( :ns, :lockKey ) ) l";
+
+	protected final static String S_IsIncludedSql = "select 1 from cfsec31.SecGrpClos where ClusId = :clusterId and AncGrpId = :ancGrpId and DescGrpId = :descGrpId limit 1";
+
+	protected final static String S_ClusterByIdSql = "select ClusId from cfsec31.SecInc where SecGrpIncId = :id";
+
+	protected final static String S_ClustersByGroupSql = "select distinct ClusId from cfsec31.SecInc where SecGrpId = :id";
+
+	protected final static String S_ClustersByIncludeSql = "select distinct ClusId from cfsec31.SecInc where IncGrpId = :id";
+
+	protected final static String S_PathDeltaSql = "select cast( :clusterId as bytea ), up.anc, down.dsc, up.depth + 1 + down.depth, sum( up.cnt * down.cnt ) "
+		+	"from ( select cast( :secGroupId as bytea ) as anc, 0 as depth, cast( 1 as bigint ) as cnt "
+		+		"union all select AncGrpId, depth, pathCount from cfsec31.SecGrpClos where ClusId = :clusterId and DescGrpId = :secGroupId ) up "
+		+	"cross join ( select cast( :includeGroupId as bytea ) as dsc, 0 as depth, cast( 1 as bigint ) as cnt "
+		+		"union all select DescGrpId, depth, pathCount from cfsec31.SecGrpClos where ClusId = :clusterId and AncGrpId = :includeGroupId ) down "
+		+	"group by up.anc, down.dsc, up.depth + 1 + down.depth";
+
+	protected final static String S_AddPathsSql = "insert into cfsec31.SecGrpClos( ClusId, AncGrpId, DescGrpId, depth, pathCount ) "
+		+	S_PathDeltaSql + " "
+		+	"on conflict ( ClusId, AncGrpId, DescGrpId, depth ) do update set pathCount = SecGrpClos.pathCount + excluded.pathCount";
+
+	protected final static String S_RemovePathsSql = "update cfsec31.SecGrpClos c set pathCount = c.pathCount - d.cnt "
+		+	"from ( " + S_PathDeltaSql + " ) d( clus, anc, dsc, depth, cnt ) "
+		+	"where c.ClusId = d.clus and c.AncGrpId = d.anc and c.DescGrpId = d.dsc and c.depth = d.depth";
+
+	/**
+	 *	Delete the rows an edge removal brought to zero. Only the rows the removal touched are probed, by primary key;
+	 *	the ancestors of the including group and the descendants of the included one do not depend on the removed edge.
+	 */
+	protected final static String S_PruneSql = "delete from cfsec31.SecGrpClos c "
+		+	"using ( " + S_PathDeltaSql + " ) d( clus, anc, dsc, depth, cnt ) "
+		+	"where c.ClusId = d.clus and c.AncGrpId = d.anc and c.DescGrpId = d.dsc and c.depth = d.depth and c.pathCount <= 0";
+
+	protected final static String S_EffectiveGroupsSql = "select m.SecGroupId from cfsec31.SecMemb m "
+		+		"where m.ClusterId = :clusterId and m.SecUserId = :secUserId "
+		+	"union "
+		+	"select c.AncGrpId from cfsec31.SecMemb m "
+		+		"join cfsec31.SecGrpClos c on c.ClusId = m.ClusterId and c.DescGrpId = m.SecGroupId "
+		+		"where m.ClusterId = :clusterId and m.SecUserId = :secUserId";
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	private volatile boolean enabled = DEFAULT_ENABLED;
+
+	/**
+	 *	Read cfsec31.secgrpinc.closure.enabled.
+	 */
+	@PostConstruct
+	public void initClosure() {
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secgrpinc.closure.enabled", Boolean.toString(DEFAULT_ENABLED)).trim());
+		}
+	}
+
+	public boolean isEnabled() {
+		return( enabled );
+	}
+
+	/**
+	 *	Create the closure table if it does not exist, and fill it if it is empty while SecInc is not.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(propagation = Propagation.REQUIRED, transactionManager = "cfsec31TransactionManager")
+	public void ensureClosureTable() {
+		if (!enabled) {
+			return;
+		}
+		try {
+			cfsec31EntityManager.createNativeQuery(CLOSURE_TABLE_DDL).executeUpdate();
+			cfsec31EntityManager.createNativeQuery(CLOSURE_DESC_IDX_DDL).executeUpdate();
+			boolean closureEmpty = cfsec31EntityManager.createNativeQuery("select 1 from cfsec31.SecGrpClos limit 1").getResultList().isEmpty();
+			boolean inclusionsEmpty = cfsec31EntityManager.createNativeQuery("select 1 from cfsec31.SecInc limit 1").getResultList().isEmpty();
+			if (closureEmpty && !inclusionsEmpty) {
+				rebuildAll();
+			}
+		}
+		catch (RuntimeException ex) {
+			throw new CFLibDbException(getClass(),
+				"ensureClosureTable",
+				ex);
+		}
+	}
+
+	/**
+	 *	Serialize closure changes within a cluster until the current transaction ends.
+	 */
+	protected void lockCluster(CFLibDbKeyHash256 clusterId) {
+		lockKey(clusterId.hashCode());
+	}
+
+	protected void lockKey(int lockKey) {
+		cfsec31EntityManager.createNativeQuery(S_LockSql)
+			.setParameter("ns", LOCK_NAMESPACE)
+			.setParameter("lockKey", lockKey)
+			.getSingleResult();
+	}
+
+	/**
+	 *	Lock a cluster before its stored inclusions are read for a change, so the rows read are the ones the
+	 *	closure reflects when the change is applied.
+	 *
+	 *		@param requiredClusterId The cluster of the inclusions about to be changed.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void lockInclusionCluster(CFLibDbKeyHash256 requiredClusterId) {
+		if (!enabled || requiredClusterId == null) {
+			return;
+		}
+		lockCluster(requiredClusterId);
+	}
+
+	/**
+	 *	Lock the cluster of a stored inclusion before it is read for deletion.
+	 *
+	 *		@param requiredSecGrpIncId The inclusion about to be deleted.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void lockClusterById(CFLibDbKeyHash256 requiredSecGrpIncId) {
+		lockClustersOf(S_ClusterByIdSql, requiredSecGrpIncId);
+	}
+
+	/**
+	 *	Lock every cluster holding an inclusion by the group before they are read for deletion.
+	 *
+	 *		@param requiredSecGroupId The including group.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void lockClustersByGroup(CFLibDbKeyHash256 requiredSecGroupId) {
+		lockClustersOf(S_ClustersByGroupSql, requiredSecGroupId);
+	}
+
+	/**
+	 *	Lock every cluster holding an inclusion of the group before they are read for deletion.
+	 *
+	 *		@param requiredIncludeGroupId The included group.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void lockClustersByInclude(CFLibDbKeyHash256 requiredIncludeGroupId) {
+		lockClustersOf(S_ClustersByIncludeSql, requiredIncludeGroupId);
+	}
+
+	protected void lockClustersOf(String sql, CFLibDbKeyHash256 id) {
+		if (!enabled || id == null) {
+			return;
+		}
+		List<?> rows = cfsec31EntityManager.createNativeQuery(sql)
+			.setParameter("id", CFSecJpaSecGroupClosureService.toBytes(id))
+			.getResultList();
+		// Take the locks in a fixed order so two multi-cluster deletes cannot deadlock each other
+		TreeSet<Integer> lockKeys = new TreeSet<>();
+		for (Object row : rows) {
+			lockKeys.add(CFSecJpaSecGroupClosureService.fromBytes((byte[])row).hashCode());
+		}
+		for (Integer lockKey : lockKeys) {
+			lockKey(lockKey.intValue());
+		}
+	}
+
+	/**
+	 *	Test whether one group transitively includes another.
+	 *
+	 *		@param requiredClusterId The cluster of both groups.
+	 *		@param ancestorGroupId The including group.
+	 *		@param descendantGroupId The included group.
+	 *
+	 *		@return true if ancestorGroupId includes descendantGroupId through one or more inclusions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public boolean isIncluded(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 ancestorGroupId, CFLibDbKeyHash256 descendantGroupId) {
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_IsIncludedSql)
+			.setParameter("clusterId", CFSecJpaSecGroupClosureService.toBytes(requiredClusterId))
+			.setParameter("ancGrpId", CFSecJpaSecGroupClosureService.toBytes(ancestorGroupId))
+			.setParameter("descGrpId", CFSecJpaSecGroupClosureService.toBytes(descendantGroupId))
+			.getResultList();
+		return( !rows.isEmpty() );
+	}
+
+	/**
+	 *	Resolve every SecGroup the user is a member of within the cluster, directly or through inclusion,
+	 *	with a single join of SecMemb against the closure.
+	 *
+	 *		@param requiredClusterId The cluster to resolve within.
+	 *		@param requiredSecUserId The user to resolve.
+	 *
+	 *		@return The unmodifiable set of effective SecGroupIds, empty if the user belongs to no group.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public Set<CFLibDbKeyHash256> resolveEffectiveGroupIds(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecUserId) {
+		List<?> rows = cfsec31EntityManager.createNativeQuery(S_EffectiveGroupsSql)
+			.setParameter("clusterId", CFSecJpaSecGroupClosureService.toBytes(requiredClusterId))
+			.setParameter("secUserId", CFSecJpaSecGroupClosureService.toBytes(requiredSecUserId))
+			.getResultList();
+		if (rows.isEmpty()) {
+			return( Collections.emptySet() );
+		}
+		ArrayList<CFLibDbKeyHash256> keys = new ArrayList<>(rows.size());
+		for (Object row : rows) {
+			keys.add(CFSecJpaSecGroupClosureService.fromBytes((byte[])row));
+		}
+		return( Set.copyOf(keys) );
+	}
+
+	/**
+	 *	Lock the cluster and reject an inclusion that would close a cycle, before its SecInc row is written.
+	 *
+	 *		@param requiredClusterId The cluster of the inclusion.
+	 *		@param requiredSecGroupId The including group.
+	 *		@param requiredIncludeGroupId The included group.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void verifyInclusion(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId, CFLibDbKeyHash256 requiredIncludeGroupId) {
+		final String S_ProcName = "verifyInclusion";
+		if (!enabled) {
+			return;
+		}
+		lockCluster(requiredClusterId);
+		if (requiredSecGroupId.equals(requiredIncludeGroupId)
+			|| isIncluded(requiredClusterId, requiredIncludeGroupId, requiredSecGroupId))
+		{
+			throw new CFLibInvalidArgumentException(getClass(),
+				S_ProcName,
+				"SecGroup " + requiredSecGroupId.toString() + " cannot include " + requiredIncludeGroupId.toString() + " because that would create an inclusion cycle",
+				"SecGroup " + requiredSecGroupId.toString() + " cannot include " + requiredIncludeGroupId.toString() + " because that would create an inclusion cycle");
+		}
+	}
+
+	/**
+	 *	Add the paths created by a new inclusion. The caller must have passed verifyInclusion in the same transaction.
+	 *
+	 *		@param requiredClusterId The cluster of the inclusion.
+	 *		@param requiredSecGroupId The including group.
+	 *		@param requiredIncludeGroupId The included group.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void addInclusion(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId, CFLibDbKeyHash256 requiredIncludeGroupId) {
+		if (!enabled) {
+			return;
+		}
+		lockCluster(requiredClusterId);
+		applyPathDelta(S_AddPathsSql, requiredClusterId, requiredSecGroupId, requiredIncludeGroupId);
+	}
+
+	/**
+	 *	Remove the paths carried by an existing inclusion. Must only be called for an inclusion that is stored.
+	 *
+	 *		@param requiredClusterId The cluster of the inclusion.
+	 *		@param requiredSecGroupId The including group.
+	 *		@param requiredIncludeGroupId The included group.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void removeInclusion(CFLibDbKeyHash256 requiredClusterId, CFLibDbKeyHash256 requiredSecGroupId, CFLibDbKeyHash256 requiredIncludeGroupId) {
+		if (!enabled) {
+			return;
+		}
+		lockCluster(requiredClusterId);
+		applyPathDelta(S_RemovePathsSql, requiredClusterId, requiredSecGroupId, requiredIncludeGroupId);
+		applyPathDelta(S_PruneSql, requiredClusterId, requiredSecGroupId, requiredIncludeGroupId);
+	}
+
+	/**
+	 *	Remove the paths carried by each of a list of stored inclusions, as the bulk deletes require.
+	 *
+	 *		@param inclusions The inclusions about to be deleted.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void removeInclusions(List<CFSecJpaSecGrpInc> inclusions) {
+		if (!enabled || inclusions == null) {
+			return;
+		}
+		for (CFSecJpaSecGrpInc cur : inclusions) {
+			removeInclusion(cur.getRequiredClusterId(), cur.getRequiredSecGroupId(), cur.getRequiredIncludeGroupId());
+		}
+	}
+
+	/**
+	 *	Drop every closure row of a cluster, as deleting all of its inclusions requires.
+	 *
+	 *		@param requiredClusterId The cluster whose inclusions are about to be deleted.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY, transactionManager = "cfsec31TransactionManager")
+	public void removeCluster(CFLibDbKeyHash256 requiredClusterId) {
+		if (!enabled) {
+			return;
+		}
+		lockCluster(requiredClusterId);
+		cfsec31EntityManager.createNativeQuery("delete from cfsec31.SecGrpClos where ClusId = :clusterId")
+			.setParameter("clusterId", CFSecJpaSecGroupClosureService.toBytes(requiredClusterId))
+			.executeUpdate();
+	}
+
+	protected void applyPathDelta(String sql, CFLibDbKeyHash256 clusterId, CFLibDbKeyHash256 secGroupId, CFLibDbKeyHash256 includeGroupId) {
+		cfsec31EntityManager.createNativeQuery(sql)
+			.setParameter("clusterId", CFSecJpaSecGroupClosureService.toBytes(clusterId))
+			.setParameter("secGroupId", CFSecJpaSecGroupClosureService.toBytes(secGroupId))
+			.setParameter("includeGroupId", CFSecJpaSecGroupClosureService.toBytes(includeGroupId))
+			.executeUpdate();
+	}
+
+	/**
+	 *	Recompute the closure of one cluster from its SecInc rows, replaying each inclusion through the
+	 *	incremental algorithm. Inclusions that would close a cycle are left out of the closure and reported.
+	 *
+	 *		@param requiredClusterId The cluster to rebuild.
+	 *
+	 *		@return The number of inclusions left out because they close a cycle.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, transactionManager = "cfsec31TransactionManager")
+	public int rebuild(CFLibDbKeyHash256 requiredClusterId) {
+		final String S_ProcName = "rebuild";
+		if (requiredClusterId == null || requiredClusterId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredClusterId");
+		}
+		lockCluster(requiredClusterId);
+		byte[] clusterBytes = CFSecJpaSecGroupClosureService.toBytes(requiredClusterId);
+		cfsec31EntityManager.createNativeQuery("delete from cfsec31.SecGrpClos where ClusId = :clusterId")
+			.setParameter("clusterId", clusterBytes)
+			.executeUpdate();
+		List<?> rows = cfsec31EntityManager.createNativeQuery("select SecGrpId, IncGrpId from cfsec31.SecInc where ClusId = :clusterId")
+			.setParameter("clusterId", clusterBytes)
+			.getResultList();
+		int skipped = 0;
+		for (Object row : rows) {
+			Object[] cols = (Object[])row;
+			CFLibDbKeyHash256 secGroupId = CFSecJpaSecGroupClosureService.fromBytes((byte[])cols[0]);
+			CFLibDbKeyHash256 includeGroupId = CFSecJpaSecGroupClosureService.fromBytes((byte[])cols[1]);
+			if (secGroupId.equals(includeGroupId) || isIncluded(requiredClusterId, includeGroupId, secGroupId)) {
+				log.error("rebuild() skipped inclusion of {} by {} in cluster {} because it closes a cycle", includeGroupId, secGroupId, requiredClusterId);
+				skipped++;
+				continue;
+			}
+			applyPathDelta(S_AddPathsSql, requiredClusterId, secGroupId, includeGroupId);
+		}
+		return( skipped );
+	}
+
+	/**
+	 *	Recompute the closure of every cluster from SecInc.
+	 *
+	 *		@return The number of inclusions left out because they close a cycle.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, transactionManager = "cfsec31TransactionManager")
+	public int rebuildAll() {
+		cfsec31EntityManager.createNativeQuery("delete from cfsec31.SecGrpClos").executeUpdate();
+		List<?> rows = cfsec31EntityManager.createNativeQuery("select distinct ClusId from cfsec31.SecInc").getResultList();
+		int skipped = 0;
+		for (Object row : rows) {
+			skipped += rebuild(CFSecJpaSecGroupClosureService.fromBytes((byte[])row));
+		}
+		return( skipped );
+	}
+}
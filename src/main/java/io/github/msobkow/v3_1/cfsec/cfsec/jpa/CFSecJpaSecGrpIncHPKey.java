@@ -80,11 +80,11 @@ public class CFSecJpaSecGrpIncHPKey
 
 	public CFSecJpaSecGrpIncHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredSecGrpIncId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpInc.SECGRPINCID_INIT_VALUE.toString() );
+		requiredSecGrpIncId = ICFSecSecGrpInc.SECGRPINCID_INIT_VALUE;
 	}
 
 	@Override
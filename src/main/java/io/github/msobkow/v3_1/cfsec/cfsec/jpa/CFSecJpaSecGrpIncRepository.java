@@ -361,4 +361,40 @@ public interface CFSecJpaSecGrpIncRepository extends JpaRepository<CFSecJpaSecGr
 		deleteByUIncludeIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredIncludeGroupId());
 	}
 
+	// CFSecJpaSecGrpInc optimistic update methods
+
+	/**
+	 *	Read only the cached key columns of an entity, so an update can move its cache entries
+	 *	without loading the whole row.
+	 *
+	 *		@param requiredSecGrpIncId
+	 *
+	 *		@return One (ClusterId, SecGroupId, IncludeGroupId) row, or an empty list if there is no such entity.
+	 */
+	@Query("select r.requiredClusterId, r.requiredSecGroupId, r.requiredIncludeGroupId from CFSecJpaSecGrpInc r where r.requiredSecGrpIncId = :secGrpIncId")
+	List<Object[]> findKeyColumnsByIdIdx(@Param("secGrpIncId") CFLibDbKeyHash256 requiredSecGrpIncId);
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSecGrpIncId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredClusterId
+	 *		@param requiredContainerGroup
+	 *		@param requiredParentSubGroup
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSecGrpInc r set r.requiredClusterId = :clusterId, r.requiredContainerGroup = :group, r.requiredParentSubGroup = :subGroup, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredSecGrpIncId = :secGrpIncId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("secGrpIncId") CFLibDbKeyHash256 requiredSecGrpIncId,
+		@Param("revision") int requiredRevision,
+		@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
+		@Param("group") CFSecJpaSecGroup requiredContainerGroup,
+		@Param("subGroup") CFSecJpaSecGroup requiredParentSubGroup,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
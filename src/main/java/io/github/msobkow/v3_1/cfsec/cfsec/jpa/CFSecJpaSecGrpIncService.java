@@ -67,19 +67,63 @@ public class CFSecJpaSecGrpIncService {
 	@Autowired
 	private CFSecJpaSecGrpIncRepository cfsec31SecGrpIncRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaSecGrpIncClosureService cfsec31SecGrpIncClosureService;
+
+	@Autowired
+	private CFSecJpaSecGroupMembershipIndex cfsec31SecGroupMembershipIndex;
+
+	@Autowired
+	private CFSecJpaGroupInclusionCycleDetector cfsec31GroupInclusionCycleDetector;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpInc, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecGrpInc create(CFSecJpaSecGrpInc data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpInc, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGrpInc createOrGetExisting(CFSecJpaSecGrpInc data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpInc, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGrpInc create(CFSecJpaSecGrpInc data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredSecGrpIncId = data.getRequiredSecGrpIncId();
 		boolean generatedRequiredSecGrpIncId = false;
 		if(data.getRequiredClusterId() == null || data.getRequiredClusterId().isNull()) {
@@ -100,20 +144,34 @@ public class CFSecJpaSecGrpIncService {
 				0,
 				"data.requiredIncludeGroupId");
 		}
+		if (!cfsec31SecGrpIncClosureService.isEnabled()) {
+			cfsec31GroupInclusionCycleDetector.verifySecGrpInc(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId(), null);
+		}
+		cfsec31SecGrpIncClosureService.verifyInclusion(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId());
 		try {
 			if (data.getRequiredSecGrpIncId() == null || data.getRequiredSecGrpIncId().isNull()) {
-				data.setRequiredSecGrpIncId(new CFLibDbKeyHash256(0));
+				data.setRequiredSecGrpIncId(cfsec31IdGenService.generateSecGrpIncIdGen());
 				generatedRequiredSecGrpIncId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31SecGrpIncRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaSecGrpInc)(cfsec31SecGrpIncRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredSecGrpIncId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaSecGrpInc> existing = cfsec31SecGrpIncRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SecGrpIncRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31SecGrpIncClosureService.addInclusion(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId());
+			cfsec31SecGroupMembershipIndex.inclusionsAdded(List.of(data));
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredSecGrpIncId) {
 					data.setRequiredSecGrpIncId(originalRequiredSecGrpIncId);
 				}
@@ -160,21 +218,55 @@ public class CFSecJpaSecGrpIncService {
 				0,
 				"data.requiredIncludeGroupId");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSecGrpInc existing = cfsec31SecGrpIncRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// Lock before reading so the stored inclusion cannot change underneath the closure update
+		cfsec31SecGrpIncClosureService.lockInclusionCluster(data.getRequiredClusterId());
+		cfsec31SecGrpIncClosureService.lockClusterById((CFLibDbKeyHash256)(data.getPKey()));
+		// Only the stored key columns are read, to move the caches; the revision is checked by the conditional UPDATE
+		List<Object[]> storedKeys = cfsec31SecGrpIncRepository.findKeyColumnsByIdIdx((CFLibDbKeyHash256)(data.getPKey()));
+		if (storedKeys.isEmpty()) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSecGrpInc to existing object
-		existing.setRequiredOwnerCluster(data.getRequiredOwnerCluster());
-		existing.setRequiredContainerGroup(data.getRequiredContainerGroup());
-		existing.setRequiredParentSubGroup(data.getRequiredParentSubGroup());
-		// Apply data columns of CFSecSecGrpInc to existing object
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31SecGrpIncRepository.save(existing);
+		CFLibDbKeyHash256 existingClusterId = (CFLibDbKeyHash256)(storedKeys.get(0)[0]);
+		CFLibDbKeyHash256 existingSecGroupId = (CFLibDbKeyHash256)(storedKeys.get(0)[1]);
+		CFLibDbKeyHash256 existingIncludeGroupId = (CFLibDbKeyHash256)(storedKeys.get(0)[2]);
+		// Move the inclusion's closure paths when the inclusion itself changes
+		boolean inclusionChanged = !existingClusterId.equals(data.getRequiredClusterId())
+			|| !existingSecGroupId.equals(data.getRequiredSecGroupId())
+			|| !existingIncludeGroupId.equals(data.getRequiredIncludeGroupId());
+		if (inclusionChanged) {
+			cfsec31SecGrpIncClosureService.removeInclusion(existingClusterId, existingSecGroupId, existingIncludeGroupId);
+			if (!cfsec31SecGrpIncClosureService.isEnabled()) {
+				cfsec31GroupInclusionCycleDetector.verifySecGrpInc(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId(), (CFLibDbKeyHash256)(data.getPKey()));
+			}
+			cfsec31SecGrpIncClosureService.verifyInclusion(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId());
+			cfsec31SecGroupMembershipIndex.inclusionRemoved(existingClusterId, existingSecGroupId, existingIncludeGroupId);
+			cfsec31SecGroupMembershipIndex.inclusionsAdded(List.of(data));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31SecGrpIncRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredClusterId(),
+			(CFSecJpaSecGroup)(data.getRequiredContainerGroup()),
+			(CFSecJpaSecGroup)(data.getRequiredParentSubGroup()),
+			now);
+		if (updated == 0) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		if (inclusionChanged) {
+			cfsec31SecGrpIncClosureService.addInclusion(data.getRequiredClusterId(), data.getRequiredSecGroupId(), data.getRequiredIncludeGroupId());
+		}
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaSecGrpInc stored = cfsec31EntityManager.find(CFSecJpaSecGrpInc.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -428,6 +520,12 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("secGrpIncId") CFLibDbKeyHash256 requiredSecGrpIncId) {
+		cfsec31SecGrpIncClosureService.lockClusterById(requiredSecGrpIncId);
+		Optional<CFSecJpaSecGrpInc> existing = cfsec31SecGrpIncRepository.findById(requiredSecGrpIncId);
+		if (existing.isPresent()) {
+			cfsec31SecGrpIncClosureService.removeInclusions(List.of(existing.get()));
+			cfsec31SecGroupMembershipIndex.inclusionsRemoved(List.of(existing.get()));
+		}
 		cfsec31SecGrpIncRepository.deleteByIdIdx(requiredSecGrpIncId);
 	}
 
@@ -438,6 +536,8 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByClusterIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId) {
+		cfsec31SecGrpIncClosureService.removeCluster(requiredClusterId);
+		cfsec31SecGroupMembershipIndex.invalidate(requiredClusterId);
 		cfsec31SecGrpIncRepository.deleteByClusterIdx(requiredClusterId);
 	}
 
@@ -448,7 +548,7 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByClusterIdx(ICFSecSecGrpIncByClusterIdxKey key) {
-		cfsec31SecGrpIncRepository.deleteByClusterIdx(key.getRequiredClusterId());
+		deleteByClusterIdx(key.getRequiredClusterId());
 	}
 
 	/**
@@ -458,6 +558,10 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId) {
+		cfsec31SecGrpIncClosureService.lockClustersByGroup(requiredSecGroupId);
+		List<CFSecJpaSecGrpInc> existing = cfsec31SecGrpIncRepository.findByGroupIdx(requiredSecGroupId);
+		cfsec31SecGrpIncClosureService.removeInclusions(existing);
+		cfsec31SecGroupMembershipIndex.inclusionsRemoved(existing);
 		cfsec31SecGrpIncRepository.deleteByGroupIdx(requiredSecGroupId);
 	}
 
@@ -468,7 +572,7 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(ICFSecSecGrpIncByGroupIdxKey key) {
-		cfsec31SecGrpIncRepository.deleteByGroupIdx(key.getRequiredSecGroupId());
+		deleteByGroupIdx(key.getRequiredSecGroupId());
 	}
 
 	/**
@@ -478,6 +582,10 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIncludeIdx(@Param("includeGroupId") CFLibDbKeyHash256 requiredIncludeGroupId) {
+		cfsec31SecGrpIncClosureService.lockClustersByInclude(requiredIncludeGroupId);
+		List<CFSecJpaSecGrpInc> existing = cfsec31SecGrpIncRepository.findByIncludeIdx(requiredIncludeGroupId);
+		cfsec31SecGrpIncClosureService.removeInclusions(existing);
+		cfsec31SecGroupMembershipIndex.inclusionsRemoved(existing);
 		cfsec31SecGrpIncRepository.deleteByIncludeIdx(requiredIncludeGroupId);
 	}
 
@@ -488,7 +596,7 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIncludeIdx(ICFSecSecGrpIncByIncludeIdxKey key) {
-		cfsec31SecGrpIncRepository.deleteByIncludeIdx(key.getRequiredIncludeGroupId());
+		deleteByIncludeIdx(key.getRequiredIncludeGroupId());
 	}
 
 	/**
@@ -502,6 +610,14 @@ public class CFSecJpaSecGrpIncService {
 	public void deleteByUIncludeIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
 		@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId,
 		@Param("includeGroupId") CFLibDbKeyHash256 requiredIncludeGroupId) {
+		cfsec31SecGrpIncClosureService.lockInclusionCluster(requiredClusterId);
+		CFSecJpaSecGrpInc existing = cfsec31SecGrpIncRepository.findByUIncludeIdx(requiredClusterId,
+			requiredSecGroupId,
+			requiredIncludeGroupId);
+		if (existing != null) {
+			cfsec31SecGrpIncClosureService.removeInclusions(List.of(existing));
+			cfsec31SecGroupMembershipIndex.inclusionsRemoved(List.of(existing));
+		}
 		cfsec31SecGrpIncRepository.deleteByUIncludeIdx(requiredClusterId,
 			requiredSecGroupId,
 			requiredIncludeGroupId);
@@ -514,7 +630,7 @@ public class CFSecJpaSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUIncludeIdx(ICFSecSecGrpIncByUIncludeIdxKey key) {
-		cfsec31SecGrpIncRepository.deleteByUIncludeIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredIncludeGroupId());
+		deleteByUIncludeIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredIncludeGroupId());
 	}
 
 }
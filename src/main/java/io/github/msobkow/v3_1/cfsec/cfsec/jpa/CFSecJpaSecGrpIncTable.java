@@ -134,6 +134,9 @@ public class CFSecJpaSecGrpIncTable implements ICFSecSecGrpIncTable
 	@Autowired
 	private CFSecJpaTSecGrpMembService tsecgrpmembService;
 
+	@Autowired
+	private CFSecJpaSecGrpIncClosureService secgrpincClosureService;
+
 
 	public CFSecJpaSecGrpIncTable(ICFSecSchema schema) {
 		if( schema == null ) {
@@ -742,4 +745,43 @@ public class CFSecJpaSecGrpIncTable implements ICFSecSecGrpIncTable
 	{
 		throw new CFLibNotImplementedYetException(getClass(), "pageRecByIncludeIdx");
 	}
+
+	/**
+	 *	Test whether one SecGroup transitively includes another, using the materialized inclusion closure.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	ClusterId	The cluster of both groups.
+	 *
+	 *	@param	SecGroupId	The including group.
+	 *
+	 *	@param	IncludeGroupId	The included group.
+	 *
+	 *	@return true if SecGroupId includes IncludeGroupId through one or more inclusions.
+	 */
+	public boolean isSecGroupIncluded( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argClusterId,
+		CFLibDbKeyHash256 argSecGroupId,
+		CFLibDbKeyHash256 argIncludeGroupId )
+	{
+		return( secgrpincClosureService.isIncluded(argClusterId, argSecGroupId, argIncludeGroupId) );
+	}
+
+	/**
+	 *	Recompute the materialized inclusion closure of a cluster from its SecGrpInc rows, for repair.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	ClusterId	The cluster to rebuild, or null to rebuild every cluster.
+	 *
+	 *	@return The number of inclusions left out of the closure because they close a cycle.
+	 */
+	public int rebuildSecGrpIncClosure( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argClusterId )
+	{
+		if( argClusterId == null || argClusterId.isNull() ) {
+			return( secgrpincClosureService.rebuildAll() );
+		}
+		return( secgrpincClosureService.rebuild(argClusterId) );
+	}
 }
@@ -70,38 +70,67 @@ public class CFSecJpaSecGrpMemb
 		@AttributeOverride(name="bytes", column = @Column( name="SecGrpMembId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredSecGrpMembId;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="SecGroupId" )
 	protected CFSecJpaSecGroup requiredContainerGroup;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="SecGroupId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredSecGroupId;
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="SecUserId" )
 	protected CFSecJpaSecUser requiredParentUser;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="SecUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredSecUserId;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGrpMemb.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecGrpMemb.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGrpMemb.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecGrpMemb.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@AttributeOverrides({
 		@AttributeOverride(name="bytes", column = @Column( name="ClusterId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredClusterId;
 
 	public CFSecJpaSecGrpMemb() {
-		requiredSecGrpMembId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECGRPMEMBID_INIT_VALUE.toString() );
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE.toString() );
+		requiredSecGrpMembId = ICFSecSecGrpMemb.SECGRPMEMBID_INIT_VALUE;
+		requiredClusterId = ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE;
+	}
+
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
 	}
 
 	@Override
@@ -148,6 +177,7 @@ public class CFSecJpaSecGrpMemb
 		}
 		else if (argObj instanceof CFSecJpaSecGroup) {
 			requiredContainerGroup = (CFSecJpaSecGroup)argObj;
+			requiredSecGroupId = argObj.getRequiredSecGroupId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerGroup", "argObj", argObj, "CFSecJpaSecGroup");
@@ -156,6 +186,11 @@ public class CFSecJpaSecGrpMemb
 
 	@Override
 	public void setRequiredContainerGroup(CFLibDbKeyHash256 argSecGroupId) {
+		CFSecJpaSecGroup targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecGroup.class, argSecGroupId);
+		if (targetRef != null) {
+			setRequiredContainerGroup(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerGroup", 0, "ICFSecSchema.getBackingCFSec()");
@@ -179,6 +214,7 @@ public class CFSecJpaSecGrpMemb
 		}
 		else if (argObj instanceof CFSecJpaSecUser) {
 			requiredParentUser = (CFSecJpaSecUser)argObj;
+			requiredSecUserId = argObj.getRequiredSecUserId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setParentUser", "argObj", argObj, "CFSecJpaSecUser");
@@ -187,6 +223,11 @@ public class CFSecJpaSecGrpMemb
 
 	@Override
 	public void setRequiredParentUser(CFLibDbKeyHash256 argSecUserId) {
+		CFSecJpaSecUser targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, argSecUserId);
+		if (targetRef != null) {
+			setRequiredParentUser(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredParentUser", 0, "ICFSecSchema.getBackingCFSec()");
@@ -297,6 +338,9 @@ public class CFSecJpaSecGrpMemb
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredSecGroupId() {
+		if (requiredSecGroupId != null) {
+			return( requiredSecGroupId );
+		}
 		ICFSecSecGroup result = getRequiredContainerGroup();
 		if (result != null) {
 			return result.getRequiredSecGroupId();
@@ -308,6 +352,9 @@ public class CFSecJpaSecGrpMemb
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredSecUserId() {
+		if (requiredSecUserId != null) {
+			return( requiredSecUserId );
+		}
 		ICFSecSecUser result = getRequiredParentUser();
 		if (result != null) {
 			return result.getRequiredSecUserId();
@@ -327,13 +374,13 @@ public class CFSecJpaSecGrpMemb
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecGrpMembId() != null ) {
@@ -403,13 +450,13 @@ public class CFSecJpaSecGrpMemb
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecGrpMembId() != null ) {
@@ -608,9 +655,9 @@ public class CFSecJpaSecGrpMemb
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredSecGrpMembId().hashCode();
 		hashCode = hashCode + getRequiredClusterId().hashCode();
 		hashCode = hashCode + getRequiredSecGroupId().hashCode();
@@ -646,7 +693,7 @@ public class CFSecJpaSecGrpMemb
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -654,7 +701,7 @@ public class CFSecJpaSecGrpMemb
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -740,7 +787,7 @@ public class CFSecJpaSecGrpMemb
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -748,7 +795,7 @@ public class CFSecJpaSecGrpMemb
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -915,9 +962,9 @@ public class CFSecJpaSecGrpMemb
 		setRequiredSecGrpMembId(src.getRequiredSecGrpMembId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredOwnerCluster(src.getRequiredOwnerCluster());
 		setRequiredContainerGroup(src.getRequiredContainerGroup());
 		setRequiredParentUser(src.getRequiredParentUser());
@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpMembByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaSecGrpMembByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
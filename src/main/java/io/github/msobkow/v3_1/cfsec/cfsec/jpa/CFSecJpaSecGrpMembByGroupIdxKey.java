@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpMembByGroupIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecGroupId;
 	public CFSecJpaSecGrpMembByGroupIdxKey() {
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECGROUPID_INIT_VALUE.toString() );
+		requiredSecGroupId = ICFSecSecGrpMemb.SECGROUPID_INIT_VALUE;
 	}
 
 	@Override
@@ -54,9 +54,9 @@ public class CFSecJpaSecGrpMembByUUserIdxKey
 	protected CFLibDbKeyHash256 requiredSecGroupId;
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaSecGrpMembByUUserIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE.toString() );
-		requiredSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECGROUPID_INIT_VALUE.toString() );
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECUSERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSecGrpMemb.CLUSTERID_INIT_VALUE;
+		requiredSecGroupId = ICFSecSecGrpMemb.SECGROUPID_INIT_VALUE;
+		requiredSecUserId = ICFSecSecGrpMemb.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
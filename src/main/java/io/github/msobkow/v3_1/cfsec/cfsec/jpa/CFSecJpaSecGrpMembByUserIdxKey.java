@@ -52,7 +52,7 @@ public class CFSecJpaSecGrpMembByUserIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaSecGrpMembByUserIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecGrpMemb.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
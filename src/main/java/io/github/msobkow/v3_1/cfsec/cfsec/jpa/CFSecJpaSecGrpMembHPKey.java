@@ -80,11 +80,11 @@ public class CFSecJpaSecGrpMembHPKey
 
 	public CFSecJpaSecGrpMembHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredSecGrpMembId = CFLibDbKeyHash256.fromHex( ICFSecSecGrpMemb.SECGRPMEMBID_INIT_VALUE.toString() );
+		requiredSecGrpMembId = ICFSecSecGrpMemb.SECGRPMEMBID_INIT_VALUE;
 	}
 
 	@Override
@@ -159,6 +159,37 @@ public interface CFSecJpaSecGrpMembRepository extends JpaRepository<CFSecJpaSecG
 		return( findByUUserIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredSecUserId()));
 	}
 
+	/**
+	 *	Probe for a row using the columns of the CFSecSecGrpMembByUUserIdxKey as arguments, without instantiating the entity.
+	 *	Only the key columns are referenced, so the database can answer from the SecGrpMembUUserIdx index alone.
+	 *
+	 *		@param requiredClusterId
+	 *		@param requiredSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return 1 if the row exists, or null if no such row exists.
+	 */
+	@Query("select 1 from CFSecJpaSecGrpMemb r where r.requiredClusterId = :clusterId and r.requiredSecGroupId = :secGroupId and r.requiredSecUserId = :secUserId limit 1")
+	Integer probeByUUserIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
+		@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId,
+		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Test for a row using the columns of the CFSecSecGrpMembByUUserIdxKey as arguments, without instantiating the entity.
+	 *
+	 *		@param requiredClusterId
+	 *		@param requiredSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return true if the user is a direct member of the group.
+	 */
+	default boolean existsByUUserIdx(CFLibDbKeyHash256 requiredClusterId,
+		CFLibDbKeyHash256 requiredSecGroupId,
+		CFLibDbKeyHash256 requiredSecUserId)
+	{
+		return( probeByUUserIdx(requiredClusterId, requiredSecGroupId, requiredSecUserId) != null );
+	}
+
 	// CFSecJpaSecGrpMemb specified delete-by-index methods
 
 	/**
@@ -361,4 +392,40 @@ public interface CFSecJpaSecGrpMembRepository extends JpaRepository<CFSecJpaSecG
 		deleteByUUserIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredSecUserId());
 	}
 
+	// CFSecJpaSecGrpMemb optimistic update methods
+
+	/**
+	 *	Read only the cached key columns of an entity, so an update can move its cache entries
+	 *	without loading the whole row.
+	 *
+	 *		@param requiredSecGrpMembId
+	 *
+	 *		@return One (ClusterId, SecGroupId, SecUserId) row, or an empty list if there is no such entity.
+	 */
+	@Query("select r.requiredClusterId, r.requiredSecGroupId, r.requiredSecUserId from CFSecJpaSecGrpMemb r where r.requiredSecGrpMembId = :secGrpMembId")
+	List<Object[]> findKeyColumnsByIdIdx(@Param("secGrpMembId") CFLibDbKeyHash256 requiredSecGrpMembId);
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSecGrpMembId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredClusterId
+	 *		@param requiredContainerGroup
+	 *		@param requiredParentUser
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSecGrpMemb r set r.requiredClusterId = :clusterId, r.requiredContainerGroup = :group, r.requiredParentUser = :user, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredSecGrpMembId = :secGrpMembId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("secGrpMembId") CFLibDbKeyHash256 requiredSecGrpMembId,
+		@Param("revision") int requiredRevision,
+		@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
+		@Param("group") CFSecJpaSecGroup requiredContainerGroup,
+		@Param("user") CFSecJpaSecUser requiredParentUser,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -67,19 +67,57 @@ public class CFSecJpaSecGrpMembService {
 	@Autowired
 	private CFSecJpaSecGrpMembRepository cfsec31SecGrpMembRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaSecGroupMembershipIndex cfsec31SecGroupMembershipIndex;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpMemb, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecGrpMemb create(CFSecJpaSecGrpMemb data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpMemb, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGrpMemb createOrGetExisting(CFSecJpaSecGrpMemb data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecGrpMemb, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecGrpMemb create(CFSecJpaSecGrpMemb data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredSecGrpMembId = data.getRequiredSecGrpMembId();
 		boolean generatedRequiredSecGrpMembId = false;
 		if(data.getRequiredClusterId() == null || data.getRequiredClusterId().isNull()) {
@@ -102,18 +140,27 @@ public class CFSecJpaSecGrpMembService {
 		}
 		try {
 			if (data.getRequiredSecGrpMembId() == null || data.getRequiredSecGrpMembId().isNull()) {
-				data.setRequiredSecGrpMembId(new CFLibDbKeyHash256(0));
+				data.setRequiredSecGrpMembId(cfsec31IdGenService.generateSecGrpMembIdGen());
 				generatedRequiredSecGrpMembId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31SecGrpMembRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaSecGrpMemb)(cfsec31SecGrpMembRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredSecGrpMembId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaSecGrpMemb> existing = cfsec31SecGrpMembRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SecGrpMembRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31SecGroupMembershipIndex.membershipsAdded(List.of(data));
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredSecGrpMembId) {
 					data.setRequiredSecGrpMembId(originalRequiredSecGrpMembId);
 				}
@@ -160,21 +207,44 @@ public class CFSecJpaSecGrpMembService {
 				0,
 				"data.requiredSecUserId");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSecGrpMemb existing = cfsec31SecGrpMembRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// Only the stored key columns are read, to move the caches; the revision is checked by the conditional UPDATE
+		List<Object[]> storedKeys = cfsec31SecGrpMembRepository.findKeyColumnsByIdIdx((CFLibDbKeyHash256)(data.getPKey()));
+		if (storedKeys.isEmpty()) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		CFLibDbKeyHash256 existingClusterId = (CFLibDbKeyHash256)(storedKeys.get(0)[0]);
+		CFLibDbKeyHash256 existingSecGroupId = (CFLibDbKeyHash256)(storedKeys.get(0)[1]);
+		CFLibDbKeyHash256 existingSecUserId = (CFLibDbKeyHash256)(storedKeys.get(0)[2]);
+		// Move the membership in the index when the membership itself changes
+		boolean membershipChanged = !existingClusterId.equals(data.getRequiredClusterId())
+			|| !existingSecGroupId.equals(data.getRequiredSecGroupId())
+			|| !existingSecUserId.equals(data.getRequiredSecUserId());
+		if (membershipChanged) {
+			cfsec31SecGroupMembershipIndex.membershipRemoved(existingClusterId, existingSecGroupId, existingSecUserId);
+			cfsec31SecGroupMembershipIndex.membershipsAdded(List.of(data));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31SecGrpMembRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredClusterId(),
+			(CFSecJpaSecGroup)(data.getRequiredContainerGroup()),
+			(CFSecJpaSecUser)(data.getRequiredParentUser()),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSecGrpMemb to existing object
-		existing.setRequiredOwnerCluster(data.getRequiredOwnerCluster());
-		existing.setRequiredContainerGroup(data.getRequiredContainerGroup());
-		existing.setRequiredParentUser(data.getRequiredParentUser());
-		// Apply data columns of CFSecSecGrpMemb to existing object
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31SecGrpMembRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaSecGrpMemb stored = cfsec31EntityManager.find(CFSecJpaSecGrpMemb.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -303,6 +373,25 @@ public class CFSecJpaSecGrpMembService {
 		return( cfsec31SecGrpMembRepository.findByUUserIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredSecUserId()));
 	}
 
+	/**
+	 *	Argument-based existence test on the UUserIdx columns that does not instantiate the entity.
+	 *
+	 *		@param requiredClusterId
+	 *		@param requiredSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return true if the user is a direct member of the group.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public boolean existsByUUserIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
+		@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId,
+		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId)
+	{
+		return( cfsec31SecGrpMembRepository.existsByUUserIdx(requiredClusterId,
+			requiredSecGroupId,
+			requiredSecUserId) );
+	}
+
 	// CFSecSecGrpMemb specified lock-by-index methods
 
 	/**
@@ -428,6 +517,10 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("secGrpMembId") CFLibDbKeyHash256 requiredSecGrpMembId) {
+		Optional<CFSecJpaSecGrpMemb> existing = cfsec31SecGrpMembRepository.findById(requiredSecGrpMembId);
+		if (existing.isPresent()) {
+			cfsec31SecGroupMembershipIndex.membershipsRemoved(List.of(existing.get()));
+		}
 		cfsec31SecGrpMembRepository.deleteByIdIdx(requiredSecGrpMembId);
 	}
 
@@ -438,6 +531,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByClusterIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId) {
+		cfsec31SecGroupMembershipIndex.invalidate(requiredClusterId);
 		cfsec31SecGrpMembRepository.deleteByClusterIdx(requiredClusterId);
 	}
 
@@ -448,7 +542,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByClusterIdx(ICFSecSecGrpMembByClusterIdxKey key) {
-		cfsec31SecGrpMembRepository.deleteByClusterIdx(key.getRequiredClusterId());
+		deleteByClusterIdx(key.getRequiredClusterId());
 	}
 
 	/**
@@ -458,6 +552,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId) {
+		cfsec31SecGroupMembershipIndex.membershipsRemoved(cfsec31SecGrpMembRepository.findByGroupIdx(requiredSecGroupId));
 		cfsec31SecGrpMembRepository.deleteByGroupIdx(requiredSecGroupId);
 	}
 
@@ -468,7 +563,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(ICFSecSecGrpMembByGroupIdxKey key) {
-		cfsec31SecGrpMembRepository.deleteByGroupIdx(key.getRequiredSecGroupId());
+		deleteByGroupIdx(key.getRequiredSecGroupId());
 	}
 
 	/**
@@ -478,6 +573,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		cfsec31SecGroupMembershipIndex.membershipsRemoved(cfsec31SecGrpMembRepository.findByUserIdx(requiredSecUserId));
 		cfsec31SecGrpMembRepository.deleteByUserIdx(requiredSecUserId);
 	}
 
@@ -488,7 +584,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUserIdx(ICFSecSecGrpMembByUserIdxKey key) {
-		cfsec31SecGrpMembRepository.deleteByUserIdx(key.getRequiredSecUserId());
+		deleteByUserIdx(key.getRequiredSecUserId());
 	}
 
 	/**
@@ -502,6 +598,12 @@ public class CFSecJpaSecGrpMembService {
 	public void deleteByUUserIdx(@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
 		@Param("secGroupId") CFLibDbKeyHash256 requiredSecGroupId,
 		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		CFSecJpaSecGrpMemb existing = cfsec31SecGrpMembRepository.findByUUserIdx(requiredClusterId,
+			requiredSecGroupId,
+			requiredSecUserId);
+		if (existing != null) {
+			cfsec31SecGroupMembershipIndex.membershipsRemoved(List.of(existing));
+		}
 		cfsec31SecGrpMembRepository.deleteByUUserIdx(requiredClusterId,
 			requiredSecGroupId,
 			requiredSecUserId);
@@ -514,7 +616,7 @@ public class CFSecJpaSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUUserIdx(ICFSecSecGrpMembByUUserIdxKey key) {
-		cfsec31SecGrpMembRepository.deleteByUUserIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredSecUserId());
+		deleteByUUserIdx(key.getRequiredClusterId(), key.getRequiredSecGroupId(), key.getRequiredSecUserId());
 	}
 
 }
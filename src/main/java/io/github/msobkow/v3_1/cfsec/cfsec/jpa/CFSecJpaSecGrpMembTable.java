@@ -134,6 +134,15 @@ public class CFSecJpaSecGrpMembTable implements ICFSecSecGrpMembTable
 	@Autowired
 	private CFSecJpaTSecGrpMembService tsecgrpmembService;
 
+	@Autowired
+	private CFSecJpaSecGroupClosureService secgroupClosureService;
+
+	@Autowired
+	private CFSecJpaSecGrpIncClosureService secgrpincClosureService;
+
+	@Autowired
+	private CFSecJpaSecGroupMembershipIndex secgroupMembershipIndex;
+
 
 	public CFSecJpaSecGrpMembTable(ICFSecSchema schema) {
 		if( schema == null ) {
@@ -498,6 +507,57 @@ public class CFSecJpaSecGrpMembTable implements ICFSecSecGrpMembTable
 		return( retset );
 	}
 
+	/**
+	 *	Resolve the SecGroupIds a user is effectively a member of within a cluster, following
+	 *	SecGrpInc inclusions transitively through the in-memory membership index when it is enabled,
+	 *	else through the materialized closure when it is maintained, or in a single recursive query.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	ClusterId	The cluster to resolve within.
+	 *
+	 *	@param	SecUserId	The user to resolve.
+	 *
+	 *	@return The unmodifiable set of effective SecGroupIds, potentially empty.
+	 */
+	public Set<CFLibDbKeyHash256> readEffectiveSecGroupIds( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argClusterId,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		if( secgroupMembershipIndex.isEnabled() ) {
+			return( secgroupMembershipIndex.getEffectiveGroupIds(argClusterId, argSecUserId) );
+		}
+		if( secgrpincClosureService.isEnabled() ) {
+			return( secgrpincClosureService.resolveEffectiveGroupIds(argClusterId, argSecUserId) );
+		}
+		return( secgroupClosureService.resolveEffectiveGroupIds(argClusterId, argSecUserId) );
+	}
+
+	/**
+	 *	Test whether a user is effectively a member of a group, directly or through SecGrpInc inclusions,
+	 *	using the in-memory membership index when it is enabled.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	ClusterId	The cluster of the group.
+	 *
+	 *	@param	SecUserId	The user to test.
+	 *
+	 *	@param	SecGroupId	The group to test.
+	 *
+	 *	@return true if the user is effectively a member of the group.
+	 */
+	public boolean isSecGroupMember( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argClusterId,
+		CFLibDbKeyHash256 argSecUserId,
+		CFLibDbKeyHash256 argSecGroupId )
+	{
+		if( secgroupMembershipIndex.isEnabled() ) {
+			return( secgroupMembershipIndex.isMember(argClusterId, argSecUserId, argSecGroupId) );
+		}
+		return( readEffectiveSecGroupIds(Authorization, argClusterId, argSecUserId).contains(argSecGroupId) );
+	}
+
 	/**
 	 *	Read the derived SecGrpMemb record instance identified by the unique key UUserIdx.
 	 *
@@ -523,6 +583,31 @@ public class CFSecJpaSecGrpMembTable implements ICFSecSecGrpMembTable
 		argSecUserId) );
 	}
 
+	/**
+	 *	Test whether a user is a direct member of a SecGroup with a single existence query on the
+	 *	unique key UUserIdx, without reading the SecGrpMemb record or its relationships.
+	 *	The arguments are ordered scope, user, group like isSecGroupMember, not in UUserIdx column order.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	ClusterId	The SecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@param	SecUserId	The SecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@param	SecGroupId	The SecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@return true if such a SecGrpMemb exists.
+	 */
+	public boolean isDirectMember( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argClusterId,
+		CFLibDbKeyHash256 argSecUserId,
+		CFLibDbKeyHash256 argSecGroupId )
+	{
+		return( secgrpmembService.existsByUUserIdx(argClusterId,
+			argSecGroupId,
+			argSecUserId) );
+	}
+
 	/**
 	 *	Read the specific SecGrpMemb record instance identified by the primary key.
 	 *
@@ -66,19 +66,31 @@ public class CFSecJpaSecSession
 		ICFSecSecSession,
 		Serializable
 {
+	protected static final LocalDateTime INIT_START = CFLibXmlUtil.parseTimestamp("2020-01-01T00:00:00");
+
 	@Id
 	@AttributeOverrides({
 		@AttributeOverride(name="bytes", column = @Column( name="SecSessionId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredSecSessionId;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="SecUserId" )
 	protected CFSecJpaSecUser requiredContainerSecUser;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="SecUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredSecUserId;
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="SecProxyId" )
 	protected CFSecJpaSecUser requiredParentSecProxy;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="SecProxyId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	// Required like its association; ICFSecSecSession still exposes it as getOptionalSecProxyId()
+	protected CFLibDbKeyHash256 requiredSecProxyId;
 
 	@Column( name="SecDevName", nullable=true, length=127 )
 	protected String optionalSecDevName;
@@ -88,9 +100,9 @@ public class CFSecJpaSecSession
 	protected LocalDateTime optionalFinish;
 
 	public CFSecJpaSecSession() {
-		requiredSecSessionId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECSESSIONID_INIT_VALUE.toString() );
+		requiredSecSessionId = ICFSecSecSession.SECSESSIONID_INIT_VALUE;
 		optionalSecDevName = null;
-		requiredStart = CFLibXmlUtil.parseTimestamp("2020-01-01T00:00:00");
+		requiredStart = INIT_START;
 		optionalFinish = null;
 	}
 
@@ -110,6 +122,7 @@ public class CFSecJpaSecSession
 		}
 		else if (argObj instanceof CFSecJpaSecUser) {
 			requiredContainerSecUser = (CFSecJpaSecUser)argObj;
+			requiredSecUserId = argObj.getRequiredSecUserId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerSecUser", "argObj", argObj, "CFSecJpaSecUser");
@@ -118,6 +131,11 @@ public class CFSecJpaSecSession
 
 	@Override
 	public void setRequiredContainerSecUser(CFLibDbKeyHash256 argSecUserId) {
+		CFSecJpaSecUser targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, argSecUserId);
+		if (targetRef != null) {
+			setRequiredContainerSecUser(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerSecUser", 0, "ICFSecSchema.getBackingCFSec()");
@@ -141,6 +159,7 @@ public class CFSecJpaSecSession
 		}
 		else if (argObj instanceof CFSecJpaSecUser) {
 			requiredParentSecProxy = (CFSecJpaSecUser)argObj;
+			requiredSecProxyId = argObj.getRequiredSecUserId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setParentSecProxy", "argObj", argObj, "CFSecJpaSecUser");
@@ -149,6 +168,11 @@ public class CFSecJpaSecSession
 
 	@Override
 	public void setRequiredParentSecProxy(CFLibDbKeyHash256 argSecProxyId) {
+		CFSecJpaSecUser targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, argSecProxyId);
+		if (targetRef != null) {
+			setRequiredParentSecProxy(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredParentSecProxy", 0, "ICFSecSchema.getBackingCFSec()");
@@ -202,6 +226,9 @@ public class CFSecJpaSecSession
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredSecUserId() {
+		if (requiredSecUserId != null) {
+			return( requiredSecUserId );
+		}
 		ICFSecSecUser result = getRequiredContainerSecUser();
 		if (result != null) {
 			return result.getRequiredSecUserId();
@@ -257,6 +284,9 @@ public class CFSecJpaSecSession
 
 	@Override
 	public CFLibDbKeyHash256 getOptionalSecProxyId() {
+		if (requiredSecProxyId != null) {
+			return( requiredSecProxyId );
+		}
 		ICFSecSecUser result = getRequiredParentSecProxy();
 		if (result != null) {
 			return result.getRequiredSecUserId();
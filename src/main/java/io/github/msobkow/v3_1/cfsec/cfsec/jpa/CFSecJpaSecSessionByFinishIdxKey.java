@@ -53,7 +53,7 @@ public class CFSecJpaSecSessionByFinishIdxKey
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	protected LocalDateTime optionalFinish;
 	public CFSecJpaSecSessionByFinishIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecSession.SECUSERID_INIT_VALUE;
 		optionalFinish = null;
 	}
 
@@ -53,7 +53,7 @@ public class CFSecJpaSecSessionBySecDevIdxKey
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	protected String optionalSecDevName;
 	public CFSecJpaSecSessionBySecDevIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecSession.SECUSERID_INIT_VALUE;
 		optionalSecDevName = null;
 	}
 
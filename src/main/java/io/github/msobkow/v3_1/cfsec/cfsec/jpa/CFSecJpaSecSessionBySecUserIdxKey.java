@@ -52,7 +52,7 @@ public class CFSecJpaSecSessionBySecUserIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaSecSessionBySecUserIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecSession.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
@@ -50,11 +50,13 @@ import io.github.msobkow.v3_1.cfsec.cfsec.*;
 public class CFSecJpaSecSessionByStartIdxKey
 	implements ICFSecSecSessionByStartIdxKey, Comparable<Object>, Serializable
 {
+	protected static final LocalDateTime INIT_START = CFLibXmlUtil.parseTimestamp("2020-01-01T00:00:00");
+
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	protected LocalDateTime requiredStart;
 	public CFSecJpaSecSessionByStartIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECUSERID_INIT_VALUE.toString() );
-		requiredStart = CFLibXmlUtil.parseTimestamp("2020-01-01T00:00:00");
+		requiredSecUserId = ICFSecSecSession.SECUSERID_INIT_VALUE;
+		requiredStart = INIT_START;
 	}
 
 	@Override
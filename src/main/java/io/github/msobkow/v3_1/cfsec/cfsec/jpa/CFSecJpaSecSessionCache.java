@@ -0,0 +1,488 @@
+// Description: Java 25 Spring JPA write-through cache for SecSession
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import jakarta.annotation.PostConstruct;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *	Bounded in-process cache of open SecSession rows keyed by SecSessionId, consulted by
+ *	CFSecJpaSecSessionTable before it reads through CFSecJpaSecSessionService.
+ *	The cache holds an immutable Snapshot of each session's columns, never the entity itself, so no
+ *	EntityManager state or lazy proxy is shared between threads; every hit is a new detached copy.
+ *	The service writes created and updated sessions through to the cache once the surrounding
+ *	transaction commits, and evicts a session as soon as it is finished or deleted.
+ *	A read-through only stores what it read if no write or eviction happened while it was reading, and
+ *	never stores a row read inside a transaction, which may not be committed; so a session finished or
+ *	deleted concurrently cannot be republished as open.
+ *	Entries also expire after cfsec31.secsession.cache.ttl.seconds, and the cache never holds more than
+ *	cfsec31.secsession.cache.maxsize entries; a maximum size of 0 disables caching.
+ */
+@Service("cfsec31JpaSecSessionCache")
+public class CFSecJpaSecSessionCache {
+
+	public final static int DEFAULT_MAX_SIZE = 10000;
+	public final static long DEFAULT_TTL_SECONDS = 300;
+
+	/**
+	 *	The cached columns of one open session.
+	 */
+	public static final class Snapshot {
+		protected final CFLibDbKeyHash256 secSessionId;
+		protected final int revision;
+		protected final CFLibDbKeyHash256 secUserId;
+		protected final CFLibDbKeyHash256 secProxyId;
+		protected final String secDevName;
+		protected final LocalDateTime start;
+		protected final LocalDateTime finish;
+
+		protected Snapshot( CFSecJpaSecSession session ) {
+			this.secSessionId = session.getRequiredSecSessionId();
+			this.revision = session.getRequiredRevision();
+			this.secUserId = session.getRequiredSecUserId();
+			this.secProxyId = session.getOptionalSecProxyId();
+			this.secDevName = session.getOptionalSecDevName();
+			this.start = session.getRequiredStart();
+			this.finish = session.getOptionalFinish();
+		}
+
+		public CFLibDbKeyHash256 getRequiredSecSessionId() {
+			return( secSessionId );
+		}
+
+		public int getRequiredRevision() {
+			return( revision );
+		}
+
+		public CFLibDbKeyHash256 getRequiredSecUserId() {
+			return( secUserId );
+		}
+
+		public CFLibDbKeyHash256 getOptionalSecProxyId() {
+			return( secProxyId );
+		}
+
+		public String getOptionalSecDevName() {
+			return( secDevName );
+		}
+
+		public LocalDateTime getRequiredStart() {
+			return( start );
+		}
+
+		public LocalDateTime getOptionalFinish() {
+			return( finish );
+		}
+
+		/**
+		 *	Build a new detached session from the snapshot.  The SecUser and SecProxy ids are always set;
+		 *	the associations are wired to references owned by the caller's transaction when one is active,
+		 *	and are left null otherwise.
+		 *
+		 *		@return A new instance that the caller may modify freely.
+		 */
+		public CFSecJpaSecSession toSession() {
+			CFSecJpaSecSession session = new CFSecJpaSecSession();
+			session.setRequiredSecSessionId(secSessionId);
+			session.setRequiredRevision(revision);
+			session.requiredSecUserId = secUserId;
+			session.requiredSecProxyId = secProxyId;
+			session.requiredContainerSecUser = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, secUserId);
+			session.requiredParentSecProxy = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, secProxyId);
+			session.setOptionalSecDevName(secDevName);
+			session.setRequiredStart(start);
+			session.setOptionalFinish(finish);
+			return( session );
+		}
+	}
+
+	protected static final class Entry {
+		protected final Snapshot snapshot;
+		protected final long expiresAtNanos;
+
+		protected Entry( Snapshot snapshot, long expiresAtNanos ) {
+			this.snapshot = snapshot;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 *	Every entry in the order it was put.  All entries share one TTL, so the head is always the
+	 *	entry closest to expiry, and makeRoom evicts from the head without sorting.  Replaced and
+	 *	evicted entries stay behind as stale nodes until they reach the head or a purge removes them.
+	 */
+	private final ConcurrentLinkedQueue<Entry> putOrder = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger putOrderLength = new AtomicInteger();
+
+	/**
+	 *	Bumped by every write and eviction, both when it happens and when its transaction completes.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	private volatile int maxSize = DEFAULT_MAX_SIZE;
+	private volatile long ttlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TTL_SECONDS);
+
+	/**
+	 *	Size the cache from cfsec31.secsession.cache.maxsize and cfsec31.secsession.cache.ttl.seconds.
+	 */
+	@PostConstruct
+	public void initCache() {
+		if (appMergedProperties != null) {
+			setMaxSize(Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.cache.maxsize", Integer.toString(DEFAULT_MAX_SIZE)).trim()));
+			setTtlSeconds(Long.parseLong(appMergedProperties.getProperty("cfsec31.secsession.cache.ttl.seconds", Long.toString(DEFAULT_TTL_SECONDS)).trim()));
+		}
+	}
+
+	public int getMaxSize() {
+		return( maxSize );
+	}
+
+	public void setMaxSize(int value) {
+		if (value < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(),
+				"setMaxSize",
+				1,
+				"value",
+				value,
+				0);
+		}
+		maxSize = value;
+		if (value == 0) {
+			invalidateAll();
+		}
+	}
+
+	public long getTtlSeconds() {
+		return( TimeUnit.NANOSECONDS.toSeconds(ttlNanos) );
+	}
+
+	public void setTtlSeconds(long value) {
+		if (value < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(),
+				"setTtlSeconds",
+				1,
+				"value",
+				(int)Math.max(value, Integer.MIN_VALUE),
+				1);
+		}
+		ttlNanos = TimeUnit.SECONDS.toNanos(value);
+	}
+
+	public boolean isEnabled() {
+		return( maxSize > 0 );
+	}
+
+	public long getHitCount() {
+		return( hitCount.sum() );
+	}
+
+	public long getMissCount() {
+		return( missCount.sum() );
+	}
+
+	public long getEvictionCount() {
+		return( evictionCount.sum() );
+	}
+
+	public int size() {
+		return( entries.size() );
+	}
+
+	/**
+	 *	Look up a session.
+	 *
+	 *		@param	secSessionId	The key of the session.
+	 *
+	 *		@return A new copy of the cached open session, or null if it is not cached or its entry has expired.
+	 */
+	public CFSecJpaSecSession get(CFLibDbKeyHash256 secSessionId) {
+		if (secSessionId == null || !isEnabled()) {
+			return( null );
+		}
+		Entry entry = entries.get(secSessionId);
+		if (entry == null) {
+			missCount.increment();
+			return( null );
+		}
+		if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+			if (entries.remove(secSessionId, entry)) {
+				evictionCount.increment();
+			}
+			missCount.increment();
+			return( null );
+		}
+		hitCount.increment();
+		return( entry.snapshot.toSession() );
+	}
+
+	/**
+	 *	Look up a session, reading it through the loader on a miss.  What the loader returns is cached
+	 *	only outside a transaction, and only if no write or eviction happened while it was loading.
+	 *
+	 *		@param	secSessionId	The key of the session.
+	 *		@param	loader	Reads the session from the database.
+	 *
+	 *		@return The session, or null if the loader did not find it.
+	 */
+	public CFSecJpaSecSession get(CFLibDbKeyHash256 secSessionId, Function<CFLibDbKeyHash256, CFSecJpaSecSession> loader) {
+		if (loader == null) {
+			throw new CFLibNullArgumentException(getClass(), "get", 2, "loader");
+		}
+		CFSecJpaSecSession cached = get(secSessionId);
+		if (cached != null) {
+			return( cached );
+		}
+		long before = generation.get();
+		CFSecJpaSecSession read = loader.apply(secSessionId);
+		if (read != null && !TransactionSynchronizationManager.isActualTransactionActive() && generation.get() == before) {
+			Entry stored = store(read);
+			if (stored != null && generation.get() != before) {
+				// Invalidated while being stored
+				if (entries.remove(read.getRequiredSecSessionId(), stored)) {
+					evictionCount.increment();
+				}
+			}
+		}
+		return( read );
+	}
+
+	/**
+	 *	Cache a snapshot of a session that is known to be committed.
+	 *	Finished sessions are never cached; caching one evicts any entry held for its key.
+	 *
+	 *		@param	session	The session to cache.
+	 */
+	public void put(CFSecJpaSecSession session) {
+		store(session);
+	}
+
+	/**
+	 *	@return The entry stored, or null if nothing was stored.
+	 */
+	protected Entry store(CFSecJpaSecSession session) {
+		if (session == null || session.getRequiredSecSessionId() == null || !isEnabled()) {
+			return( null );
+		}
+		CFLibDbKeyHash256 key = session.getRequiredSecSessionId();
+		if (session.getOptionalFinish() != null) {
+			evict(key);
+			return( null );
+		}
+		if (!entries.containsKey(key) && entries.size() >= maxSize) {
+			makeRoom();
+		}
+		Entry entry = new Entry(new Snapshot(session), System.nanoTime() + ttlNanos);
+		entries.put(key, entry);
+		putOrder.offer(entry);
+		if (putOrderLength.incrementAndGet() > 2 * Math.max(maxSize, 1)) {
+			purgeStale();
+		}
+		return( entry );
+	}
+
+	/**
+	 *	Write a created or updated session through to the cache.
+	 *	Inside a transaction the entry is dropped now and only re-published after commit,
+	 *	so a rolled-back change is never served from the cache.
+	 *
+	 *		@param	session	The session that was written.
+	 */
+	public void writeThrough(CFSecJpaSecSession session) {
+		if (session == null || session.getRequiredSecSessionId() == null || !isEnabled()) {
+			return;
+		}
+		generation.incrementAndGet();
+		evict(session.getRequiredSecSessionId());
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					put(session);
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					generation.incrementAndGet();
+				}
+			});
+		}
+		else {
+			put(session);
+		}
+	}
+
+	/**
+	 *	Evict one session, for example because it was deleted or finished.
+	 *	Inside a transaction the key is evicted again after completion so a concurrent
+	 *	read-through cannot republish the pre-transaction state.
+	 *
+	 *		@param	secSessionId	The key of the session.
+	 */
+	public void invalidate(CFLibDbKeyHash256 secSessionId) {
+		if (secSessionId == null) {
+			return;
+		}
+		generation.incrementAndGet();
+		evict(secSessionId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					generation.incrementAndGet();
+					evict(secSessionId);
+				}
+			});
+		}
+	}
+
+	/**
+	 *	Evict every session matching a predicate, for bulk changes that do not name individual keys.
+	 *
+	 *		@param	matches	Selects the sessions to evict.
+	 */
+	public void invalidateIf(Predicate<Snapshot> matches) {
+		if (matches == null) {
+			throw new CFLibNullArgumentException(getClass(), "invalidateIf", 1, "matches");
+		}
+		generation.incrementAndGet();
+		evictIf(matches);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					generation.incrementAndGet();
+					evictIf(matches);
+				}
+			});
+		}
+	}
+
+	/**
+	 *	Evict every session.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		int count = entries.size();
+		entries.clear();
+		evictionCount.add(count);
+		synchronized (putOrder) {
+			putOrder.clear();
+			putOrderLength.set(0);
+		}
+	}
+
+	protected void evict(CFLibDbKeyHash256 secSessionId) {
+		if (entries.remove(secSessionId) != null) {
+			evictionCount.increment();
+		}
+	}
+
+	protected void evictIf(Predicate<Snapshot> matches) {
+		Iterator<Entry> iter = entries.values().iterator();
+		while (iter.hasNext()) {
+			if (matches.test(iter.next().snapshot)) {
+				iter.remove();
+				evictionCount.increment();
+			}
+		}
+	}
+
+	protected boolean isLive(Entry entry) {
+		return( entries.get(entry.snapshot.getRequiredSecSessionId()) == entry );
+	}
+
+	/**
+	 *	Evict from the head of the put order: stale nodes and expired entries first, then the live
+	 *	entries closest to expiry until the cache is down to 90% of capacity, so a full cache does
+	 *	not come back here on every insert.
+	 */
+	protected void makeRoom() {
+		synchronized (putOrder) {
+			long now = System.nanoTime();
+			int target = maxSize - maxSize / 10;
+			for (Entry head = putOrder.peek(); head != null; head = putOrder.peek()) {
+				boolean live = isLive(head);
+				if (live && now - head.expiresAtNanos < 0 && entries.size() < target) {
+					break;
+				}
+				putOrder.poll();
+				putOrderLength.decrementAndGet();
+				if (live && entries.remove(head.snapshot.getRequiredSecSessionId(), head)) {
+					evictionCount.increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 *	Drop the stale nodes left behind by replaced and evicted entries.  This runs only once the
+	 *	queue has grown to twice the capacity, so its cost is spread over at least maxSize puts.
+	 */
+	protected void purgeStale() {
+		synchronized (putOrder) {
+			Iterator<Entry> iter = putOrder.iterator();
+			while (iter.hasNext()) {
+				if (!isLive(iter.next())) {
+					iter.remove();
+					putOrderLength.decrementAndGet();
+				}
+			}
+		}
+	}
+}
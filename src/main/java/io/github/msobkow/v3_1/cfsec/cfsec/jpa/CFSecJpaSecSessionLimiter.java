@@ -0,0 +1,452 @@
+// Description: Java 25 Spring JPA concurrent-session limiter for SecSession
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *	Caps the number of concurrently open sessions per SecUser and per SecDevice.
+ *
+ *	In the default mode each user and each device has its own in-memory counter, seeded from the
+ *	database on first use and advanced with a compare-and-set, so logins for one user never queue
+ *	behind a row lock. The counters are reconciled against the database every
+ *	cfsec31.secsession.limit.reconcile.seconds, which also corrects for sessions finished by other nodes.
+ *	In strict mode (cfsec31.secsession.limit.strict=true) the check is made in the database instead,
+ *	by CFSecJpaSecSessionService.createWithinLimits.
+ *
+ *	The caps are cfsec31.secsession.limit.user.max and cfsec31.secsession.limit.device.max, 0 meaning
+ *	unlimited, and can be overridden per cluster as
+ *	cfsec31.secsession.limit.cluster.&lt;FullDomName&gt;.user.max and .device.max.
+ */
+@Service("cfsec31JpaSecSessionLimiter")
+public class CFSecJpaSecSessionLimiter {
+
+	public final static int UNLIMITED = 0;
+	public final static long DEFAULT_RECONCILE_SECONDS = 60;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecSessionLimiter.class);
+
+	public final static String CLUSTER_PREFIX = "cfsec31.secsession.limit.cluster.";
+
+	/**
+	 *	The caps that apply to one cluster.
+	 */
+	public static final class Limits {
+		protected final int maxUserSessions;
+		protected final int maxDeviceSessions;
+
+		public Limits( int maxUserSessions, int maxDeviceSessions ) {
+			this.maxUserSessions = maxUserSessions;
+			this.maxDeviceSessions = maxDeviceSessions;
+		}
+
+		public int getMaxUserSessions() {
+			return( maxUserSessions );
+		}
+
+		public int getMaxDeviceSessions() {
+			return( maxDeviceSessions );
+		}
+
+		public boolean isUnlimited() {
+			return( maxUserSessions == UNLIMITED && maxDeviceSessions == UNLIMITED );
+		}
+	}
+
+	protected static final class DeviceKey {
+		protected final CFLibDbKeyHash256 secUserId;
+		protected final String secDevName;
+
+		protected DeviceKey( CFLibDbKeyHash256 secUserId, String secDevName ) {
+			this.secUserId = secUserId;
+			this.secDevName = secDevName;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if( this == obj ) {
+				return( true );
+			}
+			if( !( obj instanceof DeviceKey ) ) {
+				return( false );
+			}
+			DeviceKey rhs = (DeviceKey)obj;
+			return( secUserId.equals( rhs.secUserId ) && secDevName.equals( rhs.secDevName ) );
+		}
+
+		@Override
+		public int hashCode() {
+			return( secUserId.hashCode() * 31 + secDevName.hashCode() );
+		}
+	}
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	private CFSecJpaSecSessionRepository cfsec31SecSessionRepository;
+
+	@Autowired
+	private CFSecJpaClusterService cfsec31ClusterService;
+
+	private final ConcurrentHashMap<CFLibDbKeyHash256, AtomicInteger> userCounts = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<DeviceKey, AtomicInteger> deviceCounts = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<CFLibDbKeyHash256, Limits> clusterLimits = new ConcurrentHashMap<>();
+
+	private final LongAdder rejectedCount = new LongAdder();
+	private final LongAdder reconcileCount = new LongAdder();
+
+	private Limits defaultLimits = new Limits(UNLIMITED, UNLIMITED);
+	private boolean strict = false;
+	private long reconcileSeconds = DEFAULT_RECONCILE_SECONDS;
+	private ScheduledExecutorService executor = null;
+
+	/**
+	 *	Read cfsec31.secsession.limit.* and schedule reconciliation if any cap is configured.
+	 */
+	@PostConstruct
+	public void initLimiter() {
+		if (appMergedProperties != null) {
+			defaultLimits = new Limits(readCap("cfsec31.secsession.limit.user.max", UNLIMITED),
+				readCap("cfsec31.secsession.limit.device.max", UNLIMITED));
+			strict = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secsession.limit.strict", "false").trim());
+			reconcileSeconds = Long.parseLong(appMergedProperties.getProperty("cfsec31.secsession.limit.reconcile.seconds", Long.toString(DEFAULT_RECONCILE_SECONDS)).trim());
+		}
+		if (reconcileSeconds < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), "initLimiter", 0, "cfsec31.secsession.limit.reconcile.seconds", (int)Math.max(reconcileSeconds, Integer.MIN_VALUE), 1);
+		}
+		if (!isCapConfigured()) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cfsec31-secsession-limiter");
+			thread.setDaemon(true);
+			return( thread );
+		});
+		executor.scheduleWithFixedDelay(this::reconcileQuietly, reconcileSeconds, reconcileSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 *	@return true if a global cap or any per-cluster cap is set, so that counters can exist to reconcile.
+	 */
+	public boolean isCapConfigured() {
+		if (!defaultLimits.isUnlimited()) {
+			return( true );
+		}
+		if (appMergedProperties == null) {
+			return( false );
+		}
+		for (String name : appMergedProperties.stringPropertyNames()) {
+			if (name.startsWith(CLUSTER_PREFIX)
+				&& (name.endsWith(".user.max") || name.endsWith(".device.max"))
+				&& readCap(name, UNLIMITED) != UNLIMITED)
+			{
+				return( true );
+			}
+		}
+		return( false );
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		ScheduledExecutorService stopped = executor;
+		executor = null;
+		if (stopped != null) {
+			stopped.shutdownNow();
+		}
+	}
+
+	public boolean isStrict() {
+		return( strict );
+	}
+
+	public long getRejectedCount() {
+		return( rejectedCount.sum() );
+	}
+
+	public long getReconcileCount() {
+		return( reconcileCount.sum() );
+	}
+
+	/**
+	 *	Get the caps for a cluster, falling back to the global caps when it has no override.
+	 *
+	 *		@param	clusterId	The cluster the session is being opened in; may be null.
+	 *
+	 *		@return The caps that apply.
+	 */
+	public Limits getLimits(CFLibDbKeyHash256 clusterId) {
+		if (clusterId == null || appMergedProperties == null) {
+			return( defaultLimits );
+		}
+		Limits limits = clusterLimits.get(clusterId);
+		if (limits == null) {
+			limits = defaultLimits;
+			CFSecJpaCluster cluster = cfsec31ClusterService.find(clusterId);
+			if (cluster != null) {
+				String prefix = CLUSTER_PREFIX + cluster.getRequiredFullDomName();
+				limits = new Limits(readCap(prefix + ".user.max", defaultLimits.getMaxUserSessions()),
+					readCap(prefix + ".device.max", defaultLimits.getMaxDeviceSessions()));
+			}
+			clusterLimits.put(clusterId, limits);
+		}
+		return( limits );
+	}
+
+	/**
+	 *	Reserve a slot for a session about to be created.
+	 *
+	 *		@param	limits	The caps that apply.
+	 *		@param	data	The session about to be created.
+	 *
+	 *		@throws	CFLibArgumentOverflowException if the user or the device is already at its cap.
+	 */
+	public void acquire(Limits limits, CFSecJpaSecSession data) {
+		final String S_ProcName = "acquire";
+		if (limits == null || limits.isUnlimited() || data == null) {
+			return;
+		}
+		CFLibDbKeyHash256 secUserId = data.getRequiredSecUserId();
+		String secDevName = data.getOptionalSecDevName();
+		AtomicInteger userCount = null;
+		if (limits.getMaxUserSessions() != UNLIMITED) {
+			userCount = userCounter(secUserId);
+			int current = tryIncrement(userCount, limits.getMaxUserSessions());
+			if (current >= 0) {
+				rejectedCount.increment();
+				throw new CFLibArgumentOverflowException(getClass(), S_ProcName, 1, "data.requiredSecUserId open sessions", current, limits.getMaxUserSessions());
+			}
+		}
+		if (limits.getMaxDeviceSessions() != UNLIMITED && secDevName != null) {
+			int current = tryIncrement(deviceCounter(secUserId, secDevName), limits.getMaxDeviceSessions());
+			if (current >= 0) {
+				if (userCount != null) {
+					decrement(userCount);
+				}
+				rejectedCount.increment();
+				throw new CFLibArgumentOverflowException(getClass(), S_ProcName, 1, "data.optionalSecDevName open sessions", current, limits.getMaxDeviceSessions());
+			}
+		}
+	}
+
+	/**
+	 *	Give back the slot reserved by acquire, because the create failed or the session was finished.
+	 *
+	 *		@param	limits	The caps that applied to the acquire.
+	 *		@param	data	The session.
+	 */
+	public void release(Limits limits, CFSecJpaSecSession data) {
+		if (limits == null || limits.isUnlimited() || data == null) {
+			return;
+		}
+		if (limits.getMaxUserSessions() != UNLIMITED) {
+			AtomicInteger userCount = userCounts.get(data.getRequiredSecUserId());
+			if (userCount != null) {
+				decrement(userCount);
+			}
+		}
+		if (limits.getMaxDeviceSessions() != UNLIMITED && data.getOptionalSecDevName() != null) {
+			AtomicInteger deviceCount = deviceCounts.get(new DeviceKey(data.getRequiredSecUserId(), data.getOptionalSecDevName()));
+			if (deviceCount != null) {
+				decrement(deviceCount);
+			}
+		}
+	}
+
+	/**
+	 *	Drop the counters of a user, so they are re-read from the database on next use.
+	 *
+	 *		@param	secUserId	The user whose sessions changed.
+	 */
+	public void forget(CFLibDbKeyHash256 secUserId) {
+		if (secUserId == null) {
+			return;
+		}
+		userCounts.remove(secUserId);
+		deviceCounts.keySet().removeIf(key -> key.secUserId.equals(secUserId));
+	}
+
+	/**
+	 *	Drop the counters of some users once the current transaction commits, so a rolled back change
+	 *	keeps them, and a reseed cannot read the state from before the change.
+	 *
+	 *		@param	secUserIds	The users whose sessions changed.
+	 */
+	public void forgetOnCommit(Collection<CFLibDbKeyHash256> secUserIds) {
+		if (secUserIds == null || secUserIds.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					for (CFLibDbKeyHash256 secUserId : secUserIds) {
+						forget(secUserId);
+					}
+				}
+			});
+		}
+		else {
+			for (CFLibDbKeyHash256 secUserId : secUserIds) {
+				forget(secUserId);
+			}
+		}
+	}
+
+	/**
+	 *	Drop every counter.
+	 */
+	public void forgetAll() {
+		userCounts.clear();
+		deviceCounts.clear();
+	}
+
+	/**
+	 *	Re-read every live counter from the database with one grouped count, dropping those that have
+	 *	fallen to zero, and re-read the per-cluster caps on next use.
+	 */
+	public void reconcile() {
+		clusterLimits.clear();
+		Map<CFLibDbKeyHash256, Long> userOpen = new HashMap<>();
+		Map<DeviceKey, Long> deviceOpen = new HashMap<>();
+		for (Object[] row : cfsec31SecSessionRepository.countOpenGroupBySecUserSecDev()) {
+			CFLibDbKeyHash256 secUserId = (CFLibDbKeyHash256)row[0];
+			String secDevName = (String)row[1];
+			long open = ((Number)row[2]).longValue();
+			userOpen.merge(secUserId, open, Long::sum);
+			if (secDevName != null) {
+				deviceOpen.put(new DeviceKey(secUserId, secDevName), open);
+			}
+		}
+		for (Map.Entry<CFLibDbKeyHash256, AtomicInteger> entry : userCounts.entrySet()) {
+			reconcileCounter(userCounts, entry, userOpen.getOrDefault(entry.getKey(), 0L));
+		}
+		for (Map.Entry<DeviceKey, AtomicInteger> entry : deviceCounts.entrySet()) {
+			reconcileCounter(deviceCounts, entry, deviceOpen.getOrDefault(entry.getKey(), 0L));
+		}
+		reconcileCount.increment();
+	}
+
+	protected static <K> void reconcileCounter(Map<K, AtomicInteger> counts, Map.Entry<K, AtomicInteger> entry, long open) {
+		if (open == 0) {
+			counts.remove(entry.getKey(), entry.getValue());
+		}
+		else {
+			entry.getValue().set((int)Math.min(open, Integer.MAX_VALUE));
+		}
+	}
+
+	protected void reconcileQuietly() {
+		try {
+			reconcile();
+		}
+		catch (RuntimeException e) {
+			log.error("CFSecJpaSecSessionLimiter.reconcile() failed", e);
+		}
+	}
+
+	protected AtomicInteger userCounter(CFLibDbKeyHash256 secUserId) {
+		AtomicInteger counter = userCounts.get(secUserId);
+		if (counter == null) {
+			AtomicInteger seeded = new AtomicInteger((int)Math.min(cfsec31SecSessionRepository.countOpenBySecUserIdx(secUserId), Integer.MAX_VALUE));
+			counter = userCounts.putIfAbsent(secUserId, seeded);
+			if (counter == null) {
+				counter = seeded;
+			}
+		}
+		return( counter );
+	}
+
+	protected AtomicInteger deviceCounter(CFLibDbKeyHash256 secUserId, String secDevName) {
+		DeviceKey key = new DeviceKey(secUserId, secDevName);
+		AtomicInteger counter = deviceCounts.get(key);
+		if (counter == null) {
+			AtomicInteger seeded = new AtomicInteger((int)Math.min(cfsec31SecSessionRepository.countOpenBySecDevIdx(secUserId, secDevName), Integer.MAX_VALUE));
+			counter = deviceCounts.putIfAbsent(key, seeded);
+			if (counter == null) {
+				counter = seeded;
+			}
+		}
+		return( counter );
+	}
+
+	/**
+	 *	Increment a counter unless it has reached the cap.
+	 *
+	 *		@return -1 if the counter was incremented, otherwise the count that blocked it.
+	 */
+	protected static int tryIncrement(AtomicInteger counter, int cap) {
+		for (;;) {
+			int current = counter.get();
+			if (current >= cap) {
+				return( current );
+			}
+			if (counter.compareAndSet(current, current + 1)) {
+				return( -1 );
+			}
+		}
+	}
+
+	protected static void decrement(AtomicInteger counter) {
+		counter.updateAndGet(value -> (value > 0) ? value - 1 : 0);
+	}
+
+	protected int readCap(String name, int defaultValue) {
+		String value = appMergedProperties.getProperty(name, null);
+		if (value == null || value.trim().isEmpty()) {
+			return( defaultValue );
+		}
+		int cap = Integer.parseInt(value.trim());
+		if (cap < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(), "readCap", 0, name, cap, 0);
+		}
+		return( cap );
+	}
+}
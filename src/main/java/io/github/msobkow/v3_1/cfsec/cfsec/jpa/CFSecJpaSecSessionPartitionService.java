@@ -0,0 +1,438 @@
+// Description: Java 25 Spring JPA partition maintenance for SecSession
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.*;
+import io.github.msobkow.v3_1.cflib.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ *	Optional monthly range partitioning of the SecSess table on start_ts.
+ *
+ *	When cfsec31.secsession.partitioning.enabled is true, this service keeps monthly partitions
+ *	created cfsec31.secsession.partitioning.months.ahead months in advance. It drops whole
+ *	partitions that ended more than cfsec31.secsession.partitioning.retention.months months ago
+ *	instead of deleting their rows one by one; a partition that still holds an open session is kept.
+ *	Queries that bound start_ts, such as the StartIdx finders, are then pruned to the matching partitions.
+ *
+ *	An existing flat SecSess table is converted by migrateFlatTable(), which runs at start-up when
+ *	cfsec31.secsession.partitioning.migrate is true. One short transaction renames the flat table to
+ *	SecSess_flat and creates a partitioned SecSess with the same columns, foreign keys and indexes.
+ *	The rows are then moved across in batches of cfsec31.secsession.partitioning.migrate.batchsize,
+ *	each batch deleted from SecSess_flat and inserted into SecSess in its own transaction, and the
+ *	emptied SecSess_flat is dropped.  An interrupted move resumes on the next start-up.  Sessions still
+ *	in SecSess_flat are invisible until they are moved, so the conversion belongs in a maintenance start.
+ *
+ *	PostgreSQL requires the partition key in every unique index, so the primary key becomes
+ *	(SecSessionId, start_ts) and unique indexes that lack start_ts are recreated as plain indexes.
+ *	The database therefore no longer guarantees that SecSessionId is unique on its own; generated ids
+ *	are 256-bit keys, and CFSecJpaSecSessionService.create checks caller-supplied ids before inserting.
+ */
+@Service("cfsec31JpaSecSessionPartitionService")
+public class CFSecJpaSecSessionPartitionService {
+
+	public final static String SCHEMA = "cfsec31";
+	public final static String TABLE = "secsess";
+	public final static String FLAT_TABLE = "secsess_flat";
+	public final static String PARTITION_PREFIX = "secsess_p";
+	public final static String DEFAULT_PARTITION = "secsess_default";
+	public final static int DEFAULT_MONTHS_AHEAD = 3;
+	public final static int DEFAULT_RETENTION_MONTHS = 0;
+	public final static int DEFAULT_MIGRATE_BATCH_SIZE = 10000;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecSessionPartitionService.class);
+
+	private final static DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	@Qualifier("cfsec31TransactionManager")
+	private PlatformTransactionManager cfsec31TransactionManager;
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	private final LongAdder createdPartitionCount = new LongAdder();
+	private final LongAdder droppedPartitionCount = new LongAdder();
+	private final LongAdder retainedOpenPartitionCount = new LongAdder();
+
+	private boolean enabled = false;
+	private boolean migrate = false;
+	private int monthsAhead = DEFAULT_MONTHS_AHEAD;
+	private int retentionMonths = DEFAULT_RETENTION_MONTHS;
+	private int migrateBatchSize = DEFAULT_MIGRATE_BATCH_SIZE;
+	private ScheduledExecutorService executor = null;
+	private volatile Boolean partitioned = null;
+
+	/**
+	 *	Read cfsec31.secsession.partitioning.*, migrate the flat table if asked to, create the
+	 *	partitions ahead, and schedule daily maintenance.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void initPartitioning() {
+		final String S_ProcName = "initPartitioning";
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secsession.partitioning.enabled", "false").trim());
+			migrate = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secsession.partitioning.migrate", "false").trim());
+			monthsAhead = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.partitioning.months.ahead", Integer.toString(DEFAULT_MONTHS_AHEAD)).trim());
+			retentionMonths = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.partitioning.retention.months", Integer.toString(DEFAULT_RETENTION_MONTHS)).trim());
+			migrateBatchSize = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.partitioning.migrate.batchsize", Integer.toString(DEFAULT_MIGRATE_BATCH_SIZE)).trim());
+		}
+		if (!enabled) {
+			return;
+		}
+		if (monthsAhead < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.partitioning.months.ahead", monthsAhead, 1);
+		}
+		if (retentionMonths < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.partitioning.retention.months", retentionMonths, 0);
+		}
+		if (migrateBatchSize < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.partitioning.migrate.batchsize", migrateBatchSize, 1);
+		}
+		if (!isPartitioned() || tableExists(FLAT_TABLE)) {
+			if (!migrate) {
+				log.warn("{}.{} is not partitioned, or has rows left in {}; set cfsec31.secsession.partitioning.migrate=true to convert it", SCHEMA, TABLE, FLAT_TABLE);
+				return;
+			}
+			migrateFlatTable();
+		}
+		maintainQuietly();
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cfsec31-secsession-partitions");
+			thread.setDaemon(true);
+			return( thread );
+		});
+		executor.scheduleWithFixedDelay(this::maintainQuietly, 1, 1, TimeUnit.DAYS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		ScheduledExecutorService stopped = executor;
+		executor = null;
+		if (stopped != null) {
+			stopped.shutdownNow();
+		}
+	}
+
+	public boolean isEnabled() {
+		return( enabled );
+	}
+
+	public int getMonthsAhead() {
+		return( monthsAhead );
+	}
+
+	public int getRetentionMonths() {
+		return( retentionMonths );
+	}
+
+	public int getMigrateBatchSize() {
+		return( migrateBatchSize );
+	}
+
+	public long getCreatedPartitionCount() {
+		return( createdPartitionCount.sum() );
+	}
+
+	public long getDroppedPartitionCount() {
+		return( droppedPartitionCount.sum() );
+	}
+
+	/**
+	 *	@return The number of times an expired partition was kept because it still held an open session.
+	 */
+	public long getRetainedOpenPartitionCount() {
+		return( retainedOpenPartitionCount.sum() );
+	}
+
+	/**
+	 *	The catalog is read once and the answer kept, since create asks on every caller-supplied id;
+	 *	migrateFlatTable refreshes it after converting the table.
+	 *
+	 *	@return true if SecSess exists as a partitioned table.
+	 */
+	public boolean isPartitioned() {
+		Boolean known = partitioned;
+		if (known == null) {
+			known = "p".equals(relationKind(TABLE));
+			partitioned = known;
+		}
+		return( known );
+	}
+
+	/**
+	 *	@param	table	The unqualified table name.
+	 *
+	 *	@return true if the table exists in the cfsec31 schema.
+	 */
+	protected boolean tableExists(String table) {
+		return( relationKind(table) != null );
+	}
+
+	/**
+	 *	@param	table	The unqualified relation name.
+	 *
+	 *	@return The pg_class.relkind of the relation, or null if it does not exist.
+	 */
+	protected String relationKind(String table) {
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		return( tx.execute(status -> {
+			List<?> kinds = cfsec31EntityManager.createNativeQuery("select cast(c.relkind as varchar) from pg_class c join pg_namespace n on n.oid = c.relnamespace where n.nspname = :schema and c.relname = :table")
+				.setParameter("schema", SCHEMA)
+				.setParameter("table", table)
+				.getResultList();
+			return( kinds.isEmpty() ? null : String.valueOf(kinds.get(0)) );
+		}) );
+	}
+
+	/**
+	 *	Create the partitions ahead and drop the expired ones.
+	 */
+	public void maintain() {
+		LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		tx.executeWithoutResult(status -> {
+			createPartitions(thisMonth, thisMonth.plusMonths(monthsAhead));
+		});
+		if (retentionMonths > 0) {
+			LocalDate cutoff = thisMonth.minusMonths(retentionMonths);
+			for (String partition : listMonthlyPartitions()) {
+				LocalDate month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX).atDay(1);
+				if (month.plusMonths(1).isAfter(cutoff)) {
+					continue;
+				}
+				tx.executeWithoutResult(status -> {
+					dropPartition(partition);
+				});
+			}
+		}
+	}
+
+	protected void maintainQuietly() {
+		try {
+			maintain();
+		}
+		catch (RuntimeException e) {
+			log.error("CFSecJpaSecSessionPartitionService.maintain() failed", e);
+		}
+	}
+
+	/**
+	 *	Convert the flat SecSess table into a partitioned one, then move its rows across in batches.
+	 *	If SecSess is already partitioned, only the rows left behind in SecSess_flat by an interrupted
+	 *	move are moved.
+	 *
+	 *		@return The number of rows moved.
+	 */
+	public long migrateFlatTable() {
+		if (!isPartitioned()) {
+			createPartitionedTable();
+			partitioned = null;
+		}
+		if (!tableExists(FLAT_TABLE)) {
+			return( 0L );
+		}
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		long moved = 0L;
+		int count;
+		do {
+			count = tx.execute(status -> {
+				return( cfsec31EntityManager.createNativeQuery("with moved as ( delete from " + SCHEMA + "." + FLAT_TABLE
+						+ " where SecSessionId in ( select SecSessionId from " + SCHEMA + "." + FLAT_TABLE + " limit :limit ) returning * )"
+						+ " insert into " + SCHEMA + "." + TABLE + " select * from moved")
+					.setParameter("limit", migrateBatchSize)
+					.executeUpdate() );
+			});
+			moved += count;
+			log.info("Moved {} rows from {}.{} into {}.{}", moved, SCHEMA, FLAT_TABLE, SCHEMA, TABLE);
+		} while (count >= migrateBatchSize);
+		tx.executeWithoutResult(status -> {
+			Object left = cfsec31EntityManager.createNativeQuery("select exists ( select 1 from " + SCHEMA + "." + FLAT_TABLE + " )")
+				.getSingleResult();
+			if (!Boolean.TRUE.equals(left)) {
+				execute("drop table " + SCHEMA + "." + FLAT_TABLE);
+			}
+		});
+		return( moved );
+	}
+
+	/**
+	 *	Rename the flat SecSess table to SecSess_flat and create an empty partitioned SecSess in its
+	 *	place, with the same columns, indexes and foreign keys, in one short transaction.
+	 */
+	protected void createPartitionedTable() {
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		tx.executeWithoutResult(status -> {
+			String qualified = SCHEMA + "." + TABLE;
+			List<?> pkeys = cfsec31EntityManager.createNativeQuery("select cast(conname as varchar) from pg_constraint where conrelid = cast(:rel as regclass) and contype = 'p'")
+				.setParameter("rel", qualified)
+				.getResultList();
+			List<?> indexes = cfsec31EntityManager.createNativeQuery("select cast(i.indexname as varchar), cast(i.indexdef as varchar) from pg_indexes i where i.schemaname = :schema and i.tablename = :table and not exists ( select 1 from pg_constraint k where k.conrelid = cast(:rel as regclass) and k.contype = 'p' and k.conname = i.indexname )")
+				.setParameter("schema", SCHEMA)
+				.setParameter("table", TABLE)
+				.setParameter("rel", qualified)
+				.getResultList();
+			List<?> fkeys = cfsec31EntityManager.createNativeQuery("select cast(conname as varchar), cast(pg_get_constraintdef(oid) as varchar) from pg_constraint where conrelid = cast(:rel as regclass) and contype = 'f'")
+				.setParameter("rel", qualified)
+				.getResultList();
+			execute("alter table " + qualified + " rename to " + FLAT_TABLE);
+			for (Object pkey : pkeys) {
+				execute("alter table " + SCHEMA + "." + FLAT_TABLE + " rename constraint " + pkey + " to " + FLAT_TABLE + "_pkey");
+			}
+			for (Object row : indexes) {
+				Object[] cols = (Object[])row;
+				execute("alter index " + SCHEMA + "." + cols[0] + " rename to " + cols[0] + "_flat");
+			}
+			execute("create table " + qualified + " ( like " + SCHEMA + "." + FLAT_TABLE + " including defaults ) partition by range ( start_ts )");
+			execute("alter table " + qualified + " add constraint " + TABLE + "_pkey primary key ( SecSessionId, start_ts )");
+			execute("create table if not exists " + SCHEMA + "." + DEFAULT_PARTITION + " partition of " + qualified + " default");
+			for (Object row : indexes) {
+				Object[] cols = (Object[])row;
+				String def = String.valueOf(cols[1]);
+				if (def.startsWith("CREATE UNIQUE INDEX") && !def.contains("start_ts")) {
+					def = "CREATE INDEX" + def.substring("CREATE UNIQUE INDEX".length());
+				}
+				execute(def);
+			}
+			for (Object row : fkeys) {
+				Object[] cols = (Object[])row;
+				execute("alter table " + qualified + " add constraint " + cols[0] + " " + cols[1]);
+			}
+			Object oldest = cfsec31EntityManager.createNativeQuery("select min(start_ts) from " + SCHEMA + "." + FLAT_TABLE).getSingleResult();
+			LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+			LocalDate firstMonth = thisMonth;
+			if (oldest instanceof java.sql.Timestamp) {
+				firstMonth = ((java.sql.Timestamp)oldest).toLocalDateTime().toLocalDate().withDayOfMonth(1);
+			}
+			else if (oldest instanceof LocalDateTime) {
+				firstMonth = ((LocalDateTime)oldest).toLocalDate().withDayOfMonth(1);
+			}
+			createPartitions(firstMonth.isBefore(thisMonth) ? firstMonth : thisMonth, thisMonth.plusMonths(monthsAhead));
+		});
+	}
+
+	/**
+	 *	Create the monthly partitions from first through last, inclusive, that do not exist yet.
+	 *
+	 *		@param first The first day of the first month.
+	 *		@param last The first day of the last month.
+	 */
+	protected void createPartitions(LocalDate first, LocalDate last) {
+		Set<String> existing = new HashSet<>(listMonthlyPartitions());
+		for (LocalDate month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+			String partition = partitionName(month);
+			if (existing.contains(partition)) {
+				continue;
+			}
+			execute("create table if not exists " + SCHEMA + "." + partition
+				+ " partition of " + SCHEMA + "." + TABLE
+				+ " for values from ( '" + month + "' ) to ( '" + month.plusMonths(1) + "' )");
+			createdPartitionCount.increment();
+		}
+	}
+
+	/**
+	 *	Drop one monthly partition, unless it still holds an open session.
+	 *
+	 *		@param partition The unqualified partition name.
+	 */
+	protected void dropPartition(String partition) {
+		Object open = cfsec31EntityManager.createNativeQuery("select exists ( select 1 from " + SCHEMA + "." + partition + " where finish_ts is null )")
+			.getSingleResult();
+		if (Boolean.TRUE.equals(open)) {
+			retainedOpenPartitionCount.increment();
+			return;
+		}
+		execute("alter table " + SCHEMA + "." + TABLE + " detach partition " + SCHEMA + "." + partition);
+		execute("drop table " + SCHEMA + "." + partition);
+		droppedPartitionCount.increment();
+	}
+
+	/**
+	 *	@return The unqualified names of the monthly partitions of SecSess, oldest first.
+	 */
+	public List<String> listMonthlyPartitions() {
+		TransactionTemplate tx = new TransactionTemplate(cfsec31TransactionManager);
+		List<String> names = tx.execute(status -> {
+			List<?> rows = cfsec31EntityManager.createNativeQuery("select cast(c.relname as varchar) from pg_inherits i join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent join pg_namespace n on n.oid = p.relnamespace where n.nspname = :schema and p.relname = :table")
+				.setParameter("schema", SCHEMA)
+				.setParameter("table", TABLE)
+				.getResultList();
+			List<String> retlist = new ArrayList<>(rows.size());
+			for (Object row : rows) {
+				String name = String.valueOf(row);
+				if (name.matches(PARTITION_PREFIX + "\\d{6}")) {
+					retlist.add(name);
+				}
+			}
+			Collections.sort(retlist);
+			return( retlist );
+		});
+		return( names );
+	}
+
+	protected static String partitionName(LocalDate month) {
+		return( PARTITION_PREFIX + month.format(PARTITION_SUFFIX) );
+	}
+
+	protected void execute(String sql) {
+		try {
+			cfsec31EntityManager.createNativeQuery(sql).executeUpdate();
+		}
+		catch (RuntimeException ex) {
+			throw new CFLibDbException(getClass(),
+				"execute",
+				ex);
+		}
+	}
+}
@@ -0,0 +1,263 @@
+// Description: Java 25 Spring JPA expired-session reaper for SecSession
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.github.msobkow.v3_1.cflib.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ *	Background reaper that deletes SecSession rows whose finish timestamp is older than the retention window.
+ *	Each run deletes in chunks of cfsec31.secsession.reaper.chunksize rows, one short transaction per chunk
+ *	through CFSecJpaSecSessionService.deleteFinishedBeforeChunk. Chunks are paced to at most
+ *	cfsec31.secsession.reaper.chunks.per.second, so the reaper never monopolizes connections or WAL
+ *	bandwidth needed by the login path. A run ends at the first chunk that deletes fewer rows than the
+ *	chunk size, so it never scans the table just to count its backlog. The reaper is off unless cfsec31.secsession.reaper.enabled is true.
+ */
+@Service("cfsec31JpaSecSessionReaper")
+public class CFSecJpaSecSessionReaper {
+
+	public final static long DEFAULT_RETENTION_DAYS = 30;
+	public final static int DEFAULT_CHUNK_SIZE = 1000;
+	public final static long DEFAULT_INTERVAL_SECONDS = 300;
+	public final static int DEFAULT_CHUNKS_PER_SECOND = 10;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecSessionReaper.class);
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	private CFSecJpaSecSessionService cfsec31SecSessionService;
+
+	private final Object runLock = new Object();
+
+	private final LongAdder runCount = new LongAdder();
+	private final LongAdder chunkCount = new LongAdder();
+	private final LongAdder deletedRowCount = new LongAdder();
+	private final LongAdder failureCount = new LongAdder();
+	private final AtomicLong lastRunDeletedRows = new AtomicLong(0L);
+	private final AtomicLong lastRunNanos = new AtomicLong(0L);
+	private volatile boolean behind = false;
+
+	private boolean enabled = false;
+	private long retentionDays = DEFAULT_RETENTION_DAYS;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private long intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+	private int chunksPerSecond = DEFAULT_CHUNKS_PER_SECOND;
+	private volatile boolean stopping = false;
+	private ScheduledExecutorService executor = null;
+
+	/**
+	 *	Read cfsec31.secsession.reaper.* and schedule the reaper if it is enabled.
+	 */
+	@PostConstruct
+	public void initReaper() {
+		final String S_ProcName = "initReaper";
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secsession.reaper.enabled", "false").trim());
+			retentionDays = Long.parseLong(appMergedProperties.getProperty("cfsec31.secsession.reaper.retention.days", Long.toString(DEFAULT_RETENTION_DAYS)).trim());
+			chunkSize = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.reaper.chunksize", Integer.toString(DEFAULT_CHUNK_SIZE)).trim());
+			intervalSeconds = Long.parseLong(appMergedProperties.getProperty("cfsec31.secsession.reaper.interval.seconds", Long.toString(DEFAULT_INTERVAL_SECONDS)).trim());
+			chunksPerSecond = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.reaper.chunks.per.second", Integer.toString(DEFAULT_CHUNKS_PER_SECOND)).trim());
+		}
+		if (retentionDays < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.reaper.retention.days", (int)Math.max(retentionDays, Integer.MIN_VALUE), 0);
+		}
+		if (chunkSize < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.reaper.chunksize", chunkSize, 1);
+		}
+		if (intervalSeconds < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.reaper.interval.seconds", (int)Math.max(intervalSeconds, Integer.MIN_VALUE), 1);
+		}
+		if (chunksPerSecond < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secsession.reaper.chunks.per.second", chunksPerSecond, 1);
+		}
+		if (enabled) {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "cfsec31-secsession-reaper");
+				thread.setDaemon(true);
+				return( thread );
+			});
+			executor.scheduleWithFixedDelay(this::reapQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 *	Stop the reaper; a run in progress stops after its current chunk.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		stopping = true;
+		ScheduledExecutorService stopped = executor;
+		executor = null;
+		if (stopped != null) {
+			stopped.shutdownNow();
+		}
+	}
+
+	public boolean isEnabled() {
+		return( enabled );
+	}
+
+	public long getRetentionDays() {
+		return( retentionDays );
+	}
+
+	public int getChunkSize() {
+		return( chunkSize );
+	}
+
+	public int getChunksPerSecond() {
+		return( chunksPerSecond );
+	}
+
+	public long getRunCount() {
+		return( runCount.sum() );
+	}
+
+	public long getChunkCount() {
+		return( chunkCount.sum() );
+	}
+
+	public long getDeletedRowCount() {
+		return( deletedRowCount.sum() );
+	}
+
+	public long getFailureCount() {
+		return( failureCount.sum() );
+	}
+
+	public long getLastRunDeletedRows() {
+		return( lastRunDeletedRows.get() );
+	}
+
+	public long getLastRunNanos() {
+		return( lastRunNanos.get() );
+	}
+
+	/**
+	 *	@return The rows deleted per second by the last run, or 0 if it deleted nothing.
+	 */
+	public double getLastRunRowsPerSecond() {
+		long nanos = lastRunNanos.get();
+		if (nanos <= 0L) {
+			return( 0.0 );
+		}
+		return( lastRunDeletedRows.get() * 1.0e9 / nanos );
+	}
+
+	/**
+	 *	@return true if the last run stopped after a full chunk, so expired sessions may remain.
+	 */
+	public boolean isBehind() {
+		return( behind );
+	}
+
+	/**
+	 *	Delete every session that finished before now minus the retention window, chunk by chunk.
+	 *
+	 *		@return The number of rows deleted.
+	 */
+	public long reap() {
+		return( reap(LocalDateTime.now().minusDays(retentionDays)) );
+	}
+
+	/**
+	 *	Delete every session that finished before the cutoff, chunk by chunk, pacing the chunks.
+	 *
+	 *		@param cutoff Sessions whose finish timestamp is before this instant are deleted.
+	 *
+	 *		@return The number of rows deleted.
+	 */
+	public long reap(LocalDateTime cutoff) {
+		if (cutoff == null) {
+			throw new CFLibNullArgumentException(getClass(), "reap", 1, "cutoff");
+		}
+		synchronized (runLock) {
+			long startNanos = System.nanoTime();
+			long minChunkNanos = TimeUnit.SECONDS.toNanos(1) / chunksPerSecond;
+			long deleted = 0L;
+			behind = true;
+			runCount.increment();
+			try {
+				while (!stopping && !Thread.currentThread().isInterrupted()) {
+					long chunkStart = System.nanoTime();
+					int count = cfsec31SecSessionService.deleteFinishedBeforeChunk(cutoff, chunkSize);
+					chunkCount.increment();
+					deletedRowCount.add(count);
+					deleted += count;
+					if (count < chunkSize) {
+						behind = false;
+						break;
+					}
+					long idleNanos = minChunkNanos - (System.nanoTime() - chunkStart);
+					if (idleNanos > 0L) {
+						TimeUnit.NANOSECONDS.sleep(idleNanos);
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				lastRunDeletedRows.set(deleted);
+				lastRunNanos.set(System.nanoTime() - startNanos);
+			}
+			return( deleted );
+		}
+	}
+
+	protected void reapQuietly() {
+		try {
+			reap();
+		}
+		catch (RuntimeException e) {
+			failureCount.increment();
+			log.error("CFSecJpaSecSessionReaper.reap() failed", e);
+		}
+	}
+}
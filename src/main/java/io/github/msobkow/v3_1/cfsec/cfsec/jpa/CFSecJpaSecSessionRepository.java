@@ -317,6 +317,262 @@ public interface CFSecJpaSecSessionRepository extends JpaRepository<CFSecJpaSecS
 		return( lockBySecProxyIdx(key.getOptionalSecProxyId()));
 	}
 
+	// CFSecJpaSecSession open-session methods, served by the partial index SessionOpenIdx
+
+	/**
+	 *	Read the open sessions of a user, i.e. those whose finish timestamp is null.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return List&lt;CFSecJpaSecSession&gt; of the open sessions, or an empty list if the user has none.
+	 */
+	@Query("select r from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalFinish is null")
+	List<CFSecJpaSecSession> findOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Read the open sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return List&lt;CFSecJpaSecSession&gt; of the open sessions, or an empty list if there are none.
+	 */
+	@Query("select r from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalSecDevName = :secDevName and r.optionalFinish is null")
+	List<CFSecJpaSecSession> findOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName);
+
+	/**
+	 *	Count the open sessions of a user without materializing them.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalFinish is null")
+	long countOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Count the open sessions of a user on one device without materializing them.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalSecDevName = :secDevName and r.optionalFinish is null")
+	long countOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName);
+
+	/**
+	 *	Lock the open sessions of a user.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return A list of locked entities, refreshed from the data store, or an empty list if the user has no open sessions.
+	 */
+	@Transactional
+	@Lock(LockModeType.WRITE)
+	@Query("select r from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalFinish is null")
+	List<CFSecJpaSecSession> lockOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Lock the open sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return A list of locked entities, refreshed from the data store, or an empty list if there are none.
+	 */
+	@Transactional
+	@Lock(LockModeType.WRITE)
+	@Query("select r from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalSecDevName = :secDevName and r.optionalFinish is null")
+	List<CFSecJpaSecSession> lockOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName);
+
+	// CFSecJpaSecSession aggregate statistics, computed without instantiating entities
+
+	/**
+	 *	Count all the sessions of a user.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId")
+	long countBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Count all the sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalSecDevName = :secDevName")
+	long countBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName);
+
+	/**
+	 *	Count all the sessions opened through a proxy user.
+	 *
+	 *		@param optionalSecProxyId
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredParentSecProxy.requiredSecUserId = :secProxyId")
+	long countBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId);
+
+	/**
+	 *	Count the open sessions opened through a proxy user.
+	 *
+	 *		@param optionalSecProxyId
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Query("select count(r) from CFSecJpaSecSession r where r.requiredParentSecProxy.requiredSecUserId = :secProxyId and r.optionalFinish is null")
+	long countOpenBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId);
+
+	/**
+	 *	Count the open sessions of every user that has any.
+	 *
+	 *		@return Rows of { CFLibDbKeyHash256 secUserId, Long count }.
+	 */
+	@Query("select r.requiredContainerSecUser.requiredSecUserId, count(r) from CFSecJpaSecSession r where r.optionalFinish is null group by r.requiredContainerSecUser.requiredSecUserId")
+	List<Object[]> countOpenGroupBySecUser();
+
+	/**
+	 *	Count the open sessions of a user per device.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return Rows of { String secDevName, Long count }; sessions without a device are grouped under null.
+	 */
+	@Query("select r.optionalSecDevName, count(r) from CFSecJpaSecSession r where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalFinish is null group by r.optionalSecDevName")
+	List<Object[]> countOpenGroupBySecDev(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Count the open sessions of every user that has any, per device.
+	 *
+	 *		@return Rows of { CFLibDbKeyHash256 secUserId, String secDevName, Long count }; sessions without a device are grouped under null.
+	 */
+	@Query("select r.requiredContainerSecUser.requiredSecUserId, r.optionalSecDevName, count(r) from CFSecJpaSecSession r where r.optionalFinish is null group by r.requiredContainerSecUser.requiredSecUserId, r.optionalSecDevName")
+	List<Object[]> countOpenGroupBySecUserSecDev();
+
+	/**
+	 *	Count the open sessions of every proxy user that has any.
+	 *
+	 *		@return Rows of { CFLibDbKeyHash256 secProxyId, Long count }.
+	 */
+	@Query("select r.requiredParentSecProxy.requiredSecUserId, count(r) from CFSecJpaSecSession r where r.optionalFinish is null group by r.requiredParentSecProxy.requiredSecUserId")
+	List<Object[]> countOpenGroupBySecProxy();
+
+	/**
+	 *	Get the user of a session if it is open, so its counters can be dropped when it is deleted.
+	 *
+	 *		@param requiredSecSessionId
+	 *
+	 *		@return The SecUserId, or an empty list if there is no such open session.
+	 */
+	@Query("select r.requiredContainerSecUser.requiredSecUserId from CFSecJpaSecSession r where r.requiredSecSessionId = :secSessionId and r.optionalFinish is null")
+	List<CFLibDbKeyHash256> findOpenSecUserIdByIdIdx(@Param("secSessionId") CFLibDbKeyHash256 requiredSecSessionId);
+
+	/**
+	 *	Get the distinct users with sessions open through a proxy user.
+	 *
+	 *		@param optionalSecProxyId
+	 *
+	 *		@return The SecUserIds.
+	 */
+	@Query("select distinct r.requiredContainerSecUser.requiredSecUserId from CFSecJpaSecSession r where r.requiredParentSecProxy.requiredSecUserId = :secProxyId and r.optionalFinish is null")
+	List<CFLibDbKeyHash256> findOpenSecUserIdsBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId);
+
+	/**
+	 *	Histogram of the sessions started in a time range by hour of day.
+	 *	Bounding the range also lets a partitioned SecSess prune to the months involved.
+	 *
+	 *		@param from The inclusive lower bound on the start timestamp.
+	 *		@param to The exclusive upper bound on the start timestamp.
+	 *
+	 *		@return Rows of { Integer hourOfDay, Long count } for the hours that have sessions, in hour order.
+	 */
+	@Query("select extract(hour from r.requiredStart), count(r) from CFSecJpaSecSession r where r.requiredStart >= :from and r.requiredStart < :to group by extract(hour from r.requiredStart) order by extract(hour from r.requiredStart)")
+	List<Object[]> countGroupByStartHour(@Param("from") LocalDateTime from,
+		@Param("to") LocalDateTime to);
+
+	// CFSecJpaSecSession bulk finish methods
+
+	/**
+	 *	Finish every open session of a user with one UPDATE, advancing each revision.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update CFSecJpaSecSession r set r.optionalFinish = :finish, r.requiredRevision = r.requiredRevision + 1 where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalFinish is null")
+	int finishAllForUser(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("finish") LocalDateTime finish);
+
+	/**
+	 *	Finish every open session of a user on one device with one UPDATE, advancing each revision.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update CFSecJpaSecSession r set r.optionalFinish = :finish, r.requiredRevision = r.requiredRevision + 1 where r.requiredContainerSecUser.requiredSecUserId = :secUserId and r.optionalSecDevName = :secDevName and r.optionalFinish is null")
+	int finishAllForDevice(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName,
+		@Param("finish") LocalDateTime finish);
+
+	/**
+	 *	Finish every open session opened through a proxy user with one UPDATE, advancing each revision.
+	 *
+	 *		@param optionalSecProxyId
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update CFSecJpaSecSession r set r.optionalFinish = :finish, r.requiredRevision = r.requiredRevision + 1 where r.requiredParentSecProxy.requiredSecUserId = :secProxyId and r.optionalFinish is null")
+	int finishAllForProxy(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId,
+		@Param("finish") LocalDateTime finish);
+
+	// CFSecJpaSecSession optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSecSessionId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredContainerSecUser
+	 *		@param requiredParentSecProxy
+	 *		@param optionalSecDevName
+	 *		@param requiredStart
+	 *		@param optionalFinish
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSecSession r set r.requiredContainerSecUser = :secUser, r.requiredParentSecProxy = :secProxy, r.optionalSecDevName = :secDevName, r.requiredStart = :start, r.optionalFinish = :finish, r.requiredRevision = r.requiredRevision + 1 where r.requiredSecSessionId = :secSessionId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("secSessionId") CFLibDbKeyHash256 requiredSecSessionId,
+		@Param("revision") int requiredRevision,
+		@Param("secUser") CFSecJpaSecUser requiredContainerSecUser,
+		@Param("secProxy") CFSecJpaSecUser requiredParentSecProxy,
+		@Param("secDevName") String optionalSecDevName,
+		@Param("start") LocalDateTime requiredStart,
+		@Param("finish") LocalDateTime optionalFinish);
+
 	// CFSecJpaSecSession specified delete-by-index methods
 
 	/**
@@ -411,6 +667,22 @@ public interface CFSecJpaSecSessionRepository extends JpaRepository<CFSecJpaSecS
 		deleteByFinishIdx(key.getRequiredSecUserId(), key.getOptionalFinish());
 	}
 
+	/**
+	 *	Delete at most limit sessions that finished before the cutoff, in one bounded statement.
+	 *	Rows are picked by (SecSessionId, start_ts), which is covered by the primary key whether or not SecSess
+	 *	is partitioned, so each call is a bounded index probe rather than a row-value scan over ctid.
+	 *
+	 *		@param cutoff Sessions whose finish timestamp is before this instant are deleted.
+	 *		@param limit The maximum number of rows to delete.
+	 *
+	 *		@return The number of rows deleted; fewer than limit means the backlog is drained.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = "delete from cfsec31.SecSess where ( SecSessionId, start_ts ) in ( select SecSessionId, start_ts from cfsec31.SecSess where finish_ts < :cutoff limit :limit )", nativeQuery = true)
+	int deleteFinishedBeforeChunk(@Param("cutoff") LocalDateTime cutoff,
+		@Param("limit") int limit);
+
 	/**
 	 *	Argument-based delete entity for compatibility with the current MSS code factory code base, uses @Transactional to acquire a JPA entity lock, which may or may not imply an actual database lock during the transaction.
 	 *
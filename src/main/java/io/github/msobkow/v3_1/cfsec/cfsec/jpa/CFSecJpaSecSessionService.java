@@ -47,6 +47,7 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.repository.query.Param;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -67,19 +68,111 @@ public class CFSecJpaSecSessionService {
 	@Autowired
 	private CFSecJpaSecSessionRepository cfsec31SecSessionRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaSecSessionCache cfsec31SecSessionCache;
+
+	@Autowired
+	private CFSecJpaSecSessionLimiter cfsec31SecSessionLimiter;
+
+	@Autowired
+	private CFSecJpaSecSessionPartitionService cfsec31SecSessionPartitionService;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
+	 *	When SecSess is partitioned, its primary key is (SecSessionId, start_ts) and the database no longer
+	 *	rejects a reused SecSessionId on its own, so a caller-supplied id is checked before the INSERT
+	 *	and a reused one raises CFLibCollisionDetectedException.  A flat SecSess is not probed.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecSession, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecSession create(CFSecJpaSecSession data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecSession, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecSession createOrGetExisting(CFSecJpaSecSession data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create a session only if its user and device are below their concurrent-session caps,
+	 *	checked in the database under a transaction-scoped advisory lock on the user, so that
+	 *	concurrent logins by the same user cannot both pass the check. Logins by other users are not blocked.
+	 *
+	 *		@param	data	The session to be created.
+	 *		@param	maxUserSessions	The cap on the user's open sessions, or 0 for no cap.
+	 *		@param	maxDeviceSessions	The cap on the device's open sessions, or 0 for no cap.
+	 *
+	 *		@return The created entity.
+	 *
+	 *		@throws	CFLibArgumentOverflowException if a cap has been reached.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecSession createWithinLimits(CFSecJpaSecSession data, int maxUserSessions, int maxDeviceSessions) {
+		final String S_ProcName = "createWithinLimits";
+		if (data == null) {
+			return( null );
+		}
+		if(data.getRequiredSecUserId() == null || data.getRequiredSecUserId().isNull()) {
+			throw new CFLibNullArgumentException(getClass(),
+				S_ProcName,
+				0,
+				"data.requiredSecUserId");
+		}
+		if (maxUserSessions > 0 || (maxDeviceSessions > 0 && data.getOptionalSecDevName() != null)) {
+			cfsec31EntityManager.createNativeQuery("select 1 from ( select pg_advisory_xact_lock(:lockKey) ) l")
+				.setParameter("lockKey", Long.valueOf(data.getRequiredSecUserId().hashCode()))
+				.getSingleResult();
+			if (maxUserSessions > 0) {
+				long open = cfsec31SecSessionRepository.countOpenBySecUserIdx(data.getRequiredSecUserId());
+				if (open >= maxUserSessions) {
+					throw new CFLibArgumentOverflowException(getClass(), S_ProcName, 1, "data.requiredSecUserId open sessions", (int)Math.min(open, Integer.MAX_VALUE), maxUserSessions);
+				}
+			}
+			if (maxDeviceSessions > 0 && data.getOptionalSecDevName() != null) {
+				long open = cfsec31SecSessionRepository.countOpenBySecDevIdx(data.getRequiredSecUserId(), data.getOptionalSecDevName());
+				if (open >= maxDeviceSessions) {
+					throw new CFLibArgumentOverflowException(getClass(), S_ProcName, 1, "data.optionalSecDevName open sessions", (int)Math.min(open, Integer.MAX_VALUE), maxDeviceSessions);
+				}
+			}
+		}
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecSession, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecSession create(CFSecJpaSecSession data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredSecSessionId = data.getRequiredSecSessionId();
 		boolean generatedRequiredSecSessionId = false;
 		if(data.getRequiredSecUserId() == null || data.getRequiredSecUserId().isNull()) {
@@ -94,17 +187,35 @@ public class CFSecJpaSecSessionService {
 				0,
 				"data.requiredStart");
 		}
+		if (!returnExisting
+			&& data.getRequiredSecSessionId() != null
+			&& !data.getRequiredSecSessionId().isNull()
+			&& cfsec31SecSessionPartitionService.isPartitioned()
+			&& cfsec31SecSessionRepository.existsById(data.getRequiredSecSessionId()))
+		{
+			// A partitioned SecSess only enforces (SecSessionId, start_ts), so a reused id is rejected here
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
 		try {
 			if (data.getRequiredSecSessionId() == null || data.getRequiredSecSessionId().isNull()) {
-				data.setRequiredSecSessionId(new CFLibDbKeyHash256(0));
+				data.setRequiredSecSessionId(cfsec31IdGenService.generateSecSessionIdGen());
 				generatedRequiredSecSessionId = true;
 			}
-			if(data.getPKey() != null && cfsec31SecSessionRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaSecSession)(cfsec31SecSessionRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredSecSessionId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaSecSession> existing = cfsec31SecSessionRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SecSessionRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31SecSessionCache.writeThrough(data);
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredSecSessionId) {
 					data.setRequiredSecSessionId(originalRequiredSecSessionId);
 				}
@@ -115,11 +226,15 @@ public class CFSecJpaSecSessionService {
 	}
 
 	/**
-	 *	Update an existing entity.
+	 *	Update an existing entity, failing with CFLibCollisionDetectedException if its revision has moved on.
+	 *
+	 *	Unlike the other services, this one does not reload the row: sessions are updated far more often
+	 *	than they are read back, so the update is a single statement. The caller's instance is returned
+	 *	detached, carrying the new revision; use find() if a managed instance is needed.
 	 *
 	 *		@param	data	The entity to be updated.
 	 *
-	 *		@return The updated entity.
+	 *		@return The caller's instance, detached, with its revision advanced.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecSession update(CFSecJpaSecSession data) {
@@ -145,21 +260,35 @@ public class CFSecJpaSecSessionService {
 				0,
 				"data.requiredStart");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSecSession existing = cfsec31SecSessionRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		try {
+			if (cfsec31EntityManager.contains(data)) {
+				// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+				cfsec31EntityManager.detach(data);
+			}
+			// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+			int updated = cfsec31SecSessionRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+				data.getRequiredRevision(),
+				cfsec31EntityManager.getReference(CFSecJpaSecUser.class, data.getRequiredSecUserId()),
+				cfsec31EntityManager.getReference(CFSecJpaSecUser.class, data.getOptionalSecProxyId()),
+				data.getOptionalSecDevName(),
+				data.getRequiredStart(),
+				data.getOptionalFinish());
+			if (updated == 0) {
+				throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+			}
+			data.setRequiredRevision(data.getRequiredRevision() + 1);
+			cfsec31SecSessionCache.writeThrough(data);
+			if (data.getOptionalFinish() != null) {
+				cfsec31SecSessionLimiter.forgetOnCommit(List.of(data.getRequiredSecUserId()));
+			}
+			return( data );
+		}
+		catch(OptimisticLockException ex) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		catch(ObjectOptimisticLockingFailureException ex) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSecSession to existing object
-		existing.setRequiredContainerSecUser(data.getRequiredContainerSecUser());
-		existing.setRequiredParentSecProxy(data.getRequiredParentSecProxy());
-		// Apply data columns of CFSecSecSession to existing object
-		existing.setOptionalSecDevName(data.getOptionalSecDevName());
-		existing.setRequiredStart(data.getRequiredStart());
-		existing.setOptionalFinish(data.getOptionalFinish());
-		// Save the changes we've made
-		return cfsec31SecSessionRepository.save(existing);
 	}
 
 	/**
@@ -458,6 +587,290 @@ public class CFSecJpaSecSessionService {
 		return( cfsec31SecSessionRepository.lockBySecProxyIdx(key.getOptionalSecProxyId()));
 	}
 
+	// CFSecSecSession open-session finders
+
+	/**
+	 *	Find the open sessions of a user, i.e. those whose finish timestamp is null.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return List&lt;CFSecJpaSecSession&gt; of the open sessions, or an empty list if the user has none.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public List<CFSecJpaSecSession> findOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( cfsec31SecSessionRepository.findOpenBySecUserIdx(requiredSecUserId));
+	}
+
+	/**
+	 *	Find the open sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return List&lt;CFSecJpaSecSession&gt; of the open sessions, or an empty list if there are none.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public List<CFSecJpaSecSession> findOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName) {
+		return( cfsec31SecSessionRepository.findOpenBySecDevIdx(requiredSecUserId,
+			optionalSecDevName));
+	}
+
+	/**
+	 *	Count the open sessions of a user.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( cfsec31SecSessionRepository.countOpenBySecUserIdx(requiredSecUserId));
+	}
+
+	/**
+	 *	Count the open sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName) {
+		return( cfsec31SecSessionRepository.countOpenBySecDevIdx(requiredSecUserId,
+			optionalSecDevName));
+	}
+
+	/**
+	 *	Lock the open sessions of a user.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return A list of locked entities, refreshed from the data store, or an empty list if the user has no open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public List<CFSecJpaSecSession> lockOpenBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( cfsec31SecSessionRepository.lockOpenBySecUserIdx(requiredSecUserId));
+	}
+
+	/**
+	 *	Lock the open sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return A list of locked entities, refreshed from the data store, or an empty list if there are none.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public List<CFSecJpaSecSession> lockOpenBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName) {
+		return( cfsec31SecSessionRepository.lockOpenBySecDevIdx(requiredSecUserId,
+			optionalSecDevName));
+	}
+
+	// CFSecSecSession aggregate statistics
+
+	/**
+	 *	Count all the sessions of a user.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( cfsec31SecSessionRepository.countBySecUserIdx(requiredSecUserId));
+	}
+
+	/**
+	 *	Count all the sessions of a user on one device.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countBySecDevIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName) {
+		return( cfsec31SecSessionRepository.countBySecDevIdx(requiredSecUserId,
+			optionalSecDevName));
+	}
+
+	/**
+	 *	Count all the sessions opened through a proxy user.
+	 *
+	 *		@param optionalSecProxyId
+	 *
+	 *		@return The number of sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId) {
+		return( cfsec31SecSessionRepository.countBySecProxyIdx(optionalSecProxyId));
+	}
+
+	/**
+	 *	Count the open sessions opened through a proxy user.
+	 *
+	 *		@param optionalSecProxyId
+	 *
+	 *		@return The number of open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long countOpenBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId) {
+		return( cfsec31SecSessionRepository.countOpenBySecProxyIdx(optionalSecProxyId));
+	}
+
+	/**
+	 *	Count the open sessions of every user that has any.
+	 *
+	 *		@return A map from SecUserId to its number of open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public Map<CFLibDbKeyHash256, Long> countOpenGroupBySecUser() {
+		return( toCountMap(cfsec31SecSessionRepository.countOpenGroupBySecUser()));
+	}
+
+	/**
+	 *	Count the open sessions of a user per device.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return A map from SecDevName to its number of open sessions; sessions without a device are counted under null.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public Map<String, Long> countOpenGroupBySecDev(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( toCountMap(cfsec31SecSessionRepository.countOpenGroupBySecDev(requiredSecUserId)));
+	}
+
+	/**
+	 *	Count the open sessions of every proxy user that has any.
+	 *
+	 *		@return A map from SecProxyId to its number of open sessions.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public Map<CFLibDbKeyHash256, Long> countOpenGroupBySecProxy() {
+		return( toCountMap(cfsec31SecSessionRepository.countOpenGroupBySecProxy()));
+	}
+
+	/**
+	 *	Histogram of the sessions started in a time range by hour of day.
+	 *
+	 *		@param from The inclusive lower bound on the start timestamp.
+	 *		@param to The exclusive upper bound on the start timestamp.
+	 *
+	 *		@return An array of 24 counts indexed by hour of day.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public long[] countGroupByStartHour(LocalDateTime from, LocalDateTime to) {
+		final String S_ProcName = "countGroupByStartHour";
+		if (from == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "from");
+		}
+		if (to == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "to");
+		}
+		long[] histogram = new long[24];
+		for (Object[] row : cfsec31SecSessionRepository.countGroupByStartHour(from, to)) {
+			int hour = ((Number)row[0]).intValue();
+			if (hour >= 0 && hour < histogram.length) {
+				histogram[hour] = ((Number)row[1]).longValue();
+			}
+		}
+		return( histogram );
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static <K> Map<K, Long> toCountMap(List<Object[]> rows) {
+		Map<K, Long> counts = new LinkedHashMap<>(Math.max(16, rows.size() * 2));
+		for (Object[] row : rows) {
+			counts.put((K)row[0], Long.valueOf(((Number)row[1]).longValue()));
+		}
+		return( counts );
+	}
+
+	// CFSecSecSession bulk finish methods
+
+	/**
+	 *	Finish every open session of a user, e.g. to log the user out everywhere, with a single UPDATE.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public int finishAllForUser(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("finish") LocalDateTime finish) {
+		final String S_ProcName = "finishAllForUser";
+		if (requiredSecUserId == null || requiredSecUserId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredSecUserId");
+		}
+		if (finish == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "finish");
+		}
+		int finished = cfsec31SecSessionRepository.finishAllForUser(requiredSecUserId, finish);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
+		return( finished );
+	}
+
+	/**
+	 *	Finish every open session of a user on one device, e.g. to revoke the device, with a single UPDATE.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param optionalSecDevName
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public int finishAllForDevice(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("secDevName") String optionalSecDevName,
+		@Param("finish") LocalDateTime finish) {
+		final String S_ProcName = "finishAllForDevice";
+		if (requiredSecUserId == null || requiredSecUserId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "requiredSecUserId");
+		}
+		if (optionalSecDevName == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "optionalSecDevName");
+		}
+		if (finish == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 3, "finish");
+		}
+		int finished = cfsec31SecSessionRepository.finishAllForDevice(requiredSecUserId, optionalSecDevName, finish);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId) && Objects.equals(s.getOptionalSecDevName(), optionalSecDevName));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
+		return( finished );
+	}
+
+	/**
+	 *	Finish every open session opened through a proxy user with a single UPDATE.
+	 *
+	 *		@param optionalSecProxyId
+	 *		@param finish The finish timestamp to set.
+	 *
+	 *		@return The number of sessions finished.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public int finishAllForProxy(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId,
+		@Param("finish") LocalDateTime finish) {
+		final String S_ProcName = "finishAllForProxy";
+		if (optionalSecProxyId == null || optionalSecProxyId.isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "optionalSecProxyId");
+		}
+		if (finish == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 2, "finish");
+		}
+		List<CFLibDbKeyHash256> secUserIds = cfsec31SecSessionRepository.findOpenSecUserIdsBySecProxyIdx(optionalSecProxyId);
+		int finished = cfsec31SecSessionRepository.finishAllForProxy(optionalSecProxyId, finish);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getOptionalSecProxyId(), optionalSecProxyId));
+		cfsec31SecSessionLimiter.forgetOnCommit(secUserIds);
+		return( finished );
+	}
+
 	// CFSecSecSession specified delete-by-index methods
 
 	/**
@@ -467,7 +880,10 @@ public class CFSecJpaSecSessionService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("secSessionId") CFLibDbKeyHash256 requiredSecSessionId) {
+		List<CFLibDbKeyHash256> secUserIds = cfsec31SecSessionRepository.findOpenSecUserIdByIdIdx(requiredSecSessionId);
 		cfsec31SecSessionRepository.deleteByIdIdx(requiredSecSessionId);
+		cfsec31SecSessionCache.invalidate(requiredSecSessionId);
+		cfsec31SecSessionLimiter.forgetOnCommit(secUserIds);
 	}
 
 	/**
@@ -478,6 +894,8 @@ public class CFSecJpaSecSessionService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteBySecUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
 		cfsec31SecSessionRepository.deleteBySecUserIdx(requiredSecUserId);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
 	}
 
 	/**
@@ -488,6 +906,8 @@ public class CFSecJpaSecSessionService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteBySecUserIdx(ICFSecSecSessionBySecUserIdxKey key) {
 		cfsec31SecSessionRepository.deleteBySecUserIdx(key.getRequiredSecUserId());
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), key.getRequiredSecUserId()));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(key.getRequiredSecUserId()));
 	}
 
 	/**
@@ -501,6 +921,8 @@ public class CFSecJpaSecSessionService {
 		@Param("secDevName") String optionalSecDevName) {
 		cfsec31SecSessionRepository.deleteBySecDevIdx(requiredSecUserId,
 			optionalSecDevName);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId) && Objects.equals(s.getOptionalSecDevName(), optionalSecDevName));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
 	}
 
 	/**
@@ -511,6 +933,8 @@ public class CFSecJpaSecSessionService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteBySecDevIdx(ICFSecSecSessionBySecDevIdxKey key) {
 		cfsec31SecSessionRepository.deleteBySecDevIdx(key.getRequiredSecUserId(), key.getOptionalSecDevName());
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), key.getRequiredSecUserId()) && Objects.equals(s.getOptionalSecDevName(), key.getOptionalSecDevName()));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(key.getRequiredSecUserId()));
 	}
 
 	/**
@@ -524,6 +948,8 @@ public class CFSecJpaSecSessionService {
 		@Param("start") LocalDateTime requiredStart) {
 		cfsec31SecSessionRepository.deleteByStartIdx(requiredSecUserId,
 			requiredStart);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId) && Objects.equals(s.getRequiredStart(), requiredStart));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
 	}
 
 	/**
@@ -534,6 +960,8 @@ public class CFSecJpaSecSessionService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByStartIdx(ICFSecSecSessionByStartIdxKey key) {
 		cfsec31SecSessionRepository.deleteByStartIdx(key.getRequiredSecUserId(), key.getRequiredStart());
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), key.getRequiredSecUserId()) && Objects.equals(s.getRequiredStart(), key.getRequiredStart()));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(key.getRequiredSecUserId()));
 	}
 
 	/**
@@ -547,6 +975,8 @@ public class CFSecJpaSecSessionService {
 		@Param("finish") LocalDateTime optionalFinish) {
 		cfsec31SecSessionRepository.deleteByFinishIdx(requiredSecUserId,
 			optionalFinish);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), requiredSecUserId) && Objects.equals(s.getOptionalFinish(), optionalFinish));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(requiredSecUserId));
 	}
 
 	/**
@@ -557,6 +987,30 @@ public class CFSecJpaSecSessionService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByFinishIdx(ICFSecSecSessionByFinishIdxKey key) {
 		cfsec31SecSessionRepository.deleteByFinishIdx(key.getRequiredSecUserId(), key.getOptionalFinish());
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getRequiredSecUserId(), key.getRequiredSecUserId()) && Objects.equals(s.getOptionalFinish(), key.getOptionalFinish()));
+		cfsec31SecSessionLimiter.forgetOnCommit(List.of(key.getRequiredSecUserId()));
+	}
+
+	/**
+	 *	Delete one bounded chunk of sessions that finished before the cutoff, in its own transaction
+	 *	when called from outside one, so that no single transaction holds locks on the whole backlog.
+	 *	Finished sessions are never cached, so there is nothing to evict.
+	 *
+	 *		@param cutoff Sessions whose finish timestamp is before this instant are deleted.
+	 *		@param chunkSize The maximum number of rows to delete.
+	 *
+	 *		@return The number of rows deleted.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public int deleteFinishedBeforeChunk(LocalDateTime cutoff, int chunkSize) {
+		final String S_ProcName = "deleteFinishedBeforeChunk";
+		if (cutoff == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "cutoff");
+		}
+		if (chunkSize < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 2, "chunkSize", chunkSize, 1);
+		}
+		return( cfsec31SecSessionRepository.deleteFinishedBeforeChunk(cutoff, chunkSize) );
 	}
 
 	/**
@@ -566,7 +1020,10 @@ public class CFSecJpaSecSessionService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteBySecProxyIdx(@Param("secProxyId") CFLibDbKeyHash256 optionalSecProxyId) {
+		List<CFLibDbKeyHash256> secUserIds = cfsec31SecSessionRepository.findOpenSecUserIdsBySecProxyIdx(optionalSecProxyId);
 		cfsec31SecSessionRepository.deleteBySecProxyIdx(optionalSecProxyId);
+		cfsec31SecSessionCache.invalidateIf(s -> Objects.equals(s.getOptionalSecProxyId(), optionalSecProxyId));
+		cfsec31SecSessionLimiter.forgetOnCommit(secUserIds);
 	}
 
 	/**
@@ -576,7 +1033,7 @@ public class CFSecJpaSecSessionService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteBySecProxyIdx(ICFSecSecSessionBySecProxyIdxKey key) {
-		cfsec31SecSessionRepository.deleteBySecProxyIdx(key.getOptionalSecProxyId());
+		deleteBySecProxyIdx(key.getOptionalSecProxyId());
 	}
 
 }
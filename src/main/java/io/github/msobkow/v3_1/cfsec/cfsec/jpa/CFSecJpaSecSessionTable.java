@@ -110,6 +110,15 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 	@Autowired
 	private CFSecJpaSecSessionService secsessionService;
 
+	@Autowired
+	private CFSecJpaSecSessionCache secsessionCache;
+
+	@Autowired
+	private CFSecJpaSecSessionWriteBehind secsessionWriteBehind;
+
+	@Autowired
+	private CFSecJpaSecSessionLimiter secsessionLimiter;
+
 	@Autowired
 	private CFSecJpaSecUserService secuserService;
 
@@ -150,6 +159,8 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 	/**
 	 *	Create the instance in the database, and update the specified record
 	 *	with the assigned primary key.
+	 *	The create is rejected with a CFLibArgumentOverflowException if the user or the device
+	 *	already has as many open sessions as the cluster's caps allow.
 	 *
 	 *	@param	Authorization	The session authorization information.
 	 *
@@ -164,8 +175,22 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 		}
 		else if (rec instanceof CFSecJpaSecSession) {
 			CFSecJpaSecSession jparec = (CFSecJpaSecSession)rec;
-			CFSecJpaSecSession created = secsessionService.create(jparec);
-			return( created );
+			CFSecJpaSecSessionLimiter.Limits limits = secsessionLimiter.getLimits((Authorization != null) ? Authorization.getSecClusterId() : null);
+			if (limits.isUnlimited()) {
+				return( secsessionService.create(jparec) );
+			}
+			if (secsessionLimiter.isStrict()) {
+				return( secsessionService.createWithinLimits(jparec, limits.getMaxUserSessions(), limits.getMaxDeviceSessions()) );
+			}
+			secsessionLimiter.acquire(limits, jparec);
+			try {
+				CFSecJpaSecSession created = secsessionService.create(jparec);
+				return( created );
+			}
+			catch (RuntimeException e) {
+				secsessionLimiter.release(limits, jparec);
+				throw e;
+			}
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "createSecSession", "rec", rec, "CFSecJpaSecSession");
@@ -189,6 +214,9 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 		}
 		else if (rec instanceof CFSecJpaSecSession) {
 			CFSecJpaSecSession jparec = (CFSecJpaSecSession)rec;
+			if (secsessionWriteBehind.isEnabled()) {
+				return( secsessionWriteBehind.enqueue(jparec) );
+			}
 			CFSecJpaSecSession updated = secsessionService.update(jparec);
 			return( updated );
 		}
@@ -397,6 +425,172 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 	}
 
 
+	/**
+	 *	Count all the SecSession instances of a user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose sessions are to be counted.
+	 *
+	 *	@return The number of sessions.
+	 */
+	public long countBySecUserIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( secsessionService.countBySecUserIdx(argSecUserId) );
+	}
+
+	/**
+	 *	Count all the SecSession instances of a user on one device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose sessions are to be counted.
+	 *
+	 *	@param	SecDevName	The device the sessions were opened from.
+	 *
+	 *	@return The number of sessions.
+	 */
+	public long countBySecDevIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId,
+		String argSecDevName )
+	{
+		return( secsessionService.countBySecDevIdx(argSecUserId, argSecDevName) );
+	}
+
+	/**
+	 *	Count all the SecSession instances opened through a proxy user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecProxyId	The proxy user whose sessions are to be counted.
+	 *
+	 *	@return The number of sessions.
+	 */
+	public long countBySecProxyIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecProxyId )
+	{
+		return( secsessionService.countBySecProxyIdx(argSecProxyId) );
+	}
+
+	/**
+	 *	Count the open SecSession instances opened through a proxy user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecProxyId	The proxy user whose sessions are to be counted.
+	 *
+	 *	@return The number of sessions whose Finish is null.
+	 */
+	public long countOpenBySecProxyIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecProxyId )
+	{
+		return( secsessionService.countOpenBySecProxyIdx(argSecProxyId) );
+	}
+
+	/**
+	 *	Count the open SecSession instances of every user that has any.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@return A map from SecUserId to its number of open sessions.
+	 */
+	public Map<CFLibDbKeyHash256, Long> countOpenGroupBySecUser( ICFSecAuthorization Authorization ) {
+		return( secsessionService.countOpenGroupBySecUser() );
+	}
+
+	/**
+	 *	Count the open SecSession instances of a user per device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose sessions are to be counted.
+	 *
+	 *	@return A map from SecDevName to its number of open sessions.
+	 */
+	public Map<String, Long> countOpenGroupBySecDev( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( secsessionService.countOpenGroupBySecDev(argSecUserId) );
+	}
+
+	/**
+	 *	Count the open SecSession instances of every proxy user that has any.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@return A map from SecProxyId to its number of open sessions.
+	 */
+	public Map<CFLibDbKeyHash256, Long> countOpenGroupBySecProxy( ICFSecAuthorization Authorization ) {
+		return( secsessionService.countOpenGroupBySecProxy() );
+	}
+
+	/**
+	 *	Histogram of the SecSession instances started in a time range by hour of day.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	From	The inclusive lower bound on the start timestamp.
+	 *
+	 *	@param	To	The exclusive upper bound on the start timestamp.
+	 *
+	 *	@return An array of 24 counts indexed by hour of day.
+	 */
+	public long[] countGroupByStartHour( ICFSecAuthorization Authorization,
+		LocalDateTime argFrom,
+		LocalDateTime argTo )
+	{
+		return( secsessionService.countGroupByStartHour(argFrom, argTo) );
+	}
+
+	/**
+	 *	Finish every open session of a user as of now, logging the user out everywhere.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	argSecUserId	The user whose sessions are to be finished.
+	 *
+	 *	@return The number of sessions finished.
+	 */
+	public int finishAllForUser( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( secsessionService.finishAllForUser(argSecUserId, LocalDateTime.now()) );
+	}
+
+	/**
+	 *	Finish every open session of a user on one device as of now, revoking the device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	argSecUserId	The user whose sessions are to be finished.
+	 *
+	 *	@param	argSecDevName	The device being revoked.
+	 *
+	 *	@return The number of sessions finished.
+	 */
+	public int finishAllForDevice( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId,
+		String argSecDevName )
+	{
+		return( secsessionService.finishAllForDevice(argSecUserId, argSecDevName, LocalDateTime.now()) );
+	}
+
+	/**
+	 *	Finish every open session opened through a proxy user as of now.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	argSecProxyId	The proxy user whose sessions are to be finished.
+	 *
+	 *	@return The number of sessions finished.
+	 */
+	public int finishAllForProxy( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecProxyId )
+	{
+		return( secsessionService.finishAllForProxy(argSecProxyId, LocalDateTime.now()) );
+	}
+
 	/**
 	 *	Read the derived SecSession record instance by primary key.
 	 *
@@ -411,7 +605,20 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 	public ICFSecSecSession readDerived( ICFSecAuthorization Authorization,
 		CFLibDbKeyHash256 PKey )
 	{
-		return( secsessionService.find(PKey) );
+		return( readCachedDerived(PKey) );
+	}
+
+	/**
+	 *	Read an open session from the session cache, falling back to the database.  What it reads
+	 *	is cached only when it is committed and unchanged since the read; finished sessions are never cached.
+	 *
+	 *	@param	PKey	The primary key of the SecSession instance to be read.
+	 *
+	 *	@return The record instance for the specified primary key, or null if there is
+	 *		no such existing key value.
+	 */
+	protected ICFSecSecSession readCachedDerived( CFLibDbKeyHash256 PKey ) {
+		return( secsessionCache.get(PKey, secsessionService::find) );
 	}
 
 	/**
@@ -463,7 +670,7 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 	public ICFSecSecSession readDerivedByIdIdx( ICFSecAuthorization Authorization,
 		CFLibDbKeyHash256 argSecSessionId )
 	{
-		return( secsessionService.find(argSecSessionId) );
+		return( readCachedDerived(argSecSessionId) );
 	}
 
 	/**
@@ -514,6 +721,131 @@ public class CFSecJpaSecSessionTable implements ICFSecSecSessionTable
 		return( retset );
 	}
 
+	/**
+	 *	Read the open derived SecSession record instances of a user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be read.
+	 *
+	 *	@return An array of derived instances whose Finish is null, potentially with 0 elements in the set.
+	 */
+	public ICFSecSecSession[] readDerivedOpenBySecUserIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		List<CFSecJpaSecSession> results = secsessionService.findOpenBySecUserIdx(argSecUserId);
+		ICFSecSecSession[] retset = new ICFSecSecSession[results.size()];
+		int idx = 0;
+		for (CFSecJpaSecSession cur: results) {
+			retset[idx++] = cur;
+		}
+		return( retset );
+	}
+
+	/**
+	 *	Read the open derived SecSession record instances of a user on one device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be read.
+	 *
+	 *	@param	SecDevName	The device the sessions were opened from.
+	 *
+	 *	@return An array of derived instances whose Finish is null, potentially with 0 elements in the set.
+	 */
+	public ICFSecSecSession[] readDerivedOpenBySecDevIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId,
+		String argSecDevName )
+	{
+		List<CFSecJpaSecSession> results = secsessionService.findOpenBySecDevIdx(argSecUserId,
+		argSecDevName);
+		ICFSecSecSession[] retset = new ICFSecSecSession[results.size()];
+		int idx = 0;
+		for (CFSecJpaSecSession cur: results) {
+			retset[idx++] = cur;
+		}
+		return( retset );
+	}
+
+	/**
+	 *	Count the open SecSession instances of a user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be counted.
+	 *
+	 *	@return The number of sessions whose Finish is null.
+	 */
+	public long countOpenBySecUserIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( secsessionService.countOpenBySecUserIdx(argSecUserId) );
+	}
+
+	/**
+	 *	Count the open SecSession instances of a user on one device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be counted.
+	 *
+	 *	@param	SecDevName	The device the sessions were opened from.
+	 *
+	 *	@return The number of sessions whose Finish is null.
+	 */
+	public long countOpenBySecDevIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId,
+		String argSecDevName )
+	{
+		return( secsessionService.countOpenBySecDevIdx(argSecUserId, argSecDevName) );
+	}
+
+	/**
+	 *	Lock the open derived SecSession record instances of a user.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be locked.
+	 *
+	 *	@return An array of locked instances whose Finish is null, potentially with 0 elements in the set.
+	 */
+	public ICFSecSecSession[] lockDerivedOpenBySecUserIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		List<CFSecJpaSecSession> results = secsessionService.lockOpenBySecUserIdx(argSecUserId);
+		ICFSecSecSession[] retset = new ICFSecSecSession[results.size()];
+		int idx = 0;
+		for (CFSecJpaSecSession cur: results) {
+			retset[idx++] = cur;
+		}
+		return( retset );
+	}
+
+	/**
+	 *	Lock the open derived SecSession record instances of a user on one device.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The user whose open sessions are to be locked.
+	 *
+	 *	@param	SecDevName	The device the sessions were opened from.
+	 *
+	 *	@return An array of locked instances whose Finish is null, potentially with 0 elements in the set.
+	 */
+	public ICFSecSecSession[] lockDerivedOpenBySecDevIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId,
+		String argSecDevName )
+	{
+		List<CFSecJpaSecSession> results = secsessionService.lockOpenBySecDevIdx(argSecUserId,
+		argSecDevName);
+		ICFSecSecSession[] retset = new ICFSecSecSession[results.size()];
+		int idx = 0;
+		for (CFSecJpaSecSession cur: results) {
+			retset[idx++] = cur;
+		}
+		return( retset );
+	}
+
 	/**
 	 *	Read the derived SecSession record instance identified by the unique key StartIdx.
 	 *
@@ -0,0 +1,431 @@
+// Description: Java 25 Spring JPA write-behind queue for SecSession updates
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.stereotype.Service;
+import jakarta.persistence.EntityManager;
+
+/**
+ *	Asynchronous write-behind queue for SecSession updates such as finishing or touching a session.
+ *	Updates are coalesced by SecSessionId, so only the latest state of a session queued within one
+ *	flush window is written, and each window is flushed as a single JDBC batch of versioned UPDATEs
+ *	through a Hibernate StatelessSession on a dedicated executor thread.
+ *
+ *	The queue holds private copies, never the caller's instance.  enqueue advances the caller's
+ *	revision to the one the row will have once the window is written, exactly as a synchronous
+ *	update would, and a finished session releases its limiter counters once its write commits.
+ *
+ *	The queue holds at most cfsec31.secsession.writebehind.maxpending distinct sessions; once it is
+ *	full, further updates are applied synchronously through CFSecJpaSecSessionService.update.
+ *	Whatever is still queued at shutdown is flushed before the executor stops.
+ *	Write-behind is off unless cfsec31.secsession.writebehind.enabled is true.
+ */
+@Service("cfsec31JpaSecSessionWriteBehind")
+public class CFSecJpaSecSessionWriteBehind {
+
+	public final static long DEFAULT_FLUSH_MILLIS = 500;
+	public final static int DEFAULT_MAX_PENDING = 10000;
+	public final static int DEFAULT_BATCH_SIZE = 100;
+
+	private static final Logger log = LoggerFactory.getLogger(CFSecJpaSecSessionWriteBehind.class);
+
+	@Autowired
+	@Qualifier("cfsec31EntityManagerFactory")
+	private LocalContainerEntityManagerFactoryBean cfsec31EntityManagerFactory;
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	@Autowired
+	private CFSecJpaSecSessionService cfsec31SecSessionService;
+
+	@Autowired
+	private CFSecJpaSecSessionCache cfsec31SecSessionCache;
+
+	@Autowired
+	private CFSecJpaSecSessionLimiter cfsec31SecSessionLimiter;
+
+	private final ConcurrentHashMap<CFLibDbKeyHash256, CFSecJpaSecSession> pending = new ConcurrentHashMap<>();
+	private final Object flushLock = new Object();
+
+	private final LongAdder enqueuedCount = new LongAdder();
+	private final LongAdder coalescedCount = new LongAdder();
+	private final LongAdder overflowCount = new LongAdder();
+	private final LongAdder flushCount = new LongAdder();
+	private final LongAdder flushedRowCount = new LongAdder();
+	private final LongAdder conflictCount = new LongAdder();
+	private final LongAdder totalFlushNanos = new LongAdder();
+	private final AtomicLong lastFlushNanos = new AtomicLong(0L);
+	private final AtomicLong maxFlushNanos = new AtomicLong(0L);
+
+	private boolean enabled = false;
+	private long flushMillis = DEFAULT_FLUSH_MILLIS;
+	private int maxPending = DEFAULT_MAX_PENDING;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private ScheduledExecutorService executor = null;
+
+	/**
+	 *	Read cfsec31.secsession.writebehind.* and start the flush executor if write-behind is enabled.
+	 */
+	@PostConstruct
+	public void initWriteBehind() {
+		if (appMergedProperties != null) {
+			enabled = Boolean.parseBoolean(appMergedProperties.getProperty("cfsec31.secsession.writebehind.enabled", "false").trim());
+			flushMillis = Long.parseLong(appMergedProperties.getProperty("cfsec31.secsession.writebehind.flush.millis", Long.toString(DEFAULT_FLUSH_MILLIS)).trim());
+			maxPending = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.writebehind.maxpending", Integer.toString(DEFAULT_MAX_PENDING)).trim());
+			batchSize = Integer.parseInt(appMergedProperties.getProperty("cfsec31.secsession.writebehind.batchsize", Integer.toString(DEFAULT_BATCH_SIZE)).trim());
+		}
+		if (flushMillis < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), "initWriteBehind", 0, "cfsec31.secsession.writebehind.flush.millis", (int)Math.max(flushMillis, Integer.MIN_VALUE), 1);
+		}
+		if (maxPending < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), "initWriteBehind", 0, "cfsec31.secsession.writebehind.maxpending", maxPending, 1);
+		}
+		if (batchSize < 1) {
+			throw new CFLibArgumentUnderflowException(getClass(), "initWriteBehind", 0, "cfsec31.secsession.writebehind.batchsize", batchSize, 1);
+		}
+		if (enabled) {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "cfsec31-secsession-writebehind");
+				thread.setDaemon(true);
+				return( thread );
+			});
+			executor.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 *	Stop the flush executor and write out everything still queued.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		ScheduledExecutorService stopping = executor;
+		executor = null;
+		if (stopping != null) {
+			stopping.shutdown();
+			try {
+				stopping.awaitTermination(Math.max(flushMillis * 4, 1000L), TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		flush();
+	}
+
+	public boolean isEnabled() {
+		return( enabled && executor != null );
+	}
+
+	public long getFlushMillis() {
+		return( flushMillis );
+	}
+
+	public int getMaxPending() {
+		return( maxPending );
+	}
+
+	public int getBatchSize() {
+		return( batchSize );
+	}
+
+	/**
+	 *	@return The number of distinct sessions waiting to be flushed.
+	 */
+	public int getQueueDepth() {
+		return( pending.size() );
+	}
+
+	public long getEnqueuedCount() {
+		return( enqueuedCount.sum() );
+	}
+
+	/**
+	 *	@return The number of queued updates that replaced an earlier update to the same session.
+	 */
+	public long getCoalescedCount() {
+		return( coalescedCount.sum() );
+	}
+
+	/**
+	 *	@return The number of updates applied synchronously because the queue was full.
+	 */
+	public long getOverflowCount() {
+		return( overflowCount.sum() );
+	}
+
+	public long getFlushCount() {
+		return( flushCount.sum() );
+	}
+
+	public long getFlushedRowCount() {
+		return( flushedRowCount.sum() );
+	}
+
+	/**
+	 *	@return The number of queued updates dropped because the session was deleted or its revision had moved on.
+	 */
+	public long getConflictCount() {
+		return( conflictCount.sum() );
+	}
+
+	public long getLastFlushNanos() {
+		return( lastFlushNanos.get() );
+	}
+
+	public long getMaxFlushNanos() {
+		return( maxFlushNanos.get() );
+	}
+
+	public long getTotalFlushNanos() {
+		return( totalFlushNanos.sum() );
+	}
+
+	/**
+	 *	Queue a copy of an update, replacing any update to the same session that has not been flushed yet.
+	 *	The caller's revision is advanced to the one the row will carry after the flush; when this
+	 *	update replaces one still queued, both describe the same single UPDATE, so the copy keeps
+	 *	the revision the earlier one expected.  The session cache sees the new state immediately.
+	 *
+	 *		@param	data	The updated session.
+	 *
+	 *		@return The caller's session with its revision advanced, or as updated if it had to be written synchronously.
+	 */
+	public CFSecJpaSecSession enqueue(CFSecJpaSecSession data) {
+		final String S_ProcName = "enqueue";
+		if (data == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 1, "data");
+		}
+		if (data.getRequiredSecSessionId() == null || data.getRequiredSecSessionId().isNull()) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 0, "data.requiredSecSessionId");
+		}
+		if (!isEnabled()) {
+			return( cfsec31SecSessionService.update(data) );
+		}
+		CFLibDbKeyHash256 key = data.getRequiredSecSessionId();
+		if (pending.size() >= maxPending && !pending.containsKey(key)) {
+			overflowCount.increment();
+			return( cfsec31SecSessionService.update(data) );
+		}
+		enqueuedCount.increment();
+		CFSecJpaSecSession queued = copyOf(data);
+		pending.compute(key, (k, prior) -> {
+			if (prior != null) {
+				coalescedCount.increment();
+				if (queued.getRequiredRevision() == prior.getRequiredRevision() + 1) {
+					queued.setRequiredRevision(prior.getRequiredRevision());
+				}
+			}
+			return( queued );
+		});
+		data.setRequiredRevision(queued.getRequiredRevision() + 1);
+		cfsec31SecSessionCache.writeThrough(data);
+		return( data );
+	}
+
+	/**
+	 *	Copy the columns and associations of a session into an instance owned by the queue.
+	 *
+	 *		@param	data	The session to copy.
+	 *
+	 *		@return The new instance.
+	 */
+	protected static CFSecJpaSecSession copyOf(CFSecJpaSecSession data) {
+		CFSecJpaSecSession copy = new CFSecJpaSecSession();
+		copy.setRequiredSecSessionId(data.getRequiredSecSessionId());
+		copy.setRequiredRevision(data.getRequiredRevision());
+		copy.requiredSecUserId = data.getRequiredSecUserId();
+		copy.requiredSecProxyId = data.getOptionalSecProxyId();
+		copy.requiredContainerSecUser = (CFSecJpaSecUser)(data.getRequiredContainerSecUser());
+		copy.requiredParentSecProxy = (CFSecJpaSecUser)(data.getRequiredParentSecProxy());
+		copy.setOptionalSecDevName(data.getOptionalSecDevName());
+		copy.setRequiredStart(data.getRequiredStart());
+		copy.setOptionalFinish(data.getOptionalFinish());
+		return( copy );
+	}
+
+	/**
+	 *	Wire the associations a copy was queued without, such as one built from a cache snapshot
+	 *	outside a transaction, to uninitialized references so the UPDATE can bind their ids.
+	 *
+	 *		@param	references	An EntityManager that lives for the duration of the batch.
+	 *		@param	data	The queued copy.
+	 */
+	protected static void wireReferences(EntityManager references, CFSecJpaSecSession data) {
+		if (data.requiredContainerSecUser == null && data.requiredSecUserId != null) {
+			data.requiredContainerSecUser = references.getReference(CFSecJpaSecUser.class, data.requiredSecUserId);
+		}
+		if (data.requiredParentSecProxy == null && data.requiredSecProxyId != null) {
+			data.requiredParentSecProxy = references.getReference(CFSecJpaSecUser.class, data.requiredSecProxyId);
+		}
+	}
+
+	/**
+	 *	Release the limiter counters of the sessions a committed write finished, as the synchronous
+	 *	CFSecJpaSecSessionService.update does.
+	 *
+	 *		@param	data	The session that was written.
+	 */
+	protected void written(CFSecJpaSecSession data) {
+		flushedRowCount.increment();
+		if (data.getOptionalFinish() != null) {
+			cfsec31SecSessionLimiter.forget(data.getRequiredSecUserId());
+		}
+	}
+
+	/**
+	 *	Write out everything queued so far, one JDBC batch per batchSize sessions.
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			long startNanos = System.nanoTime();
+			List<CFSecJpaSecSession> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+			for (CFLibDbKeyHash256 key : pending.keySet()) {
+				CFSecJpaSecSession data = pending.remove(key);
+				if (data == null) {
+					continue;
+				}
+				batch.add(data);
+				if (batch.size() >= batchSize) {
+					writeBatch(batch);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				writeBatch(batch);
+			}
+			long elapsed = System.nanoTime() - startNanos;
+			flushCount.increment();
+			totalFlushNanos.add(elapsed);
+			lastFlushNanos.set(elapsed);
+			maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+		}
+	}
+
+	protected void flushQuietly() {
+		try {
+			flush();
+		}
+		catch (RuntimeException e) {
+			log.error("CFSecJpaSecSessionWriteBehind.flush() failed", e);
+		}
+	}
+
+	/**
+	 *	Apply one batch of versioned UPDATEs in a single transaction. If the batch fails, typically
+	 *	because one session was changed or deleted elsewhere, the sessions are retried one per
+	 *	transaction so a single conflict does not discard the whole window.
+	 *
+	 *		@param	batch	The sessions to write.
+	 */
+	protected void writeBatch(List<CFSecJpaSecSession> batch) {
+		SessionFactory sessionFactory = cfsec31EntityManagerFactory.getObject().unwrap(SessionFactory.class);
+		int[] revisions = new int[batch.size()];
+		for (int idx = 0; idx < revisions.length; idx++) {
+			revisions[idx] = batch.get(idx).getRequiredRevision();
+		}
+		try (EntityManager references = sessionFactory.createEntityManager()) {
+			for (CFSecJpaSecSession data : batch) {
+				wireReferences(references, data);
+			}
+			try (StatelessSession session = sessionFactory.openStatelessSession()) {
+				session.setJdbcBatchSize(batchSize);
+				Transaction tx = session.beginTransaction();
+				try {
+					for (CFSecJpaSecSession data : batch) {
+						session.update(data);
+					}
+					tx.commit();
+					for (CFSecJpaSecSession data : batch) {
+						written(data);
+					}
+					return;
+				}
+				catch (RuntimeException e) {
+					if (tx.isActive()) {
+						tx.rollback();
+					}
+					for (int idx = 0; idx < revisions.length; idx++) {
+						batch.get(idx).setRequiredRevision(revisions[idx]);
+					}
+				}
+			}
+			for (CFSecJpaSecSession data : batch) {
+				writeOne(sessionFactory, data);
+			}
+		}
+	}
+
+	protected void writeOne(SessionFactory sessionFactory, CFSecJpaSecSession data) {
+		int revision = data.getRequiredRevision();
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			Transaction tx = session.beginTransaction();
+			try {
+				session.update(data);
+				tx.commit();
+				written(data);
+			}
+			catch (RuntimeException e) {
+				if (tx.isActive()) {
+					tx.rollback();
+				}
+				data.setRequiredRevision(revision);
+				conflictCount.increment();
+				cfsec31SecSessionCache.invalidate(data.getRequiredSecSessionId());
+				log.warn("CFSecJpaSecSessionWriteBehind dropped the queued update of SecSession {} at revision {}: {}", data.getRequiredSecSessionId(), revision, e.getMessage());
+			}
+		}
+	}
+}
@@ -39,6 +39,8 @@ import java.math.*;
 import java.time.*;
 import java.util.*;
 import jakarta.persistence.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
 import jakarta.transaction.Transactional;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
@@ -80,6 +82,7 @@ public class CFSecJpaSecUser
 	protected Set<CFSecJpaSecGrpMemb> optionalChildrenSecGrpMemb;
 	@OneToMany(fetch=FetchType.LAZY, mappedBy="requiredParentUser")
 	protected Set<CFSecJpaTSecGrpMemb> optionalChildrenTSecGrpMemb;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=true)
@@ -88,22 +91,31 @@ public class CFSecJpaSecUser
 		@JoinColumn( name="DefDevName", referencedColumnName="DevName" )
 	})
 	protected CFSecJpaSecDevice optionalLookupDefDev;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="DefDevUserId", nullable=true, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 optionalDfltDevUserId;
+	@Column( name="DefDevName", nullable=true, length=127, insertable=false, updatable=false )
+	protected String optionalDfltDevName;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecUser.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecSecUser.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecUser.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecSecUser.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@Column( name="login_id", nullable=false, length=32 )
 	protected String requiredLoginId;
 	@Column( name="email_addr", nullable=false, length=512 )
@@ -120,13 +132,30 @@ public class CFSecJpaSecUser
 	protected CFLibUuid6 optionalPasswordResetUuid6;
 
 	public CFSecJpaSecUser() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecUser.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecUser.SECUSERID_INIT_VALUE;
 		requiredLoginId = ICFSecSecUser.LOGINID_INIT_VALUE;
 		requiredEMailAddress = ICFSecSecUser.EMAILADDRESS_INIT_VALUE;
 		optionalEMailConfirmUuid6 = null;
 		optionalPasswordResetUuid6 = null;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecSecUser.CLASS_CODE );
@@ -180,9 +209,16 @@ public class CFSecJpaSecUser
 	public void setOptionalLookupDefDev(ICFSecSecDevice argObj) {
 		if(argObj == null) {
 			optionalLookupDefDev = null;
+			optionalDfltDevUserId = null;
+			optionalDfltDevName = null;
 		}
 		else if (argObj instanceof CFSecJpaSecDevice) {
 			optionalLookupDefDev = (CFSecJpaSecDevice)argObj;
+			// Read the key from the proxy's identifier so an uninitialized device stays uninitialized
+			LazyInitializer lazy = HibernateProxy.extractLazyInitializer(argObj);
+			ICFSecSecDevicePKey devPKey = (lazy != null) ? (ICFSecSecDevicePKey)lazy.getIdentifier() : argObj.getPKey();
+			optionalDfltDevUserId = devPKey.getRequiredSecUserId();
+			optionalDfltDevName = devPKey.getRequiredDevName();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setLookupDefDev", "argObj", argObj, "CFSecJpaSecDevice");
@@ -192,6 +228,19 @@ public class CFSecJpaSecUser
 	@Override
 	public void setOptionalLookupDefDev(CFLibDbKeyHash256 argDfltDevUserId,
 		String argDfltDevName) {
+		if (argDfltDevName != null) {
+			CFSecJpaSecUser targetUserRef = CFSecJpaReferenceService.getReference(CFSecJpaSecUser.class, argDfltDevUserId);
+			if (targetUserRef != null) {
+				CFSecJpaSecDevicePKey targetPKey = new CFSecJpaSecDevicePKey();
+				targetPKey.setRequiredContainerSecUser(targetUserRef);
+				targetPKey.setRequiredDevName(argDfltDevName);
+				CFSecJpaSecDevice targetRef = CFSecJpaReferenceService.getReference(CFSecJpaSecDevice.class, targetPKey);
+				if (targetRef != null) {
+					setOptionalLookupDefDev(targetRef);
+					return;
+				}
+			}
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setOptionalLookupDefDev", 0, "ICFSecSchema.getBackingCFSec()");
@@ -355,6 +404,9 @@ public class CFSecJpaSecUser
 
 	@Override
 	public CFLibDbKeyHash256 getOptionalDfltDevUserId() {
+		if (optionalDfltDevUserId != null) {
+			return( optionalDfltDevUserId );
+		}
 		ICFSecSecDevice result = getOptionalLookupDefDev();
 		if (result != null) {
 			return result.getRequiredSecUserId();
@@ -366,6 +418,9 @@ public class CFSecJpaSecUser
 
 	@Override
 	public String getOptionalDfltDevName() {
+		if (optionalDfltDevName != null) {
+			return( optionalDfltDevName );
+		}
 		ICFSecSecDevice result = getOptionalLookupDefDev();
 		if (result != null) {
 			return result.getRequiredDevName();
@@ -419,13 +474,13 @@ public class CFSecJpaSecUser
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecUserId() != null ) {
@@ -555,13 +610,13 @@ public class CFSecJpaSecUser
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredSecUserId() != null ) {
@@ -805,9 +860,9 @@ public class CFSecJpaSecUser
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredSecUserId().hashCode();
 		if( getRequiredLoginId() != null ) {
 			hashCode = hashCode + getRequiredLoginId().hashCode();
@@ -861,7 +916,7 @@ public class CFSecJpaSecUser
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -869,7 +924,7 @@ public class CFSecJpaSecUser
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -1019,7 +1074,7 @@ public class CFSecJpaSecUser
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -1027,7 +1082,7 @@ public class CFSecJpaSecUser
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -1252,9 +1307,9 @@ public class CFSecJpaSecUser
 		setRequiredSecUserId(src.getRequiredSecUserId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setOptionalLookupDefDev(src.getOptionalLookupDefDev());
 		setRequiredLoginId(src.getRequiredLoginId());
 		setRequiredEMailAddress(src.getRequiredEMailAddress());
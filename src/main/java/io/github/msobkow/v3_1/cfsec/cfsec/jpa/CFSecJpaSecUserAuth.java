@@ -0,0 +1,65 @@
+// Description: Java 25 Spring JPA authentication projection for SecUser
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFSecJpaSecUserAuth is the read-only projection of a SecUser used on the authentication path.
+ *	It carries only the columns needed to verify a login, and is built directly from a JPQL constructor
+ *	expression, so reading it never creates a managed CFSecJpaSecUser or a persistence context entry.
+ *
+ *	@param	secUserId	The SecUserId primary key.
+ *	@param	loginId	The login id.
+ *	@param	passwordHash	The stored password hash.
+ *	@param	revision	The revision of the SecUser row the projection was read from.
+ *	@param	dfltDevUserId	The SecUserId of the default device, or null if there is none.
+ *	@param	dfltDevName	The DevName of the default device, or null if there is none.
+ */
+public record CFSecJpaSecUserAuth(
+	CFLibDbKeyHash256 secUserId,
+	String loginId,
+	String passwordHash,
+	int revision,
+	CFLibDbKeyHash256 dfltDevUserId,
+	String dfltDevName )
+{
+	/**
+	 *	@return true if the user has a default device.
+	 */
+	public boolean hasDfltDev() {
+		return( dfltDevName != null );
+	}
+}
@@ -80,11 +80,11 @@ public class CFSecJpaSecUserHPKey
 
 	public CFSecJpaSecUserHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecSecUser.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecSecUser.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
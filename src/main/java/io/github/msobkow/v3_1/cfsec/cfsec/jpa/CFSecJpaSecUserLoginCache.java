@@ -0,0 +1,374 @@
+// Description: Java 25 Spring JPA login-id cache for SecUser
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import jakarta.annotation.PostConstruct;
+import io.github.msobkow.v3_1.cflib.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *	Read-through cache of SecUser authentication projections by login id, consulted by
+ *	CFSecJpaSecUserTable.readSecUserAuthByULoginIdx.  Entries are immutable CFSecJpaSecUserAuth records, so a
+ *	cached value can be handed to any number of callers without sharing a mutable or managed entity.
+ *	Unknown login ids are cached as misses for cfsec31.secuser.logincache.negative.ttl.seconds, so repeated
+ *	attempts against non-existent accounts stop reaching the database. Concurrent misses for the same login id
+ *	share one database query. CFSecJpaSecUserService invalidates entries when users are created, updated or deleted.
+ *	A maximum size of 0 disables caching.
+ */
+@Service("cfsec31JpaSecUserLoginCache")
+public class CFSecJpaSecUserLoginCache {
+
+	public final static int DEFAULT_MAX_SIZE = 10000;
+	public final static long DEFAULT_TTL_SECONDS = 60;
+	public final static long DEFAULT_NEGATIVE_TTL_SECONDS = 5;
+
+	protected static final class Entry {
+		protected final String loginId;
+		protected final CFSecJpaSecUserAuth user;
+		protected final long expiresAtNanos;
+
+		protected Entry( String loginId, CFSecJpaSecUserAuth user, long expiresAtNanos ) {
+			this.loginId = loginId;
+			this.user = user;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, CompletableFuture<CFSecJpaSecUserAuth>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 *	Every entry in the order it was put, so makeRoom evicts the oldest entries from the head without
+	 *	copying or sorting the map.  Replaced and evicted entries stay behind as stale nodes until they
+	 *	reach the head or a purge removes them.
+	 */
+	private final ConcurrentLinkedQueue<Entry> putOrder = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger putOrderLength = new AtomicInteger();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder negativeHitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder coalescedCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	private volatile int maxSize = DEFAULT_MAX_SIZE;
+	private volatile long ttlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TTL_SECONDS);
+	private volatile long negativeTtlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_NEGATIVE_TTL_SECONDS);
+
+	/**
+	 *	Size the cache from cfsec31.secuser.logincache.maxsize, .ttl.seconds and .negative.ttl.seconds.
+	 */
+	@PostConstruct
+	public void initCache() {
+		final String S_ProcName = "initCache";
+		if (appMergedProperties != null) {
+			setMaxSize(Integer.parseInt(appMergedProperties.getProperty("cfsec31.secuser.logincache.maxsize", Integer.toString(DEFAULT_MAX_SIZE)).trim()));
+			long ttl = Long.parseLong(appMergedProperties.getProperty("cfsec31.secuser.logincache.ttl.seconds", Long.toString(DEFAULT_TTL_SECONDS)).trim());
+			long negativeTtl = Long.parseLong(appMergedProperties.getProperty("cfsec31.secuser.logincache.negative.ttl.seconds", Long.toString(DEFAULT_NEGATIVE_TTL_SECONDS)).trim());
+			if (ttl < 1) {
+				throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secuser.logincache.ttl.seconds", (int)Math.max(ttl, Integer.MIN_VALUE), 1);
+			}
+			if (negativeTtl < 0) {
+				throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.secuser.logincache.negative.ttl.seconds", (int)Math.max(negativeTtl, Integer.MIN_VALUE), 0);
+			}
+			ttlNanos = TimeUnit.SECONDS.toNanos(ttl);
+			negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtl);
+		}
+	}
+
+	public boolean isEnabled() {
+		return( maxSize > 0 );
+	}
+
+	public int getMaxSize() {
+		return( maxSize );
+	}
+
+	public void setMaxSize(int value) {
+		if (value < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(),
+				"setMaxSize",
+				1,
+				"value",
+				value,
+				0);
+		}
+		maxSize = value;
+		if (value == 0) {
+			invalidateAll();
+		}
+	}
+
+	public long getHitCount() {
+		return( hitCount.sum() );
+	}
+
+	/**
+	 *	@return The number of lookups answered from a cached miss.
+	 */
+	public long getNegativeHitCount() {
+		return( negativeHitCount.sum() );
+	}
+
+	public long getMissCount() {
+		return( missCount.sum() );
+	}
+
+	/**
+	 *	@return The number of lookups that waited on a query already in flight for the same login id.
+	 */
+	public long getCoalescedCount() {
+		return( coalescedCount.sum() );
+	}
+
+	public long getEvictionCount() {
+		return( evictionCount.sum() );
+	}
+
+	public int size() {
+		return( entries.size() );
+	}
+
+	/**
+	 *	Look up a user's authentication projection by login id, loading and caching the result on a miss.
+	 *
+	 *		@param	loginId	The login id.
+	 *		@param	loader	Reads the projection from the database, returning null if there is no such user.
+	 *
+	 *		@return The projection, or null if no user has that login id.
+	 */
+	public CFSecJpaSecUserAuth get(String loginId, Function<String, CFSecJpaSecUserAuth> loader) {
+		if (loader == null) {
+			throw new CFLibNullArgumentException(getClass(), "get", 2, "loader");
+		}
+		if (loginId == null || !isEnabled()) {
+			return( loader.apply(loginId) );
+		}
+		Entry entry = entries.get(loginId);
+		if (entry != null) {
+			if (System.nanoTime() - entry.expiresAtNanos < 0) {
+				if (entry.user != null) {
+					hitCount.increment();
+				}
+				else {
+					negativeHitCount.increment();
+				}
+				return( entry.user );
+			}
+			if (entries.remove(loginId, entry)) {
+				evictionCount.increment();
+			}
+		}
+		missCount.increment();
+		CompletableFuture<CFSecJpaSecUserAuth> mine = new CompletableFuture<>();
+		CompletableFuture<CFSecJpaSecUserAuth> running = inFlight.putIfAbsent(loginId, mine);
+		if (running != null) {
+			coalescedCount.increment();
+			try {
+				return( running.join() );
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw e;
+			}
+		}
+		try {
+			CFSecJpaSecUserAuth user = loader.apply(loginId);
+			if (inFlight.get(loginId) == mine) {
+				put(loginId, user);
+			}
+			mine.complete(user);
+			return( user );
+		}
+		catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			inFlight.remove(loginId, mine);
+		}
+	}
+
+	/**
+	 *	Drop the entry for a login id, and again once the current transaction completes so a lookup
+	 *	racing with the change cannot re-cache the old state.
+	 *	A query already in flight for the login id is detached so its result is not cached.
+	 *
+	 *		@param	loginId	The login id whose user changed.
+	 */
+	public void invalidate(String loginId) {
+		if (loginId == null) {
+			return;
+		}
+		evict(loginId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					evict(loginId);
+				}
+			});
+		}
+	}
+
+	/**
+	 *	Drop every cached user matching a predicate, and every cached miss, for changes that do not name a login id.
+	 *
+	 *		@param	matches	Selects the users whose entries are to be dropped.
+	 */
+	public void invalidateIf(Predicate<CFSecJpaSecUserAuth> matches) {
+		if (matches == null) {
+			throw new CFLibNullArgumentException(getClass(), "invalidateIf", 1, "matches");
+		}
+		evictIf(matches);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					evictIf(matches);
+				}
+			});
+		}
+	}
+
+	/**
+	 *	Drop every entry.
+	 */
+	public void invalidateAll() {
+		int count = entries.size();
+		entries.clear();
+		inFlight.clear();
+		evictionCount.add(count);
+		synchronized (putOrder) {
+			putOrder.clear();
+			putOrderLength.set(0);
+		}
+	}
+
+	protected void put(String loginId, CFSecJpaSecUserAuth user) {
+		long ttl = (user != null) ? ttlNanos : negativeTtlNanos;
+		if (ttl <= 0L) {
+			return;
+		}
+		if (!entries.containsKey(loginId) && entries.size() >= maxSize) {
+			makeRoom();
+		}
+		Entry entry = new Entry(loginId, user, System.nanoTime() + ttl);
+		entries.put(loginId, entry);
+		putOrder.offer(entry);
+		if (putOrderLength.incrementAndGet() > 2 * Math.max(maxSize, 1)) {
+			purgeStale();
+		}
+	}
+
+	protected void evict(String loginId) {
+		inFlight.remove(loginId);
+		if (entries.remove(loginId) != null) {
+			evictionCount.increment();
+		}
+	}
+
+	protected void evictIf(Predicate<CFSecJpaSecUserAuth> matches) {
+		inFlight.clear();
+		Iterator<Entry> iter = entries.values().iterator();
+		while (iter.hasNext()) {
+			Entry entry = iter.next();
+			if (entry.user == null || matches.test(entry.user)) {
+				iter.remove();
+				evictionCount.increment();
+			}
+		}
+	}
+
+	protected boolean isLive(Entry entry) {
+		return( entries.get(entry.loginId) == entry );
+	}
+
+	/**
+	 *	Evict from the head of the put order: stale nodes and expired entries first, then the oldest
+	 *	live entries until the cache is down to 90% of capacity, so a full cache does not come back
+	 *	here on every insert.  Threads that were waiting for the lock find the cache already trimmed
+	 *	and stop at the first live, unexpired head.
+	 */
+	protected void makeRoom() {
+		synchronized (putOrder) {
+			long now = System.nanoTime();
+			int target = maxSize - maxSize / 10;
+			for (Entry head = putOrder.peek(); head != null; head = putOrder.peek()) {
+				boolean live = isLive(head);
+				if (live && now - head.expiresAtNanos < 0 && entries.size() < target) {
+					break;
+				}
+				putOrder.poll();
+				putOrderLength.decrementAndGet();
+				if (live && entries.remove(head.loginId, head)) {
+					evictionCount.increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 *	Drop the stale nodes left behind by replaced and evicted entries, once the queue has grown to
+	 *	twice the capacity.
+	 */
+	protected void purgeStale() {
+		synchronized (putOrder) {
+			Iterator<Entry> iter = putOrder.iterator();
+			while (iter.hasNext()) {
+				if (!isLive(iter.next())) {
+					iter.remove();
+					putOrderLength.decrementAndGet();
+				}
+			}
+		}
+	}
+}
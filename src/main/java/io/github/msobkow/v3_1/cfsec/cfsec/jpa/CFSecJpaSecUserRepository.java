@@ -157,6 +157,28 @@ public interface CFSecJpaSecUserRepository extends JpaRepository<CFSecJpaSecUser
 		return( findByDefDevIdx(key.getOptionalDfltDevUserId(), key.getOptionalDfltDevName()));
 	}
 
+	// CFSecJpaSecUser authentication projections
+
+	/**
+	 *	Read the authentication columns of a user by login id, without instantiating the entity.
+	 *
+	 *		@param requiredLoginId
+	 *
+	 *		@return The projection, or null if no such user exists.
+	 */
+	@Query("select new io.github.msobkow.v3_1.cfsec.cfsec.jpa.CFSecJpaSecUserAuth(r.requiredSecUserId, r.requiredLoginId, r.requiredPasswordHash, r.requiredRevision, r.optionalDfltDevUserId, r.optionalDfltDevName) from CFSecJpaSecUser r where r.requiredLoginId = :loginId")
+	CFSecJpaSecUserAuth findAuthByULoginIdx(@Param("loginId") String requiredLoginId);
+
+	/**
+	 *	Read the authentication columns of a user by primary key, without instantiating the entity.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The projection, or null if no such user exists.
+	 */
+	@Query("select new io.github.msobkow.v3_1.cfsec.cfsec.jpa.CFSecJpaSecUserAuth(r.requiredSecUserId, r.requiredLoginId, r.requiredPasswordHash, r.requiredRevision, r.optionalDfltDevUserId, r.optionalDfltDevName) from CFSecJpaSecUser r where r.requiredSecUserId = :secUserId")
+	CFSecJpaSecUserAuth findAuthByIdIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
 	// CFSecJpaSecUser specified delete-by-index methods
 
 	/**
@@ -355,4 +377,46 @@ public interface CFSecJpaSecUserRepository extends JpaRepository<CFSecJpaSecUser
 		deleteByDefDevIdx(key.getOptionalDfltDevUserId(), key.getOptionalDfltDevName());
 	}
 
+	// CFSecJpaSecUser optimistic update methods
+
+	/**
+	 *	Read only the login id of a user, so an update can drop its login cache entry
+	 *	without loading the whole row.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The LoginId, or an empty list if there is no such user.
+	 */
+	@Query("select r.requiredLoginId from CFSecJpaSecUser r where r.requiredSecUserId = :secUserId")
+	List<String> findLoginIdByIdIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSecUserId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param optionalLookupDefDev
+	 *		@param requiredLoginId
+	 *		@param requiredEMailAddress
+	 *		@param optionalEMailConfirmUuid6
+	 *		@param requiredPasswordHash
+	 *		@param optionalPasswordResetUuid6
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSecUser r set r.optionalLookupDefDev = :defDev, r.requiredLoginId = :loginId, r.requiredEMailAddress = :eMailAddress, r.optionalEMailConfirmUuid6 = :eMailConfirmUuid6, r.requiredPasswordHash = :passwordHash, r.optionalPasswordResetUuid6 = :passwordResetUuid6, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredSecUserId = :secUserId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId,
+		@Param("revision") int requiredRevision,
+		@Param("defDev") CFSecJpaSecDevice optionalLookupDefDev,
+		@Param("loginId") String requiredLoginId,
+		@Param("eMailAddress") String requiredEMailAddress,
+		@Param("eMailConfirmUuid6") CFLibUuid6 optionalEMailConfirmUuid6,
+		@Param("passwordHash") String requiredPasswordHash,
+		@Param("passwordResetUuid6") CFLibUuid6 optionalPasswordResetUuid6,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
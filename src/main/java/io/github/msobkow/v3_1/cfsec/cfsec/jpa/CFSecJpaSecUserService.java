@@ -67,19 +67,57 @@ public class CFSecJpaSecUserService {
 	@Autowired
 	private CFSecJpaSecUserRepository cfsec31SecUserRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaSecUserLoginCache cfsec31SecUserLoginCache;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecUser, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSecUser create(CFSecJpaSecUser data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecUser, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecUser createOrGetExisting(CFSecJpaSecUser data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSecUser, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecUser create(CFSecJpaSecUser data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredSecUserId = data.getRequiredSecUserId();
 		boolean generatedRequiredSecUserId = false;
 		if(data.getRequiredLoginId() == null) {
@@ -102,18 +140,27 @@ public class CFSecJpaSecUserService {
 		}
 		try {
 			if (data.getRequiredSecUserId() == null || data.getRequiredSecUserId().isNull()) {
-				data.setRequiredSecUserId(new CFLibDbKeyHash256(0));
+				data.setRequiredSecUserId(cfsec31IdGenService.generateSecUserIdGen());
 				generatedRequiredSecUserId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31SecUserRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaSecUser)(cfsec31SecUserRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredSecUserId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaSecUser> existing = cfsec31SecUserRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SecUserRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31SecUserLoginCache.invalidate(data.getRequiredLoginId());
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredSecUserId) {
 					data.setRequiredSecUserId(originalRequiredSecUserId);
 				}
@@ -160,24 +207,38 @@ public class CFSecJpaSecUserService {
 				0,
 				"data.requiredPasswordHash");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSecUser existing = cfsec31SecUserRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// Only the stored login id is read, to move the cache entry; the revision is checked by the conditional UPDATE
+		List<String> storedLoginIds = cfsec31SecUserRepository.findLoginIdByIdIdx((CFLibDbKeyHash256)(data.getPKey()));
+		if (storedLoginIds.isEmpty()) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		cfsec31SecUserLoginCache.invalidate(storedLoginIds.get(0));
+		cfsec31SecUserLoginCache.invalidate(data.getRequiredLoginId());
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31SecUserRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			(CFSecJpaSecDevice)(data.getOptionalLookupDefDev()),
+			data.getRequiredLoginId(),
+			data.getRequiredEMailAddress(),
+			data.getOptionalEMailConfirmUuid6(),
+			data.getRequiredPasswordHash(),
+			data.getOptionalPasswordResetUuid6(),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSecUser to existing object
-		existing.setOptionalLookupDefDev(data.getOptionalLookupDefDev());
-		// Apply data columns of CFSecSecUser to existing object
-		existing.setRequiredLoginId(data.getRequiredLoginId());
-		existing.setRequiredEMailAddress(data.getRequiredEMailAddress());
-		existing.setOptionalEMailConfirmUuid6(data.getOptionalEMailConfirmUuid6());
-		existing.setRequiredPasswordHash(data.getRequiredPasswordHash());
-		existing.setOptionalPasswordResetUuid6(data.getOptionalPasswordResetUuid6());
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31SecUserRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaSecUser stored = cfsec31EntityManager.find(CFSecJpaSecUser.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -303,6 +364,32 @@ public class CFSecJpaSecUserService {
 		return( cfsec31SecUserRepository.findByDefDevIdx(key.getOptionalDfltDevUserId(), key.getOptionalDfltDevName()));
 	}
 
+	// CFSecSecUser authentication projections
+
+	/**
+	 *	Read the authentication columns of a user by login id, without instantiating the entity.
+	 *
+	 *		@param requiredLoginId
+	 *
+	 *		@return The projection, or null if no such user exists.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecUserAuth findAuthByULoginIdx(@Param("loginId") String requiredLoginId) {
+		return( cfsec31SecUserRepository.findAuthByULoginIdx(requiredLoginId));
+	}
+
+	/**
+	 *	Read the authentication columns of a user by primary key, without instantiating the entity.
+	 *
+	 *		@param requiredSecUserId
+	 *
+	 *		@return The projection, or null if no such user exists.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSecUserAuth findAuthByIdIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		return( cfsec31SecUserRepository.findAuthByIdIdx(requiredSecUserId));
+	}
+
 	// CFSecSecUser specified lock-by-index methods
 
 	/**
@@ -426,6 +513,7 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
 		cfsec31SecUserRepository.deleteByIdIdx(requiredSecUserId);
+		cfsec31SecUserLoginCache.invalidateIf(u -> Objects.equals(u.secUserId(), requiredSecUserId));
 	}
 
 	/**
@@ -436,6 +524,7 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByULoginIdx(@Param("loginId") String requiredLoginId) {
 		cfsec31SecUserRepository.deleteByULoginIdx(requiredLoginId);
+		cfsec31SecUserLoginCache.invalidate(requiredLoginId);
 	}
 
 	/**
@@ -446,6 +535,7 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByULoginIdx(ICFSecSecUserByULoginIdxKey key) {
 		cfsec31SecUserRepository.deleteByULoginIdx(key.getRequiredLoginId());
+		cfsec31SecUserLoginCache.invalidate(key.getRequiredLoginId());
 	}
 
 	/**
@@ -456,6 +546,8 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByEMConfIdx(@Param("eMailConfirmUuid6") CFLibUuid6 optionalEMailConfirmUuid6) {
 		cfsec31SecUserRepository.deleteByEMConfIdx(optionalEMailConfirmUuid6);
+		// The projection does not carry EMailConfirmUuid6, so every cached entry is dropped
+		cfsec31SecUserLoginCache.invalidateIf(u -> true);
 	}
 
 	/**
@@ -466,6 +558,8 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByEMConfIdx(ICFSecSecUserByEMConfIdxKey key) {
 		cfsec31SecUserRepository.deleteByEMConfIdx(key.getOptionalEMailConfirmUuid6());
+		// The projection does not carry EMailConfirmUuid6, so every cached entry is dropped
+		cfsec31SecUserLoginCache.invalidateIf(u -> true);
 	}
 
 	/**
@@ -476,6 +570,8 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByPwdResetIdx(@Param("passwordResetUuid6") CFLibUuid6 optionalPasswordResetUuid6) {
 		cfsec31SecUserRepository.deleteByPwdResetIdx(optionalPasswordResetUuid6);
+		// The projection does not carry PasswordResetUuid6, so every cached entry is dropped
+		cfsec31SecUserLoginCache.invalidateIf(u -> true);
 	}
 
 	/**
@@ -486,6 +582,8 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByPwdResetIdx(ICFSecSecUserByPwdResetIdxKey key) {
 		cfsec31SecUserRepository.deleteByPwdResetIdx(key.getOptionalPasswordResetUuid6());
+		// The projection does not carry PasswordResetUuid6, so every cached entry is dropped
+		cfsec31SecUserLoginCache.invalidateIf(u -> true);
 	}
 
 	/**
@@ -499,6 +597,7 @@ public class CFSecJpaSecUserService {
 		@Param("dfltDevName") String optionalDfltDevName) {
 		cfsec31SecUserRepository.deleteByDefDevIdx(optionalDfltDevUserId,
 			optionalDfltDevName);
+		cfsec31SecUserLoginCache.invalidateIf(u -> Objects.equals(u.dfltDevUserId(), optionalDfltDevUserId) && Objects.equals(u.dfltDevName(), optionalDfltDevName));
 	}
 
 	/**
@@ -509,6 +608,7 @@ public class CFSecJpaSecUserService {
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByDefDevIdx(ICFSecSecUserByDefDevIdxKey key) {
 		cfsec31SecUserRepository.deleteByDefDevIdx(key.getOptionalDfltDevUserId(), key.getOptionalDfltDevName());
+		cfsec31SecUserLoginCache.invalidateIf(u -> Objects.equals(u.dfltDevUserId(), key.getOptionalDfltDevUserId()) && Objects.equals(u.dfltDevName(), key.getOptionalDfltDevName()));
 	}
 
 }
@@ -113,6 +113,9 @@ public class CFSecJpaSecUserTable implements ICFSecSecUserTable
 	@Autowired
 	private CFSecJpaSecUserService secuserService;
 
+	@Autowired
+	private CFSecJpaSecUserLoginCache secuserLoginCache;
+
 	@Autowired
 	private CFSecJpaServiceService serviceService;
 
@@ -444,6 +447,40 @@ public class CFSecJpaSecUserTable implements ICFSecSecUserTable
 		return( secuserService.findByULoginIdx(argLoginId) );
 	}
 
+	/**
+	 *	Read the authentication projection of a SecUser identified by the unique key ULoginIdx.
+	 *	Only the id, login, password hash, revision and default device key are fetched, so
+	 *	login checks do not pay for hydrating and dirty-tracking the full entity.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	LoginId	The SecUser key attribute of the instance generating the id.
+	 *
+	 *	@return The projection for the specified key, or null if there is
+	 *		no such existing key value.
+	 */
+	public CFSecJpaSecUserAuth readSecUserAuthByULoginIdx( ICFSecAuthorization Authorization,
+		String argLoginId )
+	{
+		return( secuserLoginCache.get(argLoginId, loginId -> secuserService.findAuthByULoginIdx(loginId)) );
+	}
+
+	/**
+	 *	Read the authentication projection of a SecUser identified by its primary key.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	SecUserId	The SecUser key attribute of the instance generating the id.
+	 *
+	 *	@return The projection for the specified key, or null if there is
+	 *		no such existing key value.
+	 */
+	public CFSecJpaSecUserAuth readSecUserAuthByIdIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( secuserService.findAuthByIdIdx(argSecUserId) );
+	}
+
 	/**
 	 *	Read an array of the derived SecUser record instances identified by the duplicate key EMConfIdx.
 	 *
@@ -71,30 +71,42 @@ public class CFSecJpaService
 		@AttributeOverride(name="bytes", column = @Column( name="ServiceId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
 	protected CFLibDbKeyHash256 requiredServiceId;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=true)
 	@JoinColumn( name="HostNodeId" )
 	protected CFSecJpaHostNode optionalContainerHost;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="HostNodeId", nullable=true, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 optionalHostNodeId;
 	@ManyToOne(fetch=FetchType.LAZY, optional=true)
 	@JoinColumn( name="ServiceTypeId" )
 	protected CFSecJpaServiceType optionalParentServiceType;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="ServiceTypeId", nullable=true, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 optionalServiceTypeId;
+
+	protected static final CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex(ICFSecService.S_INIT_CREATED_BY);
+	protected static final CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex(ICFSecService.S_INIT_UPDATED_BY);
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column = @Column( name="CreatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFSecService.S_INIT_CREATED_BY);
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
 
 	@Column(name="CreatedAt", nullable=false)
-	protected LocalDateTime createdAt = LocalDateTime.now();
+	protected LocalDateTime createdAt = null;
 
 	@AttributeOverrides({
 		@AttributeOverride( name="bytes", column= @Column( name="UpdatedByUserId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFSecService.S_INIT_UPDATED_BY);
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
 
 	@Column(name="UpdatedAt", nullable=false)
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected LocalDateTime updatedAt = null;
 	@AttributeOverrides({
 		@AttributeOverride(name="bytes", column = @Column( name="ClusterId", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH ) )
 	})
@@ -103,11 +115,28 @@ public class CFSecJpaService
 	protected short requiredHostPort;
 
 	public CFSecJpaService() {
-		requiredServiceId = CFLibDbKeyHash256.fromHex( ICFSecService.SERVICEID_INIT_VALUE.toString() );
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecService.CLUSTERID_INIT_VALUE.toString() );
+		requiredServiceId = ICFSecService.SERVICEID_INIT_VALUE;
+		requiredClusterId = ICFSecService.CLUSTERID_INIT_VALUE;
 		requiredHostPort = ICFSecService.HOSTPORT_INIT_VALUE;
 	}
 
+	/**
+	 *	Stamp createdAt and updatedAt when the record is first persisted rather than at
+	 *	construction or in the getters, so hydrated instances never read the clock.
+	 */
+	@PrePersist
+	protected void applyInitTimestamps() {
+		if( ( createdAt == null ) || ( updatedAt == null ) ) {
+			LocalDateTime now = LocalDateTime.now();
+			if( createdAt == null ) {
+				createdAt = now;
+			}
+			if( updatedAt == null ) {
+				updatedAt = now;
+			}
+		}
+	}
+
 	@Override
 	public int getClassCode() {
 		return( ICFSecService.CLASS_CODE );
@@ -149,9 +178,11 @@ public class CFSecJpaService
 	public void setOptionalContainerHost(ICFSecHostNode argObj) {
 		if(argObj == null) {
 			optionalContainerHost = null;
+			optionalHostNodeId = null;
 		}
 		else if (argObj instanceof CFSecJpaHostNode) {
 			optionalContainerHost = (CFSecJpaHostNode)argObj;
+			optionalHostNodeId = argObj.getRequiredHostNodeId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerHost", "argObj", argObj, "CFSecJpaHostNode");
@@ -160,6 +191,11 @@ public class CFSecJpaService
 
 	@Override
 	public void setOptionalContainerHost(CFLibDbKeyHash256 argHostNodeId) {
+		CFSecJpaHostNode targetRef = CFSecJpaReferenceService.getReference(CFSecJpaHostNode.class, argHostNodeId);
+		if (targetRef != null) {
+			setOptionalContainerHost(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setOptionalContainerHost", 0, "ICFSecSchema.getBackingCFSec()");
@@ -180,9 +216,11 @@ public class CFSecJpaService
 	public void setOptionalParentServiceType(ICFSecServiceType argObj) {
 		if(argObj == null) {
 			optionalParentServiceType = null;
+			optionalServiceTypeId = null;
 		}
 		else if (argObj instanceof CFSecJpaServiceType) {
 			optionalParentServiceType = (CFSecJpaServiceType)argObj;
+			optionalServiceTypeId = argObj.getRequiredServiceTypeId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setParentServiceType", "argObj", argObj, "CFSecJpaServiceType");
@@ -191,6 +229,11 @@ public class CFSecJpaService
 
 	@Override
 	public void setOptionalParentServiceType(CFLibDbKeyHash256 argServiceTypeId) {
+		CFSecJpaServiceType targetRef = CFSecJpaReferenceService.getReference(CFSecJpaServiceType.class, argServiceTypeId);
+		if (targetRef != null) {
+			setOptionalParentServiceType(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setOptionalParentServiceType", 0, "ICFSecSchema.getBackingCFSec()");
@@ -301,6 +344,9 @@ public class CFSecJpaService
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredHostNodeId() {
+		if (optionalHostNodeId != null) {
+			return( optionalHostNodeId );
+		}
 		ICFSecHostNode result = getOptionalContainerHost();
 		if (result != null) {
 			return result.getRequiredHostNodeId();
@@ -312,6 +358,9 @@ public class CFSecJpaService
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredServiceTypeId() {
+		if (optionalServiceTypeId != null) {
+			return( optionalServiceTypeId );
+		}
 		ICFSecServiceType result = getOptionalParentServiceType();
 		if (result != null) {
 			return result.getRequiredServiceTypeId();
@@ -349,13 +398,13 @@ public class CFSecJpaService
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredServiceId() != null ) {
@@ -428,13 +477,13 @@ public class CFSecJpaService
 			if( ! getCreatedByUserId().equals( rhs.getCreatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getCreatedAt().equals( rhs.getCreatedAt() ) ) {
+			if( ! Objects.equals( getCreatedAt(), rhs.getCreatedAt() ) ) {
 				return( false );
 			}
 			if( ! getUpdatedByUserId().equals( rhs.getUpdatedByUserId() ) ) {
 				return( false );
 			}
-			if( ! getUpdatedAt().equals( rhs.getUpdatedAt() ) ) {
+			if( ! Objects.equals( getUpdatedAt(), rhs.getUpdatedAt() ) ) {
 				return( false );
 			}
 			if( getRequiredServiceId() != null ) {
@@ -673,9 +722,9 @@ public class CFSecJpaService
 	public int hashCode() {
 		int hashCode = getPKey().hashCode();
 		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getCreatedAt() );
 		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
+		hashCode = hashCode + Objects.hashCode( getUpdatedAt() );
 		hashCode = hashCode + getRequiredServiceId().hashCode();
 		hashCode = hashCode + getRequiredClusterId().hashCode();
 		hashCode = hashCode + getRequiredHostNodeId().hashCode();
@@ -712,7 +761,7 @@ public class CFSecJpaService
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -720,7 +769,7 @@ public class CFSecJpaService
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -812,7 +861,7 @@ public class CFSecJpaService
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getCreatedAt().compareTo( rhs.getCreatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getCreatedAt(), rhs.getCreatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -820,7 +869,7 @@ public class CFSecJpaService
 			if( cmp != 0 ) {
 				return( cmp );
 			}
-			cmp = getUpdatedAt().compareTo( rhs.getUpdatedAt() );
+			cmp = Comparator.nullsFirst( Comparator.<LocalDateTime>naturalOrder() ).compare( getUpdatedAt(), rhs.getUpdatedAt() );
 			if( cmp != 0 ) {
 				return( cmp );
 			}
@@ -1031,9 +1080,9 @@ public class CFSecJpaService
 		setRequiredServiceId(src.getRequiredServiceId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setCreatedByUserId( src.getCreatedByUserId() );
-		setCreatedAt( src.getCreatedAt() );
+		createdAt = src.getCreatedAt();
 		setUpdatedByUserId( src.getUpdatedByUserId() );
-		setUpdatedAt( src.getUpdatedAt() );
+		updatedAt = src.getUpdatedAt();
 		setRequiredOwnerCluster(src.getRequiredOwnerCluster());
 		setOptionalContainerHost(src.getOptionalContainerHost());
 		setOptionalParentServiceType(src.getOptionalParentServiceType());
@@ -52,7 +52,7 @@ public class CFSecJpaServiceByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaServiceByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecService.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecService.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
@@ -52,7 +52,7 @@ public class CFSecJpaServiceByHostIdxKey
 {
 	protected CFLibDbKeyHash256 requiredHostNodeId;
 	public CFSecJpaServiceByHostIdxKey() {
-		requiredHostNodeId = CFLibDbKeyHash256.fromHex( ICFSecService.HOSTNODEID_INIT_VALUE.toString() );
+		requiredHostNodeId = ICFSecService.HOSTNODEID_INIT_VALUE;
 	}
 
 	@Override
@@ -52,7 +52,7 @@ public class CFSecJpaServiceByTypeIdxKey
 {
 	protected CFLibDbKeyHash256 requiredServiceTypeId;
 	public CFSecJpaServiceByTypeIdxKey() {
-		requiredServiceTypeId = CFLibDbKeyHash256.fromHex( ICFSecService.SERVICETYPEID_INIT_VALUE.toString() );
+		requiredServiceTypeId = ICFSecService.SERVICETYPEID_INIT_VALUE;
 	}
 
 	@Override
@@ -54,8 +54,8 @@ public class CFSecJpaServiceByUHostPortIdxKey
 	protected CFLibDbKeyHash256 requiredHostNodeId;
 	protected short requiredHostPort;
 	public CFSecJpaServiceByUHostPortIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecService.CLUSTERID_INIT_VALUE.toString() );
-		requiredHostNodeId = CFLibDbKeyHash256.fromHex( ICFSecService.HOSTNODEID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecService.CLUSTERID_INIT_VALUE;
+		requiredHostNodeId = ICFSecService.HOSTNODEID_INIT_VALUE;
 		requiredHostPort = ICFSecService.HOSTPORT_INIT_VALUE;
 	}
 
@@ -54,9 +54,9 @@ public class CFSecJpaServiceByUTypeIdxKey
 	protected CFLibDbKeyHash256 requiredHostNodeId;
 	protected CFLibDbKeyHash256 requiredServiceTypeId;
 	public CFSecJpaServiceByUTypeIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecService.CLUSTERID_INIT_VALUE.toString() );
-		requiredHostNodeId = CFLibDbKeyHash256.fromHex( ICFSecService.HOSTNODEID_INIT_VALUE.toString() );
-		requiredServiceTypeId = CFLibDbKeyHash256.fromHex( ICFSecService.SERVICETYPEID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecService.CLUSTERID_INIT_VALUE;
+		requiredHostNodeId = ICFSecService.HOSTNODEID_INIT_VALUE;
+		requiredServiceTypeId = ICFSecService.SERVICETYPEID_INIT_VALUE;
 	}
 
 	@Override
@@ -80,11 +80,11 @@ public class CFSecJpaServiceHPKey
 
 	public CFSecJpaServiceHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredServiceId = CFLibDbKeyHash256.fromHex( ICFSecService.SERVICEID_INIT_VALUE.toString() );
+		requiredServiceId = ICFSecService.SERVICEID_INIT_VALUE;
 	}
 
 	@Override
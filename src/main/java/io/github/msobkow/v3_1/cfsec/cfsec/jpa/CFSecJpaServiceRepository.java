@@ -436,4 +436,31 @@ public interface CFSecJpaServiceRepository extends JpaRepository<CFSecJpaService
 		deleteByUHostPortIdx(key.getRequiredClusterId(), key.getRequiredHostNodeId(), key.getRequiredHostPort());
 	}
 
+	// CFSecJpaService optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredServiceId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredClusterId
+	 *		@param optionalContainerHost
+	 *		@param optionalParentServiceType
+	 *		@param requiredHostPort
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaService r set r.requiredClusterId = :clusterId, r.optionalContainerHost = :host, r.optionalParentServiceType = :serviceType, r.requiredHostPort = :hostPort, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredServiceId = :serviceId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("serviceId") CFLibDbKeyHash256 requiredServiceId,
+		@Param("revision") int requiredRevision,
+		@Param("clusterId") CFLibDbKeyHash256 requiredClusterId,
+		@Param("host") CFSecJpaHostNode optionalContainerHost,
+		@Param("serviceType") CFSecJpaServiceType optionalParentServiceType,
+		@Param("hostPort") short requiredHostPort,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
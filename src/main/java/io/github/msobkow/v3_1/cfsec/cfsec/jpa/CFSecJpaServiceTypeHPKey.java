@@ -80,11 +80,11 @@ public class CFSecJpaServiceTypeHPKey
 
 	public CFSecJpaServiceTypeHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredServiceTypeId = CFLibDbKeyHash256.fromHex( ICFSecServiceType.SERVICETYPEID_INIT_VALUE.toString() );
+		requiredServiceTypeId = ICFSecServiceType.SERVICETYPEID_INIT_VALUE;
 	}
 
 	@Override
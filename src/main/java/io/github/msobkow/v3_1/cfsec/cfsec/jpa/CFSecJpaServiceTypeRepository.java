@@ -160,4 +160,25 @@ public interface CFSecJpaServiceTypeRepository extends JpaRepository<CFSecJpaSer
 		deleteByUDescrIdx(key.getRequiredDescription());
 	}
 
+	// CFSecJpaServiceType optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredServiceTypeId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredDescription
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaServiceType r set r.requiredDescription = :description, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredServiceTypeId = :serviceTypeId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("serviceTypeId") CFLibDbKeyHash256 requiredServiceTypeId,
+		@Param("revision") int requiredRevision,
+		@Param("description") String requiredDescription,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
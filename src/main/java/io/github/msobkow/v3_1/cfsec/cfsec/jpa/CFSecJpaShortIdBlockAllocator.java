@@ -0,0 +1,150 @@
+// Description: Java 25 JPA hi/lo block allocator for CFSec short id generators
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import io.github.msobkow.v3_1.cflib.*;
+
+/**
+ *	CFSecJpaShortIdBlockAllocator implements hi/lo allocation of short id values.
+ *	Each reservation takes one "hi" value from the backing sequence and turns it into a block of
+ *	blockSize consecutive values, which are then handed out from an in-memory AtomicInteger range.
+ *	Only the thread that exhausts a block goes back to the database; all other callers stay lock-free.
+ */
+public class CFSecJpaShortIdBlockAllocator {
+
+	protected static final class Block {
+		protected final AtomicInteger next;
+		protected final int limit;
+
+		protected Block( int first, int limit ) {
+			this.next = new AtomicInteger( first );
+			this.limit = limit;
+		}
+	}
+
+	protected final String sequenceName;
+	protected final int blockSize;
+	protected volatile Block current;
+	protected volatile boolean sequenceEnsured;
+
+	/**
+	 *	Construct an allocator for the named sequence.
+	 *
+	 *	@param	sequenceName	The unqualified name of the backing database sequence.
+	 *
+	 *	@param	blockSize	The number of values reserved per round trip; must be between 1 and Short.MAX_VALUE.
+	 */
+	public CFSecJpaShortIdBlockAllocator( String sequenceName, int blockSize ) {
+		if( sequenceName == null ) {
+			throw new CFLibNullArgumentException( getClass(), "constructor", 1, "sequenceName" );
+		}
+		if( blockSize < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"constructor",
+				2,
+				"blockSize",
+				blockSize,
+				1 );
+		}
+		if( blockSize > Short.MAX_VALUE ) {
+			throw new CFLibArgumentOverflowException( getClass(),
+				"constructor",
+				2,
+				"blockSize",
+				blockSize,
+				Short.MAX_VALUE );
+		}
+		this.sequenceName = sequenceName;
+		this.blockSize = blockSize;
+		this.current = null;
+		this.sequenceEnsured = false;
+	}
+
+	public String getSequenceName() {
+		return( sequenceName );
+	}
+
+	public int getBlockSize() {
+		return( blockSize );
+	}
+
+	public boolean isSequenceEnsured() {
+		return( sequenceEnsured );
+	}
+
+	public void setSequenceEnsured( boolean value ) {
+		sequenceEnsured = value;
+	}
+
+	/**
+	 *	Hand out the next value, reserving a new block through nextHi when the current block is exhausted.
+	 *
+	 *	@param	nextHi	Supplies the next "hi" value from the backing sequence.
+	 *
+	 *	@return The next short id.
+	 *
+	 *	@throws	CFLibArgumentOverflowException if the sequence has moved past the short range.
+	 */
+	public short next( LongSupplier nextHi ) {
+		final String S_ProcName = "next";
+		for( ;; ) {
+			Block block = current;
+			if( block != null ) {
+				int value = block.next.getAndIncrement();
+				if( value < block.limit ) {
+					return( (short)value );
+				}
+			}
+			synchronized( this ) {
+				if( current == block ) {
+					long hi = nextHi.getAsLong();
+					long first = hi * blockSize;
+					if( hi < 0 || first > Short.MAX_VALUE ) {
+						throw new CFLibArgumentOverflowException( getClass(),
+							S_ProcName,
+							0,
+							sequenceName,
+							(int)Math.min( first, Integer.MAX_VALUE ),
+							Short.MAX_VALUE );
+					}
+					long limit = Math.min( first + blockSize, (long)Short.MAX_VALUE + 1 );
+					current = new Block( (int)first, (int)limit );
+				}
+			}
+		}
+	}
+}
@@ -65,11 +65,16 @@ public class CFSecJpaSysCluster
 	@Id
 	@Column( name="sgltn_id", nullable=false )
 	protected int requiredSingletonId;
+	@Version
 	protected int requiredRevision;
 
 	@ManyToOne(fetch=FetchType.LAZY, optional=false)
 	@JoinColumn( name="sys_clus_id" )
 	protected CFSecJpaCluster requiredContainerCluster;
+	@AttributeOverrides({
+		@AttributeOverride(name="bytes", column = @Column( name="sys_clus_id", nullable=false, length=CFLibDbKeyHash256.HASH_LENGTH, insertable=false, updatable=false ) )
+	})
+	protected CFLibDbKeyHash256 requiredClusterId;
 
 
 	public CFSecJpaSysCluster() {
@@ -92,6 +97,7 @@ public class CFSecJpaSysCluster
 		}
 		else if (argObj instanceof CFSecJpaCluster) {
 			requiredContainerCluster = (CFSecJpaCluster)argObj;
+			requiredClusterId = argObj.getRequiredId();
 		}
 		else {
 			throw new CFLibUnsupportedClassException(getClass(), "setContainerCluster", "argObj", argObj, "CFSecJpaCluster");
@@ -100,6 +106,11 @@ public class CFSecJpaSysCluster
 
 	@Override
 	public void setRequiredContainerCluster(CFLibDbKeyHash256 argClusterId) {
+		CFSecJpaCluster targetRef = CFSecJpaReferenceService.getReference(CFSecJpaCluster.class, argClusterId);
+		if (targetRef != null) {
+			setRequiredContainerCluster(targetRef);
+			return;
+		}
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
 		if (targetBackingSchema == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerCluster", 0, "ICFSecSchema.getBackingCFSec()");
@@ -163,6 +174,9 @@ public class CFSecJpaSysCluster
 
 	@Override
 	public CFLibDbKeyHash256 getRequiredClusterId() {
+		if (requiredClusterId != null) {
+			return( requiredClusterId );
+		}
 		ICFSecCluster result = getRequiredContainerCluster();
 		if (result != null) {
 			return result.getRequiredId();
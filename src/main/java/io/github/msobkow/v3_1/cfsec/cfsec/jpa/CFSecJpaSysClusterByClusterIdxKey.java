@@ -52,7 +52,7 @@ public class CFSecJpaSysClusterByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaSysClusterByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecSysCluster.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecSysCluster.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
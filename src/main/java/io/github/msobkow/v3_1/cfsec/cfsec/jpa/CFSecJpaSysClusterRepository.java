@@ -160,4 +160,23 @@ public interface CFSecJpaSysClusterRepository extends JpaRepository<CFSecJpaSysC
 		deleteByClusterIdx(key.getRequiredClusterId());
 	}
 
+	// CFSecJpaSysCluster optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredSingletonId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredContainerCluster
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaSysCluster r set r.requiredContainerCluster = :cluster, r.requiredRevision = r.requiredRevision + 1 where r.requiredSingletonId = :singletonId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("singletonId") int requiredSingletonId,
+		@Param("revision") int requiredRevision,
+		@Param("cluster") CFSecJpaCluster requiredContainerCluster);
+
 }
@@ -67,19 +67,51 @@ public class CFSecJpaSysClusterService {
 	@Autowired
 	private CFSecJpaSysClusterRepository cfsec31SysClusterRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSysCluster, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaSysCluster create(CFSecJpaSysCluster data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSysCluster, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSysCluster createOrGetExisting(CFSecJpaSysCluster data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaSysCluster, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaSysCluster create(CFSecJpaSysCluster data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		if(data.getRequiredClusterId() == null || data.getRequiredClusterId().isNull()) {
 			throw new CFLibNullArgumentException(getClass(),
 				S_ProcName,
@@ -87,12 +119,20 @@ public class CFSecJpaSysClusterService {
 				"data.requiredClusterId");
 		}
 		try {
-			if(data.getPKey() != null && cfsec31SysClusterRepository.existsById((Integer)data.getPKey())) {
-				return( (CFSecJpaSysCluster)(cfsec31SysClusterRepository.findById((Integer)(data.getPKey())).get()));
+			if(returnExisting && data.getPKey() != null) {
+				Optional<CFSecJpaSysCluster> existing = cfsec31SysClusterRepository.findById((Integer)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31SysClusterRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 			throw new CFLibDbException(getClass(),
 				S_ProcName,
 				ex);
@@ -124,17 +164,24 @@ public class CFSecJpaSysClusterService {
 				0,
 				"data.requiredClusterId");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaSysCluster existing = cfsec31SysClusterRepository.findById((Integer)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// One UPDATE ... WHERE id = ? AND revision = ? instead of read-compare-save
+		int updated = cfsec31SysClusterRepository.updateByIdIdxRevision((Integer)(data.getPKey()),
+			data.getRequiredRevision(),
+			(CFSecJpaCluster)(data.getRequiredContainerCluster()));
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecSysCluster to existing object
-		existing.setRequiredContainerCluster(data.getRequiredContainerCluster());
-		// Apply data columns of CFSecSysCluster to existing object
-		// Save the changes we've made
-		return cfsec31SysClusterRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaSysCluster stored = cfsec31EntityManager.find(CFSecJpaSysCluster.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -52,7 +52,7 @@ public class CFSecJpaTSecGroupByTenantIdxKey
 {
 	protected CFLibDbKeyHash256 requiredTenantId;
 	public CFSecJpaTSecGroupByTenantIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGroup.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGroup.TENANTID_INIT_VALUE;
 	}
 
 	@Override
@@ -53,7 +53,7 @@ public class CFSecJpaTSecGroupByTenantVisIdxKey
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected boolean requiredIsVisible;
 	public CFSecJpaTSecGroupByTenantVisIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGroup.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGroup.TENANTID_INIT_VALUE;
 		requiredIsVisible = ICFSecTSecGroup.ISVISIBLE_INIT_VALUE;
 	}
 
@@ -53,7 +53,7 @@ public class CFSecJpaTSecGroupByUNameIdxKey
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected String requiredName;
 	public CFSecJpaTSecGroupByUNameIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGroup.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGroup.TENANTID_INIT_VALUE;
 		requiredName = ICFSecTSecGroup.NAME_INIT_VALUE;
 	}
 
@@ -80,11 +80,11 @@ public class CFSecJpaTSecGroupHPKey
 
 	public CFSecJpaTSecGroupHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredTSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGroup.TSECGROUPID_INIT_VALUE.toString() );
+		requiredTSecGroupId = ICFSecTSecGroup.TSECGROUPID_INIT_VALUE;
 	}
 
 	@Override
@@ -0,0 +1,370 @@
+// Description: Java 25 JPA tenant-scoped cache of effective CFSec TSecGroup membership
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import jakarta.annotation.PostConstruct;
+import io.github.msobkow.v3_1.cflib.*;
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *	Read-through cache of effective TSecGroup membership keyed by (TenantId, SecUserId), consulted by
+ *	CFSecJpaTSecGrpMembTable.readEffectiveTSecGroupIds.
+ *	<p>
+ *	Entries are held per tenant, so invalidation is tenant-scoped: CFSecJpaTSecGrpMembService drops only the
+ *	(tenant, user) entries a membership change touches, and CFSecJpaTSecGrpIncService drops only the tenant whose
+ *	inclusions changed, leaving every other tenant's entries in place. Each invalidation is repeated once the
+ *	current transaction completes, and bumps the tenant's generation so a load racing with the change cannot
+ *	re-cache the old state.
+ *	<p>
+ *	Memory is bounded by a single weight budget shared by all tenants, where an entry weighs one plus the
+ *	number of groups it holds. When the budget is exceeded, the least recently read entries are evicted
+ *	regardless of tenant until the cache is back to 90% of its budget. Hits, misses, evictions and
+ *	invalidations are counted per tenant. A maximum weight of 0 disables caching.
+ */
+@Service("cfsec31JpaTSecGroupMembershipCache")
+public class CFSecJpaTSecGroupMembershipCache {
+
+	public final static long DEFAULT_MAX_WEIGHT = 1000000;
+
+	protected static final class Entry {
+		protected final Set<CFLibDbKeyHash256> groupIds;
+		protected final int weight;
+		protected volatile long lastReadNanos;
+
+		protected Entry( Set<CFLibDbKeyHash256> groupIds, long now ) {
+			this.groupIds = groupIds;
+			this.weight = 1 + groupIds.size();
+			this.lastReadNanos = now;
+		}
+	}
+
+	protected static final class TenantCache {
+		protected final ConcurrentHashMap<CFLibDbKeyHash256, Entry> entries = new ConcurrentHashMap<>();
+		protected final AtomicLong generation = new AtomicLong();
+		protected final AtomicLong weight = new AtomicLong();
+		protected final LongAdder hitCount = new LongAdder();
+		protected final LongAdder missCount = new LongAdder();
+		protected final LongAdder evictionCount = new LongAdder();
+		protected final LongAdder invalidationCount = new LongAdder();
+	}
+
+	@Autowired
+	@Qualifier("appMergedProperties")
+	private Properties appMergedProperties;
+
+	/**
+	 *	Tenant caches are kept once created, even when emptied, so their generations and counters stay valid.
+	 */
+	private final ConcurrentHashMap<CFLibDbKeyHash256, TenantCache> tenants = new ConcurrentHashMap<>();
+	private final AtomicLong totalWeight = new AtomicLong();
+
+	private volatile long maxWeight = DEFAULT_MAX_WEIGHT;
+
+	/**
+	 *	Size the cache from cfsec31.tsecgroup.membershipcache.maxweight.
+	 */
+	@PostConstruct
+	public void initCache() {
+		final String S_ProcName = "initCache";
+		if (appMergedProperties != null) {
+			maxWeight = Long.parseLong(appMergedProperties.getProperty("cfsec31.tsecgroup.membershipcache.maxweight", Long.toString(DEFAULT_MAX_WEIGHT)).trim());
+		}
+		if (maxWeight < 0) {
+			throw new CFLibArgumentUnderflowException(getClass(), S_ProcName, 0, "cfsec31.tsecgroup.membershipcache.maxweight", (int)Math.max(maxWeight, Integer.MIN_VALUE), 0);
+		}
+	}
+
+	public boolean isEnabled() {
+		return( maxWeight > 0 );
+	}
+
+	public long getMaxWeight() {
+		return( maxWeight );
+	}
+
+	/**
+	 *	@return The combined weight of every cached entry.
+	 */
+	public long getWeight() {
+		return( totalWeight.get() );
+	}
+
+	/**
+	 *	@return The tenants that have been cached, including those whose entries have all been dropped.
+	 */
+	public Set<CFLibDbKeyHash256> getTenantIds() {
+		return( Collections.unmodifiableSet(tenants.keySet()) );
+	}
+
+	public int size(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.entries.size() : 0 );
+	}
+
+	public long getWeight(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.weight.get() : 0L );
+	}
+
+	public long getHitCount(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.hitCount.sum() : 0L );
+	}
+
+	public long getMissCount(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.missCount.sum() : 0L );
+	}
+
+	/**
+	 *	@return The number of the tenant's entries dropped to stay within the weight budget.
+	 */
+	public long getEvictionCount(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.evictionCount.sum() : 0L );
+	}
+
+	/**
+	 *	@return The number of the tenant's entries dropped because their memberships changed.
+	 */
+	public long getInvalidationCount(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		return( (tenant != null) ? tenant.invalidationCount.sum() : 0L );
+	}
+
+	/**
+	 *	@return The fraction of the tenant's lookups answered from the cache, or 0 if it has had none.
+	 */
+	public double getHitRatio(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		if (tenant == null) {
+			return( 0.0 );
+		}
+		long hits = tenant.hitCount.sum();
+		long total = hits + tenant.missCount.sum();
+		return( (total > 0) ? (double)hits / (double)total : 0.0 );
+	}
+
+	/**
+	 *	Look up a user's effective groups within a tenant, loading and caching them on a miss.
+	 *
+	 *		@param	tenantId	The tenant to resolve within.
+	 *		@param	secUserId	The user to resolve.
+	 *		@param	loader	Resolves the effective TSecGroupIds of a (TenantId, SecUserId) from the database.
+	 *
+	 *		@return The unmodifiable set of effective TSecGroupIds.
+	 */
+	public Set<CFLibDbKeyHash256> get(CFLibDbKeyHash256 tenantId,
+		CFLibDbKeyHash256 secUserId,
+		BiFunction<CFLibDbKeyHash256, CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> loader)
+	{
+		final String S_ProcName = "get";
+		if (loader == null) {
+			throw new CFLibNullArgumentException(getClass(), S_ProcName, 3, "loader");
+		}
+		if (tenantId == null || secUserId == null || !isEnabled()) {
+			return( loader.apply(tenantId, secUserId) );
+		}
+		TenantCache tenant = tenants.computeIfAbsent(tenantId, key -> new TenantCache());
+		Entry entry = tenant.entries.get(secUserId);
+		if (entry != null) {
+			entry.lastReadNanos = System.nanoTime();
+			tenant.hitCount.increment();
+			return( entry.groupIds );
+		}
+		tenant.missCount.increment();
+		long generation = tenant.generation.get();
+		Set<CFLibDbKeyHash256> groupIds = loader.apply(tenantId, secUserId);
+		if (tenant.generation.get() == generation) {
+			Entry loaded = new Entry(groupIds, System.nanoTime());
+			put(tenant, secUserId, loaded);
+			if (tenant.generation.get() != generation) {
+				// Invalidated while being stored
+				remove(tenant, secUserId, loaded);
+			}
+		}
+		return( groupIds );
+	}
+
+	/**
+	 *	Drop one user's entry within a tenant, and again once the current transaction completes.
+	 *
+	 *		@param	tenantId	The tenant whose membership changed.
+	 *		@param	secUserId	The user whose membership changed.
+	 */
+	public void invalidate(CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 secUserId) {
+		if (tenantId == null || secUserId == null) {
+			return;
+		}
+		evict(tenantId, secUserId);
+		afterCompletion(() -> evict(tenantId, secUserId));
+	}
+
+	/**
+	 *	Drop one user's entries in every tenant, and again once the current transaction completes,
+	 *	for changes such as deleting all of a user's memberships that do not name a tenant.
+	 *
+	 *		@param	secUserId	The user whose memberships changed.
+	 */
+	public void invalidateUser(CFLibDbKeyHash256 secUserId) {
+		if (secUserId == null) {
+			return;
+		}
+		evictUser(secUserId);
+		afterCompletion(() -> evictUser(secUserId));
+	}
+
+	/**
+	 *	Drop every entry of one tenant, and again once the current transaction completes,
+	 *	for changes such as inclusions that can affect any of the tenant's users.
+	 *
+	 *		@param	tenantId	The tenant whose memberships changed.
+	 */
+	public void invalidateTenant(CFLibDbKeyHash256 tenantId) {
+		if (tenantId == null) {
+			return;
+		}
+		evictTenant(tenantId);
+		afterCompletion(() -> evictTenant(tenantId));
+	}
+
+	/**
+	 *	Drop every entry of every tenant.
+	 */
+	public void invalidateAll() {
+		for (CFLibDbKeyHash256 tenantId : tenants.keySet()) {
+			evictTenant(tenantId);
+		}
+	}
+
+	protected void afterCompletion(Runnable evict) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					evict.run();
+				}
+			});
+		}
+	}
+
+	protected void put(TenantCache tenant, CFLibDbKeyHash256 secUserId, Entry entry) {
+		if (totalWeight.get() + entry.weight > maxWeight) {
+			makeRoom(entry.weight);
+		}
+		Entry prev = tenant.entries.put(secUserId, entry);
+		long delta = entry.weight - ((prev != null) ? prev.weight : 0);
+		tenant.weight.addAndGet(delta);
+		totalWeight.addAndGet(delta);
+	}
+
+	protected boolean remove(TenantCache tenant, CFLibDbKeyHash256 secUserId, Entry entry) {
+		if (!tenant.entries.remove(secUserId, entry)) {
+			return( false );
+		}
+		tenant.weight.addAndGet(-entry.weight);
+		totalWeight.addAndGet(-entry.weight);
+		return( true );
+	}
+
+	protected void evict(CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 secUserId) {
+		TenantCache tenant = tenants.get(tenantId);
+		if (tenant == null) {
+			return;
+		}
+		tenant.generation.incrementAndGet();
+		Entry entry = tenant.entries.get(secUserId);
+		if (entry != null && remove(tenant, secUserId, entry)) {
+			tenant.invalidationCount.increment();
+		}
+	}
+
+	protected void evictUser(CFLibDbKeyHash256 secUserId) {
+		for (CFLibDbKeyHash256 tenantId : tenants.keySet()) {
+			evict(tenantId, secUserId);
+		}
+	}
+
+	protected void evictTenant(CFLibDbKeyHash256 tenantId) {
+		TenantCache tenant = tenants.get(tenantId);
+		if (tenant == null) {
+			return;
+		}
+		tenant.generation.incrementAndGet();
+		for (Map.Entry<CFLibDbKeyHash256, Entry> cur : tenant.entries.entrySet()) {
+			if (remove(tenant, cur.getKey(), cur.getValue())) {
+				tenant.invalidationCount.increment();
+			}
+		}
+	}
+
+	/**
+	 *	Evict the least recently read entries across all tenants until the cache, plus an entry of the
+	 *	given weight, fits in 90% of its budget, so a full cache does not re-sort on every insert.
+	 */
+	protected synchronized void makeRoom(int incomingWeight) {
+		long target = maxWeight - maxWeight / 10 - incomingWeight;
+		if (totalWeight.get() <= target) {
+			return;
+		}
+		// Capture the read times up front, since hits keep updating them while the candidates are sorted
+		record Candidate(TenantCache tenant, CFLibDbKeyHash256 secUserId, Entry entry, long lastReadNanos) {}
+		List<Candidate> candidates = new ArrayList<>();
+		for (TenantCache tenant : tenants.values()) {
+			for (Map.Entry<CFLibDbKeyHash256, Entry> cur : tenant.entries.entrySet()) {
+				candidates.add(new Candidate(tenant, cur.getKey(), cur.getValue(), cur.getValue().lastReadNanos));
+			}
+		}
+		candidates.sort((a, b) -> Long.compare(a.lastReadNanos(), b.lastReadNanos()));
+		for (Candidate victim : candidates) {
+			if (totalWeight.get() <= target) {
+				break;
+			}
+			if (remove(victim.tenant(), victim.secUserId(), victim.entry())) {
+				victim.tenant().evictionCount.increment();
+			}
+		}
+	}
+}
@@ -298,4 +298,29 @@ public interface CFSecJpaTSecGroupRepository extends JpaRepository<CFSecJpaTSecG
 		deleteByUNameIdx(key.getRequiredTenantId(), key.getRequiredName());
 	}
 
+	// CFSecJpaTSecGroup optimistic update methods
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredTSecGroupId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredContainerTenant
+	 *		@param requiredName
+	 *		@param requiredIsVisible
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaTSecGroup r set r.requiredContainerTenant = :tenant, r.requiredName = :name, r.requiredIsVisible = :isVisible, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredTSecGroupId = :tSecGroupId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId,
+		@Param("revision") int requiredRevision,
+		@Param("tenant") CFSecJpaTenant requiredContainerTenant,
+		@Param("name") String requiredName,
+		@Param("isVisible") boolean requiredIsVisible,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
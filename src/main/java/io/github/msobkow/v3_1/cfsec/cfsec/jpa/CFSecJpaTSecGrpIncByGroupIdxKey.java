@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpIncByGroupIdxKey
 {
 	protected CFLibDbKeyHash256 requiredTSecGroupId;
 	public CFSecJpaTSecGrpIncByGroupIdxKey() {
-		requiredTSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.TSECGROUPID_INIT_VALUE.toString() );
+		requiredTSecGroupId = ICFSecTSecGrpInc.TSECGROUPID_INIT_VALUE;
 	}
 
 	@Override
@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpIncByIncludeIdxKey
 {
 	protected CFLibDbKeyHash256 requiredIncludeGroupId;
 	public CFSecJpaTSecGrpIncByIncludeIdxKey() {
-		requiredIncludeGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.INCLUDEGROUPID_INIT_VALUE.toString() );
+		requiredIncludeGroupId = ICFSecTSecGrpInc.INCLUDEGROUPID_INIT_VALUE;
 	}
 
 	@Override
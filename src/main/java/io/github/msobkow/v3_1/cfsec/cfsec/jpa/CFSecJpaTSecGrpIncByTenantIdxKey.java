@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpIncByTenantIdxKey
 {
 	protected CFLibDbKeyHash256 requiredTenantId;
 	public CFSecJpaTSecGrpIncByTenantIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGrpInc.TENANTID_INIT_VALUE;
 	}
 
 	@Override
@@ -54,9 +54,9 @@ public class CFSecJpaTSecGrpIncByUIncludeIdxKey
 	protected CFLibDbKeyHash256 requiredTSecGroupId;
 	protected CFLibDbKeyHash256 requiredIncludeGroupId;
 	public CFSecJpaTSecGrpIncByUIncludeIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.TENANTID_INIT_VALUE.toString() );
-		requiredTSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.TSECGROUPID_INIT_VALUE.toString() );
-		requiredIncludeGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.INCLUDEGROUPID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGrpInc.TENANTID_INIT_VALUE;
+		requiredTSecGroupId = ICFSecTSecGrpInc.TSECGROUPID_INIT_VALUE;
+		requiredIncludeGroupId = ICFSecTSecGrpInc.INCLUDEGROUPID_INIT_VALUE;
 	}
 
 	@Override
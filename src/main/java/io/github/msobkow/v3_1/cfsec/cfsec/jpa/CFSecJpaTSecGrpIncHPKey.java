@@ -80,11 +80,11 @@ public class CFSecJpaTSecGrpIncHPKey
 
 	public CFSecJpaTSecGrpIncHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredTSecGrpIncId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpInc.TSECGRPINCID_INIT_VALUE.toString() );
+		requiredTSecGrpIncId = ICFSecTSecGrpInc.TSECGRPINCID_INIT_VALUE;
 	}
 
 	@Override
@@ -361,4 +361,40 @@ public interface CFSecJpaTSecGrpIncRepository extends JpaRepository<CFSecJpaTSec
 		deleteByUIncludeIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredIncludeGroupId());
 	}
 
+	// CFSecJpaTSecGrpInc optimistic update methods
+
+	/**
+	 *	Read only the cached key columns of an entity, so an update can move its cache entries
+	 *	without loading the whole row.
+	 *
+	 *		@param requiredTSecGrpIncId
+	 *
+	 *		@return One (TenantId, TSecGroupId, IncludeGroupId) row, or an empty list if there is no such entity.
+	 */
+	@Query("select r.requiredTenantId, r.requiredTSecGroupId, r.requiredIncludeGroupId from CFSecJpaTSecGrpInc r where r.requiredTSecGrpIncId = :tSecGrpIncId")
+	List<Object[]> findKeyColumnsByIdIdx(@Param("tSecGrpIncId") CFLibDbKeyHash256 requiredTSecGrpIncId);
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredTSecGrpIncId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredTenantId
+	 *		@param requiredContainerGroup
+	 *		@param requiredParentSubGroup
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaTSecGrpInc r set r.requiredTenantId = :tenantId, r.requiredContainerGroup = :group, r.requiredParentSubGroup = :subGroup, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredTSecGrpIncId = :tSecGrpIncId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("tSecGrpIncId") CFLibDbKeyHash256 requiredTSecGrpIncId,
+		@Param("revision") int requiredRevision,
+		@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
+		@Param("group") CFSecJpaTSecGroup requiredContainerGroup,
+		@Param("subGroup") CFSecJpaTSecGroup requiredParentSubGroup,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -67,19 +67,60 @@ public class CFSecJpaTSecGrpIncService {
 	@Autowired
 	private CFSecJpaTSecGrpIncRepository cfsec31TSecGrpIncRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaTSecGroupMembershipCache cfsec31TSecGroupMembershipCache;
+
+	@Autowired
+	private CFSecJpaGroupInclusionCycleDetector cfsec31GroupInclusionCycleDetector;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpInc, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaTSecGrpInc create(CFSecJpaTSecGrpInc data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpInc, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaTSecGrpInc createOrGetExisting(CFSecJpaTSecGrpInc data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpInc, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaTSecGrpInc create(CFSecJpaTSecGrpInc data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredTSecGrpIncId = data.getRequiredTSecGrpIncId();
 		boolean generatedRequiredTSecGrpIncId = false;
 		if(data.getRequiredTenantId() == null || data.getRequiredTenantId().isNull()) {
@@ -100,20 +141,30 @@ public class CFSecJpaTSecGrpIncService {
 				0,
 				"data.requiredIncludeGroupId");
 		}
+		cfsec31GroupInclusionCycleDetector.verifyTSecGrpInc(data.getRequiredTenantId(), data.getRequiredTSecGroupId(), data.getRequiredIncludeGroupId(), null);
 		try {
 			if (data.getRequiredTSecGrpIncId() == null || data.getRequiredTSecGrpIncId().isNull()) {
-				data.setRequiredTSecGrpIncId(new CFLibDbKeyHash256(0));
+				data.setRequiredTSecGrpIncId(cfsec31IdGenService.generateTSecGrpIncIdGen());
 				generatedRequiredTSecGrpIncId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31TSecGrpIncRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaTSecGrpInc)(cfsec31TSecGrpIncRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredTSecGrpIncId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaTSecGrpInc> existing = cfsec31TSecGrpIncRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31TSecGrpIncRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31TSecGroupMembershipCache.invalidateTenant(data.getRequiredTenantId());
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredTSecGrpIncId) {
 					data.setRequiredTSecGrpIncId(originalRequiredTSecGrpIncId);
 				}
@@ -160,21 +211,46 @@ public class CFSecJpaTSecGrpIncService {
 				0,
 				"data.requiredIncludeGroupId");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaTSecGrpInc existing = cfsec31TSecGrpIncRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// Only the stored key columns are read, to move the caches; the revision is checked by the conditional UPDATE
+		List<Object[]> storedKeys = cfsec31TSecGrpIncRepository.findKeyColumnsByIdIdx((CFLibDbKeyHash256)(data.getPKey()));
+		if (storedKeys.isEmpty()) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecTSecGrpInc to existing object
-		existing.setRequiredOwnerTenant(data.getRequiredOwnerTenant());
-		existing.setRequiredContainerGroup(data.getRequiredContainerGroup());
-		existing.setRequiredParentSubGroup(data.getRequiredParentSubGroup());
-		// Apply data columns of CFSecTSecGrpInc to existing object
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31TSecGrpIncRepository.save(existing);
+		CFLibDbKeyHash256 existingTenantId = (CFLibDbKeyHash256)(storedKeys.get(0)[0]);
+		CFLibDbKeyHash256 existingTSecGroupId = (CFLibDbKeyHash256)(storedKeys.get(0)[1]);
+		CFLibDbKeyHash256 existingIncludeGroupId = (CFLibDbKeyHash256)(storedKeys.get(0)[2]);
+		// Reject a changed inclusion that would close a cycle
+		boolean inclusionChanged = !existingTenantId.equals(data.getRequiredTenantId())
+			|| !existingTSecGroupId.equals(data.getRequiredTSecGroupId())
+			|| !existingIncludeGroupId.equals(data.getRequiredIncludeGroupId());
+		if (inclusionChanged) {
+			cfsec31GroupInclusionCycleDetector.tSecGrpIncRemoved(existingTenantId, existingTSecGroupId, existingIncludeGroupId);
+			cfsec31GroupInclusionCycleDetector.verifyTSecGrpInc(data.getRequiredTenantId(), data.getRequiredTSecGroupId(), data.getRequiredIncludeGroupId(), (CFLibDbKeyHash256)(data.getPKey()));
+		}
+		cfsec31TSecGroupMembershipCache.invalidateTenant(existingTenantId);
+		cfsec31TSecGroupMembershipCache.invalidateTenant(data.getRequiredTenantId());
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31TSecGrpIncRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredTenantId(),
+			(CFSecJpaTSecGroup)(data.getRequiredContainerGroup()),
+			(CFSecJpaTSecGroup)(data.getRequiredParentSubGroup()),
+			now);
+		if (updated == 0) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaTSecGrpInc stored = cfsec31EntityManager.find(CFSecJpaTSecGrpInc.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -428,6 +504,11 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("tSecGrpIncId") CFLibDbKeyHash256 requiredTSecGrpIncId) {
+		Optional<CFSecJpaTSecGrpInc> existing = cfsec31TSecGrpIncRepository.findById(requiredTSecGrpIncId);
+		if (existing.isPresent()) {
+			cfsec31TSecGroupMembershipCache.invalidateTenant(existing.get().getRequiredTenantId());
+			cfsec31GroupInclusionCycleDetector.tSecGrpIncsRemoved(List.of(existing.get()));
+		}
 		cfsec31TSecGrpIncRepository.deleteByIdIdx(requiredTSecGrpIncId);
 	}
 
@@ -438,6 +519,8 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByTenantIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId) {
+		cfsec31TSecGroupMembershipCache.invalidateTenant(requiredTenantId);
+		cfsec31GroupInclusionCycleDetector.invalidateTenant(requiredTenantId);
 		cfsec31TSecGrpIncRepository.deleteByTenantIdx(requiredTenantId);
 	}
 
@@ -448,7 +531,7 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByTenantIdx(ICFSecTSecGrpIncByTenantIdxKey key) {
-		cfsec31TSecGrpIncRepository.deleteByTenantIdx(key.getRequiredTenantId());
+		deleteByTenantIdx(key.getRequiredTenantId());
 	}
 
 	/**
@@ -458,6 +541,9 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId) {
+		List<CFSecJpaTSecGrpInc> existing = cfsec31TSecGrpIncRepository.findByGroupIdx(requiredTSecGroupId);
+		invalidateTenants(existing);
+		cfsec31GroupInclusionCycleDetector.tSecGrpIncsRemoved(existing);
 		cfsec31TSecGrpIncRepository.deleteByGroupIdx(requiredTSecGroupId);
 	}
 
@@ -468,7 +554,7 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(ICFSecTSecGrpIncByGroupIdxKey key) {
-		cfsec31TSecGrpIncRepository.deleteByGroupIdx(key.getRequiredTSecGroupId());
+		deleteByGroupIdx(key.getRequiredTSecGroupId());
 	}
 
 	/**
@@ -478,6 +564,9 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIncludeIdx(@Param("includeGroupId") CFLibDbKeyHash256 requiredIncludeGroupId) {
+		List<CFSecJpaTSecGrpInc> existing = cfsec31TSecGrpIncRepository.findByIncludeIdx(requiredIncludeGroupId);
+		invalidateTenants(existing);
+		cfsec31GroupInclusionCycleDetector.tSecGrpIncsRemoved(existing);
 		cfsec31TSecGrpIncRepository.deleteByIncludeIdx(requiredIncludeGroupId);
 	}
 
@@ -488,7 +577,7 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIncludeIdx(ICFSecTSecGrpIncByIncludeIdxKey key) {
-		cfsec31TSecGrpIncRepository.deleteByIncludeIdx(key.getRequiredIncludeGroupId());
+		deleteByIncludeIdx(key.getRequiredIncludeGroupId());
 	}
 
 	/**
@@ -502,6 +591,13 @@ public class CFSecJpaTSecGrpIncService {
 	public void deleteByUIncludeIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
 		@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId,
 		@Param("includeGroupId") CFLibDbKeyHash256 requiredIncludeGroupId) {
+		cfsec31TSecGroupMembershipCache.invalidateTenant(requiredTenantId);
+		CFSecJpaTSecGrpInc existing = cfsec31TSecGrpIncRepository.findByUIncludeIdx(requiredTenantId,
+			requiredTSecGroupId,
+			requiredIncludeGroupId);
+		if (existing != null) {
+			cfsec31GroupInclusionCycleDetector.tSecGrpIncsRemoved(List.of(existing));
+		}
 		cfsec31TSecGrpIncRepository.deleteByUIncludeIdx(requiredTenantId,
 			requiredTSecGroupId,
 			requiredIncludeGroupId);
@@ -514,7 +610,19 @@ public class CFSecJpaTSecGrpIncService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUIncludeIdx(ICFSecTSecGrpIncByUIncludeIdxKey key) {
-		cfsec31TSecGrpIncRepository.deleteByUIncludeIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredIncludeGroupId());
+		deleteByUIncludeIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredIncludeGroupId());
+	}
+
+	/**
+	 *	Drop the cached effective memberships of each tenant owning one of the inclusions about to be deleted.
+	 */
+	protected void invalidateTenants(List<CFSecJpaTSecGrpInc> existing) {
+		Set<CFLibDbKeyHash256> tenantIds = new HashSet<>();
+		for (CFSecJpaTSecGrpInc cur : existing) {
+			if (tenantIds.add(cur.getRequiredTenantId())) {
+				cfsec31TSecGroupMembershipCache.invalidateTenant(cur.getRequiredTenantId());
+			}
+		}
 	}
 
 }
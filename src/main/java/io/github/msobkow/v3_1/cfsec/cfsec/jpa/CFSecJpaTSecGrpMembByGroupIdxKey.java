@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpMembByGroupIdxKey
 {
 	protected CFLibDbKeyHash256 requiredTSecGroupId;
 	public CFSecJpaTSecGrpMembByGroupIdxKey() {
-		requiredTSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.TSECGROUPID_INIT_VALUE.toString() );
+		requiredTSecGroupId = ICFSecTSecGrpMemb.TSECGROUPID_INIT_VALUE;
 	}
 
 	@Override
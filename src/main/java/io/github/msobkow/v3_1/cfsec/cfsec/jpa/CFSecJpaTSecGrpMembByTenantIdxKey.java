@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpMembByTenantIdxKey
 {
 	protected CFLibDbKeyHash256 requiredTenantId;
 	public CFSecJpaTSecGrpMembByTenantIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGrpMemb.TENANTID_INIT_VALUE;
 	}
 
 	@Override
@@ -54,9 +54,9 @@ public class CFSecJpaTSecGrpMembByUUserIdxKey
 	protected CFLibDbKeyHash256 requiredTSecGroupId;
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaTSecGrpMembByUUserIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.TENANTID_INIT_VALUE.toString() );
-		requiredTSecGroupId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.TSECGROUPID_INIT_VALUE.toString() );
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.SECUSERID_INIT_VALUE.toString() );
+		requiredTenantId = ICFSecTSecGrpMemb.TENANTID_INIT_VALUE;
+		requiredTSecGroupId = ICFSecTSecGrpMemb.TSECGROUPID_INIT_VALUE;
+		requiredSecUserId = ICFSecTSecGrpMemb.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
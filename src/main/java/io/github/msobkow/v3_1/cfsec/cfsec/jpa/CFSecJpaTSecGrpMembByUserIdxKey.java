@@ -52,7 +52,7 @@ public class CFSecJpaTSecGrpMembByUserIdxKey
 {
 	protected CFLibDbKeyHash256 requiredSecUserId;
 	public CFSecJpaTSecGrpMembByUserIdxKey() {
-		requiredSecUserId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.SECUSERID_INIT_VALUE.toString() );
+		requiredSecUserId = ICFSecTSecGrpMemb.SECUSERID_INIT_VALUE;
 	}
 
 	@Override
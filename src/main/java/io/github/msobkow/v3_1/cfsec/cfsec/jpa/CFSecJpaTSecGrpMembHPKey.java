@@ -80,11 +80,11 @@ public class CFSecJpaTSecGrpMembHPKey
 
 	public CFSecJpaTSecGrpMembHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredTSecGrpMembId = CFLibDbKeyHash256.fromHex( ICFSecTSecGrpMemb.TSECGRPMEMBID_INIT_VALUE.toString() );
+		requiredTSecGrpMembId = ICFSecTSecGrpMemb.TSECGRPMEMBID_INIT_VALUE;
 	}
 
 	@Override
@@ -159,6 +159,37 @@ public interface CFSecJpaTSecGrpMembRepository extends JpaRepository<CFSecJpaTSe
 		return( findByUUserIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredSecUserId()));
 	}
 
+	/**
+	 *	Probe for a row using the columns of the CFSecTSecGrpMembByUUserIdxKey as arguments, without instantiating the entity.
+	 *	Only the key columns are referenced, so the database can answer from the TSecGrpMembUUserIdx index alone.
+	 *
+	 *		@param requiredTenantId
+	 *		@param requiredTSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return 1 if the row exists, or null if no such row exists.
+	 */
+	@Query("select 1 from CFSecJpaTSecGrpMemb r where r.requiredTenantId = :tenantId and r.requiredTSecGroupId = :tSecGroupId and r.requiredSecUserId = :secUserId limit 1")
+	Integer probeByUUserIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
+		@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId,
+		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId);
+
+	/**
+	 *	Test for a row using the columns of the CFSecTSecGrpMembByUUserIdxKey as arguments, without instantiating the entity.
+	 *
+	 *		@param requiredTenantId
+	 *		@param requiredTSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return true if the user is a direct member of the group.
+	 */
+	default boolean existsByUUserIdx(CFLibDbKeyHash256 requiredTenantId,
+		CFLibDbKeyHash256 requiredTSecGroupId,
+		CFLibDbKeyHash256 requiredSecUserId)
+	{
+		return( probeByUUserIdx(requiredTenantId, requiredTSecGroupId, requiredSecUserId) != null );
+	}
+
 	// CFSecJpaTSecGrpMemb specified delete-by-index methods
 
 	/**
@@ -361,4 +392,40 @@ public interface CFSecJpaTSecGrpMembRepository extends JpaRepository<CFSecJpaTSe
 		deleteByUUserIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredSecUserId());
 	}
 
+	// CFSecJpaTSecGrpMemb optimistic update methods
+
+	/**
+	 *	Read only the cached key columns of an entity, so an update can move its cache entries
+	 *	without loading the whole row.
+	 *
+	 *		@param requiredTSecGrpMembId
+	 *
+	 *		@return One (TenantId, SecUserId) row, or an empty list if there is no such entity.
+	 */
+	@Query("select r.requiredTenantId, r.requiredSecUserId from CFSecJpaTSecGrpMemb r where r.requiredTSecGrpMembId = :tSecGrpMembId")
+	List<Object[]> findKeyColumnsByIdIdx(@Param("tSecGrpMembId") CFLibDbKeyHash256 requiredTSecGrpMembId);
+
+	/**
+	 *	Apply the data columns and relationships of a detached entity with a single conditional UPDATE,
+	 *	advancing the revision only if the stored revision still matches the one the caller read.
+	 *
+	 *		@param requiredTSecGrpMembId
+	 *		@param requiredRevision The revision the caller expects to replace.
+	 *		@param requiredTenantId
+	 *		@param requiredContainerGroup
+	 *		@param requiredParentUser
+	 *		@param updatedAt The audit timestamp to set.
+	 *
+	 *		@return The number of rows updated; 0 means the entity no longer exists or was changed by another transaction.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update CFSecJpaTSecGrpMemb r set r.requiredTenantId = :tenantId, r.requiredContainerGroup = :group, r.requiredParentUser = :user, r.updatedAt = :updatedAt, r.requiredRevision = r.requiredRevision + 1 where r.requiredTSecGrpMembId = :tSecGrpMembId and r.requiredRevision = :revision")
+	int updateByIdIdxRevision(@Param("tSecGrpMembId") CFLibDbKeyHash256 requiredTSecGrpMembId,
+		@Param("revision") int requiredRevision,
+		@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
+		@Param("group") CFSecJpaTSecGroup requiredContainerGroup,
+		@Param("user") CFSecJpaSecUser requiredParentUser,
+		@Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -67,19 +67,57 @@ public class CFSecJpaTSecGrpMembService {
 	@Autowired
 	private CFSecJpaTSecGrpMembRepository cfsec31TSecGrpMembRepository;
 
+	@PersistenceContext(unitName = CFSecJpaConfig.persistenceUnitName)
+	private EntityManager cfsec31EntityManager;
+
+	@Autowired
+	private CFSecJpaIdGenService cfsec31IdGenService;
+
+	@Autowired
+	private CFSecJpaTSecGroupMembershipCache cfsec31TSecGroupMembershipCache;
+
 	/**
 	 *	Create an entity, generating any database keys required along the way.
+	 *	The entity is persisted with a single INSERT.  Unlike earlier releases, a duplicate primary key is
+	 *	not answered with the stored entity: it raises CFLibDbException and marks the current transaction
+	 *	rollback-only.  Callers relying on the old behaviour must use createOrGetExisting.
 	 *
 	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpMemb, not a subclass.
 	 *
-	 *		@return The updated/created entity.
+	 *		@return The created entity.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public CFSecJpaTSecGrpMemb create(CFSecJpaTSecGrpMemb data) {
+		return( create(data, false) );
+	}
+
+	/**
+	 *	Create an entity, or return the already-stored entity with the same primary key.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpMemb, not a subclass.
+	 *
+	 *		@return The created entity, or the existing entity with the same primary key.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaTSecGrpMemb createOrGetExisting(CFSecJpaTSecGrpMemb data) {
+		return( create(data, true) );
+	}
+
+	/**
+	 *	Create an entity, generating any database keys required along the way.
+	 *
+	 *		@param	data	The entity to be instantiated; must be a specific instance of CFSecJpaTSecGrpMemb, not a subclass.
+	 *		@param	returnExisting	When true, an entity already stored under the same primary key is returned instead of inserting.
+	 *
+	 *		@return The created entity, or the existing entity when returnExisting is set and the key is in use.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED,rollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
+	public CFSecJpaTSecGrpMemb create(CFSecJpaTSecGrpMemb data, boolean returnExisting) {
 		final String S_ProcName = "create";
 		if (data == null) {
 			return( null );
 		}
+		int originalRequiredRevision = data.getRequiredRevision();
 		CFLibDbKeyHash256 originalRequiredTSecGrpMembId = data.getRequiredTSecGrpMembId();
 		boolean generatedRequiredTSecGrpMembId = false;
 		if(data.getRequiredTenantId() == null || data.getRequiredTenantId().isNull()) {
@@ -102,18 +140,27 @@ public class CFSecJpaTSecGrpMembService {
 		}
 		try {
 			if (data.getRequiredTSecGrpMembId() == null || data.getRequiredTSecGrpMembId().isNull()) {
-				data.setRequiredTSecGrpMembId(new CFLibDbKeyHash256(0));
+				data.setRequiredTSecGrpMembId(cfsec31IdGenService.generateTSecGrpMembIdGen());
 				generatedRequiredTSecGrpMembId = true;
 			}
 			LocalDateTime now = LocalDateTime.now();
 			data.setCreatedAt(now);
 			data.setUpdatedAt(now);
-			if(data.getPKey() != null && cfsec31TSecGrpMembRepository.existsById((CFLibDbKeyHash256)data.getPKey())) {
-				return( (CFSecJpaTSecGrpMemb)(cfsec31TSecGrpMembRepository.findById((CFLibDbKeyHash256)(data.getPKey())).get()));
+			if(returnExisting && !(generatedRequiredTSecGrpMembId && cfsec31IdGenService.isGeneratedKeyUnique()) && data.getPKey() != null) {
+				Optional<CFSecJpaTSecGrpMemb> existing = cfsec31TSecGrpMembRepository.findById((CFLibDbKeyHash256)data.getPKey());
+				if (existing.isPresent()) {
+					return( existing.get() );
+				}
 			}
-			return cfsec31TSecGrpMembRepository.save(data);
+			// A revision copied in from another instance would make persist() treat data as detached
+			data.setRequiredRevision(0);
+			cfsec31EntityManager.persist(data);
+			cfsec31EntityManager.flush();
+			cfsec31TSecGroupMembershipCache.invalidate(data.getRequiredTenantId(), data.getRequiredSecUserId());
+			return( data );
 		}
 		catch(Exception ex) {
+			data.setRequiredRevision(originalRequiredRevision);
 				if(generatedRequiredTSecGrpMembId) {
 					data.setRequiredTSecGrpMembId(originalRequiredTSecGrpMembId);
 				}
@@ -160,21 +207,35 @@ public class CFSecJpaTSecGrpMembService {
 				0,
 				"data.requiredSecUserId");
 		}
-		// Ensure the entity exists and that the revision matches
-		CFSecJpaTSecGrpMemb existing = cfsec31TSecGrpMembRepository.findById((CFLibDbKeyHash256)(data.getPKey()))
-			.orElseThrow(() -> new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey()));
-		if (existing.getRequiredRevision() != data.getRequiredRevision()) {
+		if (cfsec31EntityManager.contains(data)) {
+			// Pending changes are applied by the conditional UPDATE below, checked against the caller's revision
+			cfsec31EntityManager.detach(data);
+		}
+		// Only the stored key columns are read, to move the caches; the revision is checked by the conditional UPDATE
+		List<Object[]> storedKeys = cfsec31TSecGrpMembRepository.findKeyColumnsByIdIdx((CFLibDbKeyHash256)(data.getPKey()));
+		if (storedKeys.isEmpty()) {
+			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
+		}
+		cfsec31TSecGroupMembershipCache.invalidate((CFLibDbKeyHash256)(storedKeys.get(0)[0]), (CFLibDbKeyHash256)(storedKeys.get(0)[1]));
+		cfsec31TSecGroupMembershipCache.invalidate(data.getRequiredTenantId(), data.getRequiredSecUserId());
+		LocalDateTime now = LocalDateTime.now();
+		int updated = cfsec31TSecGrpMembRepository.updateByIdIdxRevision((CFLibDbKeyHash256)(data.getPKey()),
+			data.getRequiredRevision(),
+			data.getRequiredTenantId(),
+			(CFSecJpaTSecGroup)(data.getRequiredContainerGroup()),
+			(CFSecJpaSecUser)(data.getRequiredParentUser()),
+			now);
+		if (updated == 0) {
 			throw new CFLibCollisionDetectedException(getClass(), S_ProcName, data.getPKey());
 		}
-		// Apply superior data relationships of CFSecTSecGrpMemb to existing object
-		existing.setRequiredOwnerTenant(data.getRequiredOwnerTenant());
-		existing.setRequiredContainerGroup(data.getRequiredContainerGroup());
-		existing.setRequiredParentUser(data.getRequiredParentUser());
-		// Apply data columns of CFSecTSecGrpMemb to existing object
-		// Update the audit columns
-		data.setUpdatedAt(LocalDateTime.now());
-		// Save the changes we've made
-		return cfsec31TSecGrpMembRepository.save(existing);
+		data.setRequiredRevision(data.getRequiredRevision() + 1);
+		data.setUpdatedAt(now);
+		// Hand back a managed instance as save() did, refreshing a stale copy the persistence context already held
+		CFSecJpaTSecGrpMemb stored = cfsec31EntityManager.find(CFSecJpaTSecGrpMemb.class, data.getPKey());
+		if (stored.getRequiredRevision() != data.getRequiredRevision()) {
+			cfsec31EntityManager.refresh(stored);
+		}
+		return( stored );
 	}
 
 	/**
@@ -303,6 +364,25 @@ public class CFSecJpaTSecGrpMembService {
 		return( cfsec31TSecGrpMembRepository.findByUUserIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredSecUserId()));
 	}
 
+	/**
+	 *	Argument-based existence test on the UUserIdx columns that does not instantiate the entity.
+	 *
+	 *		@param requiredTenantId
+	 *		@param requiredTSecGroupId
+	 *		@param requiredSecUserId
+	 *
+	 *		@return true if the user is a direct member of the group.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true, transactionManager = "cfsec31TransactionManager")
+	public boolean existsByUUserIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
+		@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId,
+		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId)
+	{
+		return( cfsec31TSecGrpMembRepository.existsByUUserIdx(requiredTenantId,
+			requiredTSecGroupId,
+			requiredSecUserId) );
+	}
+
 	// CFSecTSecGrpMemb specified lock-by-index methods
 
 	/**
@@ -428,6 +508,10 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByIdIdx(@Param("tSecGrpMembId") CFLibDbKeyHash256 requiredTSecGrpMembId) {
+		Optional<CFSecJpaTSecGrpMemb> existing = cfsec31TSecGrpMembRepository.findById(requiredTSecGrpMembId);
+		if (existing.isPresent()) {
+			cfsec31TSecGroupMembershipCache.invalidate(existing.get().getRequiredTenantId(), existing.get().getRequiredSecUserId());
+		}
 		cfsec31TSecGrpMembRepository.deleteByIdIdx(requiredTSecGrpMembId);
 	}
 
@@ -438,6 +522,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByTenantIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId) {
+		cfsec31TSecGroupMembershipCache.invalidateTenant(requiredTenantId);
 		cfsec31TSecGrpMembRepository.deleteByTenantIdx(requiredTenantId);
 	}
 
@@ -448,7 +533,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByTenantIdx(ICFSecTSecGrpMembByTenantIdxKey key) {
-		cfsec31TSecGrpMembRepository.deleteByTenantIdx(key.getRequiredTenantId());
+		deleteByTenantIdx(key.getRequiredTenantId());
 	}
 
 	/**
@@ -458,6 +543,9 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId) {
+		for (CFSecJpaTSecGrpMemb existing : cfsec31TSecGrpMembRepository.findByGroupIdx(requiredTSecGroupId)) {
+			cfsec31TSecGroupMembershipCache.invalidate(existing.getRequiredTenantId(), existing.getRequiredSecUserId());
+		}
 		cfsec31TSecGrpMembRepository.deleteByGroupIdx(requiredTSecGroupId);
 	}
 
@@ -468,7 +556,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByGroupIdx(ICFSecTSecGrpMembByGroupIdxKey key) {
-		cfsec31TSecGrpMembRepository.deleteByGroupIdx(key.getRequiredTSecGroupId());
+		deleteByGroupIdx(key.getRequiredTSecGroupId());
 	}
 
 	/**
@@ -478,6 +566,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUserIdx(@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		cfsec31TSecGroupMembershipCache.invalidateUser(requiredSecUserId);
 		cfsec31TSecGrpMembRepository.deleteByUserIdx(requiredSecUserId);
 	}
 
@@ -488,7 +577,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUserIdx(ICFSecTSecGrpMembByUserIdxKey key) {
-		cfsec31TSecGrpMembRepository.deleteByUserIdx(key.getRequiredSecUserId());
+		deleteByUserIdx(key.getRequiredSecUserId());
 	}
 
 	/**
@@ -502,6 +591,7 @@ public class CFSecJpaTSecGrpMembService {
 	public void deleteByUUserIdx(@Param("tenantId") CFLibDbKeyHash256 requiredTenantId,
 		@Param("tSecGroupId") CFLibDbKeyHash256 requiredTSecGroupId,
 		@Param("secUserId") CFLibDbKeyHash256 requiredSecUserId) {
+		cfsec31TSecGroupMembershipCache.invalidate(requiredTenantId, requiredSecUserId);
 		cfsec31TSecGrpMembRepository.deleteByUUserIdx(requiredTenantId,
 			requiredTSecGroupId,
 			requiredSecUserId);
@@ -514,7 +604,7 @@ public class CFSecJpaTSecGrpMembService {
 	 */
 	@Transactional(propagation = Propagation.REQUIRED, noRollbackFor = NoResultException.class, transactionManager = "cfsec31TransactionManager")
 	public void deleteByUUserIdx(ICFSecTSecGrpMembByUUserIdxKey key) {
-		cfsec31TSecGrpMembRepository.deleteByUUserIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredSecUserId());
+		deleteByUUserIdx(key.getRequiredTenantId(), key.getRequiredTSecGroupId(), key.getRequiredSecUserId());
 	}
 
 }
@@ -134,6 +134,12 @@ public class CFSecJpaTSecGrpMembTable implements ICFSecTSecGrpMembTable
 	@Autowired
 	private CFSecJpaTSecGrpMembService tsecgrpmembService;
 
+	@Autowired
+	private CFSecJpaSecGroupClosureService secgroupClosureService;
+
+	@Autowired
+	private CFSecJpaTSecGroupMembershipCache tsecgroupMembershipCache;
+
 
 	public CFSecJpaTSecGrpMembTable(ICFSecSchema schema) {
 		if( schema == null ) {
@@ -498,6 +504,25 @@ public class CFSecJpaTSecGrpMembTable implements ICFSecTSecGrpMembTable
 		return( retset );
 	}
 
+	/**
+	 *	Resolve the TSecGroupIds a user is effectively a member of within a tenant, following
+	 *	TSecGrpInc inclusions transitively, through the tenant-scoped membership cache.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	TenantId	The tenant to resolve within.
+	 *
+	 *	@param	SecUserId	The user to resolve.
+	 *
+	 *	@return The unmodifiable set of effective TSecGroupIds, potentially empty.
+	 */
+	public Set<CFLibDbKeyHash256> readEffectiveTSecGroupIds( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTenantId,
+		CFLibDbKeyHash256 argSecUserId )
+	{
+		return( tsecgroupMembershipCache.get(argTenantId, argSecUserId, secgroupClosureService::resolveEffectiveTSecGroupIds) );
+	}
+
 	/**
 	 *	Read the derived TSecGrpMemb record instance identified by the unique key UUserIdx.
 	 *
@@ -523,6 +548,31 @@ public class CFSecJpaTSecGrpMembTable implements ICFSecTSecGrpMembTable
 		argSecUserId) );
 	}
 
+	/**
+	 *	Test whether a user is a direct member of a TSecGroup with a single existence query on the
+	 *	unique key UUserIdx, without reading the TSecGrpMemb record or its relationships.
+	 *	The arguments are ordered scope, user, group like CFSecJpaSecGrpMembTable.isSecGroupMember, not in UUserIdx column order.
+	 *
+	 *	@param	Authorization	The session authorization information.
+	 *
+	 *	@param	TenantId	The TSecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@param	SecUserId	The TSecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@param	TSecGroupId	The TSecGrpMemb key attribute of the instance to test.
+	 *
+	 *	@return true if such a TSecGrpMemb exists.
+	 */
+	public boolean isDirectMember( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTenantId,
+		CFLibDbKeyHash256 argSecUserId,
+		CFLibDbKeyHash256 argTSecGroupId )
+	{
+		return( tsecgrpmembService.existsByUUserIdx(argTenantId,
+			argTSecGroupId,
+			argSecUserId) );
+	}
+
 	/**
 	 *	Read the specific TSecGrpMemb record instance identified by the primary key.
 	 *
@@ -52,7 +52,7 @@ public class CFSecJpaTenantByClusterIdxKey
 {
 	protected CFLibDbKeyHash256 requiredClusterId;
 	public CFSecJpaTenantByClusterIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecTenant.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecTenant.CLUSTERID_INIT_VALUE;
 	}
 
 	@Override
@@ -53,7 +53,7 @@ public class CFSecJpaTenantByUNameIdxKey
 	protected CFLibDbKeyHash256 requiredClusterId;
 	protected String requiredTenantName;
 	public CFSecJpaTenantByUNameIdxKey() {
-		requiredClusterId = CFLibDbKeyHash256.fromHex( ICFSecTenant.CLUSTERID_INIT_VALUE.toString() );
+		requiredClusterId = ICFSecTenant.CLUSTERID_INIT_VALUE;
 		requiredTenantName = ICFSecTenant.TENANTNAME_INIT_VALUE;
 	}
 
@@ -0,0 +1,146 @@
+// Description: JUnit-driven entity hydration benchmark for the CFSec JPA entities
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+import io.github.msobkow.v3_1.cflib.xml.CFLibXmlUtil;
+import io.github.msobkow.v3_1.cfsec.cfsec.*;
+
+/**
+ *	JUnit-driven hydration benchmark that needs no database.  It builds 100k entities the way
+ *	Hibernate does, a no-arg constructor followed by field assignment from the row, and compares
+ *	this against the same hydration plus the work the constructors used to do: hex-parsing the init
+ *	keys, parsing the SecSession start literal and reading the clock twice.
+ */
+public class CFSecJpaEntityHydrationThroughputTest {
+
+	private static final int ENTITIES = 100000;
+	private static final int ROUNDS = 3;
+
+	private static final CFLibDbKeyHash256 ROW_ID = CFSecJpaKeyHash256Generator.getDefault().nextKey();
+	private static final CFLibDbKeyHash256 ROW_USER_ID = CFSecJpaKeyHash256Generator.getDefault().nextKey();
+	private static final LocalDateTime ROW_STAMP = LocalDateTime.of( 2026, 1, 2, 3, 4, 5 );
+
+	protected static CFSecJpaTenant hydrateTenant( CFSecJpaTenant tenant ) {
+		tenant.requiredId = ROW_ID;
+		tenant.requiredRevision = 1;
+		tenant.requiredClusterId = ROW_ID;
+		tenant.createdByUserId = ROW_USER_ID;
+		tenant.createdAt = ROW_STAMP;
+		tenant.updatedByUserId = ROW_USER_ID;
+		tenant.updatedAt = ROW_STAMP;
+		tenant.requiredTenantName = "tenant";
+		return( tenant );
+	}
+
+	protected static CFSecJpaSecSession hydrateSecSession( CFSecJpaSecSession session ) {
+		session.requiredSecSessionId = ROW_ID;
+		session.requiredRevision = 1;
+		session.requiredSecUserId = ROW_USER_ID;
+		session.optionalSecDevName = "device";
+		session.requiredStart = ROW_STAMP;
+		session.optionalFinish = null;
+		return( session );
+	}
+
+	protected static CFSecJpaTenant legacyTenant() {
+		CFSecJpaTenant tenant = new CFSecJpaTenant();
+		tenant.requiredId = CFLibDbKeyHash256.fromHex( ICFSecTenant.ID_INIT_VALUE.toString() );
+		tenant.createdByUserId = CFLibDbKeyHash256.fromHex( ICFSecTenant.S_INIT_CREATED_BY );
+		tenant.createdAt = LocalDateTime.now();
+		tenant.updatedByUserId = CFLibDbKeyHash256.fromHex( ICFSecTenant.S_INIT_UPDATED_BY );
+		tenant.updatedAt = LocalDateTime.now();
+		return( tenant );
+	}
+
+	protected static CFSecJpaSecSession legacySecSession() {
+		CFSecJpaSecSession session = new CFSecJpaSecSession();
+		session.requiredSecSessionId = CFLibDbKeyHash256.fromHex( ICFSecSecSession.SECSESSIONID_INIT_VALUE.toString() );
+		session.requiredStart = CFLibXmlUtil.parseTimestamp( "2020-01-01T00:00:00" );
+		return( session );
+	}
+
+	/**
+	 *	@return The best of ROUNDS timings, in nanoseconds per entity.
+	 */
+	protected static double nanosPerEntity( Supplier<Object> hydrate ) {
+		int sink = 0;
+		for( int i = 0; i < ENTITIES; i++ ) {
+			sink += System.identityHashCode( hydrate.get() ) & 1;
+		}
+		long best = Long.MAX_VALUE;
+		for( int round = 0; round < ROUNDS; round++ ) {
+			long began = System.nanoTime();
+			for( int i = 0; i < ENTITIES; i++ ) {
+				sink += System.identityHashCode( hydrate.get() ) & 1;
+			}
+			best = Math.min( best, System.nanoTime() - began );
+		}
+		assertTrue( sink >= 0 );
+		return( (double)best / ENTITIES );
+	}
+
+	protected static void compare( String name, Supplier<Object> current, Supplier<Object> legacy ) {
+		double currentNanos = nanosPerEntity( current );
+		double legacyNanos = nanosPerEntity( legacy );
+		System.out.printf( "Hydrating %d %s: %.1f ns each, with the former constructor work: %.1f ns each (%.1fx)%n",
+			ENTITIES, name, currentNanos, legacyNanos, legacyNanos / currentNanos );
+		assertTrue( currentNanos < legacyNanos, "Hydrating " + name + " was not cheaper than with the former constructor work" );
+	}
+
+	@Test
+	public void tenantHydrationSkipsInitParsingAndClockReads() {
+		CFSecJpaTenant probe = new CFSecJpaTenant();
+		assertNull( probe.createdAt );
+		assertNull( probe.updatedAt );
+		compare( "CFSecJpaTenant",
+			() -> hydrateTenant( new CFSecJpaTenant() ),
+			() -> hydrateTenant( legacyTenant() ) );
+	}
+
+	@Test
+	public void secSessionHydrationSkipsInitParsing() {
+		compare( "CFSecJpaSecSession",
+			() -> hydrateSecSession( new CFSecJpaSecSession() ),
+			() -> hydrateSecSession( legacySecSession() ) );
+	}
+}
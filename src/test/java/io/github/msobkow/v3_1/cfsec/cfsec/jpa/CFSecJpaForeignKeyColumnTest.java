@@ -0,0 +1,158 @@
+// Description: JUnit query-count tests for the read-only foreign key id columns
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	Query-count tests for the read-only foreign key id columns that need no database.  Each stub
+ *	parent stands in for an uninitialized lazy proxy and counts the calls that would initialize it,
+ *	that is, the SELECTs a key getter, equals, hashCode, compareTo or getXmlAttrFragment would issue.
+ *	Instances hydrated with their id columns must issue none; transient instances fall back to the parent.
+ */
+public class CFSecJpaForeignKeyColumnTest {
+
+	protected static class CountingSecUser extends CFSecJpaSecUser {
+		protected int loads = 0;
+
+		@Override
+		public CFLibDbKeyHash256 getRequiredSecUserId() {
+			loads++;
+			return( super.getRequiredSecUserId() );
+		}
+	}
+
+	protected static class CountingHostNode extends CFSecJpaHostNode {
+		protected int loads = 0;
+
+		@Override
+		public CFLibDbKeyHash256 getRequiredHostNodeId() {
+			loads++;
+			return( super.getRequiredHostNodeId() );
+		}
+	}
+
+	protected static class CountingServiceType extends CFSecJpaServiceType {
+		protected int loads = 0;
+
+		@Override
+		public CFLibDbKeyHash256 getRequiredServiceTypeId() {
+			loads++;
+			return( super.getRequiredServiceTypeId() );
+		}
+	}
+
+	protected static CountingSecUser newUser() {
+		CountingSecUser user = new CountingSecUser();
+		user.setRequiredSecUserId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		user.loads = 0;
+		return( user );
+	}
+
+	/**
+	 *	Build a session the way Hibernate hydrates one: lazy parents plus their id columns.
+	 */
+	protected static CFSecJpaSecSession hydratedSession( CountingSecUser user, CountingSecUser proxy ) {
+		CFSecJpaSecSession session = new CFSecJpaSecSession();
+		session.setRequiredSecSessionId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		session.setRequiredStart( LocalDateTime.now() );
+		session.requiredContainerSecUser = user;
+		session.requiredSecUserId = user.requiredSecUserId;
+		session.requiredParentSecProxy = proxy;
+		session.requiredSecProxyId = proxy.requiredSecUserId;
+		return( session );
+	}
+
+	@Test
+	public void hydratedSessionDoesNotLoadItsUsers() {
+		CountingSecUser user = newUser();
+		CountingSecUser proxy = newUser();
+		CFSecJpaSecSession session = hydratedSession( user, proxy );
+		CFSecJpaSecSession other = hydratedSession( user, proxy );
+
+		assertEquals( user.requiredSecUserId, session.getRequiredSecUserId() );
+		assertEquals( proxy.requiredSecUserId, session.getOptionalSecProxyId() );
+		session.hashCode();
+		session.equals( other );
+		session.compareTo( other );
+		assertNotNull( session.getXmlAttrFragment() );
+
+		assertEquals( 0, user.loads );
+		assertEquals( 0, proxy.loads );
+	}
+
+	@Test
+	public void transientSessionFallsBackToItsUsers() {
+		CountingSecUser user = newUser();
+		CFSecJpaSecSession session = new CFSecJpaSecSession();
+		session.requiredContainerSecUser = user;
+		assertEquals( user.requiredSecUserId, session.getRequiredSecUserId() );
+		assertEquals( 1, user.loads );
+	}
+
+	@Test
+	public void hydratedServiceDoesNotLoadItsParents() {
+		CountingHostNode host = new CountingHostNode();
+		host.setRequiredHostNodeId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		host.loads = 0;
+		CountingServiceType type = new CountingServiceType();
+		type.setRequiredServiceTypeId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		type.loads = 0;
+
+		CFSecJpaService service = new CFSecJpaService();
+		service.setRequiredServiceId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		service.optionalContainerHost = host;
+		service.optionalHostNodeId = host.getRequiredHostNodeId();
+		service.optionalParentServiceType = type;
+		service.optionalServiceTypeId = type.getRequiredServiceTypeId();
+		host.loads = 0;
+		type.loads = 0;
+
+		assertEquals( service.optionalHostNodeId, service.getRequiredHostNodeId() );
+		assertEquals( service.optionalServiceTypeId, service.getRequiredServiceTypeId() );
+		service.hashCode();
+		service.compareTo( service );
+		assertNotNull( service.getXmlAttrFragment() );
+
+		assertEquals( 0, host.loads );
+		assertEquals( 0, type.loads );
+	}
+}
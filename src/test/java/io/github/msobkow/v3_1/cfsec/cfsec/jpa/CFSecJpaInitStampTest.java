@@ -0,0 +1,136 @@
+// Description: JUnit tests for the deferred entity, history and history key init stamps
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *	Unit tests for the deferred init stamps that need no database: constructing an entity, history
+ *	record or history key reads no clock, the @PrePersist hooks fill in every stamp, and the
+ *	getters, equals, hashCode and compareTo of entities and history keys leave unstamped
+ *	instances unstamped.
+ */
+public class CFSecJpaInitStampTest {
+
+	@Test
+	public void constructionLeavesStampsUnset() {
+		CFSecJpaTenant tenant = new CFSecJpaTenant();
+		assertNull( tenant.createdAt );
+		assertNull( tenant.updatedAt );
+
+		CFSecJpaTenantH history = new CFSecJpaTenantH();
+		assertNull( history.createdAt );
+		assertNull( history.updatedAt );
+		assertNotNull( history.pkey );
+		assertNull( history.pkey.auditStamp );
+	}
+
+	@Test
+	public void prePersistStampsEntity() {
+		CFSecJpaTenant tenant = new CFSecJpaTenant();
+		LocalDateTime before = LocalDateTime.now();
+		tenant.applyInitTimestamps();
+		assertNotNull( tenant.createdAt );
+		assertEquals( tenant.createdAt, tenant.updatedAt );
+		assertFalse( tenant.createdAt.isBefore( before ) );
+	}
+
+	@Test
+	public void prePersistStampsHistoryAndKey() {
+		CFSecJpaTenantH history = new CFSecJpaTenantH();
+		LocalDateTime before = LocalDateTime.now();
+		history.applyInitStamps();
+		assertNotNull( history.createdAt );
+		assertNotNull( history.updatedAt );
+		assertNotNull( history.pkey.auditStamp );
+		assertFalse( history.pkey.auditStamp.isBefore( before ) );
+	}
+
+	@Test
+	public void prePersistKeepsExistingStamps() {
+		LocalDateTime stamp = LocalDateTime.of( 2024, 2, 29, 12, 0 );
+		CFSecJpaTenantH history = new CFSecJpaTenantH();
+		history.pkey.setAuditStamp( stamp );
+		history.setCreatedAt( stamp );
+		history.setUpdatedAt( stamp );
+		history.applyInitStamps();
+		assertEquals( stamp, history.pkey.getAuditStamp() );
+		assertEquals( stamp, history.getCreatedAt() );
+		assertEquals( stamp, history.getUpdatedAt() );
+	}
+
+	@Test
+	public void entityAccessorsDoNotStamp() {
+		CFSecJpaCluster cluster = new CFSecJpaCluster();
+		assertNull( cluster.getCreatedAt() );
+		assertNull( cluster.getUpdatedAt() );
+		assertNull( cluster.createdAt );
+		assertNull( cluster.updatedAt );
+
+		CFSecJpaCluster other = new CFSecJpaCluster();
+		assertEquals( cluster, other );
+		assertEquals( cluster.hashCode(), other.hashCode() );
+		assertEquals( 0, cluster.compareTo( other ) );
+		assertNull( cluster.createdAt );
+		assertNull( other.createdAt );
+
+		other.applyInitTimestamps();
+		assertNotEquals( cluster, other );
+		assertTrue( cluster.compareTo( other ) < 0 );
+		assertNull( cluster.updatedAt );
+	}
+
+	@Test
+	public void historyKeyAccessorsDoNotStamp() {
+		CFSecJpaTenantHPKey key = new CFSecJpaTenantHPKey();
+		assertNull( key.getAuditStamp() );
+		int hash = key.hashCode();
+		assertNull( key.auditStamp );
+		assertEquals( hash, key.hashCode() );
+
+		CFSecJpaTenantHPKey other = new CFSecJpaTenantHPKey();
+		assertEquals( key, other );
+		assertEquals( hash, other.hashCode() );
+		assertEquals( 0, key.compareTo( other ) );
+
+		other.setAuditStamp( LocalDateTime.now() );
+		assertNotEquals( key, other );
+		assertNull( key.getAuditStamp() );
+	}
+}
@@ -0,0 +1,184 @@
+// Description: JUnit concurrency stress tests for CFSecJpaKeyHash256Generator
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	Concurrency stress tests for CFSecJpaKeyHash256Generator.  Many threads draw keys from one
+ *	generator at once, and every key produced must be distinct and the correct length.  Time-ordered
+ *	keys must also sort by their timestamp prefix.
+ */
+public class CFSecJpaKeyHash256GeneratorTest {
+
+	private static final int THREADS = 16;
+	private static final int KEYS_PER_THREAD = 20000;
+
+	protected interface KeySource {
+		byte[] next( CFSecJpaKeyHash256Generator generator );
+	}
+
+	protected static Set<ByteBuffer> drawConcurrently( CFSecJpaKeyHash256Generator generator, KeySource source )
+		throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+		try {
+			CountDownLatch start = new CountDownLatch( 1 );
+			List<Future<List<byte[]>>> futures = new ArrayList<>( THREADS );
+			for( int t = 0; t < THREADS; t++ ) {
+				futures.add( executor.submit( () -> {
+					start.await();
+					List<byte[]> drawn = new ArrayList<>( KEYS_PER_THREAD );
+					for( int i = 0; i < KEYS_PER_THREAD; i++ ) {
+						drawn.add( source.next( generator ) );
+					}
+					return( drawn );
+				} ) );
+			}
+			start.countDown();
+			Set<ByteBuffer> keys = new HashSet<>( THREADS * KEYS_PER_THREAD * 2 );
+			for( Future<List<byte[]>> future : futures ) {
+				for( byte[] bytes : future.get( 2, TimeUnit.MINUTES ) ) {
+					assertEquals( CFLibDbKeyHash256.HASH_LENGTH, bytes.length );
+					assertTrue( keys.add( ByteBuffer.wrap( bytes ) ), "Duplicate key generated" );
+				}
+			}
+			return( keys );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void randomKeysAreUniqueAcrossThreads() throws Exception {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		Set<ByteBuffer> keys = drawConcurrently( generator, ( gen ) -> gen.nextKeyBytes() );
+		assertEquals( THREADS * KEYS_PER_THREAD, keys.size() );
+	}
+
+	@Test
+	public void smallPoolsRefillWithoutRepeating() throws Exception {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( 1 );
+		Set<ByteBuffer> keys = drawConcurrently( generator, ( gen ) -> gen.nextKeyBytes() );
+		assertEquals( THREADS * KEYS_PER_THREAD, keys.size() );
+	}
+
+	@Test
+	public void nodePartitionedKeysAreUniqueAcrossThreads() throws Exception {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		generator.setNodeSlot( 0x1234 );
+		Set<ByteBuffer> keys = drawConcurrently( generator, ( gen ) -> gen.nextKeyBytes() );
+		assertEquals( THREADS * KEYS_PER_THREAD, keys.size() );
+		for( ByteBuffer key : keys ) {
+			assertEquals( 0x12, key.get( 0 ) );
+			assertEquals( 0x34, key.get( 1 ) );
+		}
+	}
+
+	@Test
+	public void sharedDefaultGeneratorIsUniqueAcrossThreads() throws Exception {
+		Set<ByteBuffer> keys = drawConcurrently( CFSecJpaKeyHash256Generator.getDefault(),
+			( gen ) -> CFSecJpaSecGroupClosureService.toBytes( gen.nextKey() ) );
+		assertEquals( THREADS * KEYS_PER_THREAD, keys.size() );
+	}
+
+	@Test
+	public void timeOrderedKeysSortByTimestamp() {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		long epochMillis = 1760000000000L;
+		byte[] prior = null;
+		for( int i = 0; i < 1000; i++ ) {
+			byte[] bytes = generator.nextTimeOrderedKeyBytes( epochMillis + i );
+			assertEquals( CFLibDbKeyHash256.HASH_LENGTH, bytes.length );
+			long prefix = 0L;
+			for( int b = 0; b < CFSecJpaKeyHash256Generator.TIMESTAMP_LENGTH; b++ ) {
+				prefix = ( prefix << 8 ) | ( bytes[ b ] & 0xff );
+			}
+			assertEquals( epochMillis + i, prefix );
+			if( prior != null ) {
+				// The random suffix must never outweigh a later timestamp
+				assertTrue( Arrays.compareUnsigned( prior, bytes ) < 0, "Time-ordered key sorted before its predecessor" );
+			}
+			prior = bytes;
+		}
+	}
+
+	@Test
+	public void timeOrderedKeysAreUniqueWithinOneMillisecond() throws Exception {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		Set<ByteBuffer> keys = drawConcurrently( generator, ( gen ) -> gen.nextTimeOrderedKeyBytes( 1760000000000L ) );
+		assertEquals( THREADS * KEYS_PER_THREAD, keys.size() );
+	}
+
+	@Test
+	public void secSessionKeysFollowTheConfiguredLayout() {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		generator.setSecSessionTimeOrdered( true );
+		long before = System.currentTimeMillis();
+		byte[] bytes = CFSecJpaSecGroupClosureService.toBytes( generator.nextSecSessionKey() );
+		long after = System.currentTimeMillis();
+		long prefix = 0L;
+		for( int b = 0; b < CFSecJpaKeyHash256Generator.TIMESTAMP_LENGTH; b++ ) {
+			prefix = ( prefix << 8 ) | ( bytes[ b ] & 0xff );
+		}
+		assertTrue( prefix >= before && prefix <= after, "SecSession key does not carry the current timestamp" );
+	}
+
+	@Test
+	public void toKeyPreservesBytes() {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		for( int i = 0; i < 1000; i++ ) {
+			byte[] bytes = generator.nextKeyBytes();
+			byte[] expected = bytes.clone();
+			CFLibDbKeyHash256 key = CFSecJpaKeyHash256Generator.toKey( bytes );
+			assertArrayEquals( expected, CFSecJpaSecGroupClosureService.toBytes( key ) );
+		}
+	}
+
+	@Test
+	public void toKeyRejectsBadLengths() {
+		assertThrows( RuntimeException.class, () -> CFSecJpaKeyHash256Generator.toKey( null ) );
+		assertThrows( RuntimeException.class, () -> CFSecJpaKeyHash256Generator.toKey( new byte[ 3 ] ) );
+	}
+}
@@ -0,0 +1,126 @@
+// Description: JUnit throughput comparison of CFSecJpaKeyHash256Generator against a SecureRandom per call
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	JUnit-driven throughput comparison of CFSecJpaKeyHash256Generator against the baseline it replaced,
+ *	a SecureRandom constructed for every key.  Each source is warmed up, then timed drawing keys on one
+ *	thread and on many; the rates are printed and the pooled generator must come out ahead.
+ */
+public class CFSecJpaKeyHash256GeneratorThroughputTest {
+
+	private static final int THREADS = 8;
+	private static final int WARMUP_KEYS = 20000;
+	private static final int TIMED_KEYS = 100000;
+
+	protected interface KeySource {
+		byte[] next();
+	}
+
+	protected static byte[] secureRandomPerCall() {
+		byte[] bytes = new byte[ CFLibDbKeyHash256.HASH_LENGTH ];
+		new SecureRandom().nextBytes( bytes );
+		return( bytes );
+	}
+
+	/**
+	 *	@return Keys drawn per second across all threads.
+	 */
+	protected static double keysPerSecond( int threads, KeySource source )
+		throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			int perThread = TIMED_KEYS / threads;
+			CyclicBarrier warmedUp = new CyclicBarrier( threads + 1 );
+			CountDownLatch start = new CountDownLatch( 1 );
+			List<Future<Integer>> futures = new ArrayList<>( threads );
+			for( int t = 0; t < threads; t++ ) {
+				futures.add( executor.submit( () -> {
+					int sink = 0;
+					for( int i = 0; i < WARMUP_KEYS / threads; i++ ) {
+						sink += source.next()[ 0 ];
+					}
+					warmedUp.await();
+					start.await();
+					for( int i = 0; i < perThread; i++ ) {
+						sink += source.next()[ 0 ];
+					}
+					return( sink );
+				} ) );
+			}
+			warmedUp.await( 2, TimeUnit.MINUTES );
+			long began = System.nanoTime();
+			start.countDown();
+			for( Future<Integer> future : futures ) {
+				future.get( 2, TimeUnit.MINUTES );
+			}
+			long elapsed = Math.max( System.nanoTime() - began, 1L );
+			return( ( (double)perThread * threads ) / ( elapsed / 1.0e9 ) );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	protected static void compare( int threads ) throws Exception {
+		CFSecJpaKeyHash256Generator generator = new CFSecJpaKeyHash256Generator( CFSecJpaKeyHash256Generator.DEFAULT_POOL_KEYS );
+		double baseline = keysPerSecond( threads, CFSecJpaKeyHash256GeneratorThroughputTest::secureRandomPerCall );
+		double pooled = keysPerSecond( threads, generator::nextKeyBytes );
+		System.out.printf( "CFSecJpaKeyHash256Generator on %d thread(s): %.0f keys/s, SecureRandom per call: %.0f keys/s (%.1fx)%n",
+			threads, pooled, baseline, pooled / baseline );
+		assertTrue( pooled > baseline, "Pooled generator was not faster than a SecureRandom per call" );
+	}
+
+	@Test
+	public void pooledGeneratorOutpacesSecureRandomPerCallOnOneThread() throws Exception {
+		compare( 1 );
+	}
+
+	@Test
+	public void pooledGeneratorOutpacesSecureRandomPerCallOnManyThreads() throws Exception {
+		compare( THREADS );
+	}
+}
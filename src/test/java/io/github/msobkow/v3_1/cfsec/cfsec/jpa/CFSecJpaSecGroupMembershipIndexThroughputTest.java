@@ -0,0 +1,159 @@
+// Description: JUnit throughput comparison for CFSecJpaSecGroupMembershipIndex against walking the inclusions
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	JUnit-driven throughput comparison for CFSecJpaSecGroupMembershipIndex that needs no database.
+ *	A cluster-sized snapshot answers effective-membership checks with a bit test; the baseline holds
+ *	the same direct memberships and inclusions in hash maps and walks the inclusions per check, as a
+ *	cache of the raw SecGrpMemb and SecGrpInc rows would have to.  Both must agree on every answer,
+ *	and the snapshot must come out ahead.
+ */
+public class CFSecJpaSecGroupMembershipIndexThroughputTest {
+
+	private static final int GROUP_COUNT = 200;
+	private static final int USER_COUNT = 5000;
+	private static final int GROUPS_PER_USER = 3;
+	private static final int CHECKS = 1000000;
+	private static final int ROUNDS = 3;
+
+	protected static CFLibDbKeyHash256[] newKeys( int count ) {
+		CFLibDbKeyHash256[] keys = new CFLibDbKeyHash256[ count ];
+		for( int idx = 0; idx < count; idx ++ ) {
+			keys[ idx ] = CFSecJpaKeyHash256Generator.getDefault().nextKey();
+		}
+		return( keys );
+	}
+
+	/**
+	 *	Is the user in the group, walking from each of the user's direct groups up through the groups that include it.
+	 */
+	protected static boolean walkIsMember( Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> directGroupsByUser,
+		Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> includersByGroup,
+		CFLibDbKeyHash256 user,
+		CFLibDbKeyHash256 group )
+	{
+		Set<CFLibDbKeyHash256> direct = directGroupsByUser.get( user );
+		if( direct == null ) {
+			return( false );
+		}
+		Set<CFLibDbKeyHash256> seen = new HashSet<>( direct );
+		ArrayDeque<CFLibDbKeyHash256> pending = new ArrayDeque<>( direct );
+		while( ! pending.isEmpty() ) {
+			CFLibDbKeyHash256 cur = pending.poll();
+			if( cur.equals( group ) ) {
+				return( true );
+			}
+			for( CFLibDbKeyHash256 includer : includersByGroup.getOrDefault( cur, Collections.emptySet() ) ) {
+				if( seen.add( includer ) ) {
+					pending.add( includer );
+				}
+			}
+		}
+		return( false );
+	}
+
+	@Test
+	public void snapshotChecksOutpaceWalkingTheInclusions() {
+		Random random = new Random( 31L );
+		CFLibDbKeyHash256[] groups = newKeys( GROUP_COUNT );
+		CFLibDbKeyHash256[] users = newKeys( USER_COUNT );
+		Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> directGroupsByUser = new HashMap<>();
+		Map<CFLibDbKeyHash256, Set<CFLibDbKeyHash256>> includersByGroup = new HashMap<>();
+
+		CFSecJpaSecGroupMembershipIndex.Draft draft = new CFSecJpaSecGroupMembershipIndex.Draft( CFSecJpaSecGroupMembershipIndex.EMPTY_SNAPSHOT );
+		for( CFLibDbKeyHash256 group : groups ) {
+			draft.groupOrdinal( group );
+		}
+		for( CFLibDbKeyHash256 user : users ) {
+			for( int i = 0; i < GROUPS_PER_USER; i ++ ) {
+				CFLibDbKeyHash256 group = groups[ random.nextInt( GROUP_COUNT ) ];
+				draft.setMembership( draft.userOrdinal( user ), draft.groupOrdinal( group ), true );
+				directGroupsByUser.computeIfAbsent( user, key -> new HashSet<>() ).add( group );
+			}
+		}
+		// A forest of inclusions a few levels deep: each group after the first few is included by an earlier one
+		for( int include = 4; include < GROUP_COUNT; include ++ ) {
+			int group = random.nextInt( include );
+			draft.setInclusion( draft.groupOrdinal( groups[ group ] ), draft.groupOrdinal( groups[ include ] ), true );
+			includersByGroup.computeIfAbsent( groups[ include ], key -> new HashSet<>() ).add( groups[ group ] );
+		}
+		draft.deriveInclusions();
+		CFSecJpaSecGroupMembershipIndex.Snapshot snap = draft.publish();
+
+		int[] checkUsers = new int[ CHECKS ];
+		int[] checkGroups = new int[ CHECKS ];
+		for( int i = 0; i < CHECKS; i ++ ) {
+			checkUsers[ i ] = random.nextInt( USER_COUNT );
+			checkGroups[ i ] = random.nextInt( GROUP_COUNT );
+		}
+		for( int i = 0; i < 20000; i ++ ) {
+			assertEquals( walkIsMember( directGroupsByUser, includersByGroup, users[ checkUsers[ i ] ], groups[ checkGroups[ i ] ] ),
+				snap.isMember( users[ checkUsers[ i ] ], groups[ checkGroups[ i ] ] ) );
+		}
+
+		long bestSnapshot = Long.MAX_VALUE;
+		long bestWalk = Long.MAX_VALUE;
+		int hits = 0;
+		for( int round = 0; round < ROUNDS; round ++ ) {
+			long began = System.nanoTime();
+			for( int i = 0; i < CHECKS; i ++ ) {
+				if( snap.isMember( users[ checkUsers[ i ] ], groups[ checkGroups[ i ] ] ) ) {
+					hits ++;
+				}
+			}
+			bestSnapshot = Math.min( bestSnapshot, System.nanoTime() - began );
+			began = System.nanoTime();
+			for( int i = 0; i < CHECKS; i ++ ) {
+				if( walkIsMember( directGroupsByUser, includersByGroup, users[ checkUsers[ i ] ], groups[ checkGroups[ i ] ] ) ) {
+					hits --;
+				}
+			}
+			bestWalk = Math.min( bestWalk, System.nanoTime() - began );
+		}
+		assertEquals( 0, hits );
+		System.out.printf( "Membership checks: snapshot %.1f ns each, walking the inclusions %.1f ns each (%.1fx)%n",
+			(double)bestSnapshot / CHECKS, (double)bestWalk / CHECKS, (double)bestWalk / bestSnapshot );
+		assertTrue( bestSnapshot < bestWalk, "Snapshot membership checks were not faster than walking the inclusions" );
+	}
+}
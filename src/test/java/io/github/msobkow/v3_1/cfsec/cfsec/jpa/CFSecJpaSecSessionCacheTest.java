@@ -0,0 +1,147 @@
+// Description: JUnit tests for the CFSecJpaSecSessionCache snapshot cache
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	Unit tests for CFSecJpaSecSessionCache that need no database: hits are independent copies,
+ *	finished sessions are not cached, a full cache evicts the oldest entries first, and a read-through
+ *	that overlaps an invalidation does not store what it read.
+ */
+public class CFSecJpaSecSessionCacheTest {
+
+	protected static CFSecJpaSecSession newSession( LocalDateTime start ) {
+		CFSecJpaSecSession session = new CFSecJpaSecSession();
+		session.setRequiredSecSessionId( CFSecJpaKeyHash256Generator.getDefault().nextKey() );
+		session.setRequiredStart( start );
+		session.setOptionalSecDevName( "device" );
+		return( session );
+	}
+
+	@Test
+	public void hitsAreIndependentCopies() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		CFSecJpaSecSession session = newSession( LocalDateTime.now() );
+		cache.put( session );
+		session.setOptionalSecDevName( "changed after put" );
+
+		CFSecJpaSecSession first = cache.get( session.getRequiredSecSessionId() );
+		CFSecJpaSecSession second = cache.get( session.getRequiredSecSessionId() );
+		assertNotNull( first );
+		assertNotSame( session, first );
+		assertNotSame( first, second );
+		assertEquals( "device", first.getOptionalSecDevName() );
+
+		first.setOptionalSecDevName( "changed by a reader" );
+		assertEquals( "device", cache.get( session.getRequiredSecSessionId() ).getOptionalSecDevName() );
+		assertEquals( 3, cache.getHitCount() );
+	}
+
+	@Test
+	public void finishedSessionsAreNotCached() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		CFSecJpaSecSession session = newSession( LocalDateTime.now() );
+		cache.put( session );
+		session.setOptionalFinish( LocalDateTime.now() );
+		cache.put( session );
+		assertNull( cache.get( session.getRequiredSecSessionId() ) );
+		assertEquals( 0, cache.size() );
+	}
+
+	@Test
+	public void fullCacheEvictsOldestFirst() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		cache.setMaxSize( 100 );
+		CFSecJpaSecSession[] sessions = new CFSecJpaSecSession[ 250 ];
+		LocalDateTime start = LocalDateTime.now();
+		for( int i = 0; i < sessions.length; i++ ) {
+			sessions[ i ] = newSession( start.plusSeconds( i ) );
+			cache.put( sessions[ i ] );
+			assertTrue( cache.size() <= 100 );
+		}
+		assertNotNull( cache.get( sessions[ sessions.length - 1 ].getRequiredSecSessionId() ) );
+		assertNull( cache.get( sessions[ 0 ].getRequiredSecSessionId() ) );
+		assertTrue( cache.getEvictionCount() >= 150 );
+	}
+
+	@Test
+	public void replacingEntriesDoesNotGrowWithoutBound() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		cache.setMaxSize( 10 );
+		CFSecJpaSecSession session = newSession( LocalDateTime.now() );
+		for( int i = 0; i < 10000; i++ ) {
+			session.setRequiredRevision( i );
+			cache.put( session );
+		}
+		assertEquals( 1, cache.size() );
+		assertEquals( 9999, cache.get( session.getRequiredSecSessionId() ).getRequiredRevision() );
+	}
+
+	@Test
+	public void invalidateIfMatchesSnapshots() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		CFSecJpaSecSession kept = newSession( LocalDateTime.now() );
+		CFSecJpaSecSession dropped = newSession( LocalDateTime.now() );
+		dropped.setOptionalSecDevName( "other" );
+		cache.put( kept );
+		cache.put( dropped );
+		cache.invalidateIf( s -> "other".equals( s.getOptionalSecDevName() ) );
+		assertNotNull( cache.get( kept.getRequiredSecSessionId() ) );
+		assertNull( cache.get( dropped.getRequiredSecSessionId() ) );
+	}
+
+	@Test
+	public void readThroughOverlappingInvalidationIsNotStored() {
+		CFSecJpaSecSessionCache cache = new CFSecJpaSecSessionCache();
+		CFSecJpaSecSession session = newSession( LocalDateTime.now() );
+		// The session is finished and evicted by another transaction while this reader is loading it
+		CFSecJpaSecSession read = cache.get( session.getRequiredSecSessionId(), key -> {
+			cache.invalidate( key );
+			return( session );
+		} );
+		assertSame( session, read );
+		assertEquals( 0, cache.size() );
+
+		assertNotNull( cache.get( session.getRequiredSecSessionId(), key -> session ) );
+		assertEquals( 1, cache.size() );
+	}
+}
@@ -0,0 +1,179 @@
+// Description: JUnit tests for the CFSecJpaSecUserLoginCache authentication projection cache
+
+/*
+ *	io.github.msobkow.CFSec
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFSec - Security Services
+ *	
+ *	This file is part of Mark's Code Fractal CFSec.
+ *	
+ *	Mark's Code Fractal CFSec is available under dual commercial license from
+ *	Mark Stephen Sobkow, or under the terms of the GNU Library General Public License,
+ *	Version 3 or later.
+ *	
+ *	Mark's Code Fractal CFSec is free software: you can redistribute it and/or
+ *	modify it under the terms of the GNU Library General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	Mark's Code Fractal CFSec is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU Library General Public License
+ *	along with Mark's Code Fractal CFSec.  If not, see <https://www.gnu.org/licenses/>.
+ *	
+ *	If you wish to modify and use this code without publishing your changes in order to
+ *	tie it to proprietary code, please contact Mark Stephen Sobkow
+ *	for a commercial license at mark.sobkow@gmail.com
+ *	
+ */
+
+package io.github.msobkow.v3_1.cfsec.cfsec.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.msobkow.v3_1.cflib.dbutil.*;
+
+/**
+ *	Unit tests for CFSecJpaSecUserLoginCache that need no database: the cache holds CFSecJpaSecUserAuth
+ *	projections, answers repeated lookups and unknown logins without the loader, and drops entries
+ *	matched by an invalidation predicate.
+ */
+public class CFSecJpaSecUserLoginCacheTest {
+
+	protected static CFSecJpaSecUserAuth newAuth( String loginId ) {
+		return( new CFSecJpaSecUserAuth( CFSecJpaKeyHash256Generator.getDefault().nextKey(),
+			loginId,
+			"hash:" + loginId,
+			1,
+			null,
+			null ) );
+	}
+
+	@Test
+	public void hitsAreAnsweredWithoutTheLoader() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		CFSecJpaSecUserAuth auth = newAuth( "alice" );
+		AtomicInteger loads = new AtomicInteger();
+		for( int i = 0; i < 5; i++ ) {
+			CFSecJpaSecUserAuth found = cache.get( "alice", loginId -> {
+				loads.incrementAndGet();
+				return( auth );
+			});
+			assertEquals( auth, found );
+		}
+		assertEquals( 1, loads.get() );
+		assertEquals( 1, cache.getMissCount() );
+		assertEquals( 4, cache.getHitCount() );
+	}
+
+	@Test
+	public void unknownLoginsAreCachedAsMisses() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		AtomicInteger loads = new AtomicInteger();
+		for( int i = 0; i < 3; i++ ) {
+			assertNull( cache.get( "nobody", loginId -> {
+				loads.incrementAndGet();
+				return( null );
+			}) );
+		}
+		assertEquals( 1, loads.get() );
+		assertEquals( 2, cache.getNegativeHitCount() );
+	}
+
+	@Test
+	public void invalidateIfDropsMatchingProjectionsAndMisses() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		CFSecJpaSecUserAuth alice = newAuth( "alice" );
+		CFSecJpaSecUserAuth bob = newAuth( "bob" );
+		cache.get( "alice", loginId -> alice );
+		cache.get( "bob", loginId -> bob );
+		cache.get( "nobody", loginId -> null );
+		assertEquals( 3, cache.size() );
+
+		CFLibDbKeyHash256 aliceId = alice.secUserId();
+		cache.invalidateIf( a -> aliceId.equals( a.secUserId() ) );
+		assertEquals( 1, cache.size() );
+		AtomicInteger loads = new AtomicInteger();
+		cache.get( "bob", loginId -> {
+			loads.incrementAndGet();
+			return( bob );
+		});
+		assertEquals( 0, loads.get() );
+	}
+
+	@Test
+	public void fullCacheEvictsOldestFirst() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		cache.setMaxSize( 100 );
+		for( int i = 0; i < 250; i++ ) {
+			CFSecJpaSecUserAuth auth = newAuth( "user" + i );
+			cache.get( auth.loginId(), loginId -> auth );
+			assertTrue( cache.size() <= 100 );
+		}
+		AtomicInteger loads = new AtomicInteger();
+		cache.get( "user249", loginId -> {
+			loads.incrementAndGet();
+			return( null );
+		});
+		assertEquals( 0, loads.get() );
+		cache.get( "user0", loginId -> {
+			loads.incrementAndGet();
+			return( null );
+		});
+		assertEquals( 1, loads.get() );
+		assertTrue( cache.getEvictionCount() >= 150 );
+	}
+
+	@Test
+	public void replacingEntriesDoesNotGrowWithoutBound() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		cache.setMaxSize( 10 );
+		CFSecJpaSecUserAuth auth = newAuth( "dave" );
+		for( int i = 0; i < 10000; i++ ) {
+			cache.invalidate( "dave" );
+			cache.get( "dave", loginId -> auth );
+		}
+		assertEquals( 1, cache.size() );
+	}
+
+	@Test
+	public void nullLoginIdsAreNotCached() {
+		CFSecJpaSecUserLoginCache cache = new CFSecJpaSecUserLoginCache();
+		AtomicInteger loads = new AtomicInteger();
+		CFSecJpaSecUserAuth auth = newAuth( "carol" );
+		cache.get( null, loginId -> {
+			loads.incrementAndGet();
+			return( auth );
+		});
+		cache.get( null, loginId -> {
+			loads.incrementAndGet();
+			return( auth );
+		});
+		assertEquals( 2, loads.get() );
+		assertEquals( 0, cache.size() );
+	}
+
+	@Test
+	public void projectionReportsItsDefaultDevice() {
+		CFSecJpaSecUserAuth none = newAuth( "dave" );
+		assertFalse( none.hasDfltDev() );
+		CFSecJpaSecUserAuth withDev = new CFSecJpaSecUserAuth( none.secUserId(),
+			none.loginId(),
+			none.passwordHash(),
+			none.revision(),
+			none.secUserId(),
+			"laptop" );
+		assertTrue( withDev.hasDfltDev() );
+		assertEquals( "laptop", withDev.dfltDevName() );
+		assertNotEquals( none, withDev );
+	}
+}